@@ -0,0 +1,95 @@
+package de.tum.in.www1.artemis.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import de.tum.in.www1.artemis.service.compass.umlmodel.classdiagram.*;
+
+/**
+ * Benchmarks the similarity calculation of UML class diagrams that is used by the modeling plagiarism detection (see
+ * {@link de.tum.in.www1.artemis.service.plagiarism.ModelingPlagiarismDetectionService}) and the automatic modeling assessment.
+ * The two compared diagrams are similar (like two solutions of the same exercise) and contain 200 model elements each.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ModelingSimilarityBenchmark {
+
+    private static final int NUMBER_OF_CLASSES = 40;
+
+    // every class has 2 attributes and 1 method, there is one relationship per class
+    private static final int NUMBER_OF_ELEMENTS = NUMBER_OF_CLASSES * 5;
+
+    private static final String[] TYPES = { "String", "int", "double", "boolean", "List<String>", "Map<String, Integer>" };
+
+    private UMLClassDiagram diagram;
+
+    private UMLClassDiagram referenceDiagram;
+
+    private UMLClass umlClass;
+
+    private UMLClass referenceClass;
+
+    @Setup
+    public void setUp() {
+        // both diagrams use the same seed, the reference diagram deviates in some names and types
+        diagram = createClassDiagram(1, new Random(42), 0.0);
+        referenceDiagram = createClassDiagram(2, new Random(42), 0.3);
+        umlClass = diagram.getClassList().get(0);
+        referenceClass = referenceDiagram.getClassList().get(0);
+        if (diagram.getAllModelElements().size() != NUMBER_OF_ELEMENTS) {
+            throw new IllegalStateException("Unexpected number of model elements: " + diagram.getAllModelElements().size());
+        }
+    }
+
+    @Benchmark
+    public double diagramSimilarity() {
+        return diagram.similarity(referenceDiagram);
+    }
+
+    @Benchmark
+    public double classSimilarity() {
+        return umlClass.overallSimilarity(referenceClass);
+    }
+
+    private static UMLClassDiagram createClassDiagram(long modelSubmissionId, Random random, double deviation) {
+        Random deviationRandom = new Random(modelSubmissionId);
+        List<UMLClass> classes = new ArrayList<>();
+        for (int i = 0; i < NUMBER_OF_CLASSES; i++) {
+            String className = deviate("Class" + i, deviationRandom, deviation);
+            List<UMLAttribute> attributes = new ArrayList<>();
+            for (int j = 0; j < 2; j++) {
+                String type = TYPES[random.nextInt(TYPES.length)];
+                attributes.add(new UMLAttribute(deviate("attribute" + j, deviationRandom, deviation), type, id(modelSubmissionId, "a", i, j)));
+            }
+            String returnType = TYPES[random.nextInt(TYPES.length)];
+            String methodName = deviate("calculate" + i, deviationRandom, deviation);
+            List<String> parameters = List.of(TYPES[random.nextInt(TYPES.length)]);
+            var method = new UMLMethod(methodName + "(" + parameters.get(0) + "): " + returnType, methodName, returnType, parameters, id(modelSubmissionId, "m", i, 0));
+            var classType = UMLClass.UMLClassType.values()[random.nextInt(UMLClass.UMLClassType.values().length)];
+            classes.add(new UMLClass(className, attributes, List.of(method), id(modelSubmissionId, "c", i, 0), classType));
+        }
+        List<UMLRelationship> relationships = new ArrayList<>();
+        for (int i = 0; i < NUMBER_OF_CLASSES; i++) {
+            var relationshipType = UMLRelationship.UMLRelationshipType.values()[random.nextInt(UMLRelationship.UMLRelationshipType.values().length)];
+            UMLClass target = classes.get(random.nextInt(NUMBER_OF_CLASSES));
+            relationships.add(new UMLRelationship(classes.get(i), target, relationshipType, id(modelSubmissionId, "r", i, 0), "", "", "1", "*"));
+        }
+        return new UMLClassDiagram(modelSubmissionId, classes, relationships, List.of());
+    }
+
+    private static String deviate(String name, Random random, double deviation) {
+        return random.nextDouble() < deviation ? name + "Impl" : name;
+    }
+
+    private static String id(long modelSubmissionId, String type, int index, int subIndex) {
+        return modelSubmissionId + "-" + type + "-" + index + "-" + subIndex;
+    }
+}
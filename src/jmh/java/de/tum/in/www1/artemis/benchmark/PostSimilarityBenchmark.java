@@ -0,0 +1,68 @@
+package de.tum.in.www1.artemis.benchmark;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import de.tum.in.www1.artemis.domain.metis.Post;
+import de.tum.in.www1.artemis.service.metis.similarity.PostSimilarityComparisonStrategy;
+import de.tum.in.www1.artemis.service.metis.similarity.TitleJaccardSimilarityCompareStrategy;
+
+/**
+ * Benchmarks the search for similar posts when a new post is created in a course with thousands of posts, the sorting is done the same way as in
+ * {@link de.tum.in.www1.artemis.service.metis.PostService#getSimilarPosts}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PostSimilarityBenchmark {
+
+    private static final String[] WORDS = { "exercise", "submission", "deadline", "build", "failed", "test", "lecture", "exam", "question", "repository", "error",
+            "assessment", "feedback", "result", "quiz", "modeling", "programming", "git", "push", "task", "hint", "solution", "extension", "grading", "points" };
+
+    @Param({ "1000", "5000" })
+    private int numberOfCoursePosts;
+
+    private final PostSimilarityComparisonStrategy compareStrategy = new TitleJaccardSimilarityCompareStrategy();
+
+    private final List<Post> coursePosts = new ArrayList<>();
+
+    private Post newPost;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        for (int i = 0; i < numberOfCoursePosts; i++) {
+            Post post = createPost(random);
+            post.setId((long) i + 1);
+            coursePosts.add(post);
+        }
+        newPost = createPost(random);
+    }
+
+    @Benchmark
+    public List<Post> sortCoursePostsBySimilarity() {
+        List<Post> posts = new ArrayList<>(coursePosts);
+        posts.sort(Comparator.comparing(coursePost -> compareStrategy.performSimilarityCheck(newPost, coursePost)));
+        return posts;
+    }
+
+    private static Post createPost(Random random) {
+        Post post = new Post();
+        int numberOfWords = 3 + random.nextInt(8);
+        StringBuilder title = new StringBuilder();
+        for (int i = 0; i < numberOfWords; i++) {
+            title.append(i == 0 ? "" : " ").append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        post.setTitle(title.toString());
+        post.setContent("Could someone help me with the " + title + "?");
+        return post;
+    }
+}
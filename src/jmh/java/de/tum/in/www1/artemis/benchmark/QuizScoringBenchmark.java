@@ -0,0 +1,114 @@
+package de.tum.in.www1.artemis.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import de.tum.in.www1.artemis.domain.enumeration.ScoringType;
+import de.tum.in.www1.artemis.domain.quiz.*;
+
+/**
+ * Benchmarks the scoring of the submitted answers of a large quiz (as it happens for every quiz submission when a quiz ends) for all scoring types.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QuizScoringBenchmark {
+
+    private static final int NUMBER_OF_QUESTIONS = 100;
+
+    private static final int ANSWER_OPTIONS_PER_QUESTION = 8;
+
+    private static final int DROP_LOCATIONS_PER_QUESTION = 10;
+
+    @Param({ "ALL_OR_NOTHING", "PROPORTIONAL_WITH_PENALTY", "PROPORTIONAL_WITHOUT_PENALTY" })
+    private ScoringType scoringType;
+
+    private final List<QuizQuestion> questions = new ArrayList<>();
+
+    private final List<SubmittedAnswer> submittedAnswers = new ArrayList<>();
+
+    private long nextId = 1;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        for (int i = 0; i < NUMBER_OF_QUESTIONS; i++) {
+            if (i % 2 == 0) {
+                addMultipleChoiceQuestion(random);
+            }
+            else {
+                addDragAndDropQuestion(random);
+            }
+        }
+    }
+
+    @Benchmark
+    public void scoreQuizSubmission(Blackhole blackhole) {
+        double score = 0.0;
+        for (int i = 0; i < questions.size(); i++) {
+            score += questions.get(i).scoreForAnswer(submittedAnswers.get(i));
+        }
+        blackhole.consume(score);
+    }
+
+    private void addMultipleChoiceQuestion(Random random) {
+        var question = new MultipleChoiceQuestion();
+        initQuestion(question);
+        var submittedAnswer = new MultipleChoiceSubmittedAnswer();
+        List<AnswerOption> answerOptions = new ArrayList<>();
+        for (int i = 0; i < ANSWER_OPTIONS_PER_QUESTION; i++) {
+            var answerOption = new AnswerOption().text("Answer option " + i).isCorrect(random.nextBoolean());
+            answerOption.setId(nextId++);
+            answerOptions.add(answerOption);
+            // students select the correct options most of the time
+            if (answerOption.isIsCorrect() == (random.nextInt(4) != 0)) {
+                submittedAnswer.addSelectedOptions(answerOption);
+            }
+        }
+        question.setAnswerOptions(answerOptions);
+        submittedAnswer.setQuizQuestion(question);
+        questions.add(question);
+        submittedAnswers.add(submittedAnswer);
+    }
+
+    private void addDragAndDropQuestion(Random random) {
+        var question = new DragAndDropQuestion();
+        initQuestion(question);
+        var submittedAnswer = new DragAndDropSubmittedAnswer();
+        List<DragItem> dragItems = new ArrayList<>();
+        for (int i = 0; i < DROP_LOCATIONS_PER_QUESTION; i++) {
+            var dropLocation = new DropLocation();
+            dropLocation.setId(nextId++);
+            question.addDropLocation(dropLocation);
+            var dragItem = new DragItem().text("Drag item " + i);
+            dragItem.setId(nextId++);
+            question.addDragItem(dragItem);
+            dragItems.add(dragItem);
+            question.addCorrectMapping(new DragAndDropMapping().dragItem(dragItem).dropLocation(dropLocation));
+        }
+        for (DropLocation dropLocation : question.getDropLocations()) {
+            // students map most drag items correctly, the others randomly
+            int index = question.getDropLocations().indexOf(dropLocation);
+            DragItem dragItem = random.nextInt(4) != 0 ? dragItems.get(index) : dragItems.get(random.nextInt(dragItems.size()));
+            submittedAnswer.addMappings(new DragAndDropMapping().dragItem(dragItem).dropLocation(dropLocation));
+        }
+        submittedAnswer.setQuizQuestion(question);
+        questions.add(question);
+        submittedAnswers.add(submittedAnswer);
+    }
+
+    private void initQuestion(QuizQuestion question) {
+        question.setId(nextId++);
+        question.setTitle("Question " + question.getId());
+        question.setPoints(4);
+        question.setScoringType(scoringType);
+    }
+}
@@ -0,0 +1,84 @@
+package de.tum.in.www1.artemis.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.*;
+
+import de.tum.in.www1.artemis.service.ZipFileService;
+
+/**
+ * Benchmarks the export of 1,000 student repositories (each with a handful of source files and a git folder) into a zip file on disk.
+ * The auxiliary counter zipBytes reports the size of the written zip file, i.e. the additional disk space needed by the file based export.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ZipExportBenchmark {
+
+    private static final int NUMBER_OF_REPOSITORIES = 1000;
+
+    private static final int FILES_PER_REPOSITORY = 10;
+
+    @Param({ "1", "2", "4" })
+    private int compressionThreads;
+
+    private ZipFileService zipFileService;
+
+    private Path repositoriesPath;
+
+    private Path zipFilePath;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class ZipSize {
+
+        public long zipBytes;
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        zipFileService = new ZipFileService(compressionThreads);
+        Random random = new Random(42);
+        repositoriesPath = Files.createTempDirectory("zip-export-benchmark");
+        for (int repository = 0; repository < NUMBER_OF_REPOSITORIES; repository++) {
+            Path sourcePath = repositoriesPath.resolve("exercise-student" + repository).resolve("src");
+            Files.createDirectories(sourcePath);
+            for (int file = 0; file < FILES_PER_REPOSITORY; file++) {
+                StringBuilder content = new StringBuilder();
+                int numberOfLines = 50 + random.nextInt(200);
+                for (int line = 0; line < numberOfLines; line++) {
+                    content.append("    int value").append(line).append(" = ").append(random.nextInt()).append(";\n");
+                }
+                Files.writeString(sourcePath.resolve("Class" + file + ".java"), "class Class" + file + " {\n" + content + "}\n");
+            }
+            // git objects are already compressed
+            byte[] packContent = new byte[20_000 + random.nextInt(50_000)];
+            random.nextBytes(packContent);
+            Path packPath = repositoriesPath.resolve("exercise-student" + repository).resolve(".git").resolve("objects").resolve("pack");
+            Files.createDirectories(packPath);
+            Files.write(packPath.resolve("pack-" + repository + ".pack"), packContent);
+        }
+        zipFilePath = Files.createTempFile("zip-export-benchmark", ".zip");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        zipFileService.shutdown();
+        FileUtils.deleteDirectory(repositoriesPath.toFile());
+        Files.deleteIfExists(zipFilePath);
+    }
+
+    @Benchmark
+    public void zipToFile(ZipSize zipSize) throws IOException {
+        zipFileService.createZipFileWithFolderContent(zipFilePath, repositoriesPath, null);
+        zipSize.zipBytes = Files.size(zipFilePath);
+    }
+}
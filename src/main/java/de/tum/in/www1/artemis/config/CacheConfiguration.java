@@ -26,6 +26,13 @@ import com.hazelcast.core.Hazelcast;
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.spring.context.SpringManagedContext;
 
+import de.tum.in.www1.artemis.repository.CachedCourseRepositoryImpl;
+import de.tum.in.www1.artemis.repository.CachedUserRepositoryImpl;
+import de.tum.in.www1.artemis.service.CourseDashboardCacheService;
+import de.tum.in.www1.artemis.service.WebsocketSubscriptionAuthorizationCacheService;
+import de.tum.in.www1.artemis.service.exam.ExamScoresCacheService;
+import de.tum.in.www1.artemis.service.exam.ExamSubmissionEligibilityCacheService;
+import de.tum.in.www1.artemis.service.programming.BuildResultQueueService;
 import de.tum.in.www1.artemis.service.scheduled.cache.monitoring.ExamMonitoringScheduleService;
 import de.tum.in.www1.artemis.service.scheduled.cache.quiz.QuizScheduleService;
 import tech.jhipster.config.JHipsterProperties;
@@ -160,6 +167,13 @@ public class CacheConfiguration {
 
         QuizScheduleService.configureHazelcast(config);
         ExamMonitoringScheduleService.configureHazelcast(config);
+        CourseDashboardCacheService.configureHazelcast(config);
+        CachedUserRepositoryImpl.configureHazelcast(config);
+        CachedCourseRepositoryImpl.configureHazelcast(config);
+        BuildResultQueueService.configureHazelcast(config);
+        ExamScoresCacheService.configureHazelcast(config);
+        ExamSubmissionEligibilityCacheService.configureHazelcast(config);
+        WebsocketSubscriptionAuthorizationCacheService.configureHazelcast(config);
         return Hazelcast.newHazelcastInstance(config);
     }
 
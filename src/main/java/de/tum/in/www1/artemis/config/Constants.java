@@ -252,6 +252,10 @@ public final class Constants {
 
     public static final String EXAM_EXERCISE_START_STATUS = "exam-exercise-start-status";
 
+    public static final String PROGRAMMING_EXERCISE_RE_EVALUATION_STATUS = "programming-exercise-re-evaluation-status";
+
+    public static final String BULK_REGISTRATION_STATUS = "bulk-registration-status";
+
     /**
      * Size of an unsigned tinyInt in SQL, that is used in the database
      */
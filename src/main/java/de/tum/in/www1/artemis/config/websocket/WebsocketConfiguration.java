@@ -6,6 +6,7 @@ import static de.tum.in.www1.artemis.web.websocket.team.ParticipationTeamWebsock
 import java.net.InetSocketAddress;
 import java.security.Principal;
 import java.util.*;
+import java.util.function.BooleanSupplier;
 import java.util.regex.Pattern;
 
 import javax.servlet.http.Cookie;
@@ -56,6 +57,8 @@ import de.tum.in.www1.artemis.security.Role;
 import de.tum.in.www1.artemis.security.jwt.JWTFilter;
 import de.tum.in.www1.artemis.security.jwt.TokenProvider;
 import de.tum.in.www1.artemis.service.AuthorizationCheckService;
+import de.tum.in.www1.artemis.service.WebsocketSubscriptionAuthorizationCacheService;
+import de.tum.in.www1.artemis.service.WebsocketSubscriptionAuthorizationCacheService.SubscriptionTopicType;
 import de.tum.in.www1.artemis.validation.InetSocketAddressValidator;
 import de.tum.in.www1.artemis.web.rest.errors.EntityNotFoundException;
 
@@ -85,6 +88,8 @@ public class WebsocketConfiguration extends DelegatingWebSocketMessageBrokerConf
 
     private final ExamRepository examRepository;
 
+    private final WebsocketSubscriptionAuthorizationCacheService subscriptionAuthorizationCacheService;
+
     // Split the addresses by comma
     @Value("#{'${spring.websocket.broker.addresses}'.split(',')}")
     private List<String> brokerAddresses;
@@ -97,7 +102,7 @@ public class WebsocketConfiguration extends DelegatingWebSocketMessageBrokerConf
 
     public WebsocketConfiguration(MappingJackson2HttpMessageConverter springMvcJacksonConverter, TaskScheduler messageBrokerTaskScheduler, TokenProvider tokenProvider,
             StudentParticipationRepository studentParticipationRepository, AuthorizationCheckService authorizationCheckService, ExerciseRepository exerciseRepository,
-            UserRepository userRepository, ExamRepository examRepository) {
+            UserRepository userRepository, ExamRepository examRepository, WebsocketSubscriptionAuthorizationCacheService subscriptionAuthorizationCacheService) {
         this.objectMapper = springMvcJacksonConverter.getObjectMapper();
         this.messageBrokerTaskScheduler = messageBrokerTaskScheduler;
         this.tokenProvider = tokenProvider;
@@ -106,6 +111,7 @@ public class WebsocketConfiguration extends DelegatingWebSocketMessageBrokerConf
         this.exerciseRepository = exerciseRepository;
         this.userRepository = userRepository;
         this.examRepository = examRepository;
+        this.subscriptionAuthorizationCacheService = subscriptionAuthorizationCacheService;
     }
 
     @Override
@@ -260,7 +266,8 @@ public class WebsocketConfiguration extends DelegatingWebSocketMessageBrokerConf
         }
 
         /**
-         * Returns whether the subscription of the given principal to the given destination is permitted
+         * Returns whether the subscription of the given principal to the given destination is permitted.
+         * The decisions for protected topics are cached, see {@link WebsocketSubscriptionAuthorizationCacheService}.
          *
          * @param principal   User principal of the user who wants to subscribe
          * @param destination Destination topic to which the user wants to subscribe
@@ -269,30 +276,41 @@ public class WebsocketConfiguration extends DelegatingWebSocketMessageBrokerConf
         private boolean allowSubscription(Principal principal, String destination) {
             if (isParticipationTeamDestination(destination)) {
                 Long participationId = getParticipationIdFromDestination(destination);
-                return isParticipationOwnedByUser(principal, participationId);
+                return isSubscriptionAllowed(SubscriptionTopicType.PARTICIPATION_TEAM, participationId, principal, () -> isParticipationOwnedByUser(principal, participationId));
             }
             if (isNonPersonalExerciseResultDestination(destination)) {
                 Long exerciseId = getExerciseIdFromNonPersonalExerciseResultDestination(destination);
-
-                // TODO: Is it right that TAs are not allowed to subscribe to exam exercises?
-                Exercise exercise = exerciseRepository.findByIdElseThrow(exerciseId);
-                if (exercise.isExamExercise()) {
-                    return isUserInstructorOrHigherForExercise(principal, exercise);
-                }
-                else {
-                    return isUserTAOrHigherForExercise(principal, exercise);
-                }
+                return isSubscriptionAllowed(SubscriptionTopicType.EXERCISE_RESULT, exerciseId, principal, () -> {
+                    // TODO: Is it right that TAs are not allowed to subscribe to exam exercises?
+                    Exercise exercise = exerciseRepository.findByIdElseThrow(exerciseId);
+                    if (exercise.isExamExercise()) {
+                        return isUserInstructorOrHigherForExercise(principal, exercise);
+                    }
+                    else {
+                        return isUserTAOrHigherForExercise(principal, exercise);
+                    }
+                });
             }
 
             var examId = getExamIdFromExamRootDestination(destination);
             if (examId.isPresent()) {
-                var exam = examRepository.findByIdElseThrow(examId.get());
-                User user = userRepository.getUserWithGroupsAndAuthorities(principal.getName());
-                return authorizationCheckService.isAtLeastInstructorInCourse(exam.getCourse(), user);
+                return isSubscriptionAllowed(SubscriptionTopicType.EXAM, examId.get(), principal, () -> {
+                    var exam = examRepository.findByIdElseThrow(examId.get());
+                    User user = userRepository.getUserWithGroupsAndAuthorities(principal.getName());
+                    return authorizationCheckService.isAtLeastInstructorInCourse(exam.getCourse(), user);
+                });
             }
             return true;
         }
 
+        private boolean isSubscriptionAllowed(SubscriptionTopicType topicType, long entityId, Principal principal, BooleanSupplier decision) {
+            if (principal == null) {
+                // nothing to cache for anonymous subscriptions
+                return decision.getAsBoolean();
+            }
+            return subscriptionAuthorizationCacheService.isSubscriptionAllowed(topicType, entityId, principal.getName(), decision);
+        }
+
         private void logUnauthorizedDestinationAccess(Principal principal, String destination) {
             if (principal == null) {
                 log.warn("Anonymous user tried to access the protected topic: {}", destination);
@@ -45,15 +45,20 @@ public class ConversationParticipant extends DomainObject {
     @Column(name = "last_read")
     private ZonedDateTime lastRead;
 
-    @Column(name = "unread_messages_count")
-    private Long unreadMessagesCount;
+    /**
+     * Read watermark, i.e. the {@link Conversation#getMessageSequence() message sequence} of the conversation when the participant read it the last time.
+     * It is only set when the participant is created, afterwards it is updated with modifying queries.
+     */
+    @Column(name = "last_read_sequence", updatable = false)
+    @JsonIgnore
+    private Long lastReadSequence;
 
-    public Long getUnreadMessagesCount() {
-        return unreadMessagesCount;
+    public Long getLastReadSequence() {
+        return lastReadSequence;
     }
 
-    public void setUnreadMessagesCount(Long unreadMessagesCount) {
-        this.unreadMessagesCount = unreadMessagesCount;
+    public void setLastReadSequence(Long lastReadSequence) {
+        this.lastReadSequence = lastReadSequence;
     }
 
     public Conversation getConversation() {
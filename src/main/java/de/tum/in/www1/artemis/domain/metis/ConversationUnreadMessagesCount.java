@@ -0,0 +1,5 @@
+package de.tum.in.www1.artemis.domain.metis;
+
+// Custom object for sql query
+public record ConversationUnreadMessagesCount(long conversationId, long unreadMessagesCount) {
+}
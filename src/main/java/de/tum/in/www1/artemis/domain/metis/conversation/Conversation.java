@@ -50,6 +50,14 @@ public abstract class Conversation extends DomainObject {
     @Column(name = "last_message_date")
     private ZonedDateTime lastMessageDate;
 
+    /**
+     * Sequence number of the latest message, only incremented by a modifying query when a new message is created. Together with the read watermark
+     * {@link ConversationParticipant#getLastReadSequence()} it determines the number of unread messages of a participant.
+     */
+    @Column(name = "message_sequence", insertable = false, updatable = false)
+    @JsonIgnore
+    private Long messageSequence = 0L;
+
     public Set<ConversationParticipant> getConversationParticipants() {
         return conversationParticipants;
     }
@@ -82,6 +90,10 @@ public abstract class Conversation extends DomainObject {
         this.lastMessageDate = lastMessageDate;
     }
 
+    public Long getMessageSequence() {
+        return messageSequence;
+    }
+
     public User getCreator() {
         return creator;
     }
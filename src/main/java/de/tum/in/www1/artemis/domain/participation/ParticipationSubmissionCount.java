@@ -0,0 +1,5 @@
+package de.tum.in.www1.artemis.domain.participation;
+
+// Custom object for sql query
+public record ParticipationSubmissionCount(long participationId, long submissionCount) {
+}
@@ -56,10 +56,10 @@ public class PlagiarismComparison<E extends PlagiarismSubmissionElement> extends
     private PlagiarismSubmission<E> submissionB;
 
     /**
-     * List of matches between both submissions involved in this comparison.
+     * List of matches between both submissions involved in this comparison. The matches are only loaded for the detailed view of a single comparison.
      */
     @CollectionTable(name = "plagiarism_comparison_matches", joinColumns = @JoinColumn(name = "plagiarism_comparison_id"))
-    @ElementCollection(fetch = FetchType.EAGER)
+    @ElementCollection(fetch = FetchType.LAZY)
     @JoinColumn(name = "plagiarism_comparison_id")
     @OnDelete(action = OnDeleteAction.CASCADE)
     protected Set<PlagiarismMatch> matches;
@@ -193,4 +193,23 @@ public class PlagiarismComparison<E extends PlagiarismSubmissionElement> extends
     public int hashCode() {
         return Objects.hash(super.hashCode(), getSimilarity(), getStatus());
     }
+
+    /**
+     * Columns for which we allow a pageable search. For example see {@see de.tum.in.www1.artemis.service.plagiarism.PlagiarismService#getComparisonsOnPage(long, long, PageableSearchDTO, double, double, PlagiarismStatus)}
+     * method. This ensures, that we can't search in columns that don't exist, or we do not want to be searchable.
+     */
+    public enum PlagiarismComparisonSearchColumn {
+
+        ID("id"), SIMILARITY("similarity"), STATUS("status");
+
+        private final String mappedColumnName;
+
+        PlagiarismComparisonSearchColumn(String mappedColumnName) {
+            this.mappedColumnName = mappedColumnName;
+        }
+
+        public String getMappedColumnName() {
+            return mappedColumnName;
+        }
+    }
 }
@@ -1,9 +1,12 @@
 package de.tum.in.www1.artemis.management;
 
+import java.util.concurrent.TimeUnit;
+
 import org.springframework.stereotype.Service;
 
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 
 @Service
 public class SecurityMetersService {
@@ -16,6 +19,14 @@ public class SecurityMetersService {
 
     public static final String INVALID_TOKENS_METER_CAUSE_DIMENSION = "cause";
 
+    public static final String TOKEN_CACHE_METER_NAME = "security.authentication.token-cache";
+
+    public static final String TOKEN_CACHE_METER_DESCRIPTION = "Indicates whether the authentication of a presented token was found in the cache of verified tokens.";
+
+    public static final String TOKEN_VERIFICATION_METER_NAME = "security.authentication.token-verification";
+
+    public static final String TOKEN_VERIFICATION_METER_DESCRIPTION = "Time needed to parse and verify the signature of tokens that are not cached.";
+
     private final Counter tokenInvalidSignatureCounter;
 
     private final Counter tokenExpiredCounter;
@@ -24,11 +35,20 @@ public class SecurityMetersService {
 
     private final Counter tokenMalformedCounter;
 
+    private final Counter tokenCacheHitCounter;
+
+    private final Counter tokenCacheMissCounter;
+
+    private final Timer tokenVerificationTimer;
+
     public SecurityMetersService(MeterRegistry registry) {
         this.tokenInvalidSignatureCounter = invalidTokensCounterForCauseBuilder("invalid-signature").register(registry);
         this.tokenExpiredCounter = invalidTokensCounterForCauseBuilder("expired").register(registry);
         this.tokenUnsupportedCounter = invalidTokensCounterForCauseBuilder("unsupported").register(registry);
         this.tokenMalformedCounter = invalidTokensCounterForCauseBuilder("malformed").register(registry);
+        this.tokenCacheHitCounter = Counter.builder(TOKEN_CACHE_METER_NAME).description(TOKEN_CACHE_METER_DESCRIPTION).tag("result", "hit").register(registry);
+        this.tokenCacheMissCounter = Counter.builder(TOKEN_CACHE_METER_NAME).description(TOKEN_CACHE_METER_DESCRIPTION).tag("result", "miss").register(registry);
+        this.tokenVerificationTimer = Timer.builder(TOKEN_VERIFICATION_METER_NAME).description(TOKEN_VERIFICATION_METER_DESCRIPTION).register(registry);
     }
 
     private Counter.Builder invalidTokensCounterForCauseBuilder(String cause) {
@@ -51,4 +71,16 @@ public class SecurityMetersService {
     public void trackTokenMalformed() {
         this.tokenMalformedCounter.increment();
     }
+
+    public void trackTokenCacheHit() {
+        this.tokenCacheHitCounter.increment();
+    }
+
+    public void trackTokenCacheMiss() {
+        this.tokenCacheMissCounter.increment();
+    }
+
+    public void trackTokenVerification(long durationNanos) {
+        this.tokenVerificationTimer.record(durationNanos, TimeUnit.NANOSECONDS);
+    }
 }
@@ -0,0 +1,25 @@
+package de.tum.in.www1.artemis.repository;
+
+import java.util.List;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import de.tum.in.www1.artemis.domain.BuildLogEntry;
+
+/**
+ * Repository fragment of {@link BuildLogEntryRepository} that inserts build log entries with JDBC batches.
+ * The ids of build log entries are generated by the database (identity columns), which prevents Hibernate from batching the inserts.
+ * See {@link BatchedBuildLogEntryRepositoryImpl} for details.
+ */
+public interface BatchedBuildLogEntryRepository {
+
+    /**
+     * Inserts the given new build log entries (without an association to a programming submission) using JDBC batches
+     * and sets the generated ids on the given objects.
+     * Note: the entries are not attached to the persistence context
+     *
+     * @param buildLogEntries the new build log entries that should be inserted, they must not have an id yet
+     */
+    @Transactional // ok because of batch insert
+    void insertAllInBatches(List<BuildLogEntry> buildLogEntries);
+}
@@ -0,0 +1,68 @@
+package de.tum.in.www1.artemis.repository;
+
+import java.sql.*;
+import java.util.Calendar;
+import java.util.List;
+import java.util.TimeZone;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import de.tum.in.www1.artemis.domain.BuildLogEntry;
+
+/**
+ * Implementation of the {@link BatchedBuildLogEntryRepository} fragment.
+ * <p>
+ * Long Gradle or Swift build logs easily contain hundreds of entries. Instead of one insert (and one round trip) per entry,
+ * the entries are sent in JDBC batches and the generated ids are read afterwards.
+ * Note: MySQL only combines the batches into multi-row inserts if {@code rewriteBatchedStatements=true} is part of the datasource url.
+ */
+public class BatchedBuildLogEntryRepositoryImpl implements BatchedBuildLogEntryRepository {
+
+    private static final String INSERT_BUILD_LOG_ENTRY = "INSERT INTO build_log_entry (time, log) VALUES (?, ?)";
+
+    private static final int BATCH_SIZE = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BatchedBuildLogEntryRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertAllInBatches(List<BuildLogEntry> buildLogEntries) {
+        if (buildLogEntries.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            // same as hibernate.jdbc.time_zone
+            var utcCalendar = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_BUILD_LOG_ENTRY, new String[] { "id" })) {
+                for (int batchStart = 0; batchStart < buildLogEntries.size(); batchStart += BATCH_SIZE) {
+                    var batch = buildLogEntries.subList(batchStart, Math.min(batchStart + BATCH_SIZE, buildLogEntries.size()));
+                    for (BuildLogEntry buildLogEntry : batch) {
+                        if (buildLogEntry.getTime() != null) {
+                            statement.setTimestamp(1, Timestamp.from(buildLogEntry.getTime().toInstant()), utcCalendar);
+                        }
+                        else {
+                            statement.setNull(1, Types.TIMESTAMP);
+                        }
+                        statement.setString(2, buildLogEntry.getLog());
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+
+                    try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+                        for (BuildLogEntry buildLogEntry : batch) {
+                            if (!generatedKeys.next()) {
+                                throw new SQLException("The database did not return the generated ids of all inserted build log entries");
+                            }
+                            buildLogEntry.setId(generatedKeys.getLong(1));
+                        }
+                    }
+                }
+            }
+            return null;
+        });
+    }
+}
@@ -1,7 +1,11 @@
 package de.tum.in.www1.artemis.repository;
 
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -11,7 +15,23 @@ import de.tum.in.www1.artemis.domain.BuildLogEntry;
  * Spring Data JPA repository for the BuildLogEntry entity.
  */
 @Repository
-public interface BuildLogEntryRepository extends JpaRepository<BuildLogEntry, Long> {
+public interface BuildLogEntryRepository extends JpaRepository<BuildLogEntry, Long>, BatchedBuildLogEntryRepository {
+
+    /**
+     * Loads the build log entries of a programming submission in the order in which they are stored in the submission,
+     * without loading the submission together with all of its build log entries.
+     *
+     * @param programmingSubmissionId the id of the programming submission
+     * @return the ordered build log entries of the submission
+     */
+    @Query("""
+            SELECT b
+            FROM ProgrammingSubmission s
+                JOIN s.buildLogEntries b
+            WHERE s.id = :programmingSubmissionId
+            ORDER BY INDEX(b)
+            """)
+    List<BuildLogEntry> findAllByProgrammingSubmissionIdOrdered(@Param("programmingSubmissionId") long programmingSubmissionId);
 
     @Transactional // ok because of delete
     @Modifying
@@ -0,0 +1,35 @@
+package de.tum.in.www1.artemis.repository;
+
+import javax.validation.constraints.NotNull;
+
+import de.tum.in.www1.artemis.domain.Course;
+import de.tum.in.www1.artemis.web.rest.errors.EntityNotFoundException;
+
+/**
+ * Repository fragment of {@link CourseRepository} that resolves courses with their exercises through a cache.
+ * The result of {@link CourseRepository#findWithEagerExercisesById(long)} is stored in a cluster-wide cache (keyed by course id, with a near cache on every instance),
+ * so that the read-only views of a course structure (e.g. the assessment dashboard or the score charts) do not need database queries. See
+ * {@link CachedCourseRepositoryImpl} for details.
+ */
+public interface CachedCourseRepository {
+
+    /**
+     * Get the course with its exercises (including their categories and team assignment configs).
+     * Note: the course is cached, it is therefore detached from the current persistence context and must only be used for reading. Use
+     * {@link CourseRepository#findByIdWithEagerExercisesElseThrow(long)} if the course should be modified.
+     *
+     * @param courseId the id of the course
+     * @return the course with eagerly loaded exercises
+     * @throws EntityNotFoundException if no course with the given id exists
+     */
+    @NotNull
+    Course getCourseWithExercises(long courseId) throws EntityNotFoundException;
+
+    /**
+     * Removes the course with the given id from the cache (cluster-wide).
+     * This has to be invoked whenever the course or its exercises change without Hibernate noticing it (e.g. with modifying queries).
+     *
+     * @param courseId the id of the course
+     */
+    void evictCourseWithExercises(long courseId);
+}
@@ -0,0 +1,173 @@
+package de.tum.in.www1.artemis.repository;
+
+import java.util.Optional;
+import java.util.Set;
+
+import javax.persistence.EntityManagerFactory;
+import javax.validation.constraints.NotNull;
+
+import org.hibernate.event.spi.*;
+import org.hibernate.proxy.HibernateProxy;
+import org.springframework.context.annotation.Lazy;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+
+import de.tum.in.www1.artemis.domain.*;
+import de.tum.in.www1.artemis.service.util.CacheEvictionEventListener;
+import de.tum.in.www1.artemis.web.rest.errors.EntityNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Implementation of the {@link CachedCourseRepository} fragment.
+ * <p>
+ * Courses with exercises are stored in a distributed Hazelcast map keyed by course id with a near cache on every instance, so that repeated lookups neither query the
+ * database nor need network hops. The near cache stores the values in binary format, so every read returns a new copy that callers can filter (e.g. the exercises
+ * shown on the assessment dashboard) without affecting other requests.
+ * <p>
+ * Entries are invalidated by Hibernate events whenever a course, one of its exercises, their categories or their team assignment configs change. The time to live only
+ * limits the staleness after changes that Hibernate does not notice (e.g. modifying queries).
+ * <p>
+ * Courses loaded from the database are only kept in the cache if the course has not been evicted while it was loading, see {@link CacheEvictionEventListener}.
+ */
+public class CachedCourseRepositoryImpl extends CacheEvictionEventListener implements CachedCourseRepository, PostInsertEventListener, PostUpdateEventListener,
+        PostDeleteEventListener, PostCollectionRecreateEventListener, PostCollectionUpdateEventListener, PostCollectionRemoveEventListener {
+
+    private static final String COURSES_WITH_EXERCISES_MAP = "coursesWithExercises";
+
+    private static final int COURSES_WITH_EXERCISES_TIME_TO_LIVE_SECONDS = 5 * 60;
+
+    private static final String METRIC_NAME = "artemis.course.cache.lookups";
+
+    private static final String METRIC_DESCRIPTION = "Number of lookups of courses with exercises, by the layer that served the lookup";
+
+    private final CourseRepository courseRepository;
+
+    private final IMap<Long, Course> coursesWithExercises;
+
+    private final Counter hitCounter;
+
+    private final Counter missCounter;
+
+    public CachedCourseRepositoryImpl(@Lazy CourseRepository courseRepository, HazelcastInstance hazelcastInstance, EntityManagerFactory entityManagerFactory,
+            MeterRegistry meterRegistry) {
+        super(hazelcastInstance, COURSES_WITH_EXERCISES_MAP);
+        this.courseRepository = courseRepository;
+        this.coursesWithExercises = hazelcastInstance.getMap(COURSES_WITH_EXERCISES_MAP);
+
+        this.hitCounter = Counter.builder(METRIC_NAME).description(METRIC_DESCRIPTION).tag("layer", "cache").register(meterRegistry);
+        this.missCounter = Counter.builder(METRIC_NAME).description(METRIC_DESCRIPTION).tag("layer", "database").register(meterRegistry);
+        Gauge.builder("artemis.course.cache.near.hit.ratio", coursesWithExercises, map -> map.getLocalMapStats().getNearCacheStats().getRatio())
+                .description("Hit ratio of the local near cache of courses with exercises").register(meterRegistry);
+
+        registerEventListeners(entityManagerFactory);
+    }
+
+    /**
+     * Configures the Hazelcast maps of the cached courses: limited time to live and a near cache in binary format, so that every read returns a new copy.
+     *
+     * @param config the Hazelcast config that should be adapted
+     */
+    public static void configureHazelcast(Config config) {
+        config.getMapConfig(COURSES_WITH_EXERCISES_MAP).setTimeToLiveSeconds(COURSES_WITH_EXERCISES_TIME_TO_LIVE_SECONDS)
+                .setNearCacheConfig(new NearCacheConfig(COURSES_WITH_EXERCISES_MAP).setInMemoryFormat(InMemoryFormat.BINARY).setInvalidateOnChange(true)
+                        .setTimeToLiveSeconds(COURSES_WITH_EXERCISES_TIME_TO_LIVE_SECONDS));
+        configureEvictionCounters(config, COURSES_WITH_EXERCISES_MAP);
+    }
+
+    @NotNull
+    @Override
+    public Course getCourseWithExercises(long courseId) throws EntityNotFoundException {
+        Course course = coursesWithExercises.get(courseId);
+        if (course != null) {
+            hitCounter.increment();
+            return course;
+        }
+        missCounter.increment();
+        return loadAndCache(coursesWithExercises, courseId, Set.of(String.valueOf(courseId)), () -> courseRepository.findByIdWithEagerExercisesElseThrow(courseId));
+    }
+
+    @Override
+    public void evictCourseWithExercises(long courseId) {
+        evictNowAndAfterCommit(String.valueOf(courseId), () -> coursesWithExercises.delete(courseId));
+    }
+
+    private void evictAllCoursesWithExercises() {
+        evictNowAndAfterCommit(ALL_ENTRIES, coursesWithExercises::clear);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        evictForEntity(event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        evictForEntity(event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        evictForEntity(event.getEntity());
+    }
+
+    @Override
+    public void onPostRecreateCollection(PostCollectionRecreateEvent event) {
+        evictForCollectionOwner(event.getAffectedOwnerOrNull());
+    }
+
+    @Override
+    public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+        evictForCollectionOwner(event.getAffectedOwnerOrNull());
+    }
+
+    @Override
+    public void onPostRemoveCollection(PostCollectionRemoveEvent event) {
+        evictForCollectionOwner(event.getAffectedOwnerOrNull());
+    }
+
+    private void evictForCollectionOwner(Object owner) {
+        // the exercise categories are an element collection of the exercise
+        if (owner instanceof Exercise) {
+            evictForEntity(owner);
+        }
+    }
+
+    private void evictForEntity(Object entity) {
+        if (entity instanceof Course course && course.getId() != null) {
+            evictCourseWithExercises(course.getId());
+        }
+        else if (entity instanceof Exercise exercise) {
+            // exam exercises are not part of the course with exercises
+            getIdWithoutInitializing(exercise.getCourse()).ifPresent(this::evictCourseWithExercises);
+        }
+        else if (entity instanceof TeamAssignmentConfig teamAssignmentConfig && teamAssignmentConfig.getExercise() != null) {
+            Exercise exercise = teamAssignmentConfig.getExercise();
+            if (exercise instanceof HibernateProxy proxy && proxy.getHibernateLazyInitializer().isUninitialized()) {
+                // we do not know the course without initializing the exercise, which is not possible during a flush
+                evictAllCoursesWithExercises();
+            }
+            else {
+                getIdWithoutInitializing(exercise.getCourse()).ifPresent(this::evictCourseWithExercises);
+            }
+        }
+    }
+
+    /**
+     * Gets the id of the given entity without initializing it in case it is a Hibernate proxy
+     *
+     * @param entity the (potentially proxied) entity, might be null
+     * @return the id of the entity or an empty optional if the entity or its id is null
+     */
+    private static Optional<Long> getIdWithoutInitializing(DomainObject entity) {
+        if (entity instanceof HibernateProxy proxy) {
+            return Optional.ofNullable((Long) proxy.getHibernateLazyInitializer().getIdentifier());
+        }
+        return Optional.ofNullable(entity).map(DomainObject::getId);
+    }
+}
@@ -0,0 +1,48 @@
+package de.tum.in.www1.artemis.repository;
+
+import javax.validation.constraints.NotNull;
+
+import de.tum.in.www1.artemis.domain.User;
+
+/**
+ * Repository fragment of {@link UserRepository} that resolves users with groups and authorities through a cache.
+ * Within one HTTP request, the user is only resolved once. Across requests and instances, a short-lived cluster-wide cache (keyed by login, with a near cache on every
+ * instance) avoids database queries. See {@link CachedUserRepositoryImpl} for details.
+ */
+public interface CachedUserRepository {
+
+    /**
+     * Get user with user groups and authorities of currently logged-in user
+     * Note: the user is cached for a short time, it might therefore be detached from the current persistence context
+     *
+     * @return currently logged-in user
+     */
+    @NotNull
+    User getUserWithGroupsAndAuthorities();
+
+    /**
+     * Get user with user groups and authorities with the username (i.e. user.getLogin() or principal.getName())
+     * Note: the user is cached for a short time, it might therefore be detached from the current persistence context
+     *
+     * @param username the username of the user who should be retrieved from the database
+     * @return the user that belongs to the given principal with eagerly loaded groups and authorities
+     */
+    @NotNull
+    User getUserWithGroupsAndAuthorities(@NotNull String username);
+
+    /**
+     * Removes the user with the given login from the cache (cluster-wide and for the current request).
+     * This has to be invoked whenever the groups or authorities of the user change without Hibernate noticing it (e.g. with modifying queries).
+     *
+     * @param login the login of the user
+     */
+    void evictUserWithGroupsAndAuthorities(String login);
+
+    /**
+     * Removes the user with the given id from the cache (cluster-wide and for the current request).
+     * This has to be invoked after modifying queries that update a user by id.
+     *
+     * @param userId the id of the user
+     */
+    void evictUserWithGroupsAndAuthoritiesById(long userId);
+}
@@ -0,0 +1,205 @@
+package de.tum.in.www1.artemis.repository;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import javax.persistence.EntityManagerFactory;
+import javax.validation.constraints.NotNull;
+
+import org.apache.commons.lang3.ArrayUtils;
+import org.hibernate.event.spi.*;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.query.Predicates;
+
+import de.tum.in.www1.artemis.domain.User;
+import de.tum.in.www1.artemis.security.SecurityUtils;
+import de.tum.in.www1.artemis.service.util.CacheEvictionEventListener;
+import de.tum.in.www1.artemis.web.rest.errors.EntityNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Implementation of the {@link CachedUserRepository} fragment.
+ * <p>
+ * Users with groups and authorities are resolved in three steps:
+ * <ol>
+ * <li>a memoization in the attributes of the current HTTP request, so that one request only resolves a user once</li>
+ * <li>a short-lived distributed Hazelcast map keyed by login with a near cache on every instance (this also serves websocket subscriptions)</li>
+ * <li>the database</li>
+ * </ol>
+ * Entries are invalidated by Hibernate events whenever a user, its groups or its authorities change, so that group changes (e.g. through
+ * {@link de.tum.in.www1.artemis.service.user.UserService#addUserToGroup}) are visible immediately on all instances.
+ */
+public class CachedUserRepositoryImpl extends CacheEvictionEventListener implements CachedUserRepository, PostUpdateEventListener, PostDeleteEventListener,
+        PostCollectionRecreateEventListener, PostCollectionUpdateEventListener, PostCollectionRemoveEventListener {
+
+    private static final String USERS_WITH_GROUPS_AND_AUTHORITIES_MAP = "usersWithGroupsAndAuthorities";
+
+    private static final int USERS_WITH_GROUPS_AND_AUTHORITIES_TIME_TO_LIVE_SECONDS = 60;
+
+    private static final String REQUEST_ATTRIBUTE = CachedUserRepositoryImpl.class.getName() + ".users";
+
+    private static final String METRIC_NAME = "artemis.user.cache.lookups";
+
+    private static final String METRIC_DESCRIPTION = "Number of lookups of users with groups and authorities, by the layer that served the lookup";
+
+    private final UserRepository userRepository;
+
+    private final IMap<String, User> usersWithGroupsAndAuthorities;
+
+    private final Counter requestHitCounter;
+
+    private final Counter clusterHitCounter;
+
+    private final Counter missCounter;
+
+    public CachedUserRepositoryImpl(@Lazy UserRepository userRepository, HazelcastInstance hazelcastInstance, EntityManagerFactory entityManagerFactory,
+            MeterRegistry meterRegistry) {
+        super(hazelcastInstance, USERS_WITH_GROUPS_AND_AUTHORITIES_MAP);
+        this.userRepository = userRepository;
+        this.usersWithGroupsAndAuthorities = hazelcastInstance.getMap(USERS_WITH_GROUPS_AND_AUTHORITIES_MAP);
+
+        this.requestHitCounter = Counter.builder(METRIC_NAME).description(METRIC_DESCRIPTION).tag("layer", "request").register(meterRegistry);
+        this.clusterHitCounter = Counter.builder(METRIC_NAME).description(METRIC_DESCRIPTION).tag("layer", "cache").register(meterRegistry);
+        this.missCounter = Counter.builder(METRIC_NAME).description(METRIC_DESCRIPTION).tag("layer", "database").register(meterRegistry);
+        Gauge.builder("artemis.user.cache.near.hit.ratio", usersWithGroupsAndAuthorities, map -> map.getLocalMapStats().getNearCacheStats().getRatio())
+                .description("Hit ratio of the local near cache of users with groups and authorities").register(meterRegistry);
+
+        registerEventListeners(entityManagerFactory);
+    }
+
+    /**
+     * Configures the Hazelcast map of the cached users: short time to live and a near cache in binary format, so that every read returns a new copy.
+     *
+     * @param config the Hazelcast config that should be adapted
+     */
+    public static void configureHazelcast(Config config) {
+        config.getMapConfig(USERS_WITH_GROUPS_AND_AUTHORITIES_MAP).setTimeToLiveSeconds(USERS_WITH_GROUPS_AND_AUTHORITIES_TIME_TO_LIVE_SECONDS)
+                .setNearCacheConfig(new NearCacheConfig(USERS_WITH_GROUPS_AND_AUTHORITIES_MAP).setInMemoryFormat(InMemoryFormat.BINARY).setInvalidateOnChange(true)
+                        .setTimeToLiveSeconds(USERS_WITH_GROUPS_AND_AUTHORITIES_TIME_TO_LIVE_SECONDS));
+        configureEvictionCounters(config, USERS_WITH_GROUPS_AND_AUTHORITIES_MAP);
+    }
+
+    @NotNull
+    @Override
+    public User getUserWithGroupsAndAuthorities() {
+        String currentUserLogin = SecurityUtils.getCurrentUserLogin().orElseThrow(() -> new EntityNotFoundException("ERROR: No current user login found!"));
+        return getUserWithGroupsAndAuthorities(currentUserLogin);
+    }
+
+    @NotNull
+    @Override
+    public User getUserWithGroupsAndAuthorities(@NotNull String username) {
+        Map<String, User> requestUsers = getRequestUsers();
+        if (requestUsers != null && requestUsers.containsKey(username)) {
+            requestHitCounter.increment();
+            return requestUsers.get(username);
+        }
+
+        User user = usersWithGroupsAndAuthorities.get(username);
+        if (user != null) {
+            clusterHitCounter.increment();
+        }
+        else {
+            missCounter.increment();
+            user = loadAndCache(usersWithGroupsAndAuthorities, username, Set.of(username), () -> {
+                Optional<User> optionalUser = userRepository.findOneWithGroupsAndAuthoritiesByLogin(username);
+                return optionalUser.orElseThrow(() -> new EntityNotFoundException("No user found with login: " + username));
+            });
+        }
+
+        if (requestUsers != null) {
+            requestUsers.put(username, user);
+        }
+        return user;
+    }
+
+    @Override
+    public void evictUserWithGroupsAndAuthorities(String login) {
+        if (login == null) {
+            return;
+        }
+        evictNowAndAfterCommit(login, () -> usersWithGroupsAndAuthorities.delete(login));
+        Map<String, User> requestUsers = getRequestUsers();
+        if (requestUsers != null) {
+            requestUsers.remove(login);
+        }
+    }
+
+    @Override
+    public void evictUserWithGroupsAndAuthoritiesById(long userId) {
+        // the login of the user is unknown, so users of all logins that are currently loading might be outdated
+        evictNowAndAfterCommit(ALL_ENTRIES, () -> usersWithGroupsAndAuthorities.removeAll(Predicates.equal("id", userId)));
+        Map<String, User> requestUsers = getRequestUsers();
+        if (requestUsers != null) {
+            requestUsers.values().removeIf(user -> user.getId() != null && user.getId() == userId);
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof User user) {
+            evictUserWithGroupsAndAuthorities(user.getLogin());
+            // the login itself might have changed
+            int loginIndex = ArrayUtils.indexOf(event.getPersister().getPropertyNames(), "login");
+            if (loginIndex >= 0 && event.getOldState() != null && event.getOldState()[loginIndex] instanceof String oldLogin && !oldLogin.equals(user.getLogin())) {
+                evictUserWithGroupsAndAuthorities(oldLogin);
+            }
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof User user) {
+            evictUserWithGroupsAndAuthorities(user.getLogin());
+        }
+    }
+
+    @Override
+    public void onPostRecreateCollection(PostCollectionRecreateEvent event) {
+        evictForCollectionOwner(event.getAffectedOwnerOrNull());
+    }
+
+    @Override
+    public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+        evictForCollectionOwner(event.getAffectedOwnerOrNull());
+    }
+
+    @Override
+    public void onPostRemoveCollection(PostCollectionRemoveEvent event) {
+        evictForCollectionOwner(event.getAffectedOwnerOrNull());
+    }
+
+    private void evictForCollectionOwner(Object owner) {
+        // groups and authorities are collections of the user
+        if (owner instanceof User user) {
+            evictUserWithGroupsAndAuthorities(user.getLogin());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, User> getRequestUsers() {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes == null) {
+            // not within an HTTP request (e.g. websocket messages or scheduled tasks)
+            return null;
+        }
+        var requestUsers = (Map<String, User>) requestAttributes.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (requestUsers == null) {
+            requestUsers = new HashMap<>();
+            requestAttributes.setAttribute(REQUEST_ATTRIBUTE, requestUsers, RequestAttributes.SCOPE_REQUEST);
+        }
+        return requestUsers;
+    }
+}
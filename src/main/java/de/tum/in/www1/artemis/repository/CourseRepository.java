@@ -20,6 +20,7 @@ import de.tum.in.www1.artemis.domain.*;
 import de.tum.in.www1.artemis.domain.enumeration.CourseInformationSharingConfiguration;
 import de.tum.in.www1.artemis.domain.modeling.ModelingExercise;
 import de.tum.in.www1.artemis.domain.statistics.StatisticsEntry;
+import de.tum.in.www1.artemis.service.dto.CourseDashboardSummaryDTO;
 import de.tum.in.www1.artemis.web.rest.errors.EntityNotFoundException;
 
 /**
@@ -27,7 +28,7 @@ import de.tum.in.www1.artemis.web.rest.errors.EntityNotFoundException;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface CourseRepository extends JpaRepository<Course, Long> {
+public interface CourseRepository extends JpaRepository<Course, Long>, CachedCourseRepository {
 
     @Query("select distinct course.instructorGroupName from Course course")
     Set<String> findAllInstructorGroupNames();
@@ -68,17 +69,31 @@ public interface CourseRepository extends JpaRepository<Course, Long> {
     /**
      * Note: you should not add exercises or exercises+categories here, because this would make the query too complex and would take significantly longer
      *
-     * @param now the current date, typically ZonedDateTime.now()
+     * @param courseIds the ids of the courses to find
      * @return List of found courses with lectures and their attachments
      */
     @EntityGraph(type = LOAD, attributePaths = { "lectures", "lectures.attachments" })
     @Query("""
             SELECT DISTINCT c
             FROM Course c
-            WHERE (c.startDate <= :now OR c.startDate IS NULL)
-                AND (c.endDate >= :now OR c.endDate IS NULL)
+            WHERE c.id IN :courseIds
+            """)
+    List<Course> findAllWithLecturesByIdIn(@Param("courseIds") Set<Long> courseIds);
+
+    /**
+     * Get the summaries of all courses that have not yet ended (including courses that have not yet started)
+     *
+     * @param now the current date, typically ZonedDateTime.now()
+     * @return the list of course summaries used to determine the courses visible on the course dashboard
+     */
+    @Query("""
+            SELECT new de.tum.in.www1.artemis.service.dto.CourseDashboardSummaryDTO(
+                c.id, c.studentGroupName, c.teachingAssistantGroupName, c.editorGroupName, c.instructorGroupName, c.startDate, c.endDate
+            )
+            FROM Course c
+            WHERE c.endDate >= :now OR c.endDate IS NULL
             """)
-    List<Course> findAllActiveWithLectures(@Param("now") ZonedDateTime now);
+    List<CourseDashboardSummaryDTO> findAllNotEndedCourseDashboardSummaries(@Param("now") ZonedDateTime now);
 
     /**
      * Note: you should not add exercises or exercises+categories here, because this would make the query too complex and would take significantly longer
@@ -276,15 +291,6 @@ public interface CourseRepository extends JpaRepository<Course, Long> {
                 .collect(Collectors.toSet());
     }
 
-    /**
-     * Get all the courses.
-     *
-     * @return the list of entities
-     */
-    default List<Course> findAllActiveWithLectures() {
-        return findAllActiveWithLectures(ZonedDateTime.now());
-    }
-
     /**
      * Get all the courses to register with eagerly loaded organizations and prerequisites.
      *
@@ -0,0 +1,232 @@
+package de.tum.in.www1.artemis.repository;
+
+import java.sql.*;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import de.tum.in.www1.artemis.domain.enumeration.ExamActionType;
+import de.tum.in.www1.artemis.domain.exam.monitoring.ExamAction;
+import de.tum.in.www1.artemis.domain.exam.monitoring.ExamActivity;
+import de.tum.in.www1.artemis.domain.exam.monitoring.actions.*;
+
+/**
+ * Stores the {@link ExamActivity}s and their {@link ExamAction}s of the exam monitoring.
+ * <p>
+ * Activities and actions are not JPA entities: they are written in large numbers during an exam, therefore the actions are inserted in JDBC batches
+ * (see {@link de.tum.in.www1.artemis.service.scheduled.cache.monitoring.ExamMonitoringScheduleService}). Every student exam has at most one activity, which uses the
+ * id of the student exam as its id.
+ * Note: MySQL only combines the batches into multi-row inserts if {@code rewriteBatchedStatements=true} is part of the datasource url.
+ */
+@Repository
+public class ExamActivityRepository {
+
+    private static final Logger log = LoggerFactory.getLogger(ExamActivityRepository.class);
+
+    private static final String INSERT_EXAM_ACTIVITY = "INSERT INTO exam_activity (student_exam_id) VALUES (?)";
+
+    private static final String INSERT_EXAM_ACTION = """
+            INSERT INTO exam_action (exam_activity_id, type, action_timestamp, connected, forced, failed, automatically, submission_id, exercise_id, session_id)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String SELECT_EXAM_ACTIONS_OF_EXAM = """
+            SELECT examAction.id, examAction.exam_activity_id, examAction.type, examAction.action_timestamp, examAction.connected, examAction.forced, examAction.failed,
+                examAction.automatically, examAction.submission_id, examAction.exercise_id, examAction.session_id
+            FROM exam_action examAction
+                JOIN student_exam studentExam ON studentExam.id = examAction.exam_activity_id
+            WHERE studentExam.exam_id = ?
+            ORDER BY examAction.id
+            """;
+
+    private static final int BATCH_SIZE = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ExamActivityRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Inserts the given actions of an exam in JDBC batches and sets the generated ids. The activities of the student exams are created if they do not exist yet.
+     * Actions which do not belong to a student exam of the given exam are not saved.
+     *
+     * @param examId  the id of the exam the actions belong to
+     * @param actions the actions performed by the students of the exam
+     * @return the number of saved actions
+     */
+    public int saveAllInBatches(long examId, Collection<ExamAction> actions) {
+        Set<Long> studentExamIds = actions.stream().map(ExamAction::getStudentExamId).filter(Objects::nonNull).collect(Collectors.toSet());
+        Set<Long> activityIds = createMissingActivities(examId, studentExamIds);
+        List<ExamAction> actionsToSave = actions.stream().filter(action -> activityIds.contains(action.getStudentExamId())).toList();
+        if (actionsToSave.size() < actions.size()) {
+            log.debug("Skip {} actions of exam {} which do not belong to one of its student exams", actions.size() - actionsToSave.size(), examId);
+        }
+        if (actionsToSave.isEmpty()) {
+            return 0;
+        }
+
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            // same as hibernate.jdbc.time_zone
+            var utcCalendar = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_EXAM_ACTION, new String[] { "id" })) {
+                for (int batchStart = 0; batchStart < actionsToSave.size(); batchStart += BATCH_SIZE) {
+                    var batch = actionsToSave.subList(batchStart, Math.min(batchStart + BATCH_SIZE, actionsToSave.size()));
+                    for (ExamAction action : batch) {
+                        setParameters(statement, action, utcCalendar);
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+
+                    try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+                        for (ExamAction action : batch) {
+                            if (!generatedKeys.next()) {
+                                throw new SQLException("The database did not return the generated ids of all inserted exam actions");
+                            }
+                            action.setId(generatedKeys.getLong(1));
+                            action.setExamActivityId(action.getStudentExamId());
+                        }
+                    }
+                }
+            }
+            return null;
+        });
+        return actionsToSave.size();
+    }
+
+    /**
+     * Finds all saved actions performed in the given exam, in the order in which they have been saved
+     *
+     * @param examId the id of the exam
+     * @return the actions of all student exams of the exam
+     */
+    public List<ExamAction> findAllActionsByExamId(long examId) {
+        var utcCalendar = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        return jdbcTemplate.query(SELECT_EXAM_ACTIONS_OF_EXAM, (resultSet, rowNumber) -> mapExamAction(resultSet, utcCalendar), examId);
+    }
+
+    /**
+     * Creates the activities of the given student exams (of the given exam) which do not exist yet
+     *
+     * @param examId         the id of the exam
+     * @param studentExamIds the ids of the student exams for which activities are needed
+     * @return the ids of the (existing or created) activities, i.e. the ids of the given student exams that belong to the exam
+     */
+    private Set<Long> createMissingActivities(long examId, Set<Long> studentExamIds) {
+        if (studentExamIds.isEmpty()) {
+            return Set.of();
+        }
+        String placeholders = String.join(", ", Collections.nCopies(studentExamIds.size(), "?"));
+        List<Object> parameters = new ArrayList<>(studentExamIds.size() + 1);
+        parameters.add(examId);
+        parameters.addAll(studentExamIds);
+
+        Set<Long> activityIds = new HashSet<>();
+        List<Long> missingActivityIds = new ArrayList<>();
+        jdbcTemplate.query("""
+                SELECT studentExam.id, activity.student_exam_id
+                FROM student_exam studentExam
+                    LEFT JOIN exam_activity activity ON activity.student_exam_id = studentExam.id
+                WHERE studentExam.exam_id = ? AND studentExam.id IN (%s)
+                """.formatted(placeholders), resultSet -> {
+            long studentExamId = resultSet.getLong(1);
+            resultSet.getLong(2);
+            if (resultSet.wasNull()) {
+                missingActivityIds.add(studentExamId);
+            }
+            activityIds.add(studentExamId);
+        }, parameters.toArray());
+
+        for (Long studentExamId : missingActivityIds) {
+            try {
+                jdbcTemplate.update(INSERT_EXAM_ACTIVITY, studentExamId);
+            }
+            catch (DuplicateKeyException ex) {
+                // created concurrently by another instance
+                log.debug("Exam activity {} has already been created", studentExamId);
+            }
+        }
+        return activityIds;
+    }
+
+    private static void setParameters(PreparedStatement statement, ExamAction action, Calendar utcCalendar) throws SQLException {
+        statement.setLong(1, action.getStudentExamId());
+        statement.setString(2, action.getType().name());
+        if (action.getTimestamp() != null) {
+            statement.setTimestamp(3, Timestamp.from(action.getTimestamp().toInstant()), utcCalendar);
+        }
+        else {
+            statement.setNull(3, Types.TIMESTAMP);
+        }
+        Boolean connected = action instanceof ConnectionUpdatedAction connectionUpdatedAction ? connectionUpdatedAction.isConnected() : null;
+        Boolean forced = action instanceof SavedExerciseAction savedExerciseAction ? savedExerciseAction.isForced() : null;
+        Boolean failed = action instanceof SavedExerciseAction savedExerciseAction ? savedExerciseAction.isFailed() : null;
+        Boolean automatically = action instanceof SavedExerciseAction savedExerciseAction ? savedExerciseAction.isAutomatically() : null;
+        Long submissionId = action instanceof SavedExerciseAction savedExerciseAction ? savedExerciseAction.getSubmissionId() : null;
+        Long exerciseId = null;
+        if (action instanceof SavedExerciseAction savedExerciseAction) {
+            exerciseId = savedExerciseAction.getExerciseId();
+        }
+        else if (action instanceof SwitchedExerciseAction switchedExerciseAction) {
+            exerciseId = switchedExerciseAction.getExerciseId();
+        }
+        Long sessionId = action instanceof StartedExamAction startedExamAction ? startedExamAction.getSessionId() : null;
+
+        statement.setObject(4, connected, Types.BOOLEAN);
+        statement.setObject(5, forced, Types.BOOLEAN);
+        statement.setObject(6, failed, Types.BOOLEAN);
+        statement.setObject(7, automatically, Types.BOOLEAN);
+        statement.setObject(8, submissionId, Types.BIGINT);
+        statement.setObject(9, exerciseId, Types.BIGINT);
+        statement.setObject(10, sessionId, Types.BIGINT);
+    }
+
+    private static ExamAction mapExamAction(ResultSet resultSet, Calendar utcCalendar) throws SQLException {
+        ExamActionType type = ExamActionType.valueOf(resultSet.getString("type"));
+        ExamAction action = switch (type) {
+            case STARTED_EXAM -> {
+                var startedExamAction = new StartedExamAction();
+                startedExamAction.setSessionId(resultSet.getObject("session_id", Long.class));
+                yield startedExamAction;
+            }
+            case ENDED_EXAM -> new EndedExamAction();
+            case HANDED_IN_EARLY -> new HandedInEarlyAction();
+            case CONTINUED_AFTER_HAND_IN_EARLY -> new ContinuedAfterHandedInEarlyAction();
+            case SWITCHED_EXERCISE -> {
+                var switchedExerciseAction = new SwitchedExerciseAction();
+                switchedExerciseAction.setExerciseId(resultSet.getObject("exercise_id", Long.class));
+                yield switchedExerciseAction;
+            }
+            case SAVED_EXERCISE -> {
+                var savedExerciseAction = new SavedExerciseAction();
+                savedExerciseAction.setForced(resultSet.getBoolean("forced"));
+                savedExerciseAction.setFailed(resultSet.getBoolean("failed"));
+                savedExerciseAction.setAutomatically(resultSet.getBoolean("automatically"));
+                savedExerciseAction.setSubmissionId(resultSet.getObject("submission_id", Long.class));
+                savedExerciseAction.setExerciseId(resultSet.getObject("exercise_id", Long.class));
+                yield savedExerciseAction;
+            }
+            case CONNECTION_UPDATED -> {
+                var connectionUpdatedAction = new ConnectionUpdatedAction();
+                connectionUpdatedAction.setConnected(resultSet.getBoolean("connected"));
+                yield connectionUpdatedAction;
+            }
+        };
+        action.setId(resultSet.getLong("id"));
+        action.setType(type);
+        action.setStudentExamId(resultSet.getLong("exam_activity_id"));
+        action.setExamActivityId(resultSet.getLong("exam_activity_id"));
+        Timestamp timestamp = resultSet.getTimestamp("action_timestamp", utcCalendar);
+        if (timestamp != null) {
+            action.setTimestamp(timestamp.toInstant().atZone(ZoneId.systemDefault()));
+        }
+        return action;
+    }
+}
@@ -215,6 +215,75 @@ public interface ExamRepository extends JpaRepository<Exam, Long> {
             """)
     boolean isUserRegisteredForExam(@Param("examId") long examId, @Param("userId") long userId);
 
+    /**
+     * Get the id of the exam the given exercise belongs to
+     *
+     * @param exerciseId the id of the exercise
+     * @return the id of the exam or an empty optional if the exercise is a course exercise
+     */
+    @Query("""
+            SELECT exerciseGroup.exam.id
+            FROM Exercise exercise
+                JOIN exercise.exerciseGroup exerciseGroup
+            WHERE exercise.id = :exerciseId
+            """)
+    Optional<Long> findIdByExerciseId(@Param("exerciseId") long exerciseId);
+
+    /**
+     * Get the id of the exam the exercise of the given participation belongs to
+     *
+     * @param participationId the id of the participation
+     * @return the id of the exam or an empty optional if the participation belongs to a course exercise
+     */
+    @Query("""
+            SELECT exerciseGroup.exam.id
+            FROM Participation participation
+                JOIN participation.exercise exercise
+                JOIN exercise.exerciseGroup exerciseGroup
+            WHERE participation.id = :participationId
+            """)
+    Optional<Long> findIdByParticipationId(@Param("participationId") long participationId);
+
+    /**
+     * Get the id of the exam the given grading scale belongs to
+     *
+     * @param gradingScaleId the id of the grading scale
+     * @return the id of the exam or an empty optional if the grading scale belongs to a course
+     */
+    @Query("""
+            SELECT gradingScale.exam.id
+            FROM GradingScale gradingScale
+            WHERE gradingScale.id = :gradingScaleId
+                AND gradingScale.exam IS NOT NULL
+            """)
+    Optional<Long> findIdByGradingScaleId(@Param("gradingScaleId") long gradingScaleId);
+
+    /**
+     * Get the ids of all exams in which the given user has a student exam (including test runs)
+     *
+     * @param userId the id of the user
+     * @return the ids of the exams
+     */
+    @Query("""
+            SELECT DISTINCT studentExam.exam.id
+            FROM StudentExam studentExam
+            WHERE studentExam.user.id = :userId
+            """)
+    Set<Long> findIdsByStudentExamUserId(@Param("userId") long userId);
+
+    /**
+     * Get the ids of all exams of the given course
+     *
+     * @param courseId the id of the course
+     * @return the ids of the exams
+     */
+    @Query("""
+            SELECT exam.id
+            FROM Exam exam
+            WHERE exam.course.id = :courseId
+            """)
+    Set<Long> findIdsByCourseId(@Param("courseId") long courseId);
+
     @Query("""
             SELECT exam.id, count(registeredUsers)
             FROM Exam exam
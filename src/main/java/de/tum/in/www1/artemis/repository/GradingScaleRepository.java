@@ -182,6 +182,18 @@ public interface GradingScaleRepository extends JpaRepository<GradingScale, Long
         return this.matchPercentageToGradeStep(percentage, gradeSteps);
     }
 
+    /**
+     * Maps a grade percentage to a valid grade step of the given grading scale without loading it again, i.e. the grade steps have to be loaded already.
+     *
+     * @param percentage   the grade percentage to be mapped
+     * @param gradingScale the grading scale with the grade steps
+     * @return grade step corresponding to the given percentage
+     * @see #matchPercentageToGradeStep(double, Long)
+     */
+    default GradeStep matchPercentageToGradeStep(double percentage, GradingScale gradingScale) {
+        return this.matchPercentageToGradeStep(percentage, gradingScale.getGradeSteps());
+    }
+
     /**
      * @param percentage the grade percentage to be mapped
      * @param gradeSteps the grade steps of a grading scale
@@ -105,6 +105,9 @@ public interface ProgrammingExerciseStudentParticipationRepository extends JpaRe
     @EntityGraph(type = LOAD, attributePaths = "student")
     Optional<ProgrammingExerciseStudentParticipation> findWithStudentById(Long participationId);
 
+    @EntityGraph(type = LOAD, attributePaths = { "student", "team.students" })
+    List<ProgrammingExerciseStudentParticipation> findAllWithStudentsByIdIn(Collection<Long> participationIds);
+
     @NotNull
     default ProgrammingExerciseStudentParticipation findByIdElseThrow(Long participationId) {
         return findById(participationId).orElseThrow(() -> new EntityNotFoundException("Programming Exercise Student Participation", participationId));
@@ -15,6 +15,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import de.tum.in.www1.artemis.domain.ProgrammingSubmission;
+import de.tum.in.www1.artemis.domain.participation.ParticipationSubmissionCount;
 import de.tum.in.www1.artemis.web.rest.errors.EntityNotFoundException;
 
 /**
@@ -75,6 +76,58 @@ public interface ProgrammingSubmissionRepository extends JpaRepository<Programmi
     @Query("select s from ProgrammingSubmission s where s.participation.id = :#{#participationId}")
     List<ProgrammingSubmission> findAllByParticipationIdWithResults(@Param("participationId") Long participationId);
 
+    /**
+     * Counts the graded manual submissions of a participation, i.e. the distinct commits that were pushed by the participant and have at least one result.
+     * Used to compute the submission counter of submission policies. Submissions without commit hash are counted as one commit.
+     *
+     * @param participationId the id of the participation
+     * @return the number of graded manual submissions
+     */
+    @Query("""
+            SELECT COUNT(DISTINCT CASE WHEN s.commitHash IS NULL THEN '' ELSE s.commitHash END)
+            FROM ProgrammingSubmission s
+            WHERE s.participation.id = :#{#participationId}
+                AND s.type = 'MANUAL'
+                AND s.results IS NOT EMPTY
+            """)
+    long countGradedManualSubmissionsByParticipationId(@Param("participationId") Long participationId);
+
+    /**
+     * Counts the graded manual submissions of a participation like {@link #countGradedManualSubmissionsByParticipationId(Long)}, but also counts the given submission
+     * (e.g. the submission of a new result that has not been saved yet) unless another graded submission of the participation has the same commit hash.
+     *
+     * @param participationId the id of the participation
+     * @param submissionId    the id of the submission that should be counted as graded
+     * @return the number of graded manual submissions including the given one
+     */
+    @Query("""
+            SELECT COUNT(DISTINCT CASE WHEN s.commitHash IS NULL THEN '' ELSE s.commitHash END)
+            FROM ProgrammingSubmission s
+            WHERE s.participation.id = :#{#participationId}
+                AND s.type = 'MANUAL'
+                AND (s.results IS NOT EMPTY OR s.id = :#{#submissionId})
+            """)
+    long countGradedManualSubmissionsByParticipationIdIncludingSubmission(@Param("participationId") Long participationId, @Param("submissionId") Long submissionId);
+
+    /**
+     * Counts the graded manual submissions of all participations of an exercise, see {@link #countGradedManualSubmissionsByParticipationId(Long)}
+     *
+     * @param exerciseId the id of the programming exercise
+     * @return the number of graded manual submissions of all participations that have at least one
+     */
+    @Query("""
+            SELECT new de.tum.in.www1.artemis.domain.participation.ParticipationSubmissionCount(
+                s.participation.id,
+                COUNT(DISTINCT CASE WHEN s.commitHash IS NULL THEN '' ELSE s.commitHash END)
+            )
+            FROM ProgrammingSubmission s
+            WHERE s.participation.exercise.id = :#{#exerciseId}
+                AND s.type = 'MANUAL'
+                AND s.results IS NOT EMPTY
+            GROUP BY s.participation.id
+            """)
+    List<ParticipationSubmissionCount> countGradedManualSubmissionsByExerciseId(@Param("exerciseId") Long exerciseId);
+
     /**
      * Get the programming submission with the given id from the database. The submission is loaded together with exercise it belongs to, its result, the feedback of the result and
      * the assessor of the result. Throws an EntityNotFoundException if no submission could be found for the given id.
@@ -255,6 +255,24 @@ public interface StudentParticipationRepository extends JpaRepository<StudentPar
             """)
     Optional<StudentParticipation> findByIdWithLatestAutomaticResultAndFeedbacks(@Param("participationId") Long participationId);
 
+    /**
+     * Get the participations with the given ids with each latest {@link AssessmentType#AUTOMATIC} result and feedbacks (determined by id).
+     *
+     * @param participationIds the ids of the participations
+     * @return the participations with the given ids that have an automatic result
+     */
+    @Query("""
+            select distinct p from StudentParticipation p
+            left join fetch p.results r
+            left join fetch r.feedbacks
+            left join fetch r.submission s
+            where p.id in :#{#participationIds}
+                and (r.id = (select max(pr.id) from p.results pr
+                    left join pr.submission prs
+                    where pr.assessmentType = 'AUTOMATIC' and (prs.type <> 'ILLEGAL' or prs.type is null)))
+            """)
+    List<StudentParticipation> findByIdsWithLatestAutomaticResultAndFeedbacks(@Param("participationIds") Collection<Long> participationIds);
+
     // Manual result can either be from type MANUAL or SEMI_AUTOMATIC
     @Query("""
             select distinct p from StudentParticipation p
@@ -283,6 +301,38 @@ public interface StudentParticipationRepository extends JpaRepository<StudentPar
             """)
     Optional<StudentParticipation> findByIdWithManualResultAndFeedbacks(@Param("participationId") Long participationId);
 
+    @Query("""
+            SELECT DISTINCT p
+            FROM StudentParticipation p
+                LEFT JOIN FETCH p.results r
+                LEFT JOIN FETCH r.feedbacks
+                LEFT JOIN FETCH r.submission s
+            WHERE p.id IN :#{#participationIds}
+                 AND (s.type <> 'ILLEGAL' or s.type is null)
+                 AND (r.assessmentType = 'MANUAL' or r.assessmentType = 'SEMI_AUTOMATIC')
+            """)
+    List<StudentParticipation> findByIdsWithManualResultAndFeedbacks(@Param("participationIds") Collection<Long> participationIds);
+
+    /**
+     * Get the ids of the participations of an exercise in ascending order that are greater than the given id.
+     * This allows processing all participations of an exercise page by page (keyset pagination).
+     *
+     * @param exerciseId           the id of the exercise
+     * @param afterParticipationId only ids greater than this id are returned, use 0 for the first page
+     * @param pageable             the size of the page, the page number has to be 0
+     * @return the ids of the participations in ascending order
+     */
+    @Query("""
+            SELECT p.id
+            FROM StudentParticipation p
+            WHERE p.exercise.id = :#{#exerciseId}
+                AND p.id > :#{#afterParticipationId}
+            ORDER BY p.id
+            """)
+    List<Long> findIdsByExerciseIdAfterId(@Param("exerciseId") long exerciseId, @Param("afterParticipationId") long afterParticipationId, Pageable pageable);
+
+    long countByExerciseId(long exerciseId);
+
     @Query("""
             SELECT DISTINCT p
             FROM StudentParticipation p
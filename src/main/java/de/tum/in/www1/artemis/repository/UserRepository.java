@@ -34,7 +34,7 @@ import de.tum.in.www1.artemis.web.rest.errors.EntityNotFoundException;
  * Spring Data JPA repository for the User entity.
  */
 @Repository
-public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User> {
+public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User>, CachedUserRepository {
 
     String USERS_CACHE = "users";
 
@@ -83,6 +83,15 @@ public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificat
     @EntityGraph(type = LOAD, attributePaths = { "groups", "authorities" })
     Set<User> findAllWithGroupsAndAuthoritiesByIdIn(Set<Long> ids);
 
+    @EntityGraph(type = LOAD, attributePaths = { "groups", "authorities" })
+    Set<User> findAllWithGroupsAndAuthoritiesByRegistrationNumberIn(Set<String> registrationNumbers);
+
+    @EntityGraph(type = LOAD, attributePaths = { "groups", "authorities" })
+    Set<User> findAllWithGroupsAndAuthoritiesByLoginIn(Set<String> logins);
+
+    @EntityGraph(type = LOAD, attributePaths = { "groups", "authorities" })
+    Set<User> findAllWithGroupsAndAuthoritiesByEmailIn(Set<String> emails);
+
     @EntityGraph(type = LOAD, attributePaths = { "groups", "authorities", "organizations" })
     Optional<User> findOneWithGroupsAndAuthoritiesAndOrganizationsById(Long id);
 
@@ -377,18 +386,6 @@ public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificat
         return findOneByLogin(login).orElseThrow(() -> new EntityNotFoundException("User: " + login));
     }
 
-    /**
-     * Get user with user groups and authorities of currently logged-in user
-     *
-     * @return currently logged-in user
-     */
-    @NotNull
-    default User getUserWithGroupsAndAuthorities() {
-        String currentUserLogin = getCurrentUserLogin();
-        Optional<User> user = findOneWithGroupsAndAuthoritiesByLogin(currentUserLogin);
-        return unwrapOptionalUser(user, currentUserLogin);
-    }
-
     /**
      * Get user with user groups, authorities and organizations of currently logged-in user
      *
@@ -427,18 +424,6 @@ public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificat
         throw new EntityNotFoundException("ERROR: No current user login found!");
     }
 
-    /**
-     * Get user with user groups and authorities with the username (i.e. user.getLogin() or principal.getName())
-     *
-     * @param username the username of the user who should be retrieved from the database
-     * @return the user that belongs to the given principal with eagerly loaded groups and authorities
-     */
-    @NotNull
-    default User getUserWithGroupsAndAuthorities(@NotNull String username) {
-        Optional<User> user = findOneWithGroupsAndAuthoritiesByLogin(username);
-        return unwrapOptionalUser(user, username);
-    }
-
     /**
      * Finds a single user with groups and authorities using the registration number
      *
@@ -560,6 +545,8 @@ public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificat
      */
     default void updateUserNotificationReadDate(long userId) {
         updateUserNotificationReadDate(userId, ZonedDateTime.now());
+        // the modifying query bypasses Hibernate events, therefore we have to evict the cached user explicitly
+        evictUserWithGroupsAndAuthoritiesById(userId);
     }
 
     @Query(value = "SELECT * FROM jhi_user u WHERE REGEXP_LIKE(u.email, :#{#emailPattern})", nativeQuery = true)
@@ -0,0 +1,30 @@
+package de.tum.in.www1.artemis.repository.hestia;
+
+import java.util.List;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import de.tum.in.www1.artemis.domain.hestia.CoverageFileReport;
+import de.tum.in.www1.artemis.domain.hestia.CoverageReport;
+import de.tum.in.www1.artemis.domain.hestia.TestwiseCoverageReportEntry;
+
+/**
+ * Repository fragment of {@link CoverageFileReportRepository} that inserts a coverage report with its file reports and testwise entries with JDBC batches.
+ * The ids of both are generated by the database (identity columns), which prevents Hibernate from batching the inserts.
+ * See {@link BatchedCoverageFileReportRepositoryImpl} for details.
+ */
+public interface BatchedCoverageFileReportRepository {
+
+    /**
+     * Inserts the given new coverage report, afterwards the given new file reports and finally the given new testwise entries using JDBC batches in one transaction,
+     * i.e. either the complete report or nothing is saved. The ids of the report and the file reports are set on the given objects, so that the file reports and entries
+     * can reference them. The ids of the entries are not read back.
+     * Note: the report, file reports and entries are not attached to the persistence context
+     *
+     * @param report      the new coverage report, it must reference an already saved submission and must not have an id yet
+     * @param fileReports the new file reports, they must reference the given coverage report and must not have an id yet
+     * @param entries     the new testwise entries, they must reference one of the given file reports and an already saved test case
+     */
+    @Transactional // ok because of batch insert
+    void insertReportWithFileReportsInBatches(CoverageReport report, List<CoverageFileReport> fileReports, List<TestwiseCoverageReportEntry> entries);
+}
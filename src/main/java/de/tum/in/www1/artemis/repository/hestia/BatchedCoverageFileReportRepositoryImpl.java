@@ -0,0 +1,117 @@
+package de.tum.in.www1.artemis.repository.hestia;
+
+import java.sql.*;
+import java.util.List;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import de.tum.in.www1.artemis.domain.hestia.CoverageFileReport;
+import de.tum.in.www1.artemis.domain.hestia.CoverageReport;
+import de.tum.in.www1.artemis.domain.hestia.TestwiseCoverageReportEntry;
+
+/**
+ * Implementation of the {@link BatchedCoverageFileReportRepository} fragment.
+ * <p>
+ * The testwise coverage report of a solution build with hundreds of tests easily contains tens of thousands of entries. Instead of one insert (and one round trip)
+ * per file report and entry, they are sent in JDBC batches. The report itself is inserted on the same connection, so that it is only committed together with its
+ * file reports and entries.
+ * Note: MySQL only combines the batches into multi-row inserts if {@code rewriteBatchedStatements=true} is part of the datasource url.
+ */
+public class BatchedCoverageFileReportRepositoryImpl implements BatchedCoverageFileReportRepository {
+
+    private static final String INSERT_REPORT = "INSERT INTO coverage_report (submission_id, covered_line_ratio) VALUES (?, ?)";
+
+    private static final String INSERT_FILE_REPORT = "INSERT INTO coverage_file_report (full_report_id, file_path, line_count, covered_line_count) VALUES (?, ?, ?, ?)";
+
+    private static final String INSERT_ENTRY = "INSERT INTO testwise_coverage_report_entry (file_report_id, test_case_id, start_line, line_count) VALUES (?, ?, ?, ?)";
+
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BatchedCoverageFileReportRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertReportWithFileReportsInBatches(CoverageReport report, List<CoverageFileReport> fileReports, List<TestwiseCoverageReportEntry> entries) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            insertReport(connection, report);
+            if (!fileReports.isEmpty()) {
+                insertFileReports(connection, fileReports);
+                insertEntries(connection, entries);
+            }
+            return null;
+        });
+    }
+
+    private static void insertReport(Connection connection, CoverageReport report) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_REPORT, new String[] { "id" })) {
+            statement.setLong(1, report.getSubmission().getId());
+            if (report.getCoveredLineRatio() != null) {
+                statement.setDouble(2, report.getCoveredLineRatio());
+            }
+            else {
+                statement.setNull(2, Types.DOUBLE);
+            }
+            statement.executeUpdate();
+
+            try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+                if (!generatedKeys.next()) {
+                    throw new SQLException("The database did not return the generated id of the inserted coverage report");
+                }
+                report.setId(generatedKeys.getLong(1));
+            }
+        }
+    }
+
+    private static void insertFileReports(Connection connection, List<CoverageFileReport> fileReports) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_FILE_REPORT, new String[] { "id" })) {
+            for (int batchStart = 0; batchStart < fileReports.size(); batchStart += BATCH_SIZE) {
+                var batch = fileReports.subList(batchStart, Math.min(batchStart + BATCH_SIZE, fileReports.size()));
+                for (CoverageFileReport fileReport : batch) {
+                    statement.setLong(1, fileReport.getFullReport().getId());
+                    statement.setString(2, fileReport.getFilePath());
+                    setNullableInt(statement, 3, fileReport.getLineCount());
+                    setNullableInt(statement, 4, fileReport.getCoveredLineCount());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+
+                try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+                    for (CoverageFileReport fileReport : batch) {
+                        if (!generatedKeys.next()) {
+                            throw new SQLException("The database did not return the generated ids of all inserted coverage file reports");
+                        }
+                        fileReport.setId(generatedKeys.getLong(1));
+                    }
+                }
+            }
+        }
+    }
+
+    private static void insertEntries(Connection connection, List<TestwiseCoverageReportEntry> entries) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_ENTRY)) {
+            for (int batchStart = 0; batchStart < entries.size(); batchStart += BATCH_SIZE) {
+                for (TestwiseCoverageReportEntry entry : entries.subList(batchStart, Math.min(batchStart + BATCH_SIZE, entries.size()))) {
+                    statement.setLong(1, entry.getFileReport().getId());
+                    statement.setLong(2, entry.getTestCase().getId());
+                    setNullableInt(statement, 3, entry.getStartLine());
+                    setNullableInt(statement, 4, entry.getLineCount());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        }
+    }
+
+    private static void setNullableInt(PreparedStatement statement, int parameterIndex, Integer value) throws SQLException {
+        if (value != null) {
+            statement.setInt(parameterIndex, value);
+        }
+        else {
+            statement.setNull(parameterIndex, Types.INTEGER);
+        }
+    }
+}
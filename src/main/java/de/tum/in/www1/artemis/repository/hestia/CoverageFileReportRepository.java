@@ -9,7 +9,7 @@ import org.springframework.stereotype.Repository;
 import de.tum.in.www1.artemis.domain.hestia.CoverageFileReport;
 
 @Repository
-public interface CoverageFileReportRepository extends JpaRepository<CoverageFileReport, Long> {
+public interface CoverageFileReportRepository extends JpaRepository<CoverageFileReport, Long>, BatchedCoverageFileReportRepository {
 
     Set<CoverageFileReport> findCoverageFileReportByFullReportId(@Param("coverageReportId") Long coverageReportId);
 }
@@ -1,5 +1,8 @@
 package de.tum.in.www1.artemis.repository.metis;
 
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
@@ -12,6 +15,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import de.tum.in.www1.artemis.domain.metis.ConversationParticipant;
+import de.tum.in.www1.artemis.domain.metis.ConversationUnreadMessagesCount;
 import de.tum.in.www1.artemis.web.rest.errors.EntityNotFoundException;
 
 /**
@@ -59,37 +63,75 @@ public interface ConversationParticipantRepository extends JpaRepository<Convers
     void deleteAllByConversationId(Long conversationId);
 
     /**
-     * Increment unreadMessageCount field of ConversationParticipant
+     * Marks all messages of the conversation as read by the participant, i.e. moves the read watermark of the participant to the current message sequence of the conversation
      *
-     * @param senderId       userId of the sender of the message(Post)
-     * @param conversationId conversationId id of the conversation with participants
+     * @param conversationId the id of the conversation
+     * @param userId         the id of the user of the participant
+     * @param lastRead       the date at which the participant read the conversation
+     * @return the number of updated participants
      */
     @Transactional // ok because of modifying query
     @Modifying
     @Query("""
             UPDATE ConversationParticipant conversationParticipant
-            SET conversationParticipant.unreadMessagesCount = conversationParticipant.unreadMessagesCount + 1
+            SET conversationParticipant.lastRead = :#{#lastRead},
+                conversationParticipant.lastReadSequence = (
+                    SELECT conversation.messageSequence
+                    FROM Conversation conversation
+                    WHERE conversation.id = :#{#conversationId}
+                )
             WHERE conversationParticipant.conversation.id = :#{#conversationId}
-            AND (conversationParticipant.user.id <> :#{#senderId})
-            AND conversationParticipant.unreadMessagesCount IS NOT null
+            AND conversationParticipant.user.id = :#{#userId}
             """)
-    void incrementUnreadMessagesCountOfParticipants(@Param("conversationId") Long conversationId, @Param("senderId") Long senderId);
+    int updateLastReadOfParticipant(@Param("conversationId") Long conversationId, @Param("userId") Long userId, @Param("lastRead") ZonedDateTime lastRead);
+
+    default void markConversationAsReadElseThrow(Long conversationId, Long userId) {
+        if (updateLastReadOfParticipant(conversationId, userId, ZonedDateTime.now()) == 0) {
+            throw new EntityNotFoundException("Conversation participant not found!");
+        }
+    }
 
     /**
-     * Decrement unreadMessageCount field of ConversationParticipant
+     * Moves the read watermark of all participants that have unread messages by one message, so that a deleted message is no longer counted as unread.
+     * Only used when a message is deleted, creating a message does not update any participant except its author.
      *
      * @param senderId       userId of the sender of the message(Post)
      * @param conversationId conversationId id of the conversation with participants
      */
-    @Transactional
+    @Transactional // ok because of modifying query
     @Modifying
     @Query("""
             UPDATE ConversationParticipant conversationParticipant
-            SET conversationParticipant.unreadMessagesCount = conversationParticipant.unreadMessagesCount - 1
+            SET conversationParticipant.lastReadSequence = conversationParticipant.lastReadSequence + 1
             WHERE conversationParticipant.conversation.id = :#{#conversationId}
             AND (conversationParticipant.user.id <> :#{#senderId})
-            AND conversationParticipant.unreadMessagesCount > 0
-            AND conversationParticipant.unreadMessagesCount IS NOT null
+            AND conversationParticipant.lastReadSequence < (
+                SELECT conversation.messageSequence
+                FROM Conversation conversation
+                WHERE conversation.id = :#{#conversationId}
+            )
+            """)
+    void skipDeletedMessageForParticipants(@Param("conversationId") Long conversationId, @Param("senderId") Long senderId);
+
+    /**
+     * Computes the number of unread messages of the user in the given conversations from the message sequences of the conversations and the read watermarks
+     *
+     * @param userId          the id of the user
+     * @param conversationIds the ids of the conversations
+     * @return the number of unread messages for every given conversation in which the user is a participant
+     */
+    @Query("""
+            SELECT new de.tum.in.www1.artemis.domain.metis.ConversationUnreadMessagesCount(
+                conversation.id,
+                CASE WHEN conversation.messageSequence > conversationParticipant.lastReadSequence
+                    THEN conversation.messageSequence - conversationParticipant.lastReadSequence
+                    ELSE 0L
+                END
+            )
+            FROM ConversationParticipant conversationParticipant
+            JOIN conversationParticipant.conversation conversation
+            WHERE conversationParticipant.user.id = :#{#userId}
+            AND conversation.id IN :#{#conversationIds}
             """)
-    void decrementUnreadMessagesCountOfParticipants(@Param("conversationId") Long conversationId, @Param("senderId") Long senderId);
+    List<ConversationUnreadMessagesCount> findUnreadMessagesCountsOfUser(@Param("userId") Long userId, @Param("conversationIds") Collection<Long> conversationIds);
 }
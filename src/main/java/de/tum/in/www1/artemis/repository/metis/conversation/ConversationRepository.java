@@ -1,10 +1,14 @@
 package de.tum.in.www1.artemis.repository.metis.conversation;
 
+import java.time.ZonedDateTime;
+
 import javax.transaction.Transactional;
 import javax.validation.constraints.NotNull;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import de.tum.in.www1.artemis.domain.metis.conversation.Conversation;
@@ -17,6 +21,23 @@ public interface ConversationRepository extends JpaRepository<Conversation, Long
     @Modifying
     void deleteById(@NotNull Long conversationId);
 
+    /**
+     * Updates the last message date and increments the message sequence of the conversation when a new message is created.
+     * This only updates the row of the conversation, the unread messages of the participants are derived from their read watermarks.
+     *
+     * @param conversationId  the id of the conversation
+     * @param lastMessageDate the creation date of the new message
+     */
+    @Transactional // ok because of modifying query
+    @Modifying
+    @Query("""
+            UPDATE Conversation conversation
+            SET conversation.lastMessageDate = :#{#lastMessageDate},
+                conversation.messageSequence = conversation.messageSequence + 1
+            WHERE conversation.id = :#{#conversationId}
+            """)
+    void updateLastMessageDateAndIncrementMessageSequence(@Param("conversationId") Long conversationId, @Param("lastMessageDate") ZonedDateTime lastMessageDate);
+
     default Conversation findByIdElseThrow(long conversationId) {
         return this.findById(conversationId).orElseThrow(() -> new EntityNotFoundException("Conversation", conversationId));
     }
@@ -5,6 +5,8 @@ import static org.springframework.data.jpa.repository.EntityGraph.EntityGraphTyp
 import java.util.Optional;
 import java.util.Set;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
@@ -67,6 +69,55 @@ public interface PlagiarismComparisonRepository extends JpaRepository<Plagiarism
         return findByIdWithSubmissionsAndElementsB(comparisonId).orElseThrow(() -> new EntityNotFoundException("PlagiarismComparison", comparisonId));
     }
 
+    // the matches are loaded in a separate query, fetching them together with the elements of a submission would multiply the rows
+    @Query("""
+            SELECT DISTINCT comparison FROM PlagiarismComparison comparison
+            LEFT JOIN FETCH comparison.matches
+            WHERE comparison.id = :comparisonId
+            """)
+    Optional<PlagiarismComparison<?>> findByIdWithMatches(@Param("comparisonId") long comparisonId);
+
+    default PlagiarismComparison<?> findByIdWithMatchesElseThrow(long comparisonId) {
+        return findByIdWithMatches(comparisonId).orElseThrow(() -> new EntityNotFoundException("PlagiarismComparison", comparisonId));
+    }
+
+    /**
+     * Get one page of the comparisons of the given plagiarism result (with the compared submissions, but without their elements and the matches)
+     *
+     * @param plagiarismResultId  the id of the plagiarism result
+     * @param exerciseId          the id of the exercise the plagiarism result belongs to
+     * @param minimumSimilarity   the minimum similarity (in % between 0 and 100) of the comparisons
+     * @param maximumSimilarity   the similarity (in % between 0 and 100) the comparisons have to be below, a maximum of 100 includes the comparisons with a similarity of 100
+     * @param status              the status of the comparisons or null to get comparisons with any status
+     * @param partialStudentLogin the login (or a part of it) of one of the compared students
+     * @param pageable            the page request, i.e. the page, its size and the sort order
+     * @return the requested page of comparisons
+     */
+    @Query(value = """
+            SELECT comparison FROM PlagiarismComparison comparison
+            LEFT JOIN FETCH comparison.submissionA submissionA
+            LEFT JOIN FETCH comparison.submissionB submissionB
+            WHERE comparison.plagiarismResult.id = :plagiarismResultId
+                AND comparison.plagiarismResult.exercise.id = :exerciseId
+                AND comparison.similarity >= :minimumSimilarity
+                AND (comparison.similarity < :maximumSimilarity OR :maximumSimilarity >= 100)
+                AND (:status IS NULL OR comparison.status = :status)
+                AND (submissionA.studentLogin LIKE %:partialStudentLogin% OR submissionB.studentLogin LIKE %:partialStudentLogin%)
+            """, countQuery = """
+            SELECT COUNT(comparison) FROM PlagiarismComparison comparison
+            LEFT JOIN comparison.submissionA submissionA
+            LEFT JOIN comparison.submissionB submissionB
+            WHERE comparison.plagiarismResult.id = :plagiarismResultId
+                AND comparison.plagiarismResult.exercise.id = :exerciseId
+                AND comparison.similarity >= :minimumSimilarity
+                AND (comparison.similarity < :maximumSimilarity OR :maximumSimilarity >= 100)
+                AND (:status IS NULL OR comparison.status = :status)
+                AND (submissionA.studentLogin LIKE %:partialStudentLogin% OR submissionB.studentLogin LIKE %:partialStudentLogin%)
+            """)
+    Page<PlagiarismComparison<?>> findByPlagiarismResultIdWithSubmissions(@Param("plagiarismResultId") long plagiarismResultId, @Param("exerciseId") long exerciseId,
+            @Param("minimumSimilarity") double minimumSimilarity, @Param("maximumSimilarity") double maximumSimilarity, @Param("status") PlagiarismStatus status,
+            @Param("partialStudentLogin") String partialStudentLogin, Pageable pageable);
+
     @EntityGraph(type = LOAD, attributePaths = { "submissionA", "submissionA.plagiarismCase", "submissionB", "submissionB.plagiarismCase" })
     Optional<Set<PlagiarismComparison<?>>> findBySubmissionA_SubmissionIdOrSubmissionB_SubmissionId(long submissionA_submissionId, long submissionB_submissionId);
 
@@ -20,7 +20,8 @@ import de.tum.in.www1.artemis.domain.plagiarism.PlagiarismResult;
 @Repository
 public interface PlagiarismResultRepository extends JpaRepository<PlagiarismResult<?>, Long> {
 
-    @EntityGraph(type = LOAD, attributePaths = { "comparisons" })
+    // the matches of the comparisons are not loaded, they are only required for the detailed view of a single comparison
+    @EntityGraph(type = LOAD, attributePaths = { "comparisons", "comparisons.submissionA", "comparisons.submissionB" })
     Optional<PlagiarismResult<?>> findFirstByExerciseIdOrderByLastModifiedDateDesc(long exerciseId);
 
     @Nullable
@@ -29,9 +29,12 @@ public class JWTFilter extends GenericFilterBean {
     public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain filterChain) throws IOException, ServletException {
         HttpServletRequest httpServletRequest = (HttpServletRequest) servletRequest;
         Cookie jwtCookie = WebUtils.getCookie(httpServletRequest, JWT_COOKIE_NAME);
-        if (isJwtCookieValid(this.tokenProvider, jwtCookie)) {
-            Authentication authentication = this.tokenProvider.getAuthentication(jwtCookie.getValue());
-            SecurityContextHolder.getContext().setAuthentication(authentication);
+        if (jwtCookie != null && StringUtils.hasText(jwtCookie.getValue())) {
+            // validates and parses the token only once
+            Authentication authentication = this.tokenProvider.getValidatedAuthentication(jwtCookie.getValue());
+            if (authentication != null) {
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+            }
         }
         filterChain.doFilter(servletRequest, servletResponse);
     }
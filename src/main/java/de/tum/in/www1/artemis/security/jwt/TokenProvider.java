@@ -2,11 +2,12 @@ package de.tum.in.www1.artemis.security.jwt;
 
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
-import java.util.Arrays;
-import java.util.Date;
-import java.util.List;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
 import java.util.stream.Collectors;
 
+import javax.annotation.Nullable;
 import javax.annotation.PostConstruct;
 
 import org.slf4j.Logger;
@@ -33,6 +34,8 @@ public class TokenProvider {
 
     private static final String AUTHORITIES_KEY = "auth";
 
+    private static final int MAX_VERIFIED_TOKENS = 10_000;
+
     private Key key;
 
     private long tokenValidityInMilliseconds;
@@ -43,6 +46,32 @@ public class TokenProvider {
 
     private final SecurityMetersService securityMetersService;
 
+    /**
+     * Claims of already verified tokens (by SHA-256 digest of the token), so that the signature of a token is only verified once and not on every request.
+     * An entry is valid until the token expires. The least recently used entries are removed when the cache is full, so that new tokens can always be cached.
+     */
+    private final Map<String, VerifiedToken> verifiedTokens = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, VerifiedToken> eldest) {
+            return size() > MAX_VERIFIED_TOKENS;
+        }
+    });
+
+    /**
+     * The immutable claims of a verified token, a new authentication is created from them for every request
+     *
+     * @param subject     the subject of the token, i.e. the login of the user
+     * @param authorities the authorities of the token, null if the token does not contain authorities
+     * @param expiration  the expiration time of the token in milliseconds since the epoch
+     */
+    private record VerifiedToken(String subject, @Nullable List<SimpleGrantedAuthority> authorities, long expiration) {
+
+        private boolean isExpired() {
+            return expiration <= System.currentTimeMillis();
+        }
+    }
+
     public TokenProvider(JHipsterProperties jHipsterProperties, SecurityMetersService securityMetersService) {
         this.jHipsterProperties = jHipsterProperties;
         this.securityMetersService = securityMetersService;
@@ -100,17 +129,20 @@ public class TokenProvider {
      * @return UsernamePasswordAuthenticationToken
      */
     public Authentication getAuthentication(String token) {
-        Claims claims = parseClaims(token);
-        var authorityClaim = claims.get(AUTHORITIES_KEY);
-        if (authorityClaim == null) {
-            // leads to a 401 unauthorized error
-            return null;
-        }
-        List<? extends GrantedAuthority> authorities = Arrays.stream(authorityClaim.toString().split(",")).map(SimpleGrantedAuthority::new).toList();
-
-        User principal = new User(claims.getSubject(), "", authorities);
+        return createAuthentication(verifyToken(token), token);
+    }
 
-        return new UsernamePasswordAuthenticationToken(principal, token, authorities);
+    /**
+     * Validates the JWT Authorization Token and converts it into a UsernamePasswordAuthenticationToken, verifying and parsing the token only once.
+     * Invalid tokens are tracked in the same way as in {@link #validateTokenForAuthority(String)}.
+     *
+     * @param token JWT Authorization Token
+     * @return UsernamePasswordAuthenticationToken or null if the token is invalid or does not contain authorities
+     */
+    @Nullable
+    public Authentication getValidatedAuthentication(String token) {
+        VerifiedToken verifiedToken = validateJwsToken(token);
+        return verifiedToken != null ? createAuthentication(verifiedToken, token) : null;
     }
 
     /**
@@ -120,19 +152,19 @@ public class TokenProvider {
      * @return boolean indicating if token is valid
      */
     public boolean validateTokenForAuthority(String authToken) {
-        return validateJwsToken(authToken);
+        return validateJwsToken(authToken) != null;
     }
 
     /**
      * Validate an JWT Authorization Token
      *
      * @param authToken JWT Authorization Token
-     * @return boolean indicating if token is valid
+     * @return the verified token or null if the token is invalid
      */
-    private boolean validateJwsToken(String authToken) {
+    @Nullable
+    private VerifiedToken validateJwsToken(String authToken) {
         try {
-            parseClaims(authToken);
-            return true;
+            return verifyToken(authToken);
         }
         catch (ExpiredJwtException e) {
             this.securityMetersService.trackTokenExpired();
@@ -154,7 +186,77 @@ public class TokenProvider {
             log.error("Token validation error {}", e.getMessage());
         }
         log.info("Invalid JWT token: {}", authToken);
-        return false;
+        return null;
+    }
+
+    /**
+     * Gets the verified token from the cache or verifies and parses it if it is not cached (or expired)
+     *
+     * @param authToken JWT Authorization Token
+     * @return the verified token
+     * @throws JwtException             if the token is invalid
+     * @throws IllegalArgumentException if the token is empty
+     */
+    private VerifiedToken verifyToken(String authToken) {
+        String digest = StringUtils.hasLength(authToken) ? digest(authToken) : null;
+        VerifiedToken verifiedToken = digest != null ? verifiedTokens.get(digest) : null;
+        if (verifiedToken != null) {
+            if (!verifiedToken.isExpired()) {
+                securityMetersService.trackTokenCacheHit();
+                return verifiedToken;
+            }
+            // expired tokens are parsed again below, so that the expiration is reported like for tokens that have not been cached
+            verifiedTokens.remove(digest);
+        }
+        securityMetersService.trackTokenCacheMiss();
+
+        long start = System.nanoTime();
+        Claims claims;
+        try {
+            claims = parseClaims(authToken);
+        }
+        finally {
+            securityMetersService.trackTokenVerification(System.nanoTime() - start);
+        }
+        var authorityClaim = claims.get(AUTHORITIES_KEY);
+        List<SimpleGrantedAuthority> authorities = authorityClaim != null ? Arrays.stream(authorityClaim.toString().split(",")).map(SimpleGrantedAuthority::new).toList()
+                : null;
+        verifiedToken = new VerifiedToken(claims.getSubject(), authorities, claims.getExpiration() != null ? claims.getExpiration().getTime() : 0);
+
+        // tokens without expiration are not cached, as they would never become invalid
+        if (digest != null && claims.getExpiration() != null) {
+            verifiedTokens.put(digest, verifiedToken);
+        }
+        return verifiedToken;
+    }
+
+    /**
+     * Creates a new authentication for the given verified token. Authentications and their principals are mutable (e.g. erasing the credentials), so they are not
+     * shared between requests.
+     *
+     * @param verifiedToken the verified token
+     * @param token         the JWT Authorization Token, used as credentials
+     * @return the authentication or null if the token does not contain authorities
+     */
+    @Nullable
+    private static Authentication createAuthentication(VerifiedToken verifiedToken, String token) {
+        if (verifiedToken.authorities() == null) {
+            // leads to a 401 unauthorized error
+            return null;
+        }
+        User principal = new User(verifiedToken.subject(), "", verifiedToken.authorities());
+
+        return new UsernamePasswordAuthenticationToken(principal, token, verifiedToken.authorities());
+    }
+
+    private static String digest(String token) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+        }
+        catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
     }
 
     private Claims parseClaims(String authToken) {
@@ -100,14 +100,13 @@ public class AttachmentUnitService {
                 lectureUnit.attachmentUnit().setLecture(lecture);
                 lecture.addLectureUnit(savedAttachmentUnit);
 
-                handleFile(lectureUnit.file(), lectureUnit.attachment(), true);
-
+                // the file of the unit has already been written to the temporary folder and is moved to the folder of the unit when the attachment is saved
                 lectureUnit.attachment().setAttachmentUnit(savedAttachmentUnit);
                 lectureUnit.attachment().setVersion(1);
 
                 Attachment savedAttachment = attachmentRepository.saveAndFlush(lectureUnit.attachment());
                 lectureUnit.attachmentUnit().setAttachment(savedAttachment);
-                evictCache(lectureUnit.file(), savedAttachmentUnit);
+                evictCache(savedAttachmentUnit);
             });
             lectureRepository.save(lecture);
         }
@@ -192,10 +191,19 @@ public class AttachmentUnitService {
      */
     private void evictCache(MultipartFile file, AttachmentUnit attachmentUnit) {
         if (file != null && !file.isEmpty()) {
-            this.cacheManager.getCache("files").evict(fileService.actualPathForPublicPath(attachmentUnit.getAttachment().getLink()));
+            evictCache(attachmentUnit);
         }
     }
 
+    /**
+     * Evicts the cache for the file of the given attachment unit.
+     *
+     * @param attachmentUnit Attachment unit liked to the file.
+     */
+    private void evictCache(AttachmentUnit attachmentUnit) {
+        this.cacheManager.getCache("files").evict(fileService.actualPathForPublicPath(attachmentUnit.getAttachment().getLink()));
+    }
+
     /**
      * Cleans the attachment unit before sending it to the client and sets the attachment relationship.
      *
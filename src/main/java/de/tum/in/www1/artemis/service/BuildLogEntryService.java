@@ -1,10 +1,6 @@
 package de.tum.in.www1.artemis.service;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.*;
 
 import org.springframework.stereotype.Service;
 
@@ -30,34 +26,44 @@ public class BuildLogEntryService {
     /**
      * Saves the build log entries in the database. The association to the programming submission is first removed and
      * after the saving restored as the relation submission->result uses an order column.
+     * New build log entries are inserted in JDBC batches instead of one insert per entry.
      *
      * @param buildLogs             build logs to save
      * @param programmingSubmission submission of the build logs
      * @return the saved build logs
      */
     public List<BuildLogEntry> saveBuildLogs(List<BuildLogEntry> buildLogs, ProgrammingSubmission programmingSubmission) {
-        return buildLogs.stream().map(buildLogEntry -> {
+        List<BuildLogEntry> savedBuildLogs = new ArrayList<>(buildLogs.size());
+        List<BuildLogEntry> newBuildLogs = new ArrayList<>(buildLogs.size());
+        for (BuildLogEntry buildLogEntry : buildLogs) {
             // Truncate the log so that it fits into the database
             buildLogEntry.truncateLogToMaxLength();
             // Cut association to parent object
             buildLogEntry.setProgrammingSubmission(null);
-            // persist the BuildLogEntry object without an association to the parent object.
-            var updatedBuildLogEntry = buildLogEntryRepository.save(buildLogEntry);
-            // restore the association to the parent object
-            updatedBuildLogEntry.setProgrammingSubmission(programmingSubmission);
-            return updatedBuildLogEntry;
-        }).collect(Collectors.toCollection(ArrayList::new));
+            if (buildLogEntry.getId() == null) {
+                newBuildLogs.add(buildLogEntry);
+                savedBuildLogs.add(buildLogEntry);
+            }
+            else {
+                savedBuildLogs.add(buildLogEntryRepository.save(buildLogEntry));
+            }
+        }
+        // persist the new BuildLogEntry objects without an association to the parent object, this sets their ids
+        buildLogEntryRepository.insertAllInBatches(newBuildLogs);
+        // restore the association to the parent object
+        savedBuildLogs.forEach(buildLogEntry -> buildLogEntry.setProgrammingSubmission(programmingSubmission));
+        return savedBuildLogs;
     }
 
     /**
      * Retrieves the latest build logs for a given programming submission.
+     * Only the build log entries are loaded, not the submission including its build log entries.
      *
      * @param programmingSubmission submission for which to retrieve the build logs
      * @return the build log entries
      */
     public List<BuildLogEntry> getLatestBuildLogs(ProgrammingSubmission programmingSubmission) {
-        return programmingSubmissionRepository.findWithEagerBuildLogEntriesById(programmingSubmission.getId()).map(ProgrammingSubmission::getBuildLogEntries)
-                .orElseGet(Collections::emptyList);
+        return buildLogEntryRepository.findAllByProgrammingSubmissionIdOrdered(programmingSubmission.getId());
     }
 
     private static final Set<String> ILLEGAL_REFLECTION_LOGS = Set.of("An illegal reflective access operation has occurred", "Illegal reflective access by",
@@ -163,30 +169,7 @@ public class BuildLogEntryService {
     }
 
     /**
-     * Determines if a given build log string shall be added to the build logs which are shown to the user.
-     * It avoids duplicate entries and only allows not more than one empty log.
-     *
-     * @param programmingLanguage programming language of build log
-     * @param buildLogs           accumulated build logs
-     * @param shortenedLogString  current build log string
-     * @return boolean indicating a build log should be added to the overall build logs
-     */
-    public boolean checkIfBuildLogIsNotADuplicate(ProgrammingLanguage programmingLanguage, List<BuildLogEntry> buildLogs, String shortenedLogString) {
-        // C outputs duplicate but necessary output, so we need to skip it
-        boolean skipLanguage = ProgrammingLanguage.C.equals(programmingLanguage);
-        if (!skipLanguage && !buildLogs.isEmpty()) {
-            // E.g. Swift produces a lot of duplicate build logs when a build fails
-            var existingLog = buildLogs.stream().filter(log -> log.getLog().equals(shortenedLogString)).findFirst();
-            String lastLog = buildLogs.get(buildLogs.size() - 1).getLog();
-            // If the log does not exist already or if the log is a single blank log add it to the build logs (avoid more than one empty log in a row)
-            boolean isSingleBlankLog = shortenedLogString.isBlank() && !lastLog.isBlank();
-            return existingLog.isEmpty() || isSingleBlankLog;
-        }
-        return true;
-    }
-
-    /**
-     * Filters out unnecessary build logs that a student should not see.
+     * Filters out unnecessary build logs that a student should not see. The logs are filtered in a single pass, duplicates are detected with a hash set.
      *
      * @param buildLogEntries     the build logs
      * @param programmingLanguage the programming language
@@ -194,6 +177,9 @@ public class BuildLogEntryService {
      */
     private List<BuildLogEntry> removeUnnecessaryLogs(List<BuildLogEntry> buildLogEntries, ProgrammingLanguage programmingLanguage) {
         List<BuildLogEntry> filteredLogs = new ArrayList<>();
+        // C outputs duplicate but necessary output, so we must not remove duplicates
+        boolean keepDuplicates = ProgrammingLanguage.C.equals(programmingLanguage);
+        Set<String> addedLogs = new HashSet<>();
         for (BuildLogEntry buildLog : buildLogEntries) {
 
             String logString = buildLog.getLog();
@@ -212,9 +198,11 @@ public class BuildLogEntryService {
                 continue;
             }
 
-            // Avoid duplicate log entries
-            if (checkIfBuildLogIsNotADuplicate(programmingLanguage, filteredLogs, logString)) {
-                filteredLogs.add(new BuildLogEntry(buildLog.getTime(), logString, buildLog.getProgrammingSubmission()));
+            // Avoid duplicate log entries, e.g. Swift produces a lot of duplicate build logs when a build fails
+            if (keepDuplicates || addedLogs.add(logString)) {
+                // Replace some unnecessary information and hide complex details to make it easier to read the important information
+                String readableLogString = ContinuousIntegrationService.ASSIGNMENT_PATH.matcher(logString).replaceAll("");
+                filteredLogs.add(new BuildLogEntry(buildLog.getTime(), readableLogString, buildLog.getProgrammingSubmission()));
             }
         }
 
@@ -237,9 +225,7 @@ public class BuildLogEntryService {
      * @return the filtered list
      */
     public List<BuildLogEntry> removeUnnecessaryLogsForProgrammingLanguage(List<BuildLogEntry> buildLogEntries, ProgrammingLanguage programmingLanguage) {
-        List<BuildLogEntry> buildLogs = removeUnnecessaryLogs(buildLogEntries, programmingLanguage);
-        // Replace some unnecessary information and hide complex details to make it easier to read the important information
-        return buildLogs.stream().peek(buildLog -> buildLog.setLog(ContinuousIntegrationService.ASSIGNMENT_PATH.matcher(buildLog.getLog()).replaceAll(""))).toList();
+        return removeUnnecessaryLogs(buildLogEntries, programmingLanguage);
     }
 
     /**
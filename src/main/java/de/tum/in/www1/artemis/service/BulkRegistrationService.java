@@ -0,0 +1,209 @@
+package de.tum.in.www1.artemis.service;
+
+import static de.tum.in.www1.artemis.config.Constants.BULK_REGISTRATION_STATUS;
+import static de.tum.in.www1.artemis.service.util.TimeLogUtil.formatDurationFrom;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
+import org.springframework.stereotype.Service;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+
+import de.tum.in.www1.artemis.security.SecurityUtils;
+import de.tum.in.www1.artemis.service.dto.StudentDTO;
+import de.tum.in.www1.artemis.service.exam.ExamRegistrationService;
+import de.tum.in.www1.artemis.service.util.BulkRegistrationStatus;
+import de.tum.in.www1.artemis.web.rest.dto.ExamUserDTO;
+import de.tum.in.www1.artemis.web.rest.errors.ConflictException;
+
+/**
+ * Registers many students (e.g. all students of a course at the start of the term) for a course group or an exam in the background, so that the import does not hold
+ * a request thread. The status of a registration is stored in a distributed map and sent to the user who started it after every processed batch of students.
+ * <p>
+ * Only one registration per course group or exam can run in the cluster at a time. The instance that accepted a registration renews the time to live of its status
+ * every minute until the registration is finished, also while it is still waiting for a free thread. The status of a running registration therefore only expires
+ * after {@link #RUNNING_STATUS_TIME_TO_LIVE_MINUTES} if the instance running it stopped, so that a new registration can be started afterwards.
+ */
+@Service
+public class BulkRegistrationService {
+
+    private static final String ENTITY_NAME = "bulkRegistration";
+
+    private static final String BULK_REGISTRATION_STATUS_TOPIC = "/topic/bulk-registration/%s";
+
+    private static final int MAX_CONCURRENT_REGISTRATIONS = 2;
+
+    private static final int RUNNING_STATUS_TIME_TO_LIVE_MINUTES = 10;
+
+    private static final Duration RUNNING_STATUS_RENEWAL_INTERVAL = Duration.ofMinutes(1);
+
+    private static final int FINISHED_STATUS_TIME_TO_LIVE_MINUTES = 24 * 60;
+
+    private final Logger log = LoggerFactory.getLogger(BulkRegistrationService.class);
+
+    private final CourseService courseService;
+
+    private final ExamRegistrationService examRegistrationService;
+
+    private final IMap<String, BulkRegistrationStatus<?>> statuses;
+
+    private final SimpMessageSendingOperations messagingTemplate;
+
+    private final TaskScheduler scheduler;
+
+    // the keys of the registrations accepted by this instance that are queued or running
+    private final Set<String> localRegistrations = ConcurrentHashMap.newKeySet();
+
+    private ScheduledFuture<?> statusRenewal;
+
+    // the security context of the user who started a registration is used in the background, e.g. for the audit events
+    private final ExecutorService executor = new DelegatingSecurityContextExecutorService(Executors.newFixedThreadPool(MAX_CONCURRENT_REGISTRATIONS));
+
+    public BulkRegistrationService(CourseService courseService, ExamRegistrationService examRegistrationService, HazelcastInstance hazelcastInstance,
+            SimpMessageSendingOperations messagingTemplate, @Qualifier("taskScheduler") TaskScheduler scheduler) {
+        this.courseService = courseService;
+        this.examRegistrationService = examRegistrationService;
+        this.statuses = hazelcastInstance.getMap(BULK_REGISTRATION_STATUS);
+        this.messagingTemplate = messagingTemplate;
+        this.scheduler = scheduler;
+    }
+
+    @PostConstruct
+    public void startStatusRenewal() {
+        statusRenewal = scheduler.scheduleWithFixedDelay(this::renewRunningStatuses, RUNNING_STATUS_RENEWAL_INTERVAL);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (statusRenewal != null) {
+            statusRenewal.cancel(false);
+        }
+        executor.shutdownNow();
+    }
+
+    /**
+     * Extends the time to live of the status of all registrations of this instance that are not finished yet
+     */
+    private void renewRunningStatuses() {
+        for (String key : localRegistrations) {
+            try {
+                statuses.setTtl(key, RUNNING_STATUS_TIME_TO_LIVE_MINUTES, TimeUnit.MINUTES);
+            }
+            catch (Exception ex) {
+                log.warn("Failed to renew the status of registration {}", key, ex);
+            }
+        }
+    }
+
+    /**
+     * Starts the registration of the students for the course group in the background, see {@link CourseService#registerUsersForCourseGroup(Long, List, String)}
+     *
+     * @param courseId    the id of the course
+     * @param courseGroup the group the students should be added to
+     * @param studentDTOs the list of students (with at least registration number)
+     * @return the initial status of the registration
+     */
+    public BulkRegistrationStatus<StudentDTO> startCourseRegistration(Long courseId, String courseGroup, List<StudentDTO> studentDTOs) {
+        return startRegistration(courseRegistrationKey(courseId, courseGroup), studentDTOs.size(),
+                progressListener -> courseService.registerUsersForCourseGroup(courseId, studentDTOs, courseGroup, progressListener));
+    }
+
+    /**
+     * Starts the registration of the students for the exam in the background, see {@link ExamRegistrationService#registerStudentsForExam(Long, Long, List)}
+     *
+     * @param courseId     the id of the course
+     * @param examId       the id of the exam
+     * @param examUserDTOs the list of students (with at least registration number) who should get access to the exam
+     * @return the initial status of the registration
+     */
+    public BulkRegistrationStatus<ExamUserDTO> startExamRegistration(Long courseId, Long examId, List<ExamUserDTO> examUserDTOs) {
+        return startRegistration(examRegistrationKey(examId), examUserDTOs.size(),
+                progressListener -> examRegistrationService.registerStudentsForExam(courseId, examId, examUserDTOs, progressListener));
+    }
+
+    @SuppressWarnings("unchecked")
+    public Optional<BulkRegistrationStatus<StudentDTO>> getCourseRegistrationStatus(Long courseId, String courseGroup) {
+        return getStatus(courseRegistrationKey(courseId, courseGroup)).map(status -> (BulkRegistrationStatus<StudentDTO>) status);
+    }
+
+    @SuppressWarnings("unchecked")
+    public Optional<BulkRegistrationStatus<ExamUserDTO>> getExamRegistrationStatus(Long examId) {
+        return getStatus(examRegistrationKey(examId)).map(status -> (BulkRegistrationStatus<ExamUserDTO>) status);
+    }
+
+    private <T extends Serializable> BulkRegistrationStatus<T> startRegistration(String key, int total, Function<IntConsumer, List<T>> registration) {
+        String login = SecurityUtils.getCurrentUserLogin().orElseThrow();
+        var startedAt = ZonedDateTime.now();
+        var initialStatus = new BulkRegistrationStatus<T>(0, total, List.of(), false, false, startedAt);
+        // the status is only replaced atomically, so that concurrent requests cannot start two registrations
+        var previousStatus = statuses.putIfAbsent(key, initialStatus, RUNNING_STATUS_TIME_TO_LIVE_MINUTES, TimeUnit.MINUTES);
+        if (previousStatus != null && (!previousStatus.finished() || !statuses.replace(key, previousStatus, initialStatus))) {
+            throw new ConflictException("Another registration of students is still running", ENTITY_NAME, "bulkRegistrationRunning");
+        }
+        localRegistrations.add(key);
+        updateStatus(key, login, initialStatus);
+
+        executor.execute(() -> {
+            long start = System.nanoTime();
+            var processedStudents = new AtomicInteger();
+            try {
+                List<T> notFound = registration.apply(processed -> {
+                    processedStudents.set(processed);
+                    updateStatus(key, login, new BulkRegistrationStatus<T>(processed, total, List.of(), false, false, startedAt));
+                });
+                log.info("Finished registration {} of {} students in {}, {} students were not found", key, total, formatDurationFrom(start), notFound.size());
+                updateStatus(key, login, new BulkRegistrationStatus<>(total, total, notFound, true, false, startedAt));
+            }
+            catch (Exception ex) {
+                log.error("Registration {} of {} students failed after {} students", key, total, processedStudents.get(), ex);
+                updateStatus(key, login, new BulkRegistrationStatus<T>(processedStudents.get(), total, List.of(), true, true, startedAt));
+            }
+            finally {
+                localRegistrations.remove(key);
+            }
+        });
+        return initialStatus;
+    }
+
+    private void updateStatus(String key, String login, BulkRegistrationStatus<?> status) {
+        // every update of a running registration extends the time to live of its status
+        statuses.put(key, status, status.finished() ? FINISHED_STATUS_TIME_TO_LIVE_MINUTES : RUNNING_STATUS_TIME_TO_LIVE_MINUTES, TimeUnit.MINUTES);
+        try {
+            messagingTemplate.convertAndSendToUser(login, BULK_REGISTRATION_STATUS_TOPIC.formatted(key), status);
+        }
+        catch (Exception ex) {
+            log.warn("Failed to send bulk registration status", ex);
+        }
+    }
+
+    private Optional<BulkRegistrationStatus<?>> getStatus(String key) {
+        return Optional.ofNullable(statuses.get(key));
+    }
+
+    private static String courseRegistrationKey(Long courseId, String courseGroup) {
+        return "course-" + courseId + "-" + courseGroup;
+    }
+
+    private static String examRegistrationKey(Long examId) {
+        return "exam-" + examId;
+    }
+}
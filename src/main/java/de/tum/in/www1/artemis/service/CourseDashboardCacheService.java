@@ -0,0 +1,245 @@
+package de.tum.in.www1.artemis.service;
+
+import java.time.ZonedDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.event.spi.*;
+import org.hibernate.proxy.HibernateProxy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import com.hazelcast.config.*;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+
+import de.tum.in.www1.artemis.domain.*;
+import de.tum.in.www1.artemis.repository.CourseRepository;
+import de.tum.in.www1.artemis.repository.ExerciseRepository;
+import de.tum.in.www1.artemis.service.dto.CourseDashboardSummaryDTO;
+import de.tum.in.www1.artemis.service.util.CacheEvictionEventListener;
+import de.tum.in.www1.artemis.service.util.TimeLogUtil;
+
+/**
+ * Cluster-wide read model for the course dashboard (courses/for-dashboard).
+ * <p>
+ * The user independent structure of each active course (the course with its lectures and their attachments, and its exercises with categories) is computed once,
+ * stored in a distributed Hazelcast map with a near cache on every instance and invalidated through Hibernate events whenever a course, exercise, lecture or
+ * attachment changes. Every read returns a deserialized copy, so callers can filter the structure for a specific user without affecting other users.
+ * User specific information (visibility, exams, participations, submissions and results) is still computed for each request.
+ */
+@Service
+public class CourseDashboardCacheService extends CacheEvictionEventListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener,
+        PostCollectionRecreateEventListener, PostCollectionUpdateEventListener, PostCollectionRemoveEventListener {
+
+    private static final String COURSE_DASHBOARD_CACHE = "courseDashboard";
+
+    private static final String COURSE_SUMMARIES_MAP = "courseDashboardSummaries";
+
+    private static final String COURSE_STRUCTURES_MAP = "courseDashboardStructures";
+
+    private static final String NOT_ENDED_COURSES_KEY = "notEnded";
+
+    private static final String COURSE_SCOPE_PREFIX = "course-";
+
+    // the summaries are invalidated explicitly, the TTL only limits the number of (ended) courses that are still contained
+    private static final int COURSE_SUMMARIES_TIME_TO_LIVE_SECONDS = 5 * 60;
+
+    private static final int COURSE_STRUCTURES_TIME_TO_LIVE_SECONDS = 60 * 60;
+
+    private final Logger log = LoggerFactory.getLogger(CourseDashboardCacheService.class);
+
+    private final CourseRepository courseRepository;
+
+    private final ExerciseRepository exerciseRepository;
+
+    private final AuthorizationCheckService authCheckService;
+
+    private final IMap<String, ArrayList<CourseDashboardSummaryDTO>> courseSummaries;
+
+    private final IMap<Long, Course> courseStructures;
+
+    public CourseDashboardCacheService(EntityManagerFactory entityManagerFactory, HazelcastInstance hazelcastInstance, CourseRepository courseRepository,
+            ExerciseRepository exerciseRepository, AuthorizationCheckService authCheckService) {
+        super(hazelcastInstance, COURSE_DASHBOARD_CACHE);
+        this.courseRepository = courseRepository;
+        this.exerciseRepository = exerciseRepository;
+        this.authCheckService = authCheckService;
+        this.courseSummaries = hazelcastInstance.getMap(COURSE_SUMMARIES_MAP);
+        this.courseStructures = hazelcastInstance.getMap(COURSE_STRUCTURES_MAP);
+
+        registerEventListeners(entityManagerFactory);
+    }
+
+    /**
+     * Configures the Hazelcast maps of the course dashboard read model.
+     * Both maps use a near cache so that the hot path of the dashboard does not need network hops. The near cache stores the values in binary format, so every read
+     * returns a new copy of the cached course structure.
+     *
+     * @param config the Hazelcast config that should be adapted
+     */
+    public static void configureHazelcast(Config config) {
+        config.getMapConfig(COURSE_SUMMARIES_MAP).setTimeToLiveSeconds(COURSE_SUMMARIES_TIME_TO_LIVE_SECONDS)
+                .setNearCacheConfig(new NearCacheConfig(COURSE_SUMMARIES_MAP).setInMemoryFormat(InMemoryFormat.BINARY).setInvalidateOnChange(true));
+        config.getMapConfig(COURSE_STRUCTURES_MAP).setTimeToLiveSeconds(COURSE_STRUCTURES_TIME_TO_LIVE_SECONDS)
+                .setNearCacheConfig(new NearCacheConfig(COURSE_STRUCTURES_MAP).setInMemoryFormat(InMemoryFormat.BINARY).setInvalidateOnChange(true)
+                        .setEvictionConfig(new EvictionConfig().setEvictionPolicy(EvictionPolicy.LRU).setMaxSizePolicy(MaxSizePolicy.ENTRY_COUNT).setSize(1000)));
+        configureEvictionCounters(config, COURSE_DASHBOARD_CACHE);
+    }
+
+    /**
+     * Get the structure of all active courses that are visible on the dashboard of the given user, i.e. the courses in which the user is a student (and which have already
+     * started), a teaching assistant, an editor or an instructor. Admins see all active courses.
+     * Note: the returned courses contain all exercises of the course (with categories) and all lectures (with attachments). They still need to be filtered for the user.
+     *
+     * @param user the user entity with groups and authorities
+     * @return a modifiable list of (copies of) the cached course structures
+     */
+    public List<Course> findAllActiveCourseStructuresForUser(User user) {
+        long start = System.nanoTime();
+        ZonedDateTime now = ZonedDateTime.now();
+        boolean isAdmin = authCheckService.isAdmin(user);
+        Set<Long> visibleCourseIds = getNotEndedCourseSummaries(now).stream().filter(summary -> summary.isActive(now))
+                .filter(summary -> isAdmin || summary.isMember(user.getGroups())).map(CourseDashboardSummaryDTO::courseId).collect(Collectors.toSet());
+        var courses = getCourseStructures(visibleCourseIds);
+        if (log.isDebugEnabled()) {
+            log.debug("Found {} dashboard course structures for user {} after {}", courses.size(), user.getLogin(), TimeLogUtil.formatDurationFrom(start));
+        }
+        return courses;
+    }
+
+    private List<CourseDashboardSummaryDTO> getNotEndedCourseSummaries(ZonedDateTime now) {
+        var summaries = courseSummaries.get(NOT_ENDED_COURSES_KEY);
+        if (summaries == null) {
+            summaries = loadAndCache(courseSummaries, NOT_ENDED_COURSES_KEY, Set.of(NOT_ENDED_COURSES_KEY),
+                    () -> new ArrayList<>(courseRepository.findAllNotEndedCourseDashboardSummaries(now)));
+        }
+        return summaries;
+    }
+
+    private List<Course> getCourseStructures(Set<Long> courseIds) {
+        if (courseIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, Course> structures = new HashMap<>(courseStructures.getAll(courseIds));
+        Set<Long> missingCourseIds = courseIds.stream().filter(courseId -> !structures.containsKey(courseId)).collect(Collectors.toSet());
+        if (!missingCourseIds.isEmpty()) {
+            Set<String> scopes = missingCourseIds.stream().map(courseId -> COURSE_SCOPE_PREFIX + courseId).collect(Collectors.toSet());
+            // the values are serialized when they are put into the map, so the loaded instances can be safely returned to the caller afterwards
+            Map<Long, Course> loadedStructures = loadAndCache(scopes, () -> loadCourseStructures(missingCourseIds), courseStructures::putAll,
+                    () -> missingCourseIds.forEach(courseStructures::delete));
+            structures.putAll(loadedStructures);
+        }
+        return new ArrayList<>(structures.values());
+    }
+
+    /**
+     * Loads the user independent course structures from the database: the courses with lectures and attachments in one query and all their exercises with categories
+     * in a second query. The exercises are grouped by course in a single pass.
+     *
+     * @param courseIds the ids of the courses that should be loaded
+     * @return a map from the course id to the course structure
+     */
+    private Map<Long, Course> loadCourseStructures(Set<Long> courseIds) {
+        long start = System.nanoTime();
+        List<Course> courses = courseRepository.findAllWithLecturesByIdIn(courseIds);
+        Map<Long, Set<Exercise>> exercisesByCourseId = exerciseRepository.findByCourseIdsWithCategories(courseIds).stream()
+                .collect(Collectors.groupingBy(exercise -> exercise.getCourseViaExerciseGroupOrCourseMember().getId(), Collectors.toSet()));
+        Map<Long, Course> structures = new HashMap<>();
+        for (Course course : courses) {
+            course.setExercises(exercisesByCourseId.getOrDefault(course.getId(), new HashSet<>()));
+            structures.put(course.getId(), course);
+        }
+        log.debug("Loaded {} dashboard course structures after {}", structures.size(), TimeLogUtil.formatDurationFrom(start));
+        return structures;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        evictForEntity(event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        evictForEntity(event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        evictForEntity(event.getEntity());
+    }
+
+    @Override
+    public void onPostRecreateCollection(PostCollectionRecreateEvent event) {
+        evictForCollectionOwner(event.getAffectedOwnerOrNull());
+    }
+
+    @Override
+    public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+        evictForCollectionOwner(event.getAffectedOwnerOrNull());
+    }
+
+    @Override
+    public void onPostRemoveCollection(PostCollectionRemoveEvent event) {
+        evictForCollectionOwner(event.getAffectedOwnerOrNull());
+    }
+
+    private void evictForCollectionOwner(Object owner) {
+        // only the exercise categories are stored as element collection in the course structure
+        if (owner instanceof Exercise exercise) {
+            evictForEntity(exercise);
+        }
+    }
+
+    /**
+     * Evicts the parts of the read model that depend on the given entity. The entries are evicted immediately and again after the surrounding transaction has been
+     * committed, see {@link CacheEvictionEventListener}.
+     *
+     * @param entity the entity that has been inserted, updated or deleted
+     */
+    private void evictForEntity(Object entity) {
+        if (entity instanceof Course course) {
+            // group names or dates might have changed
+            evictNowAndAfterCommit(NOT_ENDED_COURSES_KEY, () -> courseSummaries.delete(NOT_ENDED_COURSES_KEY));
+            evictCourseStructure(course.getId());
+        }
+        else if (entity instanceof Exercise exercise) {
+            // exam exercises are not part of the course dashboard
+            getIdWithoutInitializing(exercise.getCourse()).ifPresent(this::evictCourseStructure);
+        }
+        else if (entity instanceof Lecture lecture) {
+            getIdWithoutInitializing(lecture.getCourse()).ifPresent(this::evictCourseStructure);
+        }
+        else if (entity instanceof Attachment attachment && attachment.getLecture() != null) {
+            // attachments of attachment units do not belong to a lecture and are not part of the course dashboard
+            Lecture lecture = attachment.getLecture();
+            if (lecture instanceof HibernateProxy proxy && proxy.getHibernateLazyInitializer().isUninitialized()) {
+                // we do not know the course without initializing the lecture, which is not possible during a flush
+                evictNowAndAfterCommit(ALL_ENTRIES, courseStructures::clear);
+            }
+            else {
+                getIdWithoutInitializing(lecture.getCourse()).ifPresent(this::evictCourseStructure);
+            }
+        }
+    }
+
+    private void evictCourseStructure(Long courseId) {
+        evictNowAndAfterCommit(COURSE_SCOPE_PREFIX + courseId, () -> courseStructures.delete(courseId));
+    }
+
+    /**
+     * Gets the id of the given entity without initializing it in case it is a Hibernate proxy
+     *
+     * @param entity the (potentially proxied) entity, might be null
+     * @return the id of the entity or an empty optional if the entity or its id is null
+     */
+    private static Optional<Long> getIdWithoutInitializing(DomainObject entity) {
+        if (entity instanceof HibernateProxy proxy) {
+            return Optional.ofNullable((Long) proxy.getHibernateLazyInitializer().getIdentifier());
+        }
+        return Optional.ofNullable(entity).map(DomainObject::getId);
+    }
+}
@@ -11,9 +11,11 @@ import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.time.temporal.IsoFields;
 import java.util.*;
+import java.util.function.IntConsumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import javax.annotation.Nullable;
 import javax.validation.constraints.NotNull;
 
 import org.slf4j.Logger;
@@ -136,6 +138,8 @@ public class CourseService {
 
     private final TutorialGroupsConfigurationRepository tutorialGroupsConfigurationRepository;
 
+    private final CourseDashboardCacheService courseDashboardCacheService;
+
     public CourseService(Environment env, ArtemisAuthenticationProvider artemisAuthenticationProvider, CourseRepository courseRepository, ExerciseService exerciseService,
             ExerciseDeletionService exerciseDeletionService, AuthorizationCheckService authCheckService, UserRepository userRepository, LectureService lectureService,
             GroupNotificationRepository groupNotificationRepository, ExerciseGroupRepository exerciseGroupRepository, AuditEventRepository auditEventRepository,
@@ -145,7 +149,8 @@ public class CourseService {
             RatingRepository ratingRepository, ComplaintService complaintService, ComplaintRepository complaintRepository, ResultRepository resultRepository,
             ComplaintResponseRepository complaintResponseRepository, SubmissionRepository submissionRepository, ProgrammingExerciseRepository programmingExerciseRepository,
             ExerciseRepository exerciseRepository, ParticipantScoreRepository participantScoreRepository, TutorialGroupRepository tutorialGroupRepository,
-            TutorialGroupService tutorialGroupService, TutorialGroupsConfigurationRepository tutorialGroupsConfigurationRepository) {
+            TutorialGroupService tutorialGroupService, TutorialGroupsConfigurationRepository tutorialGroupsConfigurationRepository,
+            CourseDashboardCacheService courseDashboardCacheService) {
         this.env = env;
         this.artemisAuthenticationProvider = artemisAuthenticationProvider;
         this.courseRepository = courseRepository;
@@ -180,6 +185,7 @@ public class CourseService {
         this.tutorialGroupRepository = tutorialGroupRepository;
         this.tutorialGroupService = tutorialGroupService;
         this.tutorialGroupsConfigurationRepository = tutorialGroupsConfigurationRepository;
+        this.courseDashboardCacheService = courseDashboardCacheService;
     }
 
     /**
@@ -254,27 +260,25 @@ public class CourseService {
      */
     public List<Course> findAllActiveWithExercisesAndLecturesAndExamsForUser(User user) {
         long start = System.nanoTime();
-        var userVisibleCourses = courseRepository.findAllActiveWithLectures().stream().filter(course -> isCourseVisibleForUser(user, course)).toList();
+        // the user independent course structures (with lectures and exercises) are cached, only the user specific filtering happens below
+        var userVisibleCourses = courseDashboardCacheService.findAllActiveCourseStructuresForUser(user);
 
         if (log.isDebugEnabled()) {
             log.debug("Find user visible courses finished after {}", TimeLogUtil.formatDurationFrom(start));
         }
-        long startFindAllExercises = System.nanoTime();
+        long startFindAllExams = System.nanoTime();
         var courseIds = userVisibleCourses.stream().map(DomainObject::getId).collect(Collectors.toSet());
-        Set<Exercise> allExercises = exerciseRepository.findByCourseIdsWithCategories(courseIds);
-        Set<Exam> allExams = examRepository.findByCourseIdsForUser(courseIds, user.getId(), user.getGroups(), ZonedDateTime.now());
+        Map<Long, Set<Exam>> examsByCourseId = examRepository.findByCourseIdsForUser(courseIds, user.getId(), user.getGroups(), ZonedDateTime.now()).stream()
+                .collect(Collectors.groupingBy(exam -> exam.getCourse().getId(), Collectors.toSet()));
         if (log.isDebugEnabled()) {
-            log.debug("findAllExercisesByCourseIdsWithCategories finished with {} exercises and {} exams after {}", allExercises.size(), allExams.size(),
-                    TimeLogUtil.formatDurationFrom(startFindAllExercises));
+            log.debug("findByCourseIdsForUser finished with exams for {} courses after {}", examsByCourseId.size(), TimeLogUtil.formatDurationFrom(startFindAllExams));
         }
 
         long startFilterAll = System.nanoTime();
         var courses = userVisibleCourses.stream().peek(course -> {
-            // connect the exercises with the course
-            course.setExercises(allExercises.stream().filter(ex -> ex.getCourseViaExerciseGroupOrCourseMember().getId().equals(course.getId())).collect(Collectors.toSet()));
             course.setExercises(exerciseService.filterExercisesForCourse(course, user));
             exerciseService.loadExerciseDetailsIfNecessary(course, user);
-            course.setExams(allExams.stream().filter(ex -> ex.getCourse().getId().equals(course.getId())).collect(Collectors.toSet()));
+            course.setExams(examsByCourseId.getOrDefault(course.getId(), new HashSet<>()));
             course.setLectures(lectureService.filterActiveAttachments(course.getLectures(), user));
         }).toList();
 
@@ -439,17 +443,35 @@ public class CourseService {
      * @return the list of students who could not be registered for the course, because they could NOT be found in the Artemis database and could NOT be found in the TUM LDAP
      */
     public List<StudentDTO> registerUsersForCourseGroup(Long courseId, List<StudentDTO> studentDTOs, String courseGroup) {
+        return registerUsersForCourseGroup(courseId, studentDTOs, courseGroup, null);
+    }
+
+    /**
+     * Add multiple users to the course so that they can access it, see {@link #registerUsersForCourseGroup(Long, List, String)}.
+     * The students are processed in batches of {@link UserService#BULK_REGISTRATION_BATCH_SIZE}, the progress listener is notified after every batch.
+     *
+     * @param courseId         the id of the course
+     * @param studentDTOs      the list of students (with at least registration number)
+     * @param courseGroup      the group the students should be added to
+     * @param progressListener receives the number of processed students after every batch, might be null
+     * @return the list of students who could not be registered for the course, because they could NOT be found in the Artemis database and could NOT be found in the TUM LDAP
+     */
+    public List<StudentDTO> registerUsersForCourseGroup(Long courseId, List<StudentDTO> studentDTOs, String courseGroup, @Nullable IntConsumer progressListener) {
         var course = courseRepository.findByIdElseThrow(courseId);
         String courseGroupName = course.defineCourseGroupName(courseGroup);
         Role courseGroupRole = Role.fromString(courseGroup);
         List<StudentDTO> notFoundStudentsDTOs = new ArrayList<>();
-        for (var studentDto : studentDTOs) {
-            var registrationNumber = studentDto.getRegistrationNumber();
-            var login = studentDto.getLogin();
-            var email = studentDto.getEmail();
-            Optional<User> optionalStudent = userService.findUserAndAddToCourse(registrationNumber, courseGroupName, courseGroupRole, login, email);
-            if (optionalStudent.isEmpty()) {
-                notFoundStudentsDTOs.add(studentDto);
+        for (int start = 0; start < studentDTOs.size(); start += UserService.BULK_REGISTRATION_BATCH_SIZE) {
+            int end = Math.min(start + UserService.BULK_REGISTRATION_BATCH_SIZE, studentDTOs.size());
+            var batch = studentDTOs.subList(start, end);
+            List<Optional<User>> optionalStudents = userService.findUsersAndAddToCourse(batch, courseGroupName, courseGroupRole);
+            for (int i = 0; i < batch.size(); i++) {
+                if (optionalStudents.get(i).isEmpty()) {
+                    notFoundStudentsDTOs.add(batch.get(i));
+                }
+            }
+            if (progressListener != null) {
+                progressListener.accept(end);
             }
         }
 
@@ -175,6 +175,31 @@ public class FileService implements DisposableBean {
         }
     }
 
+    /**
+     * Creates an empty file in the folder of the temporary uploads, so that files generated by the server (e.g. the split units of a lecture file) can be written
+     * directly to the disk. Like uploaded files, the file is moved to its permanent location when the entity that links it (see {@link #publicPathForTemporaryFile(File)})
+     * is saved.
+     *
+     * @param filename     the name of the file, invalid characters are replaced with an underscore
+     * @param keepFileName specifies if the file name should be kept, an existing temporary file with the same name is replaced in this case
+     * @return the created file
+     * @throws IOException if the file cannot be created
+     */
+    public File createTemporaryFile(String filename, boolean keepFileName) throws IOException {
+        final String sanitizedFilename = filename.replaceAll("[^a-zA-Z\\d.\\-]", "_");
+        return createNewFile(FilePathService.getTempFilePath(), sanitizedFilename, "Temp_", FilenameUtils.getExtension(sanitizedFilename), keepFileName);
+    }
+
+    /**
+     * Returns the public path of a file created with {@link #createTemporaryFile(String, boolean)}
+     *
+     * @param temporaryFile the temporary file
+     * @return the public path of the file
+     */
+    public String publicPathForTemporaryFile(File temporaryFile) {
+        return DEFAULT_FILE_SUBPATH + temporaryFile.getName();
+    }
+
     /**
      * Creates a new file from given contents
      *
@@ -1,12 +1,19 @@
 package de.tum.in.www1.artemis.service;
 
-import java.io.*;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.ZonedDateTime;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+import javax.annotation.PreDestroy;
 import javax.validation.constraints.NotNull;
 
-import org.apache.commons.fileupload.*;
+import org.apache.pdfbox.io.MemoryUsageSetting;
 import org.apache.pdfbox.multipdf.Splitter;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDDocumentInformation;
@@ -24,29 +31,47 @@ import de.tum.in.www1.artemis.web.rest.dto.LectureUnitInformationDTO;
 import de.tum.in.www1.artemis.web.rest.dto.LectureUnitSplitDTO;
 import de.tum.in.www1.artemis.web.rest.errors.InternalServerErrorException;
 
+/**
+ * Splits lecture files into the files of attachment units. The lecture files can be large (e.g. several hundred pages with images), therefore they are processed from
+ * temporary files with the scratch files of PDFBox instead of loading them into the heap, and at most {@link #MAX_CONCURRENT_JOBS} files are processed at the same time.
+ */
 @Service
 public class LectureUnitProcessingService {
 
+    private static final int MAX_CONCURRENT_JOBS = 2;
+
+    // main memory that PDFBox uses per document before it falls back to a scratch file
+    private static final long MAX_MAIN_MEMORY_BYTES = 8 * 1024 * 1024;
+
     private final Logger log = LoggerFactory.getLogger(LectureUnitProcessingService.class);
 
     private final FileService fileService;
 
+    private final ExecutorService executor = Executors.newFixedThreadPool(MAX_CONCURRENT_JOBS);
+
     public LectureUnitProcessingService(FileService fileService) {
         this.fileService = fileService;
     }
 
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
     /**
-     * Split units from given file according to given split information.
+     * Split units from given file according to given split information. The file of every unit is written directly to the temporary upload folder and linked in its
+     * attachment, so that it is moved to the folder of the attachment unit when the attachment is saved.
      *
      * @param lectureUnitInformationDTO The split information
      * @param file                      The file (lecture slide) to be split
      * @return The prepared units to be saved
      */
     public List<LectureUnitDTO> splitUnits(LectureUnitInformationDTO lectureUnitInformationDTO, MultipartFile file) throws IOException {
-
-        try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream(); PDDocument document = PDDocument.load(file.getBytes())) {
+        return runJob(file, document -> {
             List<LectureUnitDTO> units = new ArrayList<>();
+            Set<String> unitFilenames = new HashSet<>();
             Splitter pdfSplitter = new Splitter();
+            pdfSplitter.setMemoryUsageSetting(MemoryUsageSetting.setupMixed(MAX_MAIN_MEMORY_BYTES));
 
             for (LectureUnitSplitDTO lectureUnit : lectureUnitInformationDTO.units()) {
                 AttachmentUnit attachmentUnit = new AttachmentUnit();
@@ -58,12 +83,16 @@ public class LectureUnitProcessingService {
                 pdfSplitter.setSplitAtPage(lectureUnit.endPage());
 
                 List<PDDocument> documentUnits = pdfSplitter.split(document);
-                pdDocumentInformation.setTitle(lectureUnit.unitName());
-                if (lectureUnitInformationDTO.removeBreakSlides()) {
-                    removeBreakSlides(documentUnits.get(0));
+                // units with the same name must not replace each other's files
+                File unitFile = fileService.createTemporaryFile(lectureUnit.unitName() + ".pdf", unitFilenames.add(lectureUnit.unitName()));
+                try (PDDocument documentUnit = documentUnits.get(0)) {
+                    pdDocumentInformation.setTitle(lectureUnit.unitName());
+                    if (lectureUnitInformationDTO.removeBreakSlides()) {
+                        removeBreakSlides(documentUnit);
+                    }
+                    documentUnit.setDocumentInformation(pdDocumentInformation);
+                    documentUnit.save(unitFile);
                 }
-                documentUnits.get(0).setDocumentInformation(pdDocumentInformation);
-                documentUnits.get(0).save(outputStream);
 
                 // setup attachmentUnit and attachment
                 attachmentUnit.setDescription("");
@@ -71,20 +100,16 @@ public class LectureUnitProcessingService {
                 attachment.setAttachmentType(AttachmentType.FILE);
                 attachment.setReleaseDate(lectureUnit.releaseDate());
                 attachment.setUploadDate(ZonedDateTime.now());
+                attachment.setLink(fileService.publicPathForTemporaryFile(unitFile));
 
-                MultipartFile multipartFile = fileService.convertByteArrayToMultipart(lectureUnit.unitName(), ".pdf", outputStream.toByteArray());
-
-                LectureUnitDTO lectureUnitsDTO = new LectureUnitDTO(attachmentUnit, attachment, multipartFile);
-                units.add(lectureUnitsDTO);
-                documentUnits.get(0).close(); // make sure to close the document
+                units.add(new LectureUnitDTO(attachmentUnit, attachment));
             }
-            document.close();
             return units;
-        }
+        });
     }
 
     /**
-     * Removes the break slides from the given document.
+     * Removes the first break slide from the given document.
      *
      * @param document document to remove break slides from
      */
@@ -92,20 +117,11 @@ public class LectureUnitProcessingService {
 
         try {
             PDFTextStripper pdfTextStripper = new PDFTextStripper();
-            Splitter pdfSplitter = new Splitter();
-            List<PDDocument> pages = pdfSplitter.split(document);
-            Iterator<PDDocument> iterator = pages.listIterator();
-
-            int index = 0;
-            while (iterator.hasNext()) {
-                PDDocument currentPage = iterator.next();
-                String slideText = pdfTextStripper.getText(currentPage);
-                if (isBreakSlide(slideText)) {
+            for (int index = 0; index < document.getNumberOfPages(); index++) {
+                if (isBreakSlide(getSlideText(pdfTextStripper, document, index))) {
                     document.removePage(index);
                     break;
                 }
-                currentPage.close(); // make sure to close the document
-                index++;
             }
         }
         catch (IOException e) {
@@ -118,6 +134,20 @@ public class LectureUnitProcessingService {
         return slideText.contains("Break") || slideText.contains("Pause");
     }
 
+    /**
+     * Extracts the text of one page without copying the page into a separate document
+     *
+     * @param pdfTextStripper the text stripper (not thread-safe)
+     * @param document        the document
+     * @param pageIndex       the index of the page (starting at 0)
+     * @return the text of the page
+     */
+    private static String getSlideText(PDFTextStripper pdfTextStripper, PDDocument document, int pageIndex) throws IOException {
+        pdfTextStripper.setStartPage(pageIndex + 1);
+        pdfTextStripper.setEndPage(pageIndex + 1);
+        return pdfTextStripper.getText(document);
+    }
+
     /**
      * Prepare information of split units for client
      *
@@ -128,7 +158,7 @@ public class LectureUnitProcessingService {
 
         try {
             log.debug("Start preparing information of split units for the file {}", file);
-            Outline unitsInformation = separateIntoUnits(file);
+            Outline unitsInformation = runJob(file, this::separateIntoUnits);
             Map<Integer, LectureUnitSplit> unitsDocumentMap = unitsInformation.splits;
             int numberOfPages = unitsInformation.totalPages;
 
@@ -149,40 +179,71 @@ public class LectureUnitProcessingService {
      * is going to be split. The map looks like the following:
      * Map<OutlineNumber, (UnitName, StartPage, EndPage)>
      *
-     * @param file The file (lecture pdf) to be split
+     * @param document The document (lecture pdf) to be split
      * @return The prepared map
      */
-    private Outline separateIntoUnits(MultipartFile file) throws IOException {
-        try (PDDocument document = PDDocument.load(file.getBytes())) {
-            Map<Integer, LectureUnitSplit> outlineMap = new HashMap<>();
-            Splitter pdfSplitter = new Splitter();
-            PDFTextStripper pdfStripper = new PDFTextStripper();
-            // split the document into single pages
-            List<PDDocument> pages = pdfSplitter.split(document);
-            int numberOfPages = document.getNumberOfPages();
-            ListIterator<PDDocument> iterator = pages.listIterator();
-
-            int outlineCount = 0;
-            int index = 1;
-            while (iterator.hasNext()) {
-                PDDocument currentPage = iterator.next();
-                String slideText = pdfStripper.getText(currentPage);
-
-                if (isOutlineSlide(slideText)) {
-                    outlineCount++;
-                    String[] lines = slideText.split("\r\n|\r|\n");
-
-                    // if it's the outline slide it will get the next bullet point as unit name.
-                    String unitName = lines[outlineCount + 1].replaceAll("[^a-zA-Z0-9\\s()_-]", "").replaceFirst("^\\s*", "");
-                    outlineMap.put(outlineCount, new LectureUnitSplit(unitName, outlineCount == 1 ? 1 : index, numberOfPages));
-
-                    updatePreviousUnitEndPage(outlineCount, outlineMap, index);
+    private Outline separateIntoUnits(PDDocument document) throws IOException {
+        Map<Integer, LectureUnitSplit> outlineMap = new HashMap<>();
+        PDFTextStripper pdfStripper = new PDFTextStripper();
+        int numberOfPages = document.getNumberOfPages();
+
+        int outlineCount = 0;
+        for (int index = 1; index <= numberOfPages; index++) {
+            String slideText = getSlideText(pdfStripper, document, index - 1);
+
+            if (isOutlineSlide(slideText)) {
+                outlineCount++;
+                String[] lines = slideText.split("\r\n|\r|\n");
+
+                // if it's the outline slide it will get the next bullet point as unit name.
+                String unitName = lines[outlineCount + 1].replaceAll("[^a-zA-Z0-9\\s()_-]", "").replaceFirst("^\\s*", "");
+                outlineMap.put(outlineCount, new LectureUnitSplit(unitName, outlineCount == 1 ? 1 : index, numberOfPages));
+
+                updatePreviousUnitEndPage(outlineCount, outlineMap, index);
+            }
+        }
+        return new Outline(outlineMap, numberOfPages);
+    }
+
+    @FunctionalInterface
+    private interface DocumentJob<T> {
+
+        T process(PDDocument document) throws IOException;
+    }
+
+    /**
+     * Processes the given lecture file on the bounded pool of this service and waits for the result. The uploaded file is transferred to a temporary file, from which
+     * PDFBox reads the document on demand, so that the heap usage does not depend on the size of the file.
+     *
+     * @param file the uploaded lecture file
+     * @param job  the job that processes the document
+     * @return the result of the job
+     */
+    private <T> T runJob(MultipartFile file, DocumentJob<T> job) throws IOException {
+        Path tempFile = Files.createTempFile("lecture-file-", ".pdf");
+        try {
+            file.transferTo(tempFile);
+            return executor.submit(() -> {
+                try (PDDocument document = PDDocument.load(tempFile.toFile(), MemoryUsageSetting.setupMixed(MAX_MAIN_MEMORY_BYTES))) {
+                    return job.process(document);
                 }
-                currentPage.close(); // make sure to close the document
-                index++;
+            }).get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InternalServerErrorException("Interrupted while processing the lecture file");
+        }
+        catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
             }
-            document.close(); // make sure to close the document
-            return new Outline(outlineMap, numberOfPages);
+            else if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IOException("Could not process the lecture file", e.getCause());
+        }
+        finally {
+            Files.deleteIfExists(tempFile);
         }
     }
 
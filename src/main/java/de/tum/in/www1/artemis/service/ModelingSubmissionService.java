@@ -24,7 +24,6 @@ import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
 import de.tum.in.www1.artemis.repository.*;
 import de.tum.in.www1.artemis.service.compass.CompassService;
 import de.tum.in.www1.artemis.service.exam.ExamDateService;
-import de.tum.in.www1.artemis.web.rest.errors.AccessForbiddenException;
 
 @Service
 public class ModelingSubmissionService extends SubmissionService {
@@ -94,11 +93,7 @@ public class ModelingSubmissionService extends SubmissionService {
             throw new ResponseStatusException(HttpStatus.FAILED_DEPENDENCY, "No participation found for " + user.getLogin() + " in exercise " + exercise.getId());
         }
         final var participation = optionalParticipation.get();
-        final var dueDate = ExerciseDateService.getDueDate(participation);
-        // Important: for exam exercises, we should NOT check the exercise due date, we only check if for course exercises
-        if (dueDate.isPresent() && exerciseDateService.isAfterDueDate(participation) && participation.getInitializationDate().isBefore(dueDate.get())) {
-            throw new AccessForbiddenException();
-        }
+        checkSubmissionBeforeDueDateElseThrow(participation);
 
         // remove result from submission (in the unlikely case it is passed here), so that students cannot inject a result
         modelingSubmission.setResults(new ArrayList<>());
@@ -6,13 +6,25 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.concurrent.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
+import javax.annotation.Nullable;
+import javax.annotation.PreDestroy;
+
+import org.apache.commons.codec.digest.DigestUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
+import org.springframework.web.server.ResponseStatusException;
 
 import net.sourceforge.plantuml.FileFormat;
 import net.sourceforge.plantuml.FileFormatOption;
@@ -29,10 +41,53 @@ public class PlantUmlService {
 
     private static final Path PATH_TMP_THEME = Paths.get(System.getProperty("java.io.tmpdir"), "artemis-puml-theme");
 
+    private static final String PLANT_UML_PNG_CACHE = "plantUmlPng";
+
+    private static final String PLANT_UML_SVG_CACHE = "plantUmlSvg";
+
+    // same as the diagrams rendered by the client in problem statements
+    private static final Pattern PLANT_UML_PATTERN = Pattern.compile("@startuml([^@]*)@enduml");
+
+    // the client replaces these markers with the color of the test results, e.g. testsColor(testBubbleSort())
+    private static final Pattern TESTS_COLOR_PATTERN = Pattern.compile("testsColor\\(((?:[^()]+\\([^()]+\\))*[^()]*)\\)");
+
+    // requests that do not fit into the queue are rejected, so that renders never block the request threads
+    private static final int RENDER_QUEUE_CAPACITY = 20;
+
+    // pre-renders that do not fit into the queue are skipped, the diagrams are then rendered when they are requested for the first time
+    private static final int PRE_RENDER_QUEUE_CAPACITY = 100;
+
+    private static final int RENDER_TIMEOUT_SECONDS = 30;
+
     private final ResourceLoaderService resourceLoaderService;
 
-    public PlantUmlService(ResourceLoaderService resourceLoaderService) throws IOException {
+    private final CacheManager cacheManager;
+
+    // renders that are currently running on this instance, identical renders wait for them instead of rendering the diagram again
+    private final ConcurrentMap<String, CompletableFuture<Object>> runningRenders = new ConcurrentHashMap<>();
+
+    private final ExecutorService renderExecutor;
+
+    // pre-renders use a separate low priority thread, so that they never delay the renders requested by users
+    private final ExecutorService preRenderExecutor;
+
+    public PlantUmlService(ResourceLoaderService resourceLoaderService, CacheManager cacheManager, @Value("${artemis.plantuml.render-threads:2}") int renderThreads)
+            throws IOException {
         this.resourceLoaderService = resourceLoaderService;
+        this.cacheManager = cacheManager;
+        if (renderThreads > 0) {
+            // renders are CPU intensive, so a small dedicated pool bounds the number of concurrent renders per instance
+            this.renderExecutor = new ThreadPoolExecutor(renderThreads, renderThreads, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(RENDER_QUEUE_CAPACITY),
+                    new CustomizableThreadFactory("plantuml-render-"));
+            var preRenderThreadFactory = new CustomizableThreadFactory("plantuml-pre-render-");
+            preRenderThreadFactory.setThreadPriority(Thread.MIN_PRIORITY);
+            this.preRenderExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(PRE_RENDER_QUEUE_CAPACITY), preRenderThreadFactory,
+                    (task, executor) -> log.debug("Skip pre-rendering of PlantUML diagram because too many diagrams are waiting to be pre-rendered"));
+        }
+        else {
+            this.renderExecutor = null;
+            this.preRenderExecutor = null;
+        }
 
         // Delete on first launch to ensure updates
         Files.deleteIfExists(PATH_TMP_THEME.resolve(DARK_THEME_FILE_NAME));
@@ -62,6 +117,14 @@ public class PlantUmlService {
         });
     }
 
+    @PreDestroy
+    public void shutdown() {
+        if (renderExecutor != null) {
+            renderExecutor.shutdownNow();
+            preRenderExecutor.shutdownNow();
+        }
+    }
+
     /**
      * Generate PNG diagram for given PlantUML commands
      *
@@ -70,14 +133,8 @@ public class PlantUmlService {
      * @return The generated PNG as a byte array
      * @throws IOException if generateImage can't create the PNG
      */
-    @Cacheable(value = "plantUmlPng", unless = "#result == null || #result.length == 0")
     public byte[] generatePng(final String plantUml, final boolean useDarkTheme) throws IOException {
-        var input = validateInputAndApplyTheme(plantUml, useDarkTheme);
-        try (final var bos = new ByteArrayOutputStream()) {
-            final var reader = new SourceStringReader(input);
-            reader.outputImage(bos, new FileFormatOption(FileFormat.PNG));
-            return bos.toByteArray();
-        }
+        return awaitRender(startRender(PLANT_UML_PNG_CACHE, byte[].class, plantUml, useDarkTheme));
     }
 
     /**
@@ -88,13 +145,140 @@ public class PlantUmlService {
      * @return ResponseEntity PNG stream
      * @throws IOException if generateImage can't create the SVG
      */
-    @Cacheable(value = "plantUmlSvg", unless = "#result == null || #result.isEmpty()")
     public String generateSvg(final String plantUml, final boolean useDarkTheme) throws IOException {
-        var input = validateInputAndApplyTheme(plantUml, useDarkTheme);
+        return awaitRender(startRender(PLANT_UML_SVG_CACHE, String.class, plantUml, useDarkTheme));
+    }
+
+    /**
+     * Renders the SVG diagrams of the given problem statement in both themes in the background, so that they are already cached when the students open the problem
+     * statement (e.g. at the release of the exercise). The client colors the diagrams according to the test results of the student, which are not known here. Therefore,
+     * only the variant without results (all tests grey) is rendered. Diagrams are not pre-rendered if no render threads are configured.
+     * <p>
+     * Pre-renders run on a single low priority thread. Users who request a diagram whose pre-render has not started yet do not wait for it, but render it themselves.
+     *
+     * @param problemStatement the markdown of the problem statement, might be null
+     */
+    public void preRenderDiagrams(@Nullable String problemStatement) {
+        if (preRenderExecutor == null || !StringUtils.hasText(problemStatement)) {
+            return;
+        }
+        Matcher plantUmlMatcher = PLANT_UML_PATTERN.matcher(problemStatement);
+        while (plantUmlMatcher.find()) {
+            String plantUml = TESTS_COLOR_PATTERN.matcher(plantUmlMatcher.group()).replaceAll("grey");
+            for (boolean useDarkTheme : new boolean[] { false, true }) {
+                try {
+                    startPreRender(plantUml, useDarkTheme);
+                }
+                catch (IllegalArgumentException ex) {
+                    log.debug("Skip pre-rendering of invalid PlantUML diagram: {}", ex.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the cached diagram or starts rendering it. Renders of the same diagram in the same format and theme are collapsed into one render, i.e. concurrent
+     * requests wait for the render that was started first. The diagrams are cached by the SHA-256 hash of the input, so that the cache keys have a fixed size.
+     */
+    private <T> CompletableFuture<T> startRender(String cacheName, Class<T> type, String plantUml, boolean useDarkTheme) {
+        final var input = validateInputAndApplyTheme(plantUml, useDarkTheme);
+        final var key = DigestUtils.sha256Hex(input);
+        final var cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            T cachedDiagram = cache.get(key, type);
+            if (cachedDiagram != null) {
+                return CompletableFuture.completedFuture(cachedDiagram);
+            }
+        }
+
+        final var newRender = new CompletableFuture<Object>();
+        final var runningRender = runningRenders.putIfAbsent(cacheName + "-" + key, newRender);
+        if (runningRender != null) {
+            return runningRender.thenApply(type::cast);
+        }
+        Runnable renderTask = () -> render(cacheName, cache, key, input, type == byte[].class ? FileFormat.PNG : FileFormat.SVG, newRender);
+        if (renderExecutor != null) {
+            try {
+                renderExecutor.execute(renderTask);
+            }
+            catch (RejectedExecutionException ex) {
+                runningRenders.remove(cacheName + "-" + key, newRender);
+                newRender.completeExceptionally(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many PlantUML diagrams are being rendered, try again later", ex));
+            }
+        }
+        else {
+            renderTask.run();
+        }
+        return newRender.thenApply(type::cast);
+    }
+
+    /**
+     * Queues the render of the SVG diagram with the lower priority. The render is only registered as running when it starts, so that requests never wait for queued
+     * pre-renders.
+     */
+    private void startPreRender(String plantUml, boolean useDarkTheme) {
+        final var input = validateInputAndApplyTheme(plantUml, useDarkTheme);
+        final var key = DigestUtils.sha256Hex(input);
+        final var cache = cacheManager.getCache(PLANT_UML_SVG_CACHE);
+        preRenderExecutor.execute(() -> {
+            if (cache != null && cache.get(key) != null) {
+                return;
+            }
+            final var newRender = new CompletableFuture<Object>();
+            if (runningRenders.putIfAbsent(PLANT_UML_SVG_CACHE + "-" + key, newRender) == null) {
+                render(PLANT_UML_SVG_CACHE, cache, key, input, FileFormat.SVG, newRender);
+            }
+        });
+    }
+
+    private void render(String cacheName, @Nullable Cache cache, String key, String input, FileFormat fileFormat, CompletableFuture<Object> render) {
+        try {
+            Object diagram = renderDiagram(input, fileFormat);
+            if (cache != null && !isEmpty(diagram)) {
+                cache.put(key, diagram);
+            }
+            render.complete(diagram);
+        }
+        catch (Throwable ex) {
+            render.completeExceptionally(ex);
+        }
+        finally {
+            runningRenders.remove(cacheName + "-" + key, render);
+        }
+    }
+
+    private Object renderDiagram(String input, FileFormat fileFormat) throws IOException {
         try (final var bos = new ByteArrayOutputStream()) {
             final var reader = new SourceStringReader(input);
-            reader.outputImage(bos, new FileFormatOption(FileFormat.SVG));
-            return bos.toString(StandardCharsets.UTF_8);
+            reader.outputImage(bos, new FileFormatOption(fileFormat));
+            return fileFormat == FileFormat.PNG ? bos.toByteArray() : bos.toString(StandardCharsets.UTF_8);
+        }
+    }
+
+    private static boolean isEmpty(Object diagram) {
+        return diagram == null || (diagram instanceof byte[] png && png.length == 0) || (diagram instanceof String svg && svg.isEmpty());
+    }
+
+    private static <T> T awaitRender(CompletableFuture<T> render) throws IOException {
+        try {
+            // the render continues after the timeout, so that the diagram is cached for the next request
+            return render.get(RENDER_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        }
+        catch (TimeoutException ex) {
+            throw new IOException("Rendering the PlantUML diagram took longer than " + RENDER_TIMEOUT_SECONDS + " seconds", ex);
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the PlantUML diagram", ex);
+        }
+        catch (ExecutionException ex) {
+            if (ex.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            else if (ex.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IOException("Unable to render PlantUML diagram", ex.getCause());
         }
     }
 
@@ -6,6 +6,8 @@ import java.nio.file.Path;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.annotation.Nonnull;
 
@@ -33,6 +35,12 @@ public class ResourceLoaderService {
 
     private final ResourcePatternResolver resourceLoader;
 
+    /**
+     * The resolved classpath resources per location pattern. Resolving a pattern scans the classpath (e.g. all entries of the jar), but the classpath does not change
+     * at runtime, so e.g. the template resources of the same programming language and project type are only resolved once.
+     */
+    private final ConcurrentMap<String, Resource[]> classPathResources = new ConcurrentHashMap<>();
+
     /**
      * Files that start with a prefix that is included in this list can be overwritten from the file system
      */
@@ -113,16 +121,31 @@ public class ResourceLoaderService {
 
         // If loading from filesystem is not allowed or was not successful, load from classpath
         if (resources == null || resources.length == 0) {
-            final String resourceLocation = getClassPathResourceLocation(basePath, pattern);
+            resources = getClassPathResources(getClassPathResourceLocation(basePath, pattern));
+        }
+
+        return Objects.requireNonNullElseGet(resources, () -> new Resource[0]);
+    }
+
+    /**
+     * Resolves the classpath resources of the location pattern or reuses the previously resolved ones.
+     *
+     * @param resourceLocation the classpath location pattern
+     * @return a copy of the resolved resources (so that callers can modify the array), or null if they could not be resolved
+     */
+    private Resource[] getClassPathResources(final String resourceLocation) {
+        Resource[] resources = classPathResources.get(resourceLocation);
+        if (resources == null) {
             try {
                 resources = resourceLoader.getResources(resourceLocation);
             }
             catch (IOException e) {
                 log.debug("Could not load resources '{}' from classpath.", resourceLocation, e);
+                return null;
             }
+            classPathResources.putIfAbsent(resourceLocation, resources);
         }
-
-        return Objects.requireNonNullElseGet(resources, () -> new Resource[0]);
+        return resources.clone();
     }
 
     private void checkValidPathElseThrow(final Path path) {
@@ -1,14 +1,17 @@
 package de.tum.in.www1.artemis.service;
 
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 import org.apache.commons.lang3.NotImplementedException;
 import org.springframework.stereotype.Service;
 
 import de.tum.in.www1.artemis.domain.*;
 import de.tum.in.www1.artemis.domain.enumeration.FeedbackType;
-import de.tum.in.www1.artemis.domain.enumeration.SubmissionType;
 import de.tum.in.www1.artemis.domain.participation.Participation;
+import de.tum.in.www1.artemis.domain.participation.ParticipationSubmissionCount;
 import de.tum.in.www1.artemis.domain.participation.ProgrammingExerciseStudentParticipation;
-import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
 import de.tum.in.www1.artemis.domain.submissionpolicy.LockRepositoryPolicy;
 import de.tum.in.www1.artemis.domain.submissionpolicy.SubmissionPenaltyPolicy;
 import de.tum.in.www1.artemis.domain.submissionpolicy.SubmissionPolicy;
@@ -16,7 +19,6 @@ import de.tum.in.www1.artemis.repository.*;
 import de.tum.in.www1.artemis.service.programming.ProgrammingExerciseParticipationService;
 import de.tum.in.www1.artemis.web.rest.SubmissionPolicyResource;
 import de.tum.in.www1.artemis.web.rest.errors.BadRequestAlertException;
-import de.tum.in.www1.artemis.web.rest.errors.EntityNotFoundException;
 
 @Service
 public class SubmissionPolicyService {
@@ -29,16 +31,16 @@ public class SubmissionPolicyService {
 
     private final ProgrammingSubmissionRepository programmingSubmissionRepository;
 
-    private final ParticipationRepository participationRepository;
+    private final ProgrammingExerciseStudentParticipationRepository programmingExerciseStudentParticipationRepository;
 
     public SubmissionPolicyService(ProgrammingExerciseRepository programmingExerciseRepository, SubmissionPolicyRepository submissionPolicyRepository,
             ProgrammingExerciseParticipationService programmingExerciseParticipationService, ProgrammingSubmissionRepository programmingSubmissionRepository,
-            ParticipationRepository participationRepository) {
+            ProgrammingExerciseStudentParticipationRepository programmingExerciseStudentParticipationRepository) {
         this.programmingExerciseRepository = programmingExerciseRepository;
         this.submissionPolicyRepository = submissionPolicyRepository;
         this.programmingExerciseParticipationService = programmingExerciseParticipationService;
         this.programmingSubmissionRepository = programmingSubmissionRepository;
-        this.participationRepository = participationRepository;
+        this.programmingExerciseStudentParticipationRepository = programmingExerciseStudentParticipationRepository;
     }
 
     /**
@@ -147,7 +149,7 @@ public class SubmissionPolicyService {
     }
 
     private SubmissionPolicy enableLockRepositoryPolicy(LockRepositoryPolicy policy) {
-        ProgrammingExercise exercise = programmingExerciseRepository.findByIdWithStudentParticipationsAndLegalSubmissionsElseThrow(policy.getProgrammingExercise().getId());
+        ProgrammingExercise exercise = programmingExerciseRepository.findByIdElseThrow(policy.getProgrammingExercise().getId());
         lockParticipationsWhenSubmissionsGreaterLimit(exercise, policy.getSubmissionLimit());
         policy.setActive(true);
         return submissionPolicyRepository.save(policy);
@@ -176,7 +178,7 @@ public class SubmissionPolicyService {
     }
 
     private void disableLockRepositoryPolicy(LockRepositoryPolicy policy) {
-        ProgrammingExercise exercise = programmingExerciseRepository.findByIdWithStudentParticipationsAndLegalSubmissionsElseThrow(policy.getProgrammingExercise().getId());
+        ProgrammingExercise exercise = programmingExerciseRepository.findByIdElseThrow(policy.getProgrammingExercise().getId());
         unlockParticipationsWhenSubmissionsGreaterLimit(exercise, policy.getSubmissionLimit());
         toggleSubmissionPolicy(policy, false);
     }
@@ -225,7 +227,7 @@ public class SubmissionPolicyService {
     }
 
     private void updateLockRepositoryPolicy(SubmissionPolicy originalPolicy, SubmissionPolicy newPolicy) {
-        ProgrammingExercise exercise = programmingExerciseRepository.findByIdWithStudentParticipationsAndLegalSubmissionsElseThrow(originalPolicy.getProgrammingExercise().getId());
+        ProgrammingExercise exercise = programmingExerciseRepository.findByIdElseThrow(originalPolicy.getProgrammingExercise().getId());
         if (originalPolicy.getSubmissionLimit() < newPolicy.getSubmissionLimit()) {
             unlockParticipationsWhenSubmissionsGreaterLimit(exercise, originalPolicy.getSubmissionLimit());
         }
@@ -236,19 +238,33 @@ public class SubmissionPolicyService {
     }
 
     private void lockParticipationsWhenSubmissionsGreaterLimit(ProgrammingExercise exercise, int submissionLimit) {
-        for (StudentParticipation studentParticipation : exercise.getStudentParticipations()) {
-            if (getParticipationSubmissionCount(studentParticipation) >= submissionLimit) {
-                programmingExerciseParticipationService.lockStudentRepository(exercise, (ProgrammingExerciseStudentParticipation) studentParticipation);
-            }
+        for (var participation : findParticipationsWithSubmissionsGreaterThanEqual(exercise, submissionLimit)) {
+            programmingExerciseParticipationService.lockStudentRepository(exercise, participation);
         }
     }
 
     private void unlockParticipationsWhenSubmissionsGreaterLimit(ProgrammingExercise exercise, int submissionLimit) {
-        for (StudentParticipation studentParticipation : exercise.getStudentParticipations()) {
-            if (getParticipationSubmissionCount(studentParticipation) >= submissionLimit) {
-                programmingExerciseParticipationService.unlockStudentRepository(exercise, (ProgrammingExerciseStudentParticipation) studentParticipation);
-            }
+        for (var participation : findParticipationsWithSubmissionsGreaterThanEqual(exercise, submissionLimit)) {
+            programmingExerciseParticipationService.unlockStudentRepository(exercise, participation);
+        }
+    }
+
+    /**
+     * Finds the participations of the exercise that have at least the given number of submissions. The submissions of all participations are counted with one grouped
+     * query, only the matching participations are loaded afterwards.
+     *
+     * @param exercise        the programming exercise
+     * @param submissionLimit the minimum number of submissions, the submission limits of policies are always positive
+     * @return the matching participations with their students
+     */
+    private List<ProgrammingExerciseStudentParticipation> findParticipationsWithSubmissionsGreaterThanEqual(ProgrammingExercise exercise, int submissionLimit) {
+        Set<Long> participationIds = programmingSubmissionRepository.countGradedManualSubmissionsByExerciseId(exercise.getId()).stream()
+                .filter(submissionCount -> submissionCount.submissionCount() >= submissionLimit).map(ParticipationSubmissionCount::participationId)
+                .collect(Collectors.toSet());
+        if (participationIds.isEmpty()) {
+            return List.of();
         }
+        return programmingExerciseStudentParticipationRepository.findAllWithStudentsByIdIn(participationIds);
     }
 
     private void updateSubmissionPenaltyPolicy(SubmissionPenaltyPolicy originalPolicy, SubmissionPenaltyPolicy newPolicy) {
@@ -289,11 +305,10 @@ public class SubmissionPolicyService {
         if (lockRepositoryPolicy == null || !lockRepositoryPolicy.isActive()) {
             return;
         }
-        int submissions = getParticipationSubmissionCount(participation);
+        int submissions = getParticipationSubmissionCount(result);
         int allowedSubmissions = lockRepositoryPolicy.getSubmissionLimit();
         if (submissions == allowedSubmissions) {
-            ProgrammingExercise programmingExercise = programmingExerciseRepository
-                    .findByIdWithStudentParticipationsAndLegalSubmissionsElseThrow(lockRepositoryPolicy.getProgrammingExercise().getId());
+            ProgrammingExercise programmingExercise = programmingExerciseRepository.findByIdElseThrow(lockRepositoryPolicy.getProgrammingExercise().getId());
             programmingExerciseParticipationService.lockStudentRepository(programmingExercise, (ProgrammingExerciseStudentParticipation) result.getParticipation());
         }
         // This is the fallback behavior in case the VCS does not lock the repository for whatever reason when the
@@ -304,24 +319,30 @@ public class SubmissionPolicyService {
     }
 
     /**
-     * Calculates and returns the number of submissions for one participation. This amount represents
-     * the amount of unique manual submissions with at least one result.
+     * Returns the number of submissions for one participation. This amount represents the amount of unique manual submissions with at least one result.
+     * The number is counted in the database on every invocation, so that it is also correct after results have been created or deleted in other ways than build
+     * results (e.g. manual results or results deleted by instructors).
      *
      * @param participation for which the number of submissions should be determined
      * @return the number of submissions of this participation
      */
     private int getParticipationSubmissionCount(Participation participation) {
-        final Long participationId = participation.getId();
-        int submissionCompensation = 0;
-        participation = participationRepository.findByIdWithLatestSubmissionAndResult(participationId)
-                .orElseThrow(() -> new EntityNotFoundException("Participation", participationId));
-        var submissions = participation.getSubmissions();
-        if (submissions != null && !submissions.isEmpty()) {
-            submissionCompensation = submissions.iterator().next().getResults().isEmpty() ? 1 : 0;
+        return (int) programmingSubmissionRepository.countGradedManualSubmissionsByParticipationId(participation.getId());
+    }
+
+    /**
+     * Returns the number of submissions for the participation of a result that might not have been saved yet, e.g. a new build result. The submission of the result
+     * is counted as well, unless a submission with the same commit hash has already been graded.
+     *
+     * @param result the result whose participation and submission should be considered
+     * @return the number of submissions of the participation of the result
+     */
+    private int getParticipationSubmissionCount(Result result) {
+        if (result.getSubmission() == null || result.getSubmission().getId() == null) {
+            return getParticipationSubmissionCount(result.getParticipation());
         }
-        return (int) programmingSubmissionRepository.findAllByParticipationIdWithResults(participationId).stream()
-                .filter(submission -> submission.getType() == SubmissionType.MANUAL && !submission.getResults().isEmpty()).map(ProgrammingSubmission::getCommitHash).distinct()
-                .count() + submissionCompensation;
+        return (int) programmingSubmissionRepository.countGradedManualSubmissionsByParticipationIdIncludingSubmission(result.getParticipation().getId(),
+                result.getSubmission().getId());
     }
 
     private SubmissionPolicy toggleSubmissionPolicy(SubmissionPolicy policy, boolean active) {
@@ -339,7 +360,7 @@ public class SubmissionPolicyService {
      */
     public void createFeedbackForPenaltyPolicy(Result result, SubmissionPenaltyPolicy penaltyPolicy) {
         if (penaltyPolicy != null && penaltyPolicy.isActive()) {
-            int presentSubmissions = getParticipationSubmissionCount(result.getParticipation());
+            int presentSubmissions = getParticipationSubmissionCount(result);
             int illegalSubmissionCount = presentSubmissions - penaltyPolicy.getSubmissionLimit();
             if (illegalSubmissionCount > 0) {
                 double deduction = illegalSubmissionCount * penaltyPolicy.getExceedingPenalty();
@@ -114,6 +114,20 @@ public class SubmissionService {
         }
     }
 
+    /**
+     * Check that the student can still change the submission of the given participation, i.e. that the due date has not passed. Changes after the due date are only
+     * possible if the participation was started after the due date.
+     *
+     * @param participation the participation (with exercise) whose submission should be saved
+     */
+    public void checkSubmissionBeforeDueDateElseThrow(StudentParticipation participation) {
+        final var dueDate = ExerciseDateService.getDueDate(participation);
+        // Important: for exam exercises, we should NOT check the exercise due date, we only check if for course exercises
+        if (dueDate.isPresent() && exerciseDateService.isAfterDueDate(participation) && participation.getInitializationDate().isBefore(dueDate.get())) {
+            throw new AccessForbiddenException();
+        }
+    }
+
     /**
      * Check if the limit of simultaneously locked submissions (i.e. unfinished assessments) has been reached for the current user in the given course. Throws a
      * BadRequestAlertException if the limit has been reached.
@@ -18,7 +18,6 @@ import de.tum.in.www1.artemis.domain.enumeration.SubmissionType;
 import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
 import de.tum.in.www1.artemis.repository.*;
 import de.tum.in.www1.artemis.service.exam.ExamDateService;
-import de.tum.in.www1.artemis.web.rest.errors.AccessForbiddenException;
 
 @Service
 public class TextSubmissionService extends SubmissionService {
@@ -61,11 +60,7 @@ public class TextSubmissionService extends SubmissionService {
             throw new ResponseStatusException(HttpStatus.FAILED_DEPENDENCY, "No participation found for " + user.getLogin() + " in exercise " + exercise.getId());
         }
         final var participation = optionalParticipation.get();
-        final var dueDate = ExerciseDateService.getDueDate(participation);
-        // Important: for exam exercises, we should NOT check the exercise due date, we only check if for course exercises
-        if (dueDate.isPresent() && exerciseDateService.isAfterDueDate(participation) && participation.getInitializationDate().isBefore(dueDate.get())) {
-            throw new AccessForbiddenException();
-        }
+        checkSubmissionBeforeDueDateElseThrow(participation);
 
         // NOTE: from now on we always set submitted to true to prevent problems here! Except for late submissions of course exercises to prevent issues in auto-save
         if (exercise.isExamExercise() || exerciseDateService.isBeforeDueDate(participation)) {
@@ -0,0 +1,321 @@
+package de.tum.in.www1.artemis.service;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.Hibernate;
+import org.hibernate.event.spi.*;
+import org.springframework.stereotype.Service;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.EntryProcessor;
+import com.hazelcast.map.IMap;
+
+import de.tum.in.www1.artemis.domain.Course;
+import de.tum.in.www1.artemis.domain.Exercise;
+import de.tum.in.www1.artemis.domain.Team;
+import de.tum.in.www1.artemis.domain.User;
+import de.tum.in.www1.artemis.domain.exam.Exam;
+import de.tum.in.www1.artemis.domain.exam.ExamUser;
+import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
+import de.tum.in.www1.artemis.service.util.CacheEvictionEventListener;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Cluster-wide cache of the authorization decisions for websocket topic subscriptions (see
+ * {@link de.tum.in.www1.artemis.config.websocket.WebsocketConfiguration.TopicSubscriptionInterceptor}).
+ * <p>
+ * The decisions of a user are stored in one entry keyed by the login, so that they can be removed directly when the groups or authorities of the user change. Within
+ * the entry, decisions are keyed by topic type and entity id. Granted subscriptions are cached longer than denied ones, so that e.g. a student who has just been
+ * registered does not have to wait long. In addition, decisions are invalidated through Hibernate events whenever the group names of a course, an exam registration
+ * or a team changes.
+ */
+@Service
+public class WebsocketSubscriptionAuthorizationCacheService extends CacheEvictionEventListener
+        implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener, PostCollectionRecreateEventListener, PostCollectionUpdateEventListener,
+        PostCollectionRemoveEventListener {
+
+    /**
+     * The types of protected topics, the entity id of a topic depends on its type
+     */
+    public enum SubscriptionTopicType {
+        PARTICIPATION_TEAM, EXERCISE_RESULT, EXAM
+    }
+
+    private static final String SUBSCRIPTION_DECISIONS_MAP = "websocketSubscriptionDecisions";
+
+    private static final int ALLOWED_TIME_TO_LIVE_SECONDS = 10 * 60;
+
+    private static final int DENIED_TIME_TO_LIVE_SECONDS = 60;
+
+    private static final String KEY_SEPARATOR = "|";
+
+    private static final String USER_SCOPE_PREFIX = "user-";
+
+    // the collection roles of the user that decide about the subscriptions
+    private static final Set<String> USER_PERMISSION_ROLES = Set.of(User.class.getName() + ".groups", User.class.getName() + ".authorities");
+
+    private static final String METRIC_PREFIX = "artemis.websocket.subscription.authorization.";
+
+    /**
+     * A cached decision about one topic
+     *
+     * @param allowed   whether the subscription is allowed
+     * @param expiresAt the time in epoch milliseconds after which the decision has to be computed again
+     */
+    record CachedDecision(boolean allowed, long expiresAt) implements Serializable {
+
+        boolean isExpired() {
+            return expiresAt <= System.currentTimeMillis();
+        }
+    }
+
+    private final IMap<String, HashMap<String, CachedDecision>> subscriptionDecisions;
+
+    private final Counter hitCounter;
+
+    private final Counter missCounter;
+
+    private final Timer allowedTimer;
+
+    private final Timer deniedTimer;
+
+    public WebsocketSubscriptionAuthorizationCacheService(HazelcastInstance hazelcastInstance, EntityManagerFactory entityManagerFactory, MeterRegistry meterRegistry) {
+        super(hazelcastInstance, SUBSCRIPTION_DECISIONS_MAP);
+        this.subscriptionDecisions = hazelcastInstance.getMap(SUBSCRIPTION_DECISIONS_MAP);
+
+        String cacheDescription = "Number of authorization checks of websocket subscriptions, by whether the decision was cached";
+        this.hitCounter = Counter.builder(METRIC_PREFIX + "cache").description(cacheDescription).tag("result", "hit").register(meterRegistry);
+        this.missCounter = Counter.builder(METRIC_PREFIX + "cache").description(cacheDescription).tag("result", "miss").register(meterRegistry);
+        String timerDescription = "Time needed to authorize a websocket subscription, by decision";
+        this.allowedTimer = Timer.builder(METRIC_PREFIX + "time").description(timerDescription).tag("decision", "allowed").register(meterRegistry);
+        this.deniedTimer = Timer.builder(METRIC_PREFIX + "time").description(timerDescription).tag("decision", "denied").register(meterRegistry);
+
+        registerEventListeners(entityManagerFactory);
+    }
+
+    /**
+     * Configures the Hazelcast map of the cached decisions with a near cache on every instance. The entry of a user expires after the longest time a decision is cached,
+     * the expiry of the single decisions is checked when they are read.
+     *
+     * @param config the Hazelcast config that should be adapted
+     */
+    public static void configureHazelcast(Config config) {
+        config.getMapConfig(SUBSCRIPTION_DECISIONS_MAP).setTimeToLiveSeconds(ALLOWED_TIME_TO_LIVE_SECONDS)
+                .setNearCacheConfig(new NearCacheConfig(SUBSCRIPTION_DECISIONS_MAP).setInMemoryFormat(InMemoryFormat.OBJECT).setInvalidateOnChange(true)
+                        .setTimeToLiveSeconds(DENIED_TIME_TO_LIVE_SECONDS));
+        configureEvictionCounters(config, SUBSCRIPTION_DECISIONS_MAP);
+    }
+
+    /**
+     * Returns whether the user with the given login is allowed to subscribe to the given topic. The decision is only computed if it is not cached.
+     * Exceptions of the decision (e.g. because the entity does not exist) are not cached.
+     *
+     * @param topicType the type of the topic
+     * @param entityId  the id of the entity the topic belongs to
+     * @param login     the login of the user who wants to subscribe
+     * @param decision  computes whether the subscription is allowed
+     * @return true if the subscription is allowed, false otherwise
+     */
+    public boolean isSubscriptionAllowed(SubscriptionTopicType topicType, long entityId, String login, BooleanSupplier decision) {
+        long start = System.nanoTime();
+        String topicKey = toTopicKey(topicType, entityId);
+        CachedDecision cachedDecision = getCachedDecision(login, topicKey);
+        boolean allowed;
+        if (cachedDecision != null) {
+            hitCounter.increment();
+            allowed = cachedDecision.allowed();
+        }
+        else {
+            missCounter.increment();
+            allowed = loadAndCache(Set.of(USER_SCOPE_PREFIX + login, topicKey, topicType.name()), decision::getAsBoolean,
+                    loadedDecision -> putDecision(login, topicKey, loadedDecision), () -> removeDecision(login, topicKey));
+        }
+        (allowed ? allowedTimer : deniedTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return allowed;
+    }
+
+    private CachedDecision getCachedDecision(String login, String topicKey) {
+        Map<String, CachedDecision> decisions = subscriptionDecisions.get(login);
+        CachedDecision cachedDecision = decisions != null ? decisions.get(topicKey) : null;
+        return cachedDecision != null && !cachedDecision.isExpired() ? cachedDecision : null;
+    }
+
+    private void putDecision(String login, String topicKey, boolean allowed) {
+        long timeToLiveMillis = TimeUnit.SECONDS.toMillis(allowed ? ALLOWED_TIME_TO_LIVE_SECONDS : DENIED_TIME_TO_LIVE_SECONDS);
+        var addedDecisions = new HashMap<>(Map.of(topicKey, new CachedDecision(allowed, System.currentTimeMillis() + timeToLiveMillis)));
+        // the cached maps are shared with the near cache and must not be modified
+        subscriptionDecisions.merge(login, addedDecisions, (existingDecisions, newDecisions) -> {
+            var mergedDecisions = new HashMap<>(existingDecisions);
+            mergedDecisions.values().removeIf(CachedDecision::isExpired);
+            mergedDecisions.putAll(newDecisions);
+            return mergedDecisions;
+        });
+    }
+
+    private void removeDecision(String login, String topicKey) {
+        subscriptionDecisions.computeIfPresent(login, (key, decisions) -> {
+            var remainingDecisions = new HashMap<>(decisions);
+            remainingDecisions.remove(topicKey);
+            return remainingDecisions.isEmpty() ? null : remainingDecisions;
+        });
+    }
+
+    /**
+     * Removes all cached decisions of the user with the given login (cluster-wide)
+     *
+     * @param login the login of the user
+     */
+    public void evictUser(String login) {
+        if (login != null) {
+            evictNowAndAfterCommit(USER_SCOPE_PREFIX + login, () -> subscriptionDecisions.delete(login));
+        }
+    }
+
+    /**
+     * Removes all cached decisions of all users for the given topic (cluster-wide)
+     *
+     * @param topicType the type of the topic
+     * @param entityId  the id of the entity the topic belongs to
+     */
+    public void evictTopic(SubscriptionTopicType topicType, long entityId) {
+        String topicKey = toTopicKey(topicType, entityId);
+        evictNowAndAfterCommit(topicKey, () -> subscriptionDecisions.executeOnEntries(new RemoveDecisionsProcessor(topicKey)));
+    }
+
+    /**
+     * Removes all cached decisions for topics of the given type (cluster-wide)
+     *
+     * @param topicType the type of the topics
+     */
+    public void evictTopicType(SubscriptionTopicType topicType) {
+        evictNowAndAfterCommit(topicType.name(), () -> subscriptionDecisions.executeOnEntries(new RemoveDecisionsProcessor(topicType.name() + KEY_SEPARATOR)));
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof ExamUser examUser) {
+            evictExamUser(examUser);
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        evictForEntity(event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        // participations are updated frequently, but the owner of a participation does not change
+        if (event.getEntity() instanceof StudentParticipation participation && participation.getId() != null) {
+            evictTopic(SubscriptionTopicType.PARTICIPATION_TEAM, participation.getId());
+        }
+        else if (event.getEntity() instanceof User user) {
+            evictUser(user.getLogin());
+        }
+        else {
+            evictForEntity(event.getEntity());
+        }
+    }
+
+    @Override
+    public void onPostRecreateCollection(PostCollectionRecreateEvent event) {
+        evictForCollection(event);
+    }
+
+    @Override
+    public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+        evictForCollection(event);
+    }
+
+    @Override
+    public void onPostRemoveCollection(PostCollectionRemoveEvent event) {
+        evictForCollection(event);
+    }
+
+    private void evictForEntity(Object entity) {
+        // users are updated frequently, only changes of their groups or authorities (see evictForCollection) and their deletion affect the decisions
+        if (entity instanceof ExamUser examUser) {
+            evictExamUser(examUser);
+        }
+        else if (entity instanceof Team) {
+            // the participations of the team are not known here, team changes are rare
+            evictTopicType(SubscriptionTopicType.PARTICIPATION_TEAM);
+        }
+        else if (entity instanceof Exercise exercise && exercise.getId() != null) {
+            evictTopic(SubscriptionTopicType.EXERCISE_RESULT, exercise.getId());
+        }
+        else if (entity instanceof Exam exam && exam.getId() != null) {
+            evictTopic(SubscriptionTopicType.EXAM, exam.getId());
+        }
+        else if (entity instanceof Course) {
+            // the group names of the course might have changed
+            evictTopicType(SubscriptionTopicType.EXERCISE_RESULT);
+            evictTopicType(SubscriptionTopicType.EXAM);
+        }
+    }
+
+    private void evictForCollection(AbstractCollectionEvent event) {
+        // groups and authorities are collections of the user, students are a collection of the team
+        Object owner = event.getAffectedOwnerOrNull();
+        if (owner instanceof User user && USER_PERMISSION_ROLES.contains(event.getCollection().getRole())) {
+            evictUser(user.getLogin());
+        }
+        else if (owner instanceof Team) {
+            evictTopicType(SubscriptionTopicType.PARTICIPATION_TEAM);
+        }
+    }
+
+    private void evictExamUser(ExamUser examUser) {
+        User user = examUser.getUser();
+        if (user == null) {
+            return;
+        }
+        if (Hibernate.isInitialized(user)) {
+            evictUser(user.getLogin());
+        }
+        else {
+            evictTopicType(SubscriptionTopicType.EXAM);
+        }
+    }
+
+    private static String toTopicKey(SubscriptionTopicType topicType, long entityId) {
+        return topicType.name() + KEY_SEPARATOR + entityId;
+    }
+
+    /**
+     * Removes the decisions about the topics with the given key prefix from the entries of all users. It runs on the members that own the entries, so that the
+     * decisions do not have to be transferred.
+     *
+     * @param topicKeyPrefix the prefix of the topic keys, either a topic type or a complete topic key
+     */
+    private record RemoveDecisionsProcessor(String topicKeyPrefix) implements EntryProcessor<String, HashMap<String, CachedDecision>, Void> {
+
+        @Override
+        public Void process(Map.Entry<String, HashMap<String, CachedDecision>> entry) {
+            var decisions = entry.getValue();
+            if (decisions != null && decisions.keySet().stream().anyMatch(this::matches)) {
+                var remainingDecisions = new HashMap<>(decisions);
+                remainingDecisions.keySet().removeIf(this::matches);
+                entry.setValue(remainingDecisions.isEmpty() ? null : remainingDecisions);
+            }
+            return null;
+        }
+
+        private boolean matches(String topicKey) {
+            // the topic type alone ends with the separator, so prefixes of other ids (e.g. 1 and 12) do not match
+            return topicKey.equals(topicKeyPrefix) || topicKeyPrefix.endsWith(KEY_SEPARATOR) && topicKey.startsWith(topicKeyPrefix);
+        }
+    }
+}
@@ -1,25 +1,101 @@
 package de.tum.in.www1.artemis.service;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
 import java.util.zip.ZipEntry;
-import java.util.zip.ZipOutputStream;
 
 import javax.annotation.Nullable;
+import javax.annotation.PreDestroy;
 
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.io.FilenameUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+/**
+ * Creates zip files, e.g. for course, exam and submission exports.
+ * <p>
+ * The entries are compressed in parallel by a thread pool and written in order by the calling thread, so that the zip file is written directly to its
+ * destination without intermediate files. The pool is shared by all exports of the instance, its size is configured with artemis.zip.compression-threads.
+ * At most {@link #ENTRIES_IN_FLIGHT_PER_THREAD} entries per compression thread with at most {@link #MAX_BUFFERED_BYTES_IN_FLIGHT} bytes of file content are
+ * compressed ahead of the writer and only files up to {@link #MAX_BUFFERED_ENTRY_SIZE} are compressed in memory, larger files are streamed by the writer. Files that
+ * are already compressed (e.g. zip files of repositories, images or PDFs) are stored without compressing them again.
+ */
 @Service
 public class ZipFileService {
 
     private final Logger log = LoggerFactory.getLogger(ZipFileService.class);
 
+    private static final int MAX_BUFFERED_ENTRY_SIZE = 8 * 1024 * 1024;
+
+    private static final int ENTRIES_IN_FLIGHT_PER_THREAD = 4;
+
+    // the compressed content is kept in memory as well, so the entries in flight need up to twice this memory
+    private static final long MAX_BUFFERED_BYTES_IN_FLIGHT = 32 * 1024 * 1024;
+
+    private static final Set<String> COMPRESSED_FILE_EXTENSIONS = Set.of("zip", "jar", "war", "pack", "gz", "tgz", "bz2", "xz", "7z", "rar", "png", "jpg", "jpeg", "gif",
+            "webp", "pdf", "docx", "xlsx", "pptx", "mp3", "mp4", "mov");
+
+    private final ExecutorService compressionExecutor;
+
+    private final int maxEntriesInFlight;
+
+    /**
+     * A file that should be added to a zip file
+     *
+     * @param name the name of the entry in the zip file
+     * @param path the path of the file
+     */
+    private record ZipFileEntry(String name, Path path) {
+    }
+
+    /**
+     * An entry whose content has been prepared by a compression thread
+     *
+     * @param entry      the zip entry including sizes and checksum
+     * @param rawContent the (compressed or stored) content of the entry or null if the file is too large and must be streamed by the writer
+     * @param path       the path of the file
+     */
+    private record PreparedZipEntry(ZipArchiveEntry entry, @Nullable byte[] rawContent, Path path) {
+    }
+
+    /**
+     * An entry that is prepared by a compression thread and not written yet
+     *
+     * @param preparedEntry the future of the prepared entry
+     * @param bufferedBytes the number of bytes of the file that are read into memory to prepare the entry
+     */
+    private record InFlightZipEntry(Future<PreparedZipEntry> preparedEntry, long bufferedBytes) {
+    }
+
+    public ZipFileService(@Value("${artemis.zip.compression-threads:2}") int compressionThreads) {
+        // the writer needs at least one compression thread
+        int numberOfThreads = Math.max(1, compressionThreads);
+        this.compressionExecutor = Executors.newFixedThreadPool(numberOfThreads);
+        this.maxEntriesInFlight = ENTRIES_IN_FLIGHT_PER_THREAD * numberOfThreads;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        compressionExecutor.shutdownNow();
+    }
+
     /**
      * Create a zip file of the given paths and save it in the zipFilePath
      *
@@ -29,12 +105,10 @@ public class ZipFileService {
      * @throws IOException if an error occurred while zipping
      */
     public void createZipFile(Path zipFilePath, List<Path> paths, boolean createParentDir) throws IOException {
-        try (ZipOutputStream zipOutputStream = new ZipOutputStream(Files.newOutputStream(zipFilePath))) {
-            paths.stream().filter(path -> Files.isReadable(path) && !Files.isDirectory(path)).forEach(path -> {
-                var zipPath = createParentDir ? path : path.getFileName();
-                ZipEntry zipEntry = new ZipEntry(zipPath.toString());
-                copyToZipFile(zipOutputStream, path, zipEntry);
-            });
+        try (ZipArchiveOutputStream zipOutputStream = new ZipArchiveOutputStream(zipFilePath)) {
+            var entries = paths.stream().filter(path -> Files.isReadable(path) && !Files.isDirectory(path))
+                    .map(path -> new ZipFileEntry((createParentDir ? path : path.getFileName()).toString(), path));
+            writeEntries(zipOutputStream, entries);
         }
     }
 
@@ -47,7 +121,9 @@ public class ZipFileService {
      * @throws IOException if an error occurred while zipping
      */
     public void createZipFile(Path zipFilePath, List<Path> paths, Path pathsRoot) throws IOException {
-        createZipFileFromPathStream(zipFilePath, paths.stream(), pathsRoot, null);
+        try (ZipArchiveOutputStream zipOutputStream = new ZipArchiveOutputStream(zipFilePath)) {
+            writeEntries(zipOutputStream, toZipFileEntries(paths.stream(), pathsRoot, null));
+        }
     }
 
     /**
@@ -60,35 +136,190 @@ public class ZipFileService {
      * @throws IOException if an error occurred while zipping
      */
     public Path createZipFileWithFolderContent(Path zipFilePath, Path contentRootPath, @Nullable Predicate<Path> contentFilter) throws IOException {
-        try (var files = Files.walk(contentRootPath)) {
-            createZipFileFromPathStream(zipFilePath, files, contentRootPath, contentFilter);
+        try (var files = Files.walk(contentRootPath); ZipArchiveOutputStream zipOutputStream = new ZipArchiveOutputStream(zipFilePath)) {
+            writeEntries(zipOutputStream, toZipFileEntries(files, contentRootPath, contentFilter));
             return zipFilePath;
         }
     }
 
-    private void createZipFileFromPathStream(Path zipFilePath, Stream<Path> paths, Path pathsRoot, @Nullable Predicate<Path> extraFilter) throws IOException {
-        try (ZipOutputStream zipOutputStream = new ZipOutputStream(Files.newOutputStream(zipFilePath))) {
-            var filteredPaths = paths.filter(path -> Files.isReadable(path) && !Files.isDirectory(path));
-            if (extraFilter != null) {
-                filteredPaths = filteredPaths.filter(extraFilter);
-            }
-            filteredPaths.forEach(path -> {
-                ZipEntry zipEntry = new ZipEntry(pathsRoot.relativize(path).toString());
-                copyToZipFile(zipOutputStream, path, zipEntry);
-            });
+    private Stream<ZipFileEntry> toZipFileEntries(Stream<Path> paths, Path pathsRoot, @Nullable Predicate<Path> extraFilter) {
+        var filteredPaths = paths.filter(path -> Files.isReadable(path) && !Files.isDirectory(path));
+        if (extraFilter != null) {
+            filteredPaths = filteredPaths.filter(extraFilter);
         }
+        return filteredPaths.map(path -> new ZipFileEntry(pathsRoot.relativize(path).toString(), path));
     }
 
-    private void copyToZipFile(ZipOutputStream zipOutputStream, Path path, ZipEntry zipEntry) {
+    /**
+     * Compresses the given entries in parallel and writes them in their original order. Entries that cannot be read are skipped (as well as duplicate entry names).
+     * Large files that are streamed by the writer are only skipped if they cannot be opened: once their entry has been started, a read error cannot be recovered from
+     * and the zip file cannot be completed.
+     *
+     * @param zipOutputStream the zip file to write to
+     * @param entries         the entries to add
+     * @throws IOException if the zip file cannot be written
+     */
+    private void writeEntries(ZipArchiveOutputStream zipOutputStream, Stream<ZipFileEntry> entries) throws IOException {
+        Set<String> entryNames = new HashSet<>();
+        Deque<InFlightZipEntry> entriesInFlight = new ArrayDeque<>();
+        long bytesInFlight = 0;
         try {
-            if (Files.exists(path)) {
-                zipOutputStream.putNextEntry(zipEntry);
-                Files.copy(path, zipOutputStream);
-                zipOutputStream.closeEntry();
+            Iterator<ZipFileEntry> iterator = entries.iterator();
+            while (iterator.hasNext()) {
+                ZipFileEntry zipFileEntry = iterator.next();
+                if (!entryNames.add(zipFileEntry.name())) {
+                    log.error("Create zip file error: duplicate entry {}", zipFileEntry.name());
+                    continue;
+                }
+                long bufferedBytes = getBufferedBytes(zipFileEntry.path());
+                // write the oldest entries until the new entry fits into the limits
+                while (!entriesInFlight.isEmpty() && (entriesInFlight.size() >= maxEntriesInFlight || bytesInFlight + bufferedBytes > MAX_BUFFERED_BYTES_IN_FLIGHT)) {
+                    InFlightZipEntry oldestEntry = entriesInFlight.poll();
+                    bytesInFlight -= oldestEntry.bufferedBytes();
+                    writeEntry(zipOutputStream, oldestEntry.preparedEntry());
+                }
+                entriesInFlight.add(new InFlightZipEntry(compressionExecutor.submit(() -> prepareEntry(zipFileEntry)), bufferedBytes));
+                bytesInFlight += bufferedBytes;
+            }
+            while (!entriesInFlight.isEmpty()) {
+                writeEntry(zipOutputStream, entriesInFlight.poll().preparedEntry());
             }
         }
+        finally {
+            // in case of an error, the remaining entries are not needed anymore
+            entriesInFlight.forEach(entry -> entry.preparedEntry().cancel(true));
+        }
+    }
+
+    /**
+     * Returns the number of bytes of the given file that are read into memory to prepare its entry
+     *
+     * @param path the path of the file
+     * @return the size of the file or 0 if the file is streamed by the writer or cannot be read
+     */
+    private static long getBufferedBytes(Path path) {
+        try {
+            long size = Files.size(path);
+            return size > MAX_BUFFERED_ENTRY_SIZE ? 0 : size;
+        }
         catch (IOException e) {
-            log.error("Create zip file error", e);
+            // the file is skipped when its entry is prepared
+            return 0;
+        }
+    }
+
+    private void writeEntry(ZipArchiveOutputStream zipOutputStream, Future<PreparedZipEntry> future) throws IOException {
+        PreparedZipEntry preparedEntry;
+        try {
+            preparedEntry = future.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Creating the zip file has been interrupted", e);
+        }
+        catch (ExecutionException e) {
+            log.error("Create zip file error", e.getCause());
+            return;
+        }
+        if (preparedEntry == null) {
+            return;
+        }
+        if (preparedEntry.rawContent() != null) {
+            zipOutputStream.addRawArchiveEntry(preparedEntry.entry(), new ByteArrayInputStream(preparedEntry.rawContent()));
+        }
+        else {
+            // the file is opened before the entry is started, so that files that cannot be read are skipped
+            InputStream inputStream;
+            try {
+                inputStream = Files.newInputStream(preparedEntry.path());
+            }
+            catch (IOException e) {
+                log.error("Create zip file error", e);
+                return;
+            }
+            try (inputStream) {
+                zipOutputStream.putArchiveEntry(preparedEntry.entry());
+                inputStream.transferTo(zipOutputStream);
+                zipOutputStream.closeArchiveEntry();
+            }
+        }
+    }
+
+    /**
+     * Reads and compresses the file of the given entry (executed by the compression threads)
+     *
+     * @param zipFileEntry the entry to prepare
+     * @return the prepared entry or null if the file does not exist anymore
+     * @throws IOException if the file cannot be read
+     */
+    private PreparedZipEntry prepareEntry(ZipFileEntry zipFileEntry) throws IOException {
+        Path path = zipFileEntry.path();
+        if (!Files.exists(path)) {
+            return null;
+        }
+        ZipArchiveEntry entry = new ZipArchiveEntry(zipFileEntry.name());
+        entry.setTime(Files.getLastModifiedTime(path).toMillis());
+        boolean isCompressed = COMPRESSED_FILE_EXTENSIONS.contains(FilenameUtils.getExtension(path.toString()).toLowerCase());
+        long size = Files.size(path);
+
+        if (size > MAX_BUFFERED_ENTRY_SIZE) {
+            entry.setSize(size);
+            if (isCompressed) {
+                // stored entries need their checksum before the content is written
+                entry.setMethod(ZipEntry.STORED);
+                entry.setCompressedSize(size);
+                entry.setCrc(calculateCrc(path));
+            }
+            else {
+                entry.setMethod(ZipEntry.DEFLATED);
+            }
+            return new PreparedZipEntry(entry, null, path);
+        }
+
+        byte[] content = Files.readAllBytes(path);
+        CRC32 crc = new CRC32();
+        crc.update(content);
+        entry.setSize(content.length);
+        entry.setCrc(crc.getValue());
+        byte[] compressedContent = isCompressed ? null : deflate(content);
+        if (compressedContent != null && compressedContent.length < content.length) {
+            entry.setMethod(ZipEntry.DEFLATED);
+            entry.setCompressedSize(compressedContent.length);
+            return new PreparedZipEntry(entry, compressedContent, path);
+        }
+        entry.setMethod(ZipEntry.STORED);
+        entry.setCompressedSize(content.length);
+        return new PreparedZipEntry(entry, content, path);
+    }
+
+    private static byte[] deflate(byte[] content) {
+        // zip entries contain raw deflate data without zlib header
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try {
+            deflater.setInput(content);
+            deflater.finish();
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream(Math.max(64, content.length / 2));
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                int length = deflater.deflate(buffer);
+                outputStream.write(buffer, 0, length);
+            }
+            return outputStream.toByteArray();
+        }
+        finally {
+            deflater.end();
+        }
+    }
+
+    private static long calculateCrc(Path path) throws IOException {
+        CRC32 crc = new CRC32();
+        byte[] buffer = new byte[8192];
+        try (InputStream inputStream = Files.newInputStream(path)) {
+            int length;
+            while ((length = inputStream.read(buffer)) != -1) {
+                crc.update(buffer, 0, length);
+            }
         }
+        return crc.getValue();
     }
 }
@@ -11,10 +11,12 @@ import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.ZonedDateTime;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
 import java.util.function.Predicate;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -39,12 +41,16 @@ import org.eclipse.jgit.transport.*;
 import org.eclipse.jgit.transport.sshd.JGitKeyCache;
 import org.eclipse.jgit.transport.sshd.KeyPasswordProvider;
 import org.eclipse.jgit.transport.sshd.SshdSessionFactoryBuilder;
+import org.hibernate.Hibernate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.google.common.util.concurrent.Striped;
+
 import de.tum.in.www1.artemis.domain.*;
 import de.tum.in.www1.artemis.domain.Repository;
 import de.tum.in.www1.artemis.domain.participation.ProgrammingExerciseParticipation;
@@ -93,7 +99,23 @@ public class GitService {
     @Value("${artemis.git.email}")
     private String artemisGitEmail;
 
-    private final Map<Path, Repository> cachedRepositories = new ConcurrentHashMap<>();
+    @Value("${artemis.git.repository-cache.max-size:500}")
+    private int repositoryCacheMaxSize;
+
+    @Value("${artemis.git.repository-cache.max-idle-minutes:30}")
+    private int repositoryCacheMaxIdleMinutes;
+
+    @Value("${artemis.git.share-template-objects:true}")
+    private boolean shareTemplateObjects;
+
+    private LocalRepositoryCache cachedRepositories;
+
+    // the last time the local mirror of a template repository (used as shared object store for student repositories) has been updated,
+    // the entries of deleted mirrors are removed regularly
+    private final Map<Path, Instant> templateMirrorUpdates = new ConcurrentHashMap<>();
+
+    // a fixed number of locks for all mirrors, so that no lock has to be removed when a mirror is deleted
+    private final Striped<Lock> templateMirrorLocks = Striped.lock(TEMPLATE_MIRROR_LOCK_STRIPES);
 
     private final Map<Path, Path> cloneInProgressOperations = new ConcurrentHashMap<>();
 
@@ -111,6 +133,15 @@ public class GitService {
 
     private static final String REMOTE_NAME = "origin";
 
+    private static final String TEMPLATE_MIRROR_SUFFIX = ".objects.git";
+
+    // the folder (within the repo clone path) that contains the template mirrors, project keys cannot start with a dot
+    private static final String TEMPLATE_MIRRORS_FOLDER = ".template-mirrors";
+
+    private static final int TEMPLATE_MIRROR_UPDATE_INTERVAL_IN_SECONDS = 60;
+
+    private static final int TEMPLATE_MIRROR_LOCK_STRIPES = 64;
+
     public GitService(FileService fileService, ZipFileService zipFileService) {
         log.info("file.encoding={}", System.getProperty("file.encoding"));
         log.info("sun.jnu.encoding={}", System.getProperty("sun.jnu.encoding"));
@@ -129,6 +160,7 @@ public class GitService {
      */
     @PostConstruct
     public void init() {
+        cachedRepositories = new LocalRepositoryCache(repositoryCacheMaxSize, Duration.ofMinutes(repositoryCacheMaxIdleMinutes));
         if (useSsh()) {
             log.info("GitService will use ssh keys as authentication method to interact with remote git repositories");
             configureSsh();
@@ -291,7 +323,8 @@ public class GitService {
      */
     public Repository getOrCheckoutRepository(ProgrammingExerciseParticipation participation, String targetPath) throws GitAPIException, GitException {
         var repoUrl = participation.getVcsRepositoryUrl();
-        Repository repository = getOrCheckoutRepository(repoUrl, targetPath, true);
+        Path localPath = getLocalPathOfRepo(targetPath, repoUrl);
+        Repository repository = getOrCheckoutRepository(repoUrl, repoUrl, localPath, true, defaultBranch, getTemplateRepositoryUrlForSharedObjects(participation));
         repository.setParticipation(participation);
         return repository;
     }
@@ -318,7 +351,7 @@ public class GitService {
         String updatedRepoFolderName = repoFolderName.replaceAll("/[a-zA-Z0-9]*-", "/" + participation.getId() + "-");
         Path localPath = Path.of(targetPath, updatedRepoFolderName);
 
-        Repository repository = getOrCheckoutRepository(repoUrl, localPath, true);
+        Repository repository = getOrCheckoutRepository(repoUrl, repoUrl, localPath, true, defaultBranch, getTemplateRepositoryUrlForSharedObjects(participation));
         repository.setParticipation(participation);
 
         return repository;
@@ -409,6 +442,28 @@ public class GitService {
      */
     public Repository getOrCheckoutRepository(VcsRepositoryUrl sourceRepoUrl, VcsRepositoryUrl targetRepoUrl, Path localPath, boolean pullOnGet, String defaultBranch)
             throws GitAPIException, GitException, InvalidPathException {
+        return getOrCheckoutRepository(sourceRepoUrl, targetRepoUrl, localPath, pullOnGet, defaultBranch, null);
+    }
+
+    /**
+     * Get the local repository for a given remote repository URL. If the local repo does not exist yet, it will be checked out.
+     * <p>
+     * If a template repository is given, the repository is cloned with the objects of a local bare mirror of the template repository as shared object store (see
+     * {@link #cloneWithSharedTemplateObjects}), so that only the objects that differ from the template repository are fetched and stored.
+     *
+     * @param sourceRepoUrl   The source remote repository.
+     * @param targetRepoUrl   The target remote repository.
+     * @param localPath       The local path to clone the repository to.
+     * @param pullOnGet       Pull from the remote on the checked out repository, if it does not need to be cloned.
+     * @param defaultBranch   The default branch of the target repository
+     * @param templateRepoUrl The template repository the repository is based on, null if no objects should be shared
+     * @return the repository if it could be checked out.
+     * @throws GitAPIException      if the repository could not be checked out.
+     * @throws GitException         if the same repository is attempted to be cloned multiple times.
+     * @throws InvalidPathException if the repository could not be checked out Because it contains unmappable characters.
+     */
+    private Repository getOrCheckoutRepository(VcsRepositoryUrl sourceRepoUrl, VcsRepositoryUrl targetRepoUrl, Path localPath, boolean pullOnGet, String defaultBranch,
+            @Nullable VcsRepositoryUrl templateRepoUrl) throws GitAPIException, GitException, InvalidPathException {
         // First try to just retrieve the git repository from our server, as it might already be checked out.
         // If the sourceRepoUrl differs from the targetRepoUrl, we attempt to clone the source repo into the target directory
         Repository repository = getExistingCheckedOutRepositoryByLocalPath(localPath, targetRepoUrl, defaultBranch);
@@ -443,8 +498,13 @@ public class GitService {
                 cloneInProgressOperations.put(localPath, localPath);
                 // make sure the directory to copy into is empty
                 FileUtils.deleteDirectory(localPath.toFile());
-                Git git = cloneCommand().setURI(gitUriAsString).setDirectory(localPath.toFile()).call();
-                git.close();
+                if (templateRepoUrl != null) {
+                    cloneWithSharedTemplateObjects(gitUriAsString, templateRepoUrl, localPath, defaultBranch);
+                }
+                else {
+                    Git git = cloneCommand().setURI(gitUriAsString).setDirectory(localPath.toFile()).call();
+                    git.close();
+                }
             }
             catch (IOException | URISyntaxException | GitAPIException | InvalidPathException e) {
                 // cleanup the folder to avoid problems in the future.
@@ -492,6 +552,191 @@ public class GitService {
         }
     }
 
+    /**
+     * Get the URL of the template repository whose objects can be shared with the repository of the given participation
+     *
+     * @param participation the participation whose repository should be checked out
+     * @return the template repository URL or null if sharing objects is disabled, the participation is not a student participation or the template participation is not loaded
+     */
+    @Nullable
+    private VcsRepositoryUrl getTemplateRepositoryUrlForSharedObjects(ProgrammingExerciseParticipation participation) {
+        if (!shareTemplateObjects || !(participation instanceof ProgrammingExerciseStudentParticipation studentParticipation)) {
+            return null;
+        }
+        var exercise = studentParticipation.getExercise();
+        if (exercise == null || !Hibernate.isInitialized(exercise) || !(Hibernate.unproxy(exercise) instanceof ProgrammingExercise programmingExercise)) {
+            return null;
+        }
+        return programmingExercise.getVcsTemplateRepositoryUrl();
+    }
+
+    /**
+     * Clones a repository that shares its objects with a local bare mirror of its template repository using git alternates (like {@code git clone --reference}).
+     * Only the objects that are not contained in the template repository (i.e. usually the commits of the student) are fetched and stored in the repository.
+     * If the mirror cannot be created or updated, the repository is cloned without shared objects.
+     *
+     * @param gitUriAsString  the URI of the repository to clone
+     * @param templateRepoUrl the URL of the template repository
+     * @param localPath       the local path to clone the repository to, must be empty
+     * @param defaultBranch   the default branch of the repository
+     * @throws GitAPIException if the repository could not be cloned
+     * @throws IOException     if the repository could not be initialized
+     */
+    private void cloneWithSharedTemplateObjects(String gitUriAsString, VcsRepositoryUrl templateRepoUrl, Path localPath, String defaultBranch)
+            throws GitAPIException, IOException {
+        Path templateMirrorPath = getOrUpdateTemplateMirror(templateRepoUrl);
+        if (templateMirrorPath == null) {
+            Git git = cloneCommand().setURI(gitUriAsString).setDirectory(localPath.toFile()).call();
+            git.close();
+            return;
+        }
+
+        try (Git initializedGit = Git.init().setDirectory(localPath.toFile()).setInitialBranch(defaultBranch).call()) {
+            Path alternatesFile = initializedGit.getRepository().getDirectory().toPath().resolve(Path.of("objects", "info", "alternates"));
+            Files.createDirectories(alternatesFile.getParent());
+            Files.writeString(alternatesFile, templateMirrorPath.resolve("objects").toAbsolutePath() + "\n");
+            initializedGit.remoteAdd().setName(REMOTE_NAME).setUri(new URIish(gitUriAsString)).call();
+        }
+        catch (URISyntaxException e) {
+            throw new GitException(e);
+        }
+
+        // re-open the repository so that JGit uses the alternates: objects of the template mirror are then not fetched again
+        try (Git git = Git.open(localPath.toFile())) {
+            FetchResult fetchResult = fetchCommand(git).setRemote(REMOTE_NAME).call();
+            // check out the branch the remote HEAD points to, like a regular clone
+            Ref remoteHead = fetchResult.getAdvertisedRef(Constants.HEAD);
+            String branch = remoteHead != null && remoteHead.isSymbolic() ? Repository.shortenRefName(remoteHead.getTarget().getName()) : defaultBranch;
+            if (git.getRepository().exactRef(Constants.R_REMOTES + REMOTE_NAME + "/" + branch) == null) {
+                // empty repository, there is nothing to check out
+                return;
+            }
+            if (!branch.equals(defaultBranch)) {
+                git.getRepository().updateRef(Constants.HEAD).link(Constants.R_HEADS + branch);
+            }
+            git.reset().setMode(ResetCommand.ResetType.HARD).setRef(Constants.R_REMOTES + REMOTE_NAME + "/" + branch).call();
+        }
+    }
+
+    /**
+     * Creates or updates the local bare mirror of the given template repository that is used as shared object store for the student repositories of the exercise.
+     * The mirrors are located in a dedicated folder of the repo clone path, so that they are not part of the folders that contain checked out repositories (e.g.
+     * the submissions of a plagiarism check or an export). They are deleted together with the local repositories of the exercise. A mirror is updated at most once
+     * per {@link #TEMPLATE_MIRROR_UPDATE_INTERVAL_IN_SECONDS} because new template commits only reduce the amount of fetched objects.
+     *
+     * @param templateRepoUrl the URL of the template repository
+     * @return the path of the mirror or null if it could not be created
+     */
+    @Nullable
+    private Path getOrUpdateTemplateMirror(VcsRepositoryUrl templateRepoUrl) {
+        Path templateMirrorsPath = getTemplateMirrorsPath();
+        // e.g. <mirrors>/PROJECTKEY/projectkey-exercise.objects.git, the project key folder is deleted together with the exercise
+        Path templateMirrorPath = templateMirrorsPath.resolve(StringUtils.removeStart(templateRepoUrl.folderNameForRepositoryUrl(), "/") + TEMPLATE_MIRROR_SUFFIX)
+                .normalize();
+        if (!templateMirrorPath.startsWith(templateMirrorsPath)) {
+            log.warn("Cannot create a mirror of the template repository {} outside of {}, clone without shared objects", templateRepoUrl, templateMirrorsPath);
+            return null;
+        }
+        // the lock ensures that concurrent clones (e.g. during plagiarism checks) do not create the same mirror in parallel
+        Lock templateMirrorLock = templateMirrorLocks.get(templateMirrorPath);
+        templateMirrorLock.lock();
+        try {
+            Instant lastUpdate = templateMirrorUpdates.getOrDefault(templateMirrorPath, Instant.EPOCH);
+            boolean mirrorExists = Files.exists(templateMirrorPath.resolve("objects"));
+            if (mirrorExists && lastUpdate.plusSeconds(TEMPLATE_MIRROR_UPDATE_INTERVAL_IN_SECONDS).isAfter(Instant.now())) {
+                return templateMirrorPath;
+            }
+            try {
+                if (mirrorExists) {
+                    try (Git mirror = Git.open(templateMirrorPath.toFile())) {
+                        fetchCommand(mirror).setRemote(REMOTE_NAME).call();
+                    }
+                }
+                else {
+                    log.debug("Create mirror of template repository {} at {}", templateRepoUrl, templateMirrorPath);
+                    FileUtils.deleteDirectory(templateMirrorPath.toFile());
+                    try (Git mirror = cloneCommand().setURI(getGitUriAsString(templateRepoUrl)).setDirectory(templateMirrorPath.toFile()).setBare(true).setMirror(true).call()) {
+                        // the mirror must never remove objects, the repositories using it would become corrupt
+                        StoredConfig mirrorConfig = mirror.getRepository().getConfig();
+                        mirrorConfig.setInt(ConfigConstants.CONFIG_GC_SECTION, null, ConfigConstants.CONFIG_KEY_AUTO, 0);
+                        mirrorConfig.save();
+                    }
+                }
+                templateMirrorUpdates.put(templateMirrorPath, Instant.now());
+                return templateMirrorPath;
+            }
+            catch (IOException | URISyntaxException | GitAPIException | JGitInternalException e) {
+                log.warn("Cannot create or update the mirror of the template repository {}, clone without shared objects: {}", templateRepoUrl, e.getMessage());
+                // an outdated mirror can still be used, a partially created one cannot
+                return mirrorExists ? templateMirrorPath : null;
+            }
+        }
+        finally {
+            templateMirrorLock.unlock();
+        }
+    }
+
+    private Path getTemplateMirrorsPath() {
+        return Path.of(repoClonePath, TEMPLATE_MIRRORS_FOLDER).toAbsolutePath().normalize();
+    }
+
+    /**
+     * Copies the objects a repository shares with the mirror of its template repository into the repository and removes the reference to the mirror, so that the
+     * repository is self-contained again, e.g. before it is exported. Pack files are hard linked if possible, because they never change.
+     *
+     * @param repository the repository that might use shared objects
+     * @throws IOException if the objects could not be copied
+     */
+    public void removeSharedObjects(Repository repository) throws IOException {
+        Path objectsPath = repository.getDirectory().toPath().resolve("objects");
+        Path alternatesFile = objectsPath.resolve(Path.of("info", "alternates"));
+        if (!Files.exists(alternatesFile)) {
+            return;
+        }
+        for (String alternate : Files.readAllLines(alternatesFile)) {
+            if (StringUtils.isBlank(alternate)) {
+                continue;
+            }
+            Path sharedObjectsPath = Path.of(alternate.trim());
+            try (var sharedObjectFiles = Files.walk(sharedObjectsPath)) {
+                for (Path sharedObjectFile : sharedObjectFiles.filter(Files::isRegularFile).toList()) {
+                    Path relativePath = sharedObjectsPath.relativize(sharedObjectFile);
+                    Path targetFile = objectsPath.resolve(relativePath);
+                    if (relativePath.startsWith("info") || Files.exists(targetFile)) {
+                        continue;
+                    }
+                    Files.createDirectories(targetFile.getParent());
+                    try {
+                        Files.createLink(targetFile, sharedObjectFile);
+                    }
+                    catch (IOException | UnsupportedOperationException e) {
+                        Files.copy(sharedObjectFile, targetFile);
+                    }
+                }
+            }
+        }
+        Files.delete(alternatesFile);
+    }
+
+    /**
+     * Closes and evicts the cached repositories that have not been used for the configured idle time, so that their file handles are released.
+     */
+    @Scheduled(fixedDelay = 60_000, initialDelay = 60_000)
+    public void evictIdleRepositories() {
+        int evicted = cachedRepositories.evictIdleRepositories();
+        if (evicted > 0) {
+            log.debug("Evicted {} idle repositories, {} repositories remain cached", evicted, cachedRepositories.size());
+        }
+    }
+
+    /**
+     * Removes the update times of template mirrors that have been deleted, e.g. manually or by another instance that shares the repo clone path.
+     */
+    @Scheduled(fixedDelay = 60_000, initialDelay = 60_000)
+    public void removeDeletedTemplateMirrors() {
+        templateMirrorUpdates.keySet().removeIf(templateMirrorPath -> !Files.exists(templateMirrorPath));
+    }
+
     /**
      * Checks whether the repository is cached.
      * This method does only support repositories that use the repoClonePath which is set in the application-artemis.yml file!
@@ -505,7 +750,7 @@ public class GitService {
             return false;
         }
         // Check if the repository is already cached in the server's session.
-        return cachedRepositories.containsKey(localPath);
+        return cachedRepositories.contains(localPath);
     }
 
     /**
@@ -539,7 +784,7 @@ public class GitService {
 
     /**
      * Get an existing git repository that is checked out on the server. Returns immediately null if the localPath does not exist. Will first try to retrieve a cached repository
-     * from cachedRepositories. Side effect: This method caches retrieved repositories in a HashMap, so continuous retrievals can be avoided (reduces load).
+     * from cachedRepositories. Side effect: This method caches retrieved repositories in a bounded cache, so continuous retrievals can be avoided (reduces load).
      *
      * @param localPath           to git repo on server.
      * @param remoteRepositoryUrl the remote repository url for the git repository, will be added to the Repository object for later use, can be null
@@ -551,7 +796,7 @@ public class GitService {
 
     /**
      * Get an existing git repository that is checked out on the server. Returns immediately null if the localPath does not exist. Will first try to retrieve a cached repository
-     * from cachedRepositories. Side effect: This method caches retrieved repositories in a HashMap, so continuous retrievals can be avoided (reduces load).
+     * from cachedRepositories. Side effect: This method caches retrieved repositories in a bounded cache, so continuous retrievals can be avoided (reduces load).
      *
      * @param localPath           to git repo on server.
      * @param remoteRepositoryUrl the remote repository url for the git repository, will be added to the Repository object for later use, can be null
@@ -1216,6 +1461,9 @@ public class GitService {
         var folderPath = Path.of(repoClonePath, programmingExercise.getProjectKey());
         try {
             FileUtils.deleteDirectory(folderPath.toFile());
+            Path templateMirrorsFolderPath = getTemplateMirrorsPath().resolve(programmingExercise.getProjectKey());
+            FileUtils.deleteDirectory(templateMirrorsFolderPath.toFile());
+            templateMirrorUpdates.keySet().removeIf(templateMirrorPath -> templateMirrorPath.startsWith(templateMirrorsFolderPath));
         }
         catch (IOException ex) {
             log.error("Exception during deleteLocalProgrammingExerciseReposFolder", ex);
@@ -1250,6 +1498,8 @@ public class GitService {
             zipRepoName += "-" + studentTeamOrDefault + ".zip";
         }
         zipRepoName = participation.addPracticePrefixIfTestRun(zipRepoName);
+        // the exported repository must not depend on the local mirror of the template repository
+        removeSharedObjects(repo);
         return zipFiles(repo.getLocalPath(), zipRepoName, repositoryDir, null);
     }
 
@@ -0,0 +1,154 @@
+package de.tum.in.www1.artemis.service.connectors;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.tum.in.www1.artemis.domain.Repository;
+
+/**
+ * Bounded cache of the opened local git repositories of {@link GitService}, so that continuous retrievals of the same repository do not need to re-open it.
+ * <p>
+ * Every opened repository holds file handles (e.g. of its pack files). Therefore, the cache contains at most {@code maxSize} repositories and evicts the least recently
+ * used one if it is full. Repositories that have not been used for {@code maxIdleTime} are evicted as well. Evicted repositories are closed. JGit re-opens the
+ * underlying files on demand, so callers that still hold an evicted repository can continue to use it.
+ */
+public class LocalRepositoryCache {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalRepositoryCache.class);
+
+    private final int maxSize;
+
+    private final Duration maxIdleTime;
+
+    // access ordered, i.e. the first entry is the least recently used one
+    private final LinkedHashMap<Path, CachedRepository> repositories = new LinkedHashMap<>(16, 0.75f, true);
+
+    private static final class CachedRepository {
+
+        private final Repository repository;
+
+        private Instant lastAccess;
+
+        private CachedRepository(Repository repository, Instant lastAccess) {
+            this.repository = repository;
+            this.lastAccess = lastAccess;
+        }
+    }
+
+    /**
+     * @param maxSize     the maximum number of cached repositories
+     * @param maxIdleTime the time after which unused repositories are evicted
+     */
+    public LocalRepositoryCache(int maxSize, Duration maxIdleTime) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("The repository cache must be able to hold at least one repository");
+        }
+        this.maxSize = maxSize;
+        this.maxIdleTime = maxIdleTime;
+    }
+
+    /**
+     * Get the cached repository for the given local path
+     *
+     * @param localPath the local path of the repository
+     * @return the cached repository or null if it is not cached or has been idle for too long (in this case, it is evicted)
+     */
+    @Nullable
+    public synchronized Repository get(Path localPath) {
+        CachedRepository cachedRepository = repositories.get(localPath);
+        if (cachedRepository == null) {
+            return null;
+        }
+        Instant now = Instant.now();
+        if (isIdle(cachedRepository, now)) {
+            repositories.remove(localPath);
+            close(localPath, cachedRepository);
+            return null;
+        }
+        cachedRepository.lastAccess = now;
+        return cachedRepository.repository;
+    }
+
+    /**
+     * Checks whether a repository is cached for the given local path (without updating its last access)
+     *
+     * @param localPath the local path of the repository
+     * @return true if a repository is cached for the path
+     */
+    public synchronized boolean contains(Path localPath) {
+        return repositories.containsKey(localPath);
+    }
+
+    /**
+     * Caches the given repository. If the cache is full, the least recently used repository is evicted and closed.
+     *
+     * @param localPath  the local path of the repository
+     * @param repository the opened repository
+     */
+    public synchronized void put(Path localPath, Repository repository) {
+        CachedRepository previous = repositories.put(localPath, new CachedRepository(repository, Instant.now()));
+        if (previous != null && previous.repository != repository) {
+            close(localPath, previous);
+        }
+        Iterator<Map.Entry<Path, CachedRepository>> iterator = repositories.entrySet().iterator();
+        while (repositories.size() > maxSize && iterator.hasNext()) {
+            Map.Entry<Path, CachedRepository> eldest = iterator.next();
+            iterator.remove();
+            close(eldest.getKey(), eldest.getValue());
+        }
+    }
+
+    /**
+     * Removes the repository of the given local path from the cache without closing it, e.g. because the caller deletes it.
+     *
+     * @param localPath the local path of the repository
+     */
+    public synchronized void remove(Path localPath) {
+        repositories.remove(localPath);
+    }
+
+    /**
+     * Evicts and closes all repositories that have not been used for the configured idle time
+     *
+     * @return the number of evicted repositories
+     */
+    public synchronized int evictIdleRepositories() {
+        Instant now = Instant.now();
+        int evicted = 0;
+        Iterator<Map.Entry<Path, CachedRepository>> iterator = repositories.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Path, CachedRepository> entry = iterator.next();
+            if (isIdle(entry.getValue(), now)) {
+                iterator.remove();
+                close(entry.getKey(), entry.getValue());
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * @return the number of cached repositories
+     */
+    public synchronized int size() {
+        return repositories.size();
+    }
+
+    private boolean isIdle(CachedRepository cachedRepository, Instant now) {
+        return cachedRepository.lastAccess.plus(maxIdleTime).isBefore(now);
+    }
+
+    private static void close(Path localPath, CachedRepository cachedRepository) {
+        log.debug("Close evicted repository {}", localPath);
+        cachedRepository.repository.close();
+    }
+}
@@ -0,0 +1,46 @@
+package de.tum.in.www1.artemis.service.dto;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.ZonedDateTime;
+import java.util.Set;
+
+/**
+ * Lightweight, user independent summary of a course that is used to decide which courses are shown on the course dashboard of a user
+ * without loading (or deserializing) the complete course structure.
+ *
+ * @param courseId                     the id of the course
+ * @param studentGroupName             the name of the student group of the course
+ * @param teachingAssistantGroupName   the name of the teaching assistant group of the course
+ * @param editorGroupName              the name of the editor group of the course
+ * @param instructorGroupName          the name of the instructor group of the course
+ * @param startDate                    the start date of the course, might be null
+ * @param endDate                      the end date of the course, might be null
+ */
+public record CourseDashboardSummaryDTO(Long courseId, String studentGroupName, String teachingAssistantGroupName, String editorGroupName, String instructorGroupName,
+        ZonedDateTime startDate, ZonedDateTime endDate) implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Checks if the course is active at the given point in time, i.e. it has already started and has not yet ended
+     *
+     * @param now the point in time to check, typically ZonedDateTime.now()
+     * @return true if the course is active, false otherwise
+     */
+    public boolean isActive(ZonedDateTime now) {
+        return (startDate == null || !startDate.isAfter(now)) && (endDate == null || !endDate.isBefore(now));
+    }
+
+    /**
+     * Checks if a user with the given groups is a member of the course, i.e. if the course should be shown on the dashboard of the user.
+     * Note: the visibility for admins has to be checked separately
+     *
+     * @param groups the groups of the user
+     * @return true if the user is a student, teaching assistant, editor or instructor in the course, false otherwise
+     */
+    public boolean isMember(Set<String> groups) {
+        return groups.contains(studentGroupName) || groups.contains(teachingAssistantGroupName) || groups.contains(editorGroupName) || groups.contains(instructorGroupName);
+    }
+}
@@ -1,5 +1,7 @@
 package de.tum.in.www1.artemis.service.dto;
 
+import java.io.Serial;
+import java.io.Serializable;
 import java.util.Objects;
 
 import javax.validation.constraints.Email;
@@ -11,7 +13,10 @@ import com.fasterxml.jackson.annotation.JsonInclude;
 import de.tum.in.www1.artemis.domain.User;
 
 @JsonInclude(JsonInclude.Include.NON_EMPTY)
-public class StudentDTO {
+public class StudentDTO implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
 
     @Size(max = 50)
     private String login;
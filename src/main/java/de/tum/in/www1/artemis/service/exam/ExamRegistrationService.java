@@ -1,6 +1,9 @@
 package de.tum.in.www1.artemis.service.exam;
 
 import java.util.*;
+import java.util.function.IntConsumer;
+
+import javax.annotation.Nullable;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -20,6 +23,7 @@ import de.tum.in.www1.artemis.repository.*;
 import de.tum.in.www1.artemis.security.Role;
 import de.tum.in.www1.artemis.service.AuthorizationCheckService;
 import de.tum.in.www1.artemis.service.ParticipationService;
+import de.tum.in.www1.artemis.service.dto.StudentDTO;
 import de.tum.in.www1.artemis.service.user.UserService;
 import de.tum.in.www1.artemis.web.rest.dto.ExamUserDTO;
 import de.tum.in.www1.artemis.web.rest.errors.AccessForbiddenException;
@@ -83,6 +87,21 @@ public class ExamRegistrationService {
      * @return the list of students who could not be registered for the exam, because they could NOT be found in the Artemis database and could NOT be found in the TUM LDAP
      */
     public List<ExamUserDTO> registerStudentsForExam(Long courseId, Long examId, List<ExamUserDTO> examUserDTOs) {
+        return registerStudentsForExam(courseId, examId, examUserDTOs, null);
+    }
+
+    /**
+     * Add multiple users to the students of the exam so that they can access the exam, see {@link #registerStudentsForExam(Long, Long, List)}.
+     * The students are processed in batches of {@link UserService#BULK_REGISTRATION_BATCH_SIZE}, the exam users of a batch are created and updated with one batched write.
+     * The progress listener is notified after every batch.
+     *
+     * @param courseId         the id of the course
+     * @param examId           the id of the exam
+     * @param examUserDTOs     the list of students (with at least registration number) who should get access to the exam
+     * @param progressListener receives the number of processed students after every batch, might be null
+     * @return the list of students who could not be registered for the exam, because they could NOT be found in the Artemis database and could NOT be found in the TUM LDAP
+     */
+    public List<ExamUserDTO> registerStudentsForExam(Long courseId, Long examId, List<ExamUserDTO> examUserDTOs, @Nullable IntConsumer progressListener) {
         var course = courseRepository.findByIdElseThrow(courseId);
         var exam = examRepository.findWithExamUsersById(examId).orElseThrow(() -> new EntityNotFoundException("Exam", examId));
 
@@ -90,23 +109,38 @@ public class ExamRegistrationService {
             throw new AccessForbiddenException("Registration of students is only allowed for real exams");
         }
 
-        List<ExamUserDTO> notFoundStudentsDTOs = new ArrayList<>();
-        for (var examUserDto : examUserDTOs) {
-            var registrationNumber = examUserDto.registrationNumber();
-            var login = examUserDto.login();
-            var email = examUserDto.email();
-            Optional<User> optionalStudent = userService.findUserAndAddToCourse(registrationNumber, course.getStudentGroupName(), Role.STUDENT, login, email);
-            if (optionalStudent.isEmpty()) {
-                notFoundStudentsDTOs.add(examUserDto);
-            }
-            else {
-                User student = optionalStudent.get();
-                Optional<ExamUser> examUserOptional = examUserRepository.findByExamIdAndUserId(exam.getId(), student.getId());
+        Map<Long, ExamUser> examUsersByUserId = new HashMap<>();
+        exam.getExamUsers().forEach(examUser -> examUsersByUserId.put(examUser.getUser().getId(), examUser));
 
-                if ((examUserOptional.isEmpty() || !exam.getExamUsers().contains(examUserOptional.get())) && !authorizationCheckService.isInstructorInCourse(course, student)
-                        && !authorizationCheckService.isAdmin(student)) {
+        List<ExamUserDTO> notFoundStudentsDTOs = new ArrayList<>();
+        for (int start = 0; start < examUserDTOs.size(); start += UserService.BULK_REGISTRATION_BATCH_SIZE) {
+            int end = Math.min(start + UserService.BULK_REGISTRATION_BATCH_SIZE, examUserDTOs.size());
+            var batch = examUserDTOs.subList(start, end);
+            var students = batch.stream().map(examUserDto -> {
+                var studentDto = new StudentDTO(examUserDto.login(), examUserDto.firstName(), examUserDto.lastName(), examUserDto.registrationNumber());
+                studentDto.setEmail(examUserDto.email());
+                return studentDto;
+            }).toList();
+            List<Optional<User>> optionalStudents = userService.findUsersAndAddToCourse(students, course.getStudentGroupName(), Role.STUDENT);
+
+            // the exam users of this batch by user id, so that a student that is contained multiple times is only registered once
+            Map<Long, ExamUser> examUsersToSave = new LinkedHashMap<>();
+            for (int i = 0; i < batch.size(); i++) {
+                var examUserDto = batch.get(i);
+                if (optionalStudents.get(i).isEmpty()) {
+                    notFoundStudentsDTOs.add(examUserDto);
+                    continue;
+                }
+                User student = optionalStudents.get(i).get();
+                ExamUser examUser = examUsersToSave.getOrDefault(student.getId(), examUsersByUserId.get(student.getId()));
+                if (examUser != null) {
+                    examUser.setPlannedRoom(examUserDto.room());
+                    examUser.setPlannedSeat(examUserDto.seat());
+                    examUsersToSave.put(student.getId(), examUser);
+                }
+                else if (!authorizationCheckService.isInstructorInCourse(course, student) && !authorizationCheckService.isAdmin(student)) {
                     ExamUser registeredExamUser = new ExamUser();
-                    registeredExamUser.setUser(optionalStudent.get());
+                    registeredExamUser.setUser(student);
                     registeredExamUser.setExam(exam);
 
                     if (StringUtils.hasText(examUserDto.room())) {
@@ -115,18 +149,16 @@ public class ExamRegistrationService {
                     if (StringUtils.hasText(examUserDto.seat())) {
                         registeredExamUser.setPlannedSeat(examUserDto.seat());
                     }
-                    registeredExamUser = examUserRepository.save(registeredExamUser);
-                    exam.addExamUser(registeredExamUser);
-                }
-
-                if (examUserOptional.isPresent() && exam.getExamUsers().contains(examUserOptional.get())) {
-                    ExamUser examUser = examUserOptional.get();
-                    examUser.setPlannedRoom(examUserDto.room());
-                    examUser.setPlannedSeat(examUserDto.seat());
-                    examUser = examUserRepository.save(examUser);
-                    exam.addExamUser(examUser);
+                    examUsersToSave.put(student.getId(), registeredExamUser);
                 }
+            }
 
+            for (ExamUser examUser : examUserRepository.saveAll(examUsersToSave.values())) {
+                examUsersByUserId.put(examUser.getUser().getId(), examUser);
+                exam.addExamUser(examUser);
+            }
+            if (progressListener != null) {
+                progressListener.accept(end);
             }
         }
         examRepository.save(exam);
@@ -0,0 +1,260 @@
+package de.tum.in.www1.artemis.service.exam;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.Hibernate;
+import org.hibernate.event.spi.*;
+import org.hibernate.proxy.HibernateProxy;
+import org.springframework.stereotype.Service;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+
+import de.tum.in.www1.artemis.domain.*;
+import de.tum.in.www1.artemis.domain.exam.Exam;
+import de.tum.in.www1.artemis.domain.exam.ExerciseGroup;
+import de.tum.in.www1.artemis.domain.exam.StudentExam;
+import de.tum.in.www1.artemis.domain.participation.Participation;
+import de.tum.in.www1.artemis.domain.plagiarism.PlagiarismCase;
+import de.tum.in.www1.artemis.repository.ExamRepository;
+import de.tum.in.www1.artemis.service.util.CacheEvictionEventListener;
+import de.tum.in.www1.artemis.web.rest.dto.ExamScoresDTO;
+
+/**
+ * Cluster-wide cache of the exam scores calculated by {@link ExamService#calculateExamScores(Long)}.
+ * <p>
+ * The scores of an exam are invalidated through Hibernate events whenever something changes that they are based on: participations, submissions and results of exam
+ * exercises, student exams, plagiarism cases, the grading scale (including grade steps and bonus), the exam structure itself, the personal data of the students and the
+ * score accuracy of the course. Changes of course exercises do not evict anything. If the exam of a changed entity cannot be determined without initializing lazy
+ * associations (which is not possible during a flush), it is queried after the commit.
+ */
+@Service
+public class ExamScoresCacheService extends CacheEvictionEventListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private static final String EXAM_SCORES_MAP = "examScores";
+
+    // the scores are invalidated explicitly, the TTL only limits the number of exams that are still contained
+    private static final int EXAM_SCORES_TIME_TO_LIVE_SECONDS = 60 * 60;
+
+    /**
+     * The result of a calculation of exam scores
+     *
+     * @param scores    the calculated scores
+     * @param cacheable whether the scores may be cached, i.e. whether they only depend on the exam itself
+     */
+    record CalculatedExamScores(ExamScoresDTO scores, boolean cacheable) {
+    }
+
+    // the properties of a student that are part of the exam scores
+    private static final Set<String> STUDENT_PROPERTIES = Set.of("login", "firstName", "lastName", "email", "registrationNumber");
+
+    private final ExamRepository examRepository;
+
+    private final IMap<Long, ExamScoresDTO> examScores;
+
+    public ExamScoresCacheService(EntityManagerFactory entityManagerFactory, HazelcastInstance hazelcastInstance, ExamRepository examRepository) {
+        super(hazelcastInstance, EXAM_SCORES_MAP);
+        this.examRepository = examRepository;
+        this.examScores = hazelcastInstance.getMap(EXAM_SCORES_MAP);
+
+        registerEventListeners(entityManagerFactory);
+    }
+
+    /**
+     * Configures the Hazelcast map of the cached exam scores
+     *
+     * @param config the Hazelcast config that should be adapted
+     */
+    public static void configureHazelcast(Config config) {
+        config.getMapConfig(EXAM_SCORES_MAP).setTimeToLiveSeconds(EXAM_SCORES_TIME_TO_LIVE_SECONDS);
+        configureEvictionCounters(config, EXAM_SCORES_MAP);
+    }
+
+    /**
+     * Get the cached scores of the given exam or calculate them. Cacheable scores are stored until they are invalidated.
+     *
+     * @param examId      the id of the exam
+     * @param calculation calculates the scores of the exam
+     * @return the cached or calculated exam scores
+     */
+    ExamScoresDTO getExamScores(long examId, Supplier<CalculatedExamScores> calculation) {
+        ExamScoresDTO cachedExamScores = examScores.get(examId);
+        if (cachedExamScores != null) {
+            return cachedExamScores;
+        }
+        return loadAndCache(Set.of(String.valueOf(examId)), calculation, calculated -> {
+            if (calculated.cacheable()) {
+                examScores.putIfAbsent(examId, calculated.scores());
+            }
+        }, () -> examScores.delete(examId)).scores();
+    }
+
+    /**
+     * Removes the cached scores of the given exam (cluster-wide)
+     *
+     * @param examId the id of the exam
+     */
+    public void evictExamScores(Long examId) {
+        evictNowAndAfterCommit(String.valueOf(examId), () -> examScores.delete(examId));
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        evictForEntity(event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        Object entity = event.getEntity();
+        if (entity instanceof User user && isAnyPropertyDirty(event, STUDENT_PROPERTIES)) {
+            // users are updated frequently, only their personal data is part of the exam scores
+            long userId = user.getId();
+            evictExamsAfterCommit(() -> examRepository.findIdsByStudentExamUserId(userId));
+        }
+        else if (entity instanceof Course course && isAnyPropertyDirty(event, Set.of("accuracyOfScores"))) {
+            long courseId = course.getId();
+            evictExamsAfterCommit(() -> examRepository.findIdsByCourseId(courseId));
+        }
+        else {
+            evictForEntity(entity);
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        evictForEntity(event.getEntity());
+    }
+
+    /**
+     * Evicts the scores of the exam the given entity belongs to (if any)
+     *
+     * @param entity the entity that has been inserted, updated or deleted
+     */
+    private void evictForEntity(Object entity) {
+        if (entity instanceof Result result) {
+            evictForParticipation(result.getParticipation());
+        }
+        else if (entity instanceof Submission submission) {
+            evictForParticipation(submission.getParticipation());
+        }
+        else if (entity instanceof Participation participation) {
+            evictForParticipation(participation);
+        }
+        else if (entity instanceof StudentExam studentExam) {
+            evictForExam(studentExam.getExam());
+        }
+        else if (entity instanceof PlagiarismCase plagiarismCase) {
+            evictForExercise(plagiarismCase.getExercise());
+        }
+        else if (entity instanceof GradingScale gradingScale) {
+            evictForGradingScale(gradingScale);
+        }
+        else if (entity instanceof GradeStep gradeStep) {
+            evictForGradingScale(gradeStep.getGradingScale());
+        }
+        else if (entity instanceof Bonus bonus) {
+            evictForGradingScale(bonus.getBonusToGradingScale());
+        }
+        else if (entity instanceof Exam exam) {
+            evictForExam(exam);
+        }
+        else if (entity instanceof ExerciseGroup exerciseGroup) {
+            evictForExam(exerciseGroup.getExam());
+        }
+        else if (entity instanceof Exercise exercise) {
+            evictForExercise(exercise);
+        }
+    }
+
+    private void evictForParticipation(Participation participation) {
+        if (participation == null) {
+            return;
+        }
+        if (isUninitialized(participation)) {
+            long participationId = getId(participation);
+            evictExamsAfterCommit(() -> examRepository.findIdByParticipationId(participationId).stream().toList());
+        }
+        else {
+            evictForExercise(participation.getExercise());
+        }
+    }
+
+    private void evictForExercise(Exercise exercise) {
+        if (exercise == null) {
+            return;
+        }
+        if (isUninitialized(exercise)) {
+            long exerciseId = getId(exercise);
+            evictExamsAfterCommit(() -> examRepository.findIdByExerciseId(exerciseId).stream().toList());
+            return;
+        }
+        // course exercises do not have an exercise group
+        ExerciseGroup exerciseGroup = exercise.getExerciseGroup();
+        if (exerciseGroup == null) {
+            return;
+        }
+        if (isUninitialized(exerciseGroup)) {
+            long exerciseId = exercise.getId();
+            evictExamsAfterCommit(() -> examRepository.findIdByExerciseId(exerciseId).stream().toList());
+        }
+        else {
+            evictForExam(exerciseGroup.getExam());
+        }
+    }
+
+    private void evictForGradingScale(GradingScale gradingScale) {
+        if (gradingScale == null) {
+            return;
+        }
+        if (isUninitialized(gradingScale)) {
+            long gradingScaleId = getId(gradingScale);
+            evictExamsAfterCommit(() -> examRepository.findIdByGradingScaleId(gradingScaleId).stream().toList());
+        }
+        else {
+            // changes of a course grading scale can affect exams that use the course as bonus source, those scores are not cached
+            evictForExam(gradingScale.getExam());
+        }
+    }
+
+    private void evictForExam(Exam exam) {
+        Long examId = exam != null ? getId(exam) : null;
+        if (examId != null) {
+            evictExamScores(examId);
+        }
+    }
+
+    /**
+     * Evicts the scores of the given exams after the commit, when the exams can be queried
+     *
+     * @param examIds queries the ids of the exams whose scores should be evicted
+     */
+    private void evictExamsAfterCommit(Supplier<Collection<Long>> examIds) {
+        evictAfterCommit(() -> examIds.get().forEach(examId -> evict(String.valueOf(examId), () -> examScores.delete(examId))));
+    }
+
+    private static boolean isAnyPropertyDirty(PostUpdateEvent event, Set<String> propertyNames) {
+        if (event.getDirtyProperties() == null) {
+            // the changed properties are unknown
+            return true;
+        }
+        String[] allPropertyNames = event.getPersister().getPropertyNames();
+        return Arrays.stream(event.getDirtyProperties()).anyMatch(index -> propertyNames.contains(allPropertyNames[index]));
+    }
+
+    private static boolean isUninitialized(Object entity) {
+        return !Hibernate.isInitialized(entity);
+    }
+
+    private static Long getId(DomainObject entity) {
+        if (entity instanceof HibernateProxy proxy) {
+            return (Long) proxy.getHibernateLazyInitializer().getIdentifier();
+        }
+        return entity.getId();
+    }
+}
@@ -42,6 +42,7 @@ import de.tum.in.www1.artemis.repository.plagiarism.PlagiarismCaseRepository;
 import de.tum.in.www1.artemis.security.SecurityUtils;
 import de.tum.in.www1.artemis.service.*;
 import de.tum.in.www1.artemis.service.connectors.GitService;
+import de.tum.in.www1.artemis.service.exam.ExamScoresCacheService.CalculatedExamScores;
 import de.tum.in.www1.artemis.service.messaging.InstanceMessageSendService;
 import de.tum.in.www1.artemis.service.notifications.GroupNotificationService;
 import de.tum.in.www1.artemis.service.plagiarism.PlagiarismCaseService.PlagiarismMapping;
@@ -109,6 +110,8 @@ public class ExamService {
 
     private final CourseScoreCalculationService courseScoreCalculationService;
 
+    private final ExamScoresCacheService examScoresCacheService;
+
     private final ObjectMapper defaultObjectMapper;
 
     public ExamService(ExamRepository examRepository, StudentExamRepository studentExamRepository, ExamQuizService examQuizService,
@@ -117,7 +120,8 @@ public class ExamService {
             ProgrammingExerciseRepository programmingExerciseRepository, QuizExerciseRepository quizExerciseRepository, ResultRepository resultRepository,
             SubmissionRepository submissionRepository, CourseExamExportService courseExamExportService, GitService gitService, GroupNotificationService groupNotificationService,
             GradingScaleRepository gradingScaleRepository, PlagiarismCaseRepository plagiarismCaseRepository, AuthorizationCheckService authorizationCheckService,
-            BonusService bonusService, SubmittedAnswerRepository submittedAnswerRepository, CourseScoreCalculationService courseScoreCalculationService) {
+            BonusService bonusService, SubmittedAnswerRepository submittedAnswerRepository, CourseScoreCalculationService courseScoreCalculationService,
+            ExamScoresCacheService examScoresCacheService) {
         this.examRepository = examRepository;
         this.studentExamRepository = studentExamRepository;
         this.userRepository = userRepository;
@@ -140,6 +144,7 @@ public class ExamService {
         this.bonusService = bonusService;
         this.submittedAnswerRepository = submittedAnswerRepository;
         this.courseScoreCalculationService = courseScoreCalculationService;
+        this.examScoresCacheService = examScoresCacheService;
         this.defaultObjectMapper = new ObjectMapper();
     }
 
@@ -179,20 +184,51 @@ public class ExamService {
      * @return return ExamScoresDTO with students, scores, exerciseGroups, bonus and related plagiarism verdicts for the exam
      */
     public ExamScoresDTO calculateExamScores(Long examId) {
+        return examScoresCacheService.getExamScores(examId, () -> calculateExamScoresWithoutCache(examId));
+    }
+
+    private CalculatedExamScores calculateExamScoresWithoutCache(Long examId) {
+        long start = System.nanoTime();
         Exam exam = examRepository.findWithExerciseGroupsAndExercisesById(examId).orElseThrow(() -> new EntityNotFoundException("Exam", examId));
 
         List<StudentParticipation> studentParticipations = studentParticipationRepository.findByExamIdWithSubmissionRelevantResult(examId); // without test run participations
         log.info("Try to find quiz submitted answer counts");
         List<QuizSubmittedAnswerCount> submittedAnswerCounts = studentParticipationRepository.findSubmittedAnswerCountForQuizzesInExam(examId);
         log.info("Found {} quiz submitted answer counts", submittedAnswerCounts.size());
-
-        // Counts how many participants each exercise has
-        Map<Long, Long> exerciseIdToNumberParticipations = studentParticipations.stream()
-                .collect(Collectors.groupingBy(studentParticipation -> studentParticipation.getExercise().getId(), Collectors.counting()));
+        Set<Long> quizParticipationIdsWithSubmittedAnswers = submittedAnswerCounts.stream().map(QuizSubmittedAnswerCount::participationId).collect(Collectors.toSet());
+
+        // Index the participations by student and count how many participants each exercise has in a single pass
+        Map<Long, List<StudentParticipation>> studentIdToParticipations = new HashMap<>();
+        Map<Long, Long> exerciseIdToNumberParticipations = new HashMap<>();
+        for (StudentParticipation studentParticipation : studentParticipations) {
+            studentParticipation.getStudent()
+                    .ifPresent(student -> studentIdToParticipations.computeIfAbsent(student.getId(), studentId -> new ArrayList<>()).add(studentParticipation));
+            exerciseIdToNumberParticipations.merge(studentParticipation.getExercise().getId(), 1L, Long::sum);
+        }
 
         List<PlagiarismCase> plagiarismCasesForStudent = plagiarismCaseRepository.findByExamId(exam.getId());
         var plagiarismMapping = PlagiarismMapping.createFromPlagiarismCases(plagiarismCasesForStudent);
 
+        // Adding registered student information to DTO
+        Set<StudentExam> studentExams = studentExamRepository.findByExamId(examId); // fetched without test runs
+        Optional<GradingScale> gradingScale = gradingScaleRepository.findByExamIdWithBonusFrom(examId);
+        List<Long> studentIds = studentExams.stream().map(studentExam -> studentExam.getUser().getId()).toList();
+        ExamBonusCalculator examBonusCalculator = createExamBonusCalculator(gradingScale, studentIds);
+
+        var studentResults = new ArrayList<ExamScoresDTO.StudentResult>();
+        // the overall points are aggregated in the same pass to calculate the average
+        double sumOverallPoints = 0.0;
+
+        for (StudentExam studentExam : studentExams) {
+            // Adding student results information to DTO
+            List<StudentParticipation> participationsOfStudent = studentIdToParticipations.getOrDefault(studentExam.getUser().getId(), List.of());
+            var studentResult = calculateStudentResultWithGrade(studentExam, participationsOfStudent, exam, gradingScale, true, quizParticipationIdsWithSubmittedAnswers,
+                    plagiarismMapping, examBonusCalculator);
+            studentResults.add(studentResult);
+
+            sumOverallPoints += studentResult.overallPointsAchieved();
+        }
+
         var exerciseGroups = new ArrayList<ExamScoresDTO.ExerciseGroup>();
 
         // Adding exercise group information to DTO
@@ -207,11 +243,8 @@ public class ExamService {
             // Add information about exercise groups and exercises
 
             for (Exercise exercise : exerciseGroup.getExercises()) {
-                Long participantsForExercise = exerciseIdToNumberParticipations.get(exercise.getId());
                 // If no participation exists for an exercise then no entry exists in the map
-                if (participantsForExercise == null) {
-                    participantsForExercise = 0L;
-                }
+                long participantsForExercise = exerciseIdToNumberParticipations.getOrDefault(exercise.getId(), 0L);
                 numberOfExerciseGroupParticipants += participantsForExercise;
                 containedExercises.add(new ExamScoresDTO.ExerciseGroup.ExerciseInfo(exercise.getId(), exercise.getTitle(), exercise.getMaxPoints(), participantsForExercise,
                         exercise.getClass().getSimpleName()));
@@ -221,36 +254,19 @@ public class ExamService {
             exerciseGroups.add(exerciseGroupDTO);
         }
 
-        // Adding registered student information to DTO
-        Set<StudentExam> studentExams = studentExamRepository.findByExamId(examId); // fetched without test runs
-        Optional<GradingScale> gradingScale = gradingScaleRepository.findByExamIdWithBonusFrom(examId);
-        List<Long> studentIds = studentExams.stream().map(studentExam -> studentExam.getUser().getId()).toList();
-        ExamBonusCalculator examBonusCalculator = createExamBonusCalculator(gradingScale, studentIds);
-
-        var studentResults = new ArrayList<ExamScoresDTO.StudentResult>();
-
-        for (StudentExam studentExam : studentExams) {
-            // Adding student results information to DTO
-            List<StudentParticipation> participationsOfStudent = studentParticipations.stream()
-                    .filter(studentParticipation -> studentParticipation.getStudent().get().getId().equals(studentExam.getUser().getId())).toList();
-            var studentResult = calculateStudentResultWithGrade(studentExam, participationsOfStudent, exam, gradingScale, true, submittedAnswerCounts, plagiarismMapping,
-                    examBonusCalculator);
-            studentResults.add(studentResult);
-        }
-
         // Updating exam information in DTO
         int numberOfStudentResults = studentResults.size();
-        var averagePointsAchieved = 0.0;
-        if (numberOfStudentResults != 0) {
-            double sumOverallPoints = studentResults.stream().mapToDouble(ExamScoresDTO.StudentResult::overallPointsAchieved).sum();
-            averagePointsAchieved = sumOverallPoints / numberOfStudentResults;
-        }
+        var averagePointsAchieved = numberOfStudentResults != 0 ? sumOverallPoints / numberOfStudentResults : 0.0;
 
         // the second correction has started if it is enabled in the exam and at least one exercise was started
         var hasSecondCorrectionAndStarted = exam.getNumberOfCorrectionRoundsInExam() > 1
                 && exam.getExerciseGroups().stream().flatMap(exerciseGroup -> exerciseGroup.getExercises().stream()).anyMatch(Exercise::getSecondCorrectionEnabled);
 
-        return new ExamScoresDTO(exam.getId(), exam.getTitle(), exam.getExamMaxPoints(), averagePointsAchieved, hasSecondCorrectionAndStarted, exerciseGroups, studentResults);
+        var examScores = new ExamScoresDTO(exam.getId(), exam.getTitle(), exam.getExamMaxPoints(), averagePointsAchieved, hasSecondCorrectionAndStarted, exerciseGroups,
+                studentResults);
+        log.info("Calculated the scores of {} students in exam {} in {}", numberOfStudentResults, examId, TimeLogUtil.formatDurationFrom(start));
+        // the bonus depends on the bonus source (another course or exam) and on the access rights of the current user, therefore these scores are not cached
+        return new CalculatedExamScores(examScores, examBonusCalculator == null);
     }
 
     /**
@@ -534,7 +550,7 @@ public class ExamService {
      * @return exam result for a student who participated in the exam
      */
     private ExamScoresDTO.StudentResult calculateStudentResultWithGrade(StudentExam studentExam, List<StudentParticipation> participationsOfStudent, Exam exam,
-            Optional<GradingScale> gradingScale, boolean calculateFirstCorrectionPoints, List<QuizSubmittedAnswerCount> quizSubmittedAnswerCounts,
+            Optional<GradingScale> gradingScale, boolean calculateFirstCorrectionPoints, Set<Long> quizParticipationIdsWithSubmittedAnswers,
             PlagiarismMapping plagiarismMapping, ExamBonusCalculator examBonusCalculator) {
         User user = studentExam.getUser();
 
@@ -590,8 +606,9 @@ public class ExamService {
                 // Check whether the student attempted to solve the exercise
                 boolean hasNonEmptySubmission = hasNonEmptySubmission(studentParticipation.getSubmissions(), exercise);
                 // special handling for quizzes to avoid performance issues
-                if (exercise instanceof QuizExercise && quizSubmittedAnswerCounts != null) {
-                    hasNonEmptySubmission = hasNonEmptySubmissionInQuiz(studentParticipation, quizSubmittedAnswerCounts);
+                if (exercise instanceof QuizExercise && quizParticipationIdsWithSubmittedAnswers != null) {
+                    // If the participation is not contained, the quiz submission is empty
+                    hasNonEmptySubmission = quizParticipationIdsWithSubmittedAnswers.contains(studentParticipation.getId());
                 }
                 exerciseGroupIdToExerciseResult.put(exercise.getExerciseGroup().getId(), new ExamScoresDTO.ExerciseResult(exercise.getId(), exercise.getTitle(),
                         exercise.getMaxPoints(), relevantResult.getScore(), achievedPoints, hasNonEmptySubmission));
@@ -610,9 +627,9 @@ public class ExamService {
             overallScoreAchieved = (overallPointsAchieved / exam.getExamMaxPoints()) * 100.0;
             if (gradingScale.isPresent()) {
                 // Calculate current student grade
-                GradeStep studentGrade = gradingScaleRepository.matchPercentageToGradeStep(overallScoreAchieved, gradingScale.get().getId());
+                GradeStep studentGrade = gradingScaleRepository.matchPercentageToGradeStep(overallScoreAchieved, gradingScale.get());
                 var overallScoreAchievedInFirstCorrection = (overallPointsAchievedInFirstCorrection / exam.getExamMaxPoints()) * 100.0;
-                GradeStep studentGradeInFirstCorrection = gradingScaleRepository.matchPercentageToGradeStep(overallScoreAchievedInFirstCorrection, gradingScale.get().getId());
+                GradeStep studentGradeInFirstCorrection = gradingScaleRepository.matchPercentageToGradeStep(overallScoreAchievedInFirstCorrection, gradingScale.get());
                 overallGrade = studentGrade.getGradeName();
                 overallGradeInFirstCorrection = studentGradeInFirstCorrection.getGradeName();
                 hasPassed = studentGrade.getIsPassingGrade();
@@ -631,18 +648,6 @@ public class ExamService {
                 exerciseGroupIdToExerciseResult, mostSevereVerdict);
     }
 
-    private boolean hasNonEmptySubmissionInQuiz(StudentParticipation studentParticipation, List<QuizSubmittedAnswerCount> quizSubmittedAnswerCounts) {
-        // If an entry is NOT available, it means the quiz submission is empty, i.e.
-        // If the participation is not contained in the list, it is empty, i.e. hasNonEmptySubmission is true when the participation is contained
-
-        for (var quizSubmittedAnswerCount : quizSubmittedAnswerCounts) {
-            if (quizSubmittedAnswerCount.participationId() == studentParticipation.getId()) {
-                return true;
-            }
-        }
-        return false;
-    }
-
     /**
      * First rounds max points for each exercise according to their {@link IncludedInOverallScore} value and sums them up.
      *
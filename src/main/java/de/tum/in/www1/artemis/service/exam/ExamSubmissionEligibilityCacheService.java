@@ -0,0 +1,216 @@
+package de.tum.in.www1.artemis.service.exam;
+
+import java.io.Serializable;
+import java.time.ZonedDateTime;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.apache.commons.lang3.ArrayUtils;
+import org.hibernate.event.spi.*;
+import org.hibernate.proxy.HibernateProxy;
+import org.springframework.stereotype.Service;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.query.Predicates;
+
+import de.tum.in.www1.artemis.domain.DomainObject;
+import de.tum.in.www1.artemis.domain.User;
+import de.tum.in.www1.artemis.domain.exam.Exam;
+import de.tum.in.www1.artemis.domain.exam.StudentExam;
+import de.tum.in.www1.artemis.service.util.CacheEvictionEventListener;
+
+/**
+ * Cluster-wide cache of the data {@link ExamSubmissionService#isAllowedToSubmitDuringExam} needs to decide whether a user may still submit in an exam, so that the
+ * auto-saves of the exam clients do not need database reads.
+ * <p>
+ * Entries are keyed by exam and user and are invalidated through Hibernate events whenever a student exam changes (e.g. working time extensions, hand-ins, new test
+ * runs), the dates of the exam change or the groups of the user change.
+ */
+@Service
+public class ExamSubmissionEligibilityCacheService extends CacheEvictionEventListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener,
+        PostCollectionRecreateEventListener, PostCollectionUpdateEventListener, PostCollectionRemoveEventListener {
+
+    private static final String EXAM_SUBMISSION_ELIGIBILITIES_MAP = "examSubmissionEligibilities";
+
+    // the entries are invalidated explicitly, the TTL only limits the number of entries of past exams
+    private static final int EXAM_SUBMISSION_ELIGIBILITIES_TIME_TO_LIVE_SECONDS = 30 * 60;
+
+    private static final String KEY_SEPARATOR = "|";
+
+    private static final String EXAM_SCOPE_PREFIX = "exam-";
+
+    private static final String USER_SCOPE_PREFIX = "user-";
+
+    /**
+     * The submission eligibility of one user in one exam
+     *
+     * @param exerciseIds            the ids of the exercises the user may submit to: the exercises of the student exam or of all test runs of the user
+     * @param testRun                whether the user participates in test runs of the exam (in this case, there are no time constraints)
+     * @param submitted              whether the student exam has already been submitted
+     * @param startDate              the start date of the exam
+     * @param endDate                the effective end date for the user
+     * @param endDateWithGracePeriod the effective end date for the user including the grace period
+     */
+    public record ExamSubmissionEligibility(Set<Long> exerciseIds, boolean testRun, boolean submitted, ZonedDateTime startDate, ZonedDateTime endDate,
+            ZonedDateTime endDateWithGracePeriod) implements Serializable {
+
+        /**
+         * Checks whether a submission for the given exercise is allowed at the given time
+         *
+         * @param exerciseId      the id of the exam exercise
+         * @param withGracePeriod whether the grace period should be taken into account or not
+         * @param now             the time of the submission
+         * @return true if the exercise belongs to the student exam (or a test run), the student exam has not been submitted and the submission is in time
+         */
+        public boolean isAllowedToSubmit(long exerciseId, boolean withGracePeriod, ZonedDateTime now) {
+            if (!exerciseIds.contains(exerciseId)) {
+                return false;
+            }
+            if (testRun) {
+                return true;
+            }
+            ZonedDateTime effectiveEndDate = withGracePeriod ? endDateWithGracePeriod : endDate;
+            return !submitted && startDate.isBefore(now) && effectiveEndDate != null && effectiveEndDate.isAfter(now);
+        }
+    }
+
+    private final IMap<String, ExamSubmissionEligibility> eligibilities;
+
+    public ExamSubmissionEligibilityCacheService(EntityManagerFactory entityManagerFactory, HazelcastInstance hazelcastInstance) {
+        super(hazelcastInstance, EXAM_SUBMISSION_ELIGIBILITIES_MAP);
+        this.eligibilities = hazelcastInstance.getMap(EXAM_SUBMISSION_ELIGIBILITIES_MAP);
+
+        registerEventListeners(entityManagerFactory);
+    }
+
+    /**
+     * Configures the Hazelcast map of the cached submission eligibilities
+     *
+     * @param config the Hazelcast config that should be adapted
+     */
+    public static void configureHazelcast(Config config) {
+        config.getMapConfig(EXAM_SUBMISSION_ELIGIBILITIES_MAP).setTimeToLiveSeconds(EXAM_SUBMISSION_ELIGIBILITIES_TIME_TO_LIVE_SECONDS);
+        configureEvictionCounters(config, EXAM_SUBMISSION_ELIGIBILITIES_MAP);
+    }
+
+    /**
+     * Get the cached submission eligibility of the given user in the given exam or load it. The loaded eligibility is stored until it is invalidated.
+     *
+     * @param examId the id of the exam
+     * @param userId the id of the user
+     * @param loader loads the eligibility from the database
+     * @return the cached or loaded eligibility
+     */
+    public ExamSubmissionEligibility getEligibility(long examId, long userId, Supplier<ExamSubmissionEligibility> loader) {
+        String key = toKey(examId, userId);
+        ExamSubmissionEligibility eligibility = eligibilities.get(key);
+        if (eligibility != null) {
+            return eligibility;
+        }
+        return loadAndCache(eligibilities, key, Set.of(key, EXAM_SCOPE_PREFIX + examId, USER_SCOPE_PREFIX + userId), loader);
+    }
+
+    /**
+     * Removes the cached submission eligibility of the given user in the given exam (cluster-wide)
+     *
+     * @param examId the id of the exam
+     * @param userId the id of the user
+     */
+    public void evictEligibility(long examId, long userId) {
+        String key = toKey(examId, userId);
+        evictNowAndAfterCommit(key, () -> eligibilities.delete(key));
+    }
+
+    /**
+     * Removes the cached submission eligibilities of all users in the given exam (cluster-wide)
+     *
+     * @param examId the id of the exam
+     */
+    public void evictExam(long examId) {
+        evictNowAndAfterCommit(EXAM_SCOPE_PREFIX + examId, () -> eligibilities.removeAll(Predicates.like("__key", examId + KEY_SEPARATOR + "%")));
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        evictForEntity(event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        evictForEntity(event.getEntity());
+        // the student exam might have been reassigned, the previous user must not be able to submit anymore
+        if (event.getEntity() instanceof StudentExam studentExam && event.getOldState() != null) {
+            int userIndex = ArrayUtils.indexOf(event.getPersister().getPropertyNames(), "user");
+            Long examId = getId(studentExam.getExam());
+            if (userIndex >= 0 && examId != null && event.getOldState()[userIndex] instanceof User oldUser) {
+                Long oldUserId = getId(oldUser);
+                if (oldUserId != null) {
+                    evictEligibility(examId, oldUserId);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        evictForEntity(event.getEntity());
+    }
+
+    @Override
+    public void onPostRecreateCollection(PostCollectionRecreateEvent event) {
+        evictForCollectionOwner(event.getAffectedOwnerOrNull());
+    }
+
+    @Override
+    public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+        evictForCollectionOwner(event.getAffectedOwnerOrNull());
+    }
+
+    @Override
+    public void onPostRemoveCollection(PostCollectionRemoveEvent event) {
+        evictForCollectionOwner(event.getAffectedOwnerOrNull());
+    }
+
+    private void evictForEntity(Object entity) {
+        if (entity instanceof StudentExam studentExam) {
+            Long examId = getId(studentExam.getExam());
+            Long userId = getId(studentExam.getUser());
+            if (examId != null && userId != null) {
+                evictEligibility(examId, userId);
+            }
+            else if (examId != null) {
+                evictExam(examId);
+            }
+        }
+        else if (entity instanceof Exam exam && exam.getId() != null) {
+            evictExam(exam.getId());
+        }
+    }
+
+    private void evictForCollectionOwner(Object owner) {
+        if (owner instanceof User user && user.getId() != null) {
+            // the groups of the user decide whether the user can submit in test runs
+            long userId = user.getId();
+            evictNowAndAfterCommit(USER_SCOPE_PREFIX + userId, () -> eligibilities.removeAll(Predicates.like("__key", "%" + KEY_SEPARATOR + userId)));
+        }
+        else {
+            // the exercises are a collection of the student exam
+            evictForEntity(owner);
+        }
+    }
+
+    private static Long getId(DomainObject entity) {
+        if (entity instanceof HibernateProxy proxy) {
+            return (Long) proxy.getHibernateLazyInitializer().getIdentifier();
+        }
+        return entity != null ? entity.getId() : null;
+    }
+
+    private static String toKey(long examId, long userId) {
+        return examId + KEY_SEPARATOR + userId;
+    }
+}
@@ -1,10 +1,8 @@
 package de.tum.in.www1.artemis.service.exam;
 
 import java.time.ZonedDateTime;
-import java.util.Comparator;
-import java.util.List;
-import java.util.Optional;
-import java.util.Set;
+import java.util.*;
+import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Service;
 
@@ -19,6 +17,7 @@ import de.tum.in.www1.artemis.repository.ExamRepository;
 import de.tum.in.www1.artemis.repository.StudentExamRepository;
 import de.tum.in.www1.artemis.service.AuthorizationCheckService;
 import de.tum.in.www1.artemis.service.ParticipationService;
+import de.tum.in.www1.artemis.service.exam.ExamSubmissionEligibilityCacheService.ExamSubmissionEligibility;
 import de.tum.in.www1.artemis.web.rest.errors.AccessForbiddenException;
 import de.tum.in.www1.artemis.web.rest.errors.EntityNotFoundException;
 
@@ -33,12 +32,15 @@ public class ExamSubmissionService {
 
     private final ExamRepository examRepository;
 
+    private final ExamSubmissionEligibilityCacheService examSubmissionEligibilityCacheService;
+
     public ExamSubmissionService(StudentExamRepository studentExamRepository, ExamRepository examRepository, ParticipationService participationService,
-            AuthorizationCheckService authorizationCheckService) {
+            AuthorizationCheckService authorizationCheckService, ExamSubmissionEligibilityCacheService examSubmissionEligibilityCacheService) {
         this.studentExamRepository = studentExamRepository;
         this.examRepository = examRepository;
         this.participationService = participationService;
         this.authorizationCheckService = authorizationCheckService;
+        this.examSubmissionEligibilityCacheService = examSubmissionEligibilityCacheService;
     }
 
     /**
@@ -56,6 +58,9 @@ public class ExamSubmissionService {
     /**
      * Check if the user is allowed to submit (submission is in time & user's student exam has the exercise or it is a test run).
      * Note: if the exercise is not an exam, this method will return true
+     * <p>
+     * This is invoked for every save of an exam exercise (e.g. auto save every 30 seconds for every student), therefore the data needed for the decision is cached, see
+     * {@link ExamSubmissionEligibilityCacheService}.
      *
      * @param exercise        the exercise for which a submission should be saved
      * @param user            the user that wants to submit
@@ -65,60 +70,72 @@ public class ExamSubmissionService {
      */
     public boolean isAllowedToSubmitDuringExam(Exercise exercise, User user, boolean withGracePeriod) {
         if (exercise.isExamExercise()) {
-            // Get the student exam if it was not passed to the function
             Exam exam = exercise.getExerciseGroup().getExam();
-            // Step 1: Find real exam
-            Optional<StudentExam> optionalStudentExam = studentExamRepository.findWithExercisesByUserIdAndExamId(user.getId(), exam.getId());
-            if (optionalStudentExam.isEmpty()) {
-                // Step 2: Find latest (=the highest id) unsubmitted test exam
-                optionalStudentExam = studentExamRepository.findUnsubmittedStudentExamsForTestExamsWithExercisesByExamIdAndUserId(exam.getId(), user.getId()).stream()
-                        .max(Comparator.comparing(StudentExam::getId));
-            }
-            if (optionalStudentExam.isEmpty()) {
-                // Step 3: We check for test exams here for performance issues as this will not be the case for all students who are participating in the exam
-                // isAllowedToSubmitDuringExam is called everytime an exercise is saved (e.g. auto save every 30 seconds for every student) therefore it is best to limit
-                // unnecessary database calls
-                if (!isExamTestRunSubmission(exercise, user, exam)) {
-                    throw new EntityNotFoundException("Student exam with for userId \"" + user.getId() + "\" and examId \"" + exam.getId() + "\" does not exist");
-                }
-                return true;
-            }
-            StudentExam studentExam = optionalStudentExam.get();
-            // Check that the current user is allowed to submit to this exercise
-            if (!studentExam.getExercises().contains(exercise)) {
-                return false;
+            ExamSubmissionEligibility eligibility = examSubmissionEligibilityCacheService.getEligibility(exam.getId(), user.getId(), () -> loadSubmissionEligibility(user, exam));
+            if (eligibility.testRun() && !eligibility.exerciseIds().contains(exercise.getId())) {
+                throw new EntityNotFoundException("Student exam with for userId \"" + user.getId() + "\" and examId \"" + exam.getId() + "\" does not exist");
             }
+            return eligibility.isAllowedToSubmit(exercise.getId(), withGracePeriod, ZonedDateTime.now());
+        }
+        return true;
+    }
 
-            // if the student exam was already submitted, the user cannot save anymore
-            if (Boolean.TRUE.equals(studentExam.isSubmitted()) || studentExam.getSubmissionDate() != null) {
-                return false;
+    /**
+     * Loads the data needed to decide whether the user can submit in the given exam from the database
+     *
+     * @param user the user that wants to submit
+     * @param exam the exam of the exercise
+     * @return the submission eligibility of the user in the exam
+     */
+    private ExamSubmissionEligibility loadSubmissionEligibility(User user, Exam exam) {
+        // Step 1: Find real exam
+        Optional<StudentExam> optionalStudentExam = studentExamRepository.findWithExercisesByUserIdAndExamId(user.getId(), exam.getId());
+        if (optionalStudentExam.isEmpty()) {
+            // Step 2: Find latest (=the highest id) unsubmitted test exam
+            optionalStudentExam = studentExamRepository.findUnsubmittedStudentExamsForTestExamsWithExercisesByExamIdAndUserId(exam.getId(), user.getId()).stream()
+                    .max(Comparator.comparing(StudentExam::getId));
+        }
+        if (optionalStudentExam.isEmpty()) {
+            // Step 3: We check for test exams here for performance issues as this will not be the case for all students who are participating in the exam
+            Optional<Set<Long>> testRunExerciseIds = findTestRunExerciseIds(user, exam);
+            if (testRunExerciseIds.isEmpty()) {
+                throw new EntityNotFoundException("Student exam with for userId \"" + user.getId() + "\" and examId \"" + exam.getId() + "\" does not exist");
             }
+            return new ExamSubmissionEligibility(testRunExerciseIds.get(), true, false, null, null, null);
+        }
+        StudentExam studentExam = optionalStudentExam.get();
+        Set<Long> exerciseIds = studentExam.getExercises().stream().map(Exercise::getId).collect(Collectors.toSet());
+        // if the student exam was already submitted, the user cannot save anymore
+        boolean submitted = Boolean.TRUE.equals(studentExam.isSubmitted()) || studentExam.getSubmissionDate() != null;
 
-            // Check that the submission is in time
-            return isSubmissionInTime(exercise, studentExam, withGracePeriod);
+        // The attributes of the exam (e.g. startDate) are missing. Therefore we need to load it.
+        Exam loadedExam = examRepository.findByIdElseThrow(exam.getId());
+        ZonedDateTime endDate = loadedExam.getEndDate();
+        ZonedDateTime endDateWithGracePeriod = loadedExam.getEndDate().plusSeconds(loadedExam.getGracePeriod());
+        if (studentExam.getWorkingTime() != null && studentExam.getWorkingTime() > 0) {
+            endDate = studentExam.getIndividualEndDate();
+            endDateWithGracePeriod = studentExam.getIndividualEndDateWithGracePeriod();
         }
-        return true;
+        return new ExamSubmissionEligibility(exerciseIds, false, submitted, loadedExam.getStartDate(), endDate, endDateWithGracePeriod);
     }
 
     /**
-     * Check if the submission is made as part of a test run exam
+     * Find the exercises of the test runs of the given user in the given exam.
      * Only Instructors have access to test runs.
      *
-     * @param exercise the exercise
-     * @param user     the user
-     * @param exam     the exam
-     * @return returns whether the submission is part of a test run exam.
+     * @param user the user
+     * @param exam the exam
+     * @return the ids of all exercises of the test runs of the user, or an empty optional if the user cannot access test runs of the exam
      */
-    private boolean isExamTestRunSubmission(Exercise exercise, User user, Exam exam) {
+    private Optional<Set<Long>> findTestRunExerciseIds(User user, Exam exam) {
         // Check if user is an instructor or admin
         if (user.getGroups().contains(exam.getCourse().getInstructorGroupName()) || authorizationCheckService.isAdmin(user)) {
-            // fetch all testRuns for the instructor
+            // fetch all testRuns for the instructor, an instructor is allowed to submit to the exercises of the test runs
             List<StudentExam> testRuns = studentExamRepository.findAllTestRunsWithExercisesByExamIdForUser(exam.getId(), user.getId());
-            // if a test run contains the exercise, then the instructor is allowed to submit
-            return testRuns.stream().anyMatch(testRun -> testRun.getExercises().contains(exercise));
+            return Optional.of(testRuns.stream().flatMap(testRun -> testRun.getExercises().stream()).map(Exercise::getId).collect(Collectors.toSet()));
         }
         // only instructors can access and submit to test runs
-        return false;
+        return Optional.empty();
     }
 
     /**
@@ -155,14 +172,4 @@ public class ExamSubmissionService {
 
         return submission;
     }
-
-    private boolean isSubmissionInTime(Exercise exercise, StudentExam studentExam, boolean withGracePeriod) {
-        // The attributes of the exam (e.g. startDate) are missing. Therefore we need to load it.
-        Exam exam = examRepository.findByIdElseThrow(exercise.getExerciseGroup().getExam().getId());
-        ZonedDateTime calculatedEndDate = withGracePeriod ? exam.getEndDate().plusSeconds(exam.getGracePeriod()) : exam.getEndDate();
-        if (studentExam.getWorkingTime() != null && studentExam.getWorkingTime() > 0) {
-            calculatedEndDate = withGracePeriod ? studentExam.getIndividualEndDateWithGracePeriod() : studentExam.getIndividualEndDate();
-        }
-        return exam.getStartDate().isBefore(ZonedDateTime.now()) && calculatedEndDate.isAfter(ZonedDateTime.now());
-    }
 }
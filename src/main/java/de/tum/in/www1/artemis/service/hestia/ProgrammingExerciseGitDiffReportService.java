@@ -2,27 +2,36 @@ package de.tum.in.www1.artemis.service.hestia;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.HashSet;
-import java.util.List;
+import java.util.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import javax.annotation.Nullable;
+
 import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.errors.GitAPIException;
 import org.eclipse.jgit.diff.DiffEntry;
+import org.eclipse.jgit.diff.DiffFormatter;
+import org.eclipse.jgit.errors.AmbiguousObjectException;
+import org.eclipse.jgit.errors.IncorrectObjectTypeException;
+import org.eclipse.jgit.errors.MissingObjectException;
+import org.eclipse.jgit.errors.RevisionSyntaxException;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.treewalk.FileTreeIterator;
+import org.eclipse.jgit.treewalk.filter.PathFilterGroup;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
+import org.eclipse.jgit.util.io.DisabledOutputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import de.tum.in.www1.artemis.domain.DomainObject;
 import de.tum.in.www1.artemis.domain.ProgrammingExercise;
+import de.tum.in.www1.artemis.domain.Repository;
 import de.tum.in.www1.artemis.domain.hestia.ProgrammingExerciseGitDiffEntry;
 import de.tum.in.www1.artemis.domain.hestia.ProgrammingExerciseGitDiffReport;
-import de.tum.in.www1.artemis.domain.participation.SolutionProgrammingExerciseParticipation;
-import de.tum.in.www1.artemis.domain.participation.TemplateProgrammingExerciseParticipation;
+import de.tum.in.www1.artemis.domain.participation.ProgrammingExerciseParticipation;
 import de.tum.in.www1.artemis.repository.ProgrammingExerciseRepository;
 import de.tum.in.www1.artemis.repository.ProgrammingSubmissionRepository;
 import de.tum.in.www1.artemis.repository.SolutionProgrammingExerciseParticipationRepository;
@@ -68,7 +77,8 @@ public class ProgrammingExerciseGitDiffReportService {
     /**
      * Updates the ProgrammingExerciseGitDiffReport of a programming exercise.
      * If there were no changes since the last report was created this will not do anything.
-     * If there were changes to at least one of the repositories a new report will be created.
+     * If there were changes to at least one of the repositories the report will be updated: only the files that changed since the last report are compared again
+     * and only the changed entries are updated in the database.
      * This method should not be called twice for the same programming exercise at the same time, as this will result in
      * the creation of 2 reports. See https://github.com/ls1intum/Artemis/pull/4893 for more information about it.
      *
@@ -100,17 +110,27 @@ public class ProgrammingExerciseGitDiffReportService {
         }
 
         try {
-            var newReport = generateReport(templateParticipation, solutionParticipation);
-            newReport.setTemplateRepositoryCommitHash(templateHash);
-            newReport.setSolutionRepositoryCommitHash(solutionHash);
-            newReport.setProgrammingExercise(programmingExercise);
-            // Delete any old report first
+            var templateRepo = checkoutLatestRepository(templateParticipation);
+            var solutionRepo = checkoutLatestRepository(solutionParticipation);
+            List<ProgrammingExerciseGitDiffEntry> newEntries = null;
             if (existingReport != null) {
-                programmingExerciseGitDiffReportRepository.delete(existingReport);
+                newEntries = generateEntriesIncrementally(existingReport, templateRepo, solutionRepo);
+            }
+            if (newEntries == null) {
+                newEntries = generateEntries(templateRepo, solutionRepo, null);
+            }
+
+            // Update the existing report (if any), so that unchanged entries are neither deleted nor inserted again
+            var report = existingReport != null ? existingReport : new ProgrammingExerciseGitDiffReport();
+            updateEntries(report, newEntries);
+            report.setTemplateRepositoryCommitHash(templateHash);
+            report.setSolutionRepositoryCommitHash(solutionHash);
+            report.setProgrammingExercise(programmingExercise);
+            report = programmingExerciseGitDiffReportRepository.save(report);
+            if (existingReport == null) {
+                programmingExerciseRepository.save(programmingExercise);
             }
-            newReport = programmingExerciseGitDiffReportRepository.save(newReport);
-            programmingExerciseRepository.save(programmingExercise);
-            return newReport;
+            return report;
         }
         catch (GitAPIException | IOException e) {
             log.error("Exception while generating git diff report", e);
@@ -159,38 +179,156 @@ public class ProgrammingExerciseGitDiffReportService {
     }
 
     /**
-     * Creates a new ProgrammingExerciseGitDiffReport for an exercise.
-     * It will take the git-diff between the template and solution repositories and return all changes.
+     * Checks out the repository of the given participation and updates it to the latest commit
      *
-     * @param templateParticipation The participation for the template
-     * @param solutionParticipation The participation for the solution
-     * @return The changes between template and solution
+     * @param participation The template or solution participation
+     * @return The up-to-date repository
      * @throws GitAPIException If there was an issue with JGit
      */
-    private ProgrammingExerciseGitDiffReport generateReport(TemplateProgrammingExerciseParticipation templateParticipation,
-            SolutionProgrammingExerciseParticipation solutionParticipation) throws GitAPIException, IOException {
-        var templateRepo = gitService.getOrCheckoutRepository(templateParticipation.getVcsRepositoryUrl(), true);
-        var solutionRepo = gitService.getOrCheckoutRepository(solutionParticipation.getVcsRepositoryUrl(), true);
+    private Repository checkoutLatestRepository(ProgrammingExerciseParticipation participation) throws GitAPIException {
+        var repository = gitService.getOrCheckoutRepository(participation.getVcsRepositoryUrl(), true);
+        gitService.resetToOriginHead(repository);
+        gitService.pullIgnoreConflicts(repository);
+        return repository;
+    }
+
+    /**
+     * Computes the entries of the git-diff between the template and solution repositories based on an existing report.
+     * Only the files that have changed in one of the repositories since the existing report was created are compared again, the entries of all other files are
+     * taken over from the existing report. As renames are not detected, the entries of a file only depend on the file itself.
+     *
+     * @param existingReport The existing report of the exercise
+     * @param templateRepo   The up-to-date template repository
+     * @param solutionRepo   The up-to-date solution repository
+     * @return The entries of the git-diff or null if they cannot be computed incrementally (e.g. because the commits of the existing report are not available anymore)
+     * @throws GitAPIException If there was an issue with JGit
+     * @throws IOException     If the repositories cannot be read
+     */
+    private List<ProgrammingExerciseGitDiffEntry> generateEntriesIncrementally(ProgrammingExerciseGitDiffReport existingReport, Repository templateRepo, Repository solutionRepo)
+            throws GitAPIException, IOException {
+        var changedTemplatePaths = getChangedPaths(templateRepo, existingReport.getTemplateRepositoryCommitHash());
+        var changedSolutionPaths = getChangedPaths(solutionRepo, existingReport.getSolutionRepositoryCommitHash());
+        if (changedTemplatePaths == null || changedSolutionPaths == null || existingReport.getEntries() == null) {
+            return null;
+        }
+        Set<String> changedPaths = new HashSet<>(changedTemplatePaths);
+        changedPaths.addAll(changedSolutionPaths);
 
-        gitService.resetToOriginHead(templateRepo);
-        gitService.pullIgnoreConflicts(templateRepo);
-        gitService.resetToOriginHead(solutionRepo);
-        gitService.pullIgnoreConflicts(solutionRepo);
+        List<ProgrammingExerciseGitDiffEntry> entries = new ArrayList<>();
+        for (var existingEntry : existingReport.getEntries()) {
+            if (!changedPaths.contains(existingEntry.getFilePath()) && !changedPaths.contains(existingEntry.getPreviousFilePath())) {
+                entries.add(copyEntry(existingEntry));
+            }
+        }
+        if (!changedPaths.isEmpty()) {
+            entries.addAll(generateEntries(templateRepo, solutionRepo, PathFilterGroup.createFromStrings(changedPaths)));
+        }
+        log.debug("Updated git-diff report incrementally, {} changed files were compared again", changedPaths.size());
+        return entries;
+    }
 
+    /**
+     * Determines the paths of all files that have changed in the repository between the given commit and its current HEAD
+     *
+     * @param repository The up-to-date repository
+     * @param commitHash The hash of the old commit
+     * @return The changed paths or null if the old commit is not available in the repository
+     * @throws IOException If the repository cannot be read
+     */
+    private Set<String> getChangedPaths(Repository repository, String commitHash) throws IOException {
+        if (commitHash == null) {
+            return null;
+        }
+        try (var diffFormatter = new DiffFormatter(DisabledOutputStream.INSTANCE)) {
+            ObjectId oldTree = repository.resolve(commitHash + "^{tree}");
+            ObjectId newTree = repository.resolve(Constants.HEAD + "^{tree}");
+            if (oldTree == null || newTree == null) {
+                return null;
+            }
+            diffFormatter.setRepository(repository);
+            Set<String> changedPaths = new HashSet<>();
+            for (DiffEntry diffEntry : diffFormatter.scan(oldTree, newTree)) {
+                changedPaths.add(diffEntry.getOldPath());
+                changedPaths.add(diffEntry.getNewPath());
+            }
+            changedPaths.remove(DiffEntry.DEV_NULL);
+            return changedPaths;
+        }
+        catch (RevisionSyntaxException | MissingObjectException | IncorrectObjectTypeException | AmbiguousObjectException e) {
+            log.debug("Cannot determine the changed files since commit {}: {}", commitHash, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Computes the git-diff between the template and solution repositories and returns all changes.
+     *
+     * @param templateRepo The up-to-date template repository
+     * @param solutionRepo The up-to-date solution repository
+     * @param pathFilter   A filter for the files that should be compared, null to compare all files
+     * @return The changes between template and solution
+     * @throws GitAPIException If there was an issue with JGit
+     */
+    private List<ProgrammingExerciseGitDiffEntry> generateEntries(Repository templateRepo, Repository solutionRepo, @Nullable TreeFilter pathFilter)
+            throws GitAPIException, IOException {
         var oldTreeParser = new FileTreeIterator(templateRepo);
         var newTreeParser = new FileTreeIterator(solutionRepo);
 
         try (ByteArrayOutputStream diffOutputStream = new ByteArrayOutputStream(); Git git = Git.wrap(templateRepo)) {
-            git.diff().setOldTree(oldTreeParser).setNewTree(newTreeParser).setOutputStream(diffOutputStream).call();
+            var diffCommand = git.diff().setOldTree(oldTreeParser).setNewTree(newTreeParser).setOutputStream(diffOutputStream);
+            if (pathFilter != null) {
+                diffCommand.setPathFilter(pathFilter);
+            }
+            diffCommand.call();
             var diff = diffOutputStream.toString();
-            var programmingExerciseGitDiffEntries = extractDiffEntries(diff);
-            var report = new ProgrammingExerciseGitDiffReport();
-            for (ProgrammingExerciseGitDiffEntry gitDiffEntry : programmingExerciseGitDiffEntries) {
-                gitDiffEntry.setGitDiffReport(report);
+            return extractDiffEntries(diff);
+        }
+    }
+
+    /**
+     * Replaces the entries of the report with the given entries. Existing entries that are equal to a new entry are kept, so that only the changed entries are
+     * deleted from or inserted into the database.
+     *
+     * @param report     The report to update
+     * @param newEntries The new entries of the report
+     */
+    private void updateEntries(ProgrammingExerciseGitDiffReport report, List<ProgrammingExerciseGitDiffEntry> newEntries) {
+        if (report.getEntries() == null) {
+            report.setEntries(new HashSet<>());
+        }
+        Map<List<Object>, Deque<ProgrammingExerciseGitDiffEntry>> existingEntriesByContent = new HashMap<>();
+        for (var existingEntry : report.getEntries()) {
+            existingEntriesByContent.computeIfAbsent(getContentKey(existingEntry), key -> new ArrayDeque<>()).add(existingEntry);
+        }
+        List<ProgrammingExerciseGitDiffEntry> addedEntries = new ArrayList<>();
+        for (var newEntry : newEntries) {
+            var equalExistingEntries = existingEntriesByContent.get(getContentKey(newEntry));
+            if (equalExistingEntries == null || equalExistingEntries.poll() == null) {
+                addedEntries.add(newEntry);
             }
-            report.setEntries(new HashSet<>(programmingExerciseGitDiffEntries));
-            return report;
         }
+        // the remaining existing entries do not exist anymore, they are deleted because of the orphan removal
+        existingEntriesByContent.values().forEach(removedEntries -> removedEntries.forEach(report.getEntries()::remove));
+        for (var addedEntry : addedEntries) {
+            addedEntry.setGitDiffReport(report);
+            report.getEntries().add(addedEntry);
+        }
+    }
+
+    private static List<Object> getContentKey(ProgrammingExerciseGitDiffEntry entry) {
+        return Arrays.asList(entry.getFilePath(), entry.getPreviousFilePath(), entry.getStartLine(), entry.getLineCount(), entry.getPreviousStartLine(),
+                entry.getPreviousLineCount());
+    }
+
+    private static ProgrammingExerciseGitDiffEntry copyEntry(ProgrammingExerciseGitDiffEntry entry) {
+        var copy = new ProgrammingExerciseGitDiffEntry();
+        copy.setFilePath(entry.getFilePath());
+        copy.setPreviousFilePath(entry.getPreviousFilePath());
+        copy.setStartLine(entry.getStartLine());
+        copy.setLineCount(entry.getLineCount());
+        copy.setPreviousStartLine(entry.getPreviousStartLine());
+        copy.setPreviousLineCount(entry.getPreviousLineCount());
+        return copy;
     }
 
     /**
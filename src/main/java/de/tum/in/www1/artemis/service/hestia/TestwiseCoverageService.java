@@ -1,16 +1,26 @@
 package de.tum.in.www1.artemis.service.hestia;
 
+import static de.tum.in.www1.artemis.service.util.TimeLogUtil.formatDurationFrom;
+
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
+import javax.annotation.PreDestroy;
+
 import org.eclipse.jgit.api.errors.GitAPIException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import de.tum.in.www1.artemis.domain.ProgrammingExercise;
+import de.tum.in.www1.artemis.domain.ProgrammingExerciseTestCase;
 import de.tum.in.www1.artemis.domain.ProgrammingSubmission;
 import de.tum.in.www1.artemis.domain.hestia.CoverageFileReport;
 import de.tum.in.www1.artemis.domain.hestia.CoverageReport;
@@ -19,11 +29,13 @@ import de.tum.in.www1.artemis.domain.participation.SolutionProgrammingExercisePa
 import de.tum.in.www1.artemis.repository.ProgrammingExerciseTestCaseRepository;
 import de.tum.in.www1.artemis.repository.hestia.CoverageFileReportRepository;
 import de.tum.in.www1.artemis.repository.hestia.CoverageReportRepository;
-import de.tum.in.www1.artemis.repository.hestia.TestwiseCoverageReportEntryRepository;
 import de.tum.in.www1.artemis.service.RepositoryService;
 import de.tum.in.www1.artemis.service.connectors.GitService;
 import de.tum.in.www1.artemis.service.connectors.bamboo.dto.TestwiseCoverageReportDTO;
 import de.tum.in.www1.artemis.web.rest.errors.InternalServerErrorException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 
 /**
  * Service for managing testwise coverage data and interacts with both CoverageReport, CoverageFileReport
@@ -32,29 +44,53 @@ import de.tum.in.www1.artemis.web.rest.errors.InternalServerErrorException;
 @Service
 public class TestwiseCoverageService {
 
+    private static final String METRIC_PREFIX = "artemis.testwise_coverage.";
+
     private final Logger log = LoggerFactory.getLogger(TestwiseCoverageService.class);
 
     private final CoverageReportRepository coverageReportRepository;
 
     private final CoverageFileReportRepository coverageFileReportRepository;
 
-    private final TestwiseCoverageReportEntryRepository testwiseCoverageReportEntryRepository;
-
     private final ProgrammingExerciseTestCaseRepository programmingExerciseTestCaseRepository;
 
     private final GitService gitService;
 
     private final RepositoryService repositoryService;
 
+    private final ExecutorService ingestionExecutor;
+
+    private final Timer ingestionTimer;
+
+    private final Counter ingestedFileReportsCounter;
+
+    private final Counter ingestedEntriesCounter;
+
     public TestwiseCoverageService(CoverageReportRepository coverageReportRepository, CoverageFileReportRepository coverageFileReportRepository,
-            TestwiseCoverageReportEntryRepository testwiseCoverageReportEntryRepository, ProgrammingExerciseTestCaseRepository programmingExerciseTestCaseRepository,
-            RepositoryService repositoryService, GitService gitService) {
+            ProgrammingExerciseTestCaseRepository programmingExerciseTestCaseRepository, RepositoryService repositoryService, GitService gitService,
+            MeterRegistry meterRegistry, @Value("${artemis.testwise-coverage.ingestion-threads:1}") int ingestionThreads) {
         this.coverageReportRepository = coverageReportRepository;
         this.coverageFileReportRepository = coverageFileReportRepository;
-        this.testwiseCoverageReportEntryRepository = testwiseCoverageReportEntryRepository;
         this.programmingExerciseTestCaseRepository = programmingExerciseTestCaseRepository;
         this.gitService = gitService;
         this.repositoryService = repositoryService;
+        this.ingestionExecutor = ingestionThreads > 0 ? Executors.newFixedThreadPool(ingestionThreads) : null;
+
+        this.ingestionTimer = Timer.builder(METRIC_PREFIX + "ingestion.time").description("Time needed to create the testwise coverage report of one solution build")
+                .register(meterRegistry);
+        this.ingestedFileReportsCounter = ingestedRowsCounterBuilder("coverage_file_report").register(meterRegistry);
+        this.ingestedEntriesCounter = ingestedRowsCounterBuilder("testwise_coverage_report_entry").register(meterRegistry);
+    }
+
+    private Counter.Builder ingestedRowsCounterBuilder(String table) {
+        return Counter.builder(METRIC_PREFIX + "ingested.rows").description("Number of rows inserted for testwise coverage reports, by table").tag("table", table);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (ingestionExecutor != null) {
+            ingestionExecutor.shutdownNow();
+        }
     }
 
     /**
@@ -114,11 +150,39 @@ public class TestwiseCoverageService {
         return fileReportsByTestName;
     }
 
+    /**
+     * Creates the coverage report (see {@link #createTestwiseCoverageReport(Map, ProgrammingExercise, ProgrammingSubmission)}) in the background, so that the
+     * processing of the build result does not wait for it. If no ingestion thread is configured, the report is created in the calling thread.
+     *
+     * @param fileReportByTestCaseName a map containing the test case name as a key and the file coverage reports without the
+     *                                     reference to a test case as a value
+     * @param exercise                 the exercise for which the report should be updated
+     * @param submission               the solution programming submission for which the report is updated
+     */
+    public void createTestwiseCoverageReportInBackground(Map<String, Set<CoverageFileReport>> fileReportByTestCaseName, ProgrammingExercise exercise,
+            ProgrammingSubmission submission) {
+        if (ingestionExecutor == null) {
+            createTestwiseCoverageReport(fileReportByTestCaseName, exercise, submission);
+            return;
+        }
+        ingestionExecutor.execute(() -> {
+            try {
+                createTestwiseCoverageReport(fileReportByTestCaseName, exercise, submission);
+            }
+            catch (Exception ex) {
+                log.error("Could not create the testwise coverage report for submission {}", submission.getId(), ex);
+            }
+        });
+    }
+
     /**
      * Creates a coverage report from a testwise coverage report.
      * Test case names are resolved to a test case of the given programming exercise, adds this reference to the given
      * entries and saves the entries with the test case reference to the database.
      * In case, no test case could be found for the given name, the report for this test case will not be saved
+     * <p>
+     * The whole report (including the aggregated line counts) is built in memory first, so that it can be saved with one insert for the report and JDBC batches for the
+     * file reports and entries. All inserts happen in one transaction, so that a failure does not leave an incomplete report that would prevent creating it again.
      *
      * @param fileReportByTestCaseName a map containing the test case name as a key and the file coverage reports without the
      *                                     reference to a test case as a value
@@ -131,76 +195,72 @@ public class TestwiseCoverageService {
         if (reportAlreadyExists) {
             return;
         }
+        long start = System.nanoTime();
 
-        var testCases = programmingExerciseTestCaseRepository.findByExerciseId(exercise.getId());
+        var testCasesByName = programmingExerciseTestCaseRepository.findByExerciseId(exercise.getId()).stream()
+                .collect(Collectors.toMap(ProgrammingExerciseTestCase::getTestName, Function.identity(), (testCase, duplicate) -> testCase));
         var solutionLineCountByFilePath = getLineCountByFilePath(submission);
 
-        // Save the full report with the test case and submission, but without the individual file reports as they do not have an ID yet
-        var fullReport = new CoverageReport();
-        fullReport.setSubmission(submission);
-        var savedFullReport = coverageReportRepository.save(fullReport);
-
-        // The file reports unique for a file path. the set is used to aggregate multiple file reports from multiple test
-        // cases into one file report
-        var uniqueFileReports = new HashSet<CoverageFileReport>();
+        // The file reports unique for a file path, which aggregate the entries of all test cases for this file.
+        // The new entities are only kept in lists or as map values, because their hash code is not stable before they are saved
+        var uniqueFileReportsByFilePath = new LinkedHashMap<String, CoverageFileReport>();
+        var coveredLinesByFilePath = new HashMap<String, Set<Integer>>();
+        var entries = new ArrayList<TestwiseCoverageReportEntry>();
 
         fileReportByTestCaseName.forEach((testCaseName, fileReports) -> {
             // retrieve the test matching the extracted test case name
-            var optionalTestCase = testCases.stream()
-                    .filter(testCase -> testCaseName.equals(testCase.getTestName()) || testCaseName.replace("()", "").equals(testCase.getTestName())).findFirst();
-            if (optionalTestCase.isEmpty()) {
+            var testCase = testCasesByName.getOrDefault(testCaseName, testCasesByName.get(testCaseName.replace("()", "")));
+            if (testCase == null) {
                 log.error("No test case with name {} could be found when matching with the testwise coverage", testCaseName);
                 return;
             }
-            var testCase = optionalTestCase.get();
 
             fileReports.forEach(fileReport -> {
                 // If the file does not exist in the solution repository, no file report will be created
                 // This is for example the case if the test itself invokes code in a test class
-                if (solutionLineCountByFilePath.get(fileReport.getFilePath()) == null) {
+                var lineCount = solutionLineCountByFilePath.get(fileReport.getFilePath());
+                if (lineCount == null) {
                     return;
                 }
 
-                // Temporarily save the testwise entries for the current file report as the entries do not have
-                // an ID and therefore cause an exception when the file report is saved to the database
-                var testwiseEntries = fileReport.getTestwiseCoverageEntries();
-
-                var optionalReportWithSameName = uniqueFileReports.stream().filter(report -> report.getFilePath().equals(fileReport.getFilePath())).findFirst();
-                CoverageFileReport savedFileReport;
-
-                if (optionalReportWithSameName.isEmpty()) {
-                    // Remove the testwise entries temporarily as they do not have an ID yet
-                    fileReport.setTestwiseCoverageEntries(Collections.emptySet());
-                    fileReport.setFullReport(savedFullReport);
-                    // Save the line count
-                    var lineCount = solutionLineCountByFilePath.get(fileReport.getFilePath());
-                    fileReport.setLineCount(lineCount);
-
-                    savedFileReport = coverageFileReportRepository.save(fileReport);
-                }
-                else {
-                    var reportWithSameName = optionalReportWithSameName.get();
-                    savedFileReport = coverageFileReportRepository.save(reportWithSameName);
-                }
-                uniqueFileReports.add(savedFileReport);
+                var uniqueFileReport = uniqueFileReportsByFilePath.computeIfAbsent(fileReport.getFilePath(), filePath -> {
+                    var newFileReport = new CoverageFileReport();
+                    newFileReport.setFilePath(filePath);
+                    newFileReport.setLineCount(lineCount);
+                    return newFileReport;
+                });
+                var coveredLines = coveredLinesByFilePath.computeIfAbsent(fileReport.getFilePath(), filePath -> new HashSet<>());
 
-                // Save all entries for the current file report to the database
-                testwiseEntries.forEach(entry -> {
+                fileReport.getTestwiseCoverageEntries().forEach(entry -> {
                     entry.setTestCase(testCase);
-                    entry.setFileReport(savedFileReport);
-                    testwiseCoverageReportEntryRepository.save(entry);
+                    entry.setFileReport(uniqueFileReport);
+                    entries.add(entry);
+                    // CoverageFileReports can contain multiple entries referencing the same lines, but a different test case, so only the unique lines are counted
+                    IntStream.range(entry.getStartLine(), entry.getStartLine() + entry.getLineCount()).forEach(coveredLines::add);
                 });
             });
         });
 
-        var updatedFullReport = coverageReportRepository.findCoverageReportByIdWithEagerFileReportsAndEntriesElseThrow(savedFullReport.getId());
-        // Calculate the unique line count for all file reports and save this value to the database
-        var coveredLinesCountByFilePath = calculateAndSaveUniqueLineCountsByFilePath(updatedFullReport);
+        var coveredLineCountByFilePath = new HashMap<String, Integer>();
+        uniqueFileReportsByFilePath.forEach((filePath, fileReport) -> {
+            fileReport.setCoveredLineCount(coveredLinesByFilePath.get(filePath).size());
+            coveredLineCountByFilePath.put(filePath, fileReport.getCoveredLineCount());
+        });
 
+        var fullReport = new CoverageReport();
+        fullReport.setSubmission(submission);
         // Calculate the aggregated covered line ratio over all files
-        double aggregatedCoveredLineRatio = calculateAggregatedLineCoverage(solutionLineCountByFilePath, coveredLinesCountByFilePath);
-        updatedFullReport.setCoveredLineRatio(aggregatedCoveredLineRatio);
-        coverageReportRepository.save(updatedFullReport);
+        fullReport.setCoveredLineRatio(calculateAggregatedLineCoverage(solutionLineCountByFilePath, coveredLineCountByFilePath));
+
+        var fileReports = new ArrayList<>(uniqueFileReportsByFilePath.values());
+        fileReports.forEach(fileReport -> fileReport.setFullReport(fullReport));
+        coverageFileReportRepository.insertReportWithFileReportsInBatches(fullReport, fileReports, entries);
+
+        ingestionTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        ingestedFileReportsCounter.increment(fileReports.size());
+        ingestedEntriesCounter.increment(entries.size());
+        log.debug("Created testwise coverage report for submission {} with {} file reports and {} entries in {}", submission.getId(), fileReports.size(), entries.size(),
+                formatDurationFrom(start));
     }
 
     /**
@@ -249,28 +309,6 @@ public class TestwiseCoverageService {
         return aggregatedCoveredLineCount / (double) aggregatedLineCount;
     }
 
-    /**
-     * Calculate the unique covered line count for all file reports and save this value to the database for all
-     * individual file reports. CoverageFileReports can contain multiple TestwiseCoverageReportEntries referencing
-     * the same lines, but referencing a different test case. This mapping is still required, but simple summing may
-     * count the same covered lines multiple times.
-     *
-     * @param report the report for which the line counts of its file reports should be caluclated and saved
-     * @return the number of covered lines by file path
-     */
-    private Map<String, Integer> calculateAndSaveUniqueLineCountsByFilePath(CoverageReport report) {
-        var coveredLinesByFilePath = new HashMap<String, Integer>();
-        report.getFileReports().forEach(fileReport -> {
-            var lineSet = new HashSet<Integer>();
-            fileReport.getTestwiseCoverageEntries()
-                    .forEach(entry -> lineSet.addAll(IntStream.rangeClosed(entry.getStartLine(), entry.getStartLine() + entry.getLineCount() - 1).boxed().toList()));
-            fileReport.setCoveredLineCount(lineSet.size());
-            coverageFileReportRepository.save(fileReport);
-            coveredLinesByFilePath.put(fileReport.getFilePath(), lineSet.size());
-        });
-        return coveredLinesByFilePath;
-    }
-
     /**
      * Return the testwise coverage report for the latest solution submission for a programming exercise without the file reports.
      *
@@ -1,9 +1,16 @@
 package de.tum.in.www1.artemis.service.messaging;
 
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
+import javax.annotation.PreDestroy;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Profile;
@@ -17,6 +24,10 @@ import de.tum.in.www1.artemis.service.feature.FeatureToggle;
 /**
  * This service is only active on a node that does not run with the 'scheduling' profile.
  * All requests are forwarded to a Hazelcast topic and a node with the 'scheduling' profile will then process it.
+ * <p>
+ * Messages are not published one by one: every message is delayed by {@link #BATCH_WINDOW_MILLIS}, and all messages that are due at the same time are deduplicated and
+ * published together as one batch. This avoids flooding the topic e.g. with participant score messages (one per result) during the assessment of an exam.
+ * Messages that are still pending when the instance shuts down are published immediately.
  */
 @Service
 @Profile("!scheduling")
@@ -24,12 +35,56 @@ public class DistributedInstanceMessageSendService implements InstanceMessageSen
 
     private final Logger log = LoggerFactory.getLogger(DistributedInstanceMessageSendService.class);
 
-    private final ScheduledExecutorService exec = Executors.newScheduledThreadPool(1);
+    /**
+     * The time messages are delayed (and collected) before they are published, so that the sending transaction has been committed when they are processed
+     */
+    private static final long BATCH_WINDOW_MILLIS = 1000;
+
+    /**
+     * Messages that become due within this time are published together with the due messages, so that messages sent in quick succession end up in the same batch
+     */
+    private static final long BATCH_TOLERANCE_MILLIS = 100;
+
+    private static final int MAX_BATCH_SIZE = 1000;
+
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+    private final ScheduledThreadPoolExecutor exec = new ScheduledThreadPoolExecutor(1);
+
+    // the pending messages with the time (System.nanoTime) they were sent at, insertion ordered, a repeated message is moved to the end (see sendMessageDelayed)
+    private final LinkedHashMap<InstanceMessage, Long> pendingMessages = new LinkedHashMap<>();
 
     private final HazelcastInstance hazelcastInstance;
 
     public DistributedInstanceMessageSendService(HazelcastInstance hazelcastInstance) {
         this.hazelcastInstance = hazelcastInstance;
+        // the pending messages are published by publishPendingMessagesOnShutdown instead
+        exec.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    }
+
+    /**
+     * Publishes the pending messages without waiting for the batch window, so that they are not lost when the instance shuts down.
+     * A run of {@link #publishDueMessages()} that is in progress is awaited first. Messages sent afterwards are published immediately.
+     *
+     * @throws InterruptedException if the shutdown is interrupted while waiting for the running publication
+     */
+    @PreDestroy
+    public void publishPendingMessagesOnShutdown() throws InterruptedException {
+        synchronized (pendingMessages) {
+            exec.shutdown();
+        }
+        if (!exec.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            log.warn("Publishing the due instance messages did not finish within {} seconds", SHUTDOWN_TIMEOUT_SECONDS);
+        }
+        List<InstanceMessage> messages;
+        synchronized (pendingMessages) {
+            messages = new ArrayList<>(pendingMessages.keySet());
+            pendingMessages.clear();
+        }
+        if (!messages.isEmpty()) {
+            log.info("Publishing {} pending instance messages before shutdown.", messages.size());
+            publish(messages);
+        }
     }
 
     @Override
@@ -153,11 +208,66 @@ public class DistributedInstanceMessageSendService implements InstanceMessageSen
         sendMessageDelayed(MessageTopic.PARTICIPANT_SCORE_SCHEDULE, exerciseId, participantId, resultId);
     }
 
-    private void sendMessageDelayed(MessageTopic topic, Long payload) {
-        exec.schedule(() -> hazelcastInstance.getTopic(topic.toString()).publish(payload), 1, TimeUnit.SECONDS);
+    private void sendMessageDelayed(MessageTopic topic, Long... payload) {
+        var message = new InstanceMessage(topic, Arrays.asList(payload));
+        synchronized (pendingMessages) {
+            if (exec.isShutdown()) {
+                // the instance shuts down, the message cannot be delayed anymore, messages that are still pending are published before it to keep the order
+                pendingMessages.remove(message);
+                List<InstanceMessage> messages = new ArrayList<>(pendingMessages.keySet());
+                messages.add(message);
+                pendingMessages.clear();
+                publish(messages);
+                return;
+            }
+            boolean publishScheduled = !pendingMessages.isEmpty();
+            // An identical pending message is moved to the end instead of being sent twice. This preserves the order of the latest request relative to other messages,
+            // e.g. schedule, cancel, schedule for the same exercise results in cancel, schedule. The receiver always processes the current state from the database.
+            pendingMessages.remove(message);
+            pendingMessages.put(message, System.nanoTime());
+            if (!publishScheduled) {
+                exec.schedule(this::publishDueMessages, BATCH_WINDOW_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Publishes all pending messages that have been sent at least {@link #BATCH_WINDOW_MILLIS} ago (minus {@link #BATCH_TOLERANCE_MILLIS}) and schedules the next run for
+     * the remaining messages.
+     * As the pending messages are ordered by the time they were sent, the due messages are always at the beginning.
+     */
+    private void publishDueMessages() {
+        List<InstanceMessage> messages = new ArrayList<>();
+        synchronized (pendingMessages) {
+            long now = System.nanoTime();
+            long batchWindowNanos = TimeUnit.MILLISECONDS.toNanos(BATCH_WINDOW_MILLIS);
+            long batchToleranceNanos = TimeUnit.MILLISECONDS.toNanos(BATCH_TOLERANCE_MILLIS);
+            Iterator<Map.Entry<InstanceMessage, Long>> iterator = pendingMessages.entrySet().iterator();
+            while (iterator.hasNext()) {
+                var pendingMessage = iterator.next();
+                long age = now - pendingMessage.getValue();
+                if (age < batchWindowNanos - batchToleranceNanos) {
+                    // after the shutdown, the remaining messages are published by publishPendingMessagesOnShutdown
+                    if (!exec.isShutdown()) {
+                        exec.schedule(this::publishDueMessages, batchWindowNanos - age, TimeUnit.NANOSECONDS);
+                    }
+                    break;
+                }
+                messages.add(pendingMessage.getKey());
+                iterator.remove();
+            }
+        }
+        if (!messages.isEmpty()) {
+            publish(messages);
+        }
     }
 
-    private void sendMessageDelayed(MessageTopic topic, Long... payload) {
-        exec.schedule(() -> hazelcastInstance.getTopic(topic.toString()).publish(payload), 1, TimeUnit.SECONDS);
+    private void publish(List<InstanceMessage> messages) {
+        log.debug("Publishing {} instance messages to broker.", messages.size());
+        for (int i = 0; i < messages.size(); i += MAX_BATCH_SIZE) {
+            // copy the sublist, as the view returned by subList is not serializable
+            var batch = new ArrayList<>(messages.subList(i, Math.min(i + MAX_BATCH_SIZE, messages.size())));
+            hazelcastInstance.getTopic(MessageTopic.INSTANCE_MESSAGE_BATCH.toString()).publish(batch);
+        }
     }
 }
@@ -0,0 +1,14 @@
+package de.tum.in.www1.artemis.service.messaging;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * A single message between instances as part of a batch published to {@link MessageTopic#INSTANCE_MESSAGE_BATCH}.
+ * Two messages are equal if they have the same topic and payload, which is used to deduplicate messages within a batch.
+ *
+ * @param topic   the topic the message would be published to on its own
+ * @param payload the ids of the message (e.g. the exercise id), might contain null values
+ */
+public record InstanceMessage(MessageTopic topic, List<Long> payload) implements Serializable {
+}
@@ -1,6 +1,9 @@
 package de.tum.in.www1.artemis.service.messaging;
 
 import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.slf4j.Logger;
@@ -145,6 +148,75 @@ public class InstanceMessageReceiveService {
             SecurityUtils.setAuthorizationObject();
             processScheduleParticipantScore(message.getMessageObject()[0], message.getMessageObject()[1], message.getMessageObject()[2]);
         });
+        hazelcastInstance.<List<InstanceMessage>>getTopic(MessageTopic.INSTANCE_MESSAGE_BATCH.toString()).addMessageListener(message -> {
+            SecurityUtils.setAuthorizationObject();
+            processMessageBatch(message.getMessageObject());
+        });
+    }
+
+    /**
+     * Processes a batch of messages sent by {@link DistributedInstanceMessageSendService} in the order they were sent.
+     * Scheduling the participant score of an exercise and participant replaces the task scheduled before, so only the latest participant score message per exercise
+     * and participant is processed (at its position in the batch).
+     * A failing message is logged and does not prevent the processing of the remaining messages of the batch.
+     *
+     * @param messages the messages of the batch
+     */
+    public void processMessageBatch(List<InstanceMessage> messages) {
+        log.debug("Received batch of {} instance messages", messages.size());
+        // the index of the latest participant score message, keyed by exercise id and participant id
+        Map<List<Long>, Integer> latestParticipantScoreMessages = new HashMap<>();
+        for (int i = 0; i < messages.size(); i++) {
+            if (messages.get(i).topic() == MessageTopic.PARTICIPANT_SCORE_SCHEDULE) {
+                latestParticipantScoreMessages.put(messages.get(i).payload().subList(0, 2), i);
+            }
+        }
+        if (!latestParticipantScoreMessages.isEmpty()) {
+            log.info("Received schedule participant score for {} participants", latestParticipantScoreMessages.size());
+        }
+        for (int i = 0; i < messages.size(); i++) {
+            InstanceMessage message = messages.get(i);
+            if (message.topic() != MessageTopic.PARTICIPANT_SCORE_SCHEDULE || latestParticipantScoreMessages.get(message.payload().subList(0, 2)) == i) {
+                processMessageSafely(message);
+            }
+        }
+    }
+
+    private void processMessageSafely(InstanceMessage message) {
+        try {
+            processMessage(message);
+        }
+        catch (Exception e) {
+            log.error("Failed to process instance message {} with payload {}", message.topic(), message.payload(), e);
+        }
+    }
+
+    private void processMessage(InstanceMessage message) {
+        List<Long> payload = message.payload();
+        Long id = payload.get(0);
+        switch (message.topic()) {
+            case PROGRAMMING_EXERCISE_SCHEDULE -> processScheduleProgrammingExercise(id);
+            case PROGRAMMING_EXERCISE_SCHEDULE_CANCEL -> processScheduleProgrammingExerciseCancel(id);
+            case MODELING_EXERCISE_SCHEDULE -> processScheduleModelingExercise(id);
+            case MODELING_EXERCISE_SCHEDULE_CANCEL -> processScheduleModelingExerciseCancel(id);
+            case MODELING_EXERCISE_INSTANT_CLUSTERING -> processModelingExerciseInstantClustering(id);
+            case TEXT_EXERCISE_SCHEDULE -> processScheduleTextExercise(id);
+            case TEXT_EXERCISE_SCHEDULE_CANCEL -> processTextExerciseScheduleCancel(id);
+            case TEXT_EXERCISE_INSTANT_CLUSTERING -> processTextExerciseInstantClustering(id);
+            case PROGRAMMING_EXERCISE_UNLOCK_REPOSITORIES -> processUnlockAllRepositories(id);
+            case PROGRAMMING_EXERCISE_LOCK_REPOSITORIES -> processLockAllRepositories(id);
+            case PROGRAMMING_EXERCISE_UNLOCK_WITHOUT_EARLIER_DUE_DATE -> processUnlockAllRepositoriesWithoutEarlierIndividualDueDate(id);
+            case PROGRAMMING_EXERCISE_LOCK_WITHOUT_LATER_DUE_DATE -> processLockAllRepositoriesWithoutLaterIndividualDueDate(id);
+            case USER_MANAGEMENT_REMOVE_NON_ACTIVATED_USERS -> processRemoveNonActivatedUser(id);
+            case USER_MANAGEMENT_CANCEL_REMOVE_NON_ACTIVATED_USERS -> processCancelRemoveNonActivatedUser(id);
+            case EXERCISE_RELEASED_SCHEDULE -> processScheduleExerciseReleasedNotification(id);
+            case ASSESSED_EXERCISE_SUBMISSION_SCHEDULE -> processScheduleAssessedExerciseSubmittedNotification(id);
+            case EXAM_MONITORING_SCHEDULE -> processScheduleExamMonitoring(id);
+            case EXAM_MONITORING_SCHEDULE_CANCEL -> processScheduleExamMonitoringCancel(id);
+            case STUDENT_EXAM_RESCHEDULE_DURING_CONDUCTION -> processExamWorkingTimeChangeDuringConduction(id);
+            case PARTICIPANT_SCORE_SCHEDULE -> participantScoreScheduleService.scheduleTask(id, payload.get(1), payload.get(2));
+            case INSTANCE_MESSAGE_BATCH -> log.warn("Ignoring nested instance message batch");
+        }
     }
 
     public void processScheduleProgrammingExercise(Long exerciseId) {
@@ -25,7 +25,8 @@ public enum MessageTopic {
     EXAM_MONITORING_SCHEDULE("exam-monitoring-schedule"),
     EXAM_MONITORING_SCHEDULE_CANCEL("exam-monitoring-schedule-cancel"),
     STUDENT_EXAM_RESCHEDULE_DURING_CONDUCTION("student-exam-reschedule-during-conduction"),
-    PARTICIPANT_SCORE_SCHEDULE("participant-score-schedule");
+    PARTICIPANT_SCORE_SCHEDULE("participant-score-schedule"),
+    INSTANCE_MESSAGE_BATCH("instance-message-batch");
     // @formatter:on
 
     private final String topic;
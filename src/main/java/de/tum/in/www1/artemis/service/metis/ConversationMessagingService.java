@@ -82,16 +82,11 @@ public class ConversationMessagingService extends PostingService {
             channelAuthorizationService.isAllowedToCreateNewPostInChannel(channel, author);
         }
 
-        // update last message date of conversation
-        conversation.setLastMessageDate(ZonedDateTime.now());
-        conversation = conversationService.updateConversation(conversation);
-        // update last read date and unread message count of author
-        var authorParticipant = conversationParticipantRepository.findConversationParticipantByConversationIdAndUserIdElseThrow(conversation.getId(), author.getId());
-        authorParticipant.setLastRead(ZonedDateTime.now());
-        authorParticipant.setUnreadMessagesCount(0L);
-        conversationParticipantRepository.save(authorParticipant);
-
         var createdMessage = conversationMessageRepository.save(newMessage);
+        // update last message date and message sequence of conversation, the unread messages of the other participants are derived from the message sequence
+        conversationService.updateConversationForNewMessage(conversation);
+        // the author has read all messages including the new one
+        conversationParticipantRepository.markConversationAsReadElseThrow(conversation.getId(), author.getId());
         broadcastForPost(new PostDTO(createdMessage, MetisCrudAction.CREATE), course);
 
         if (conversation instanceof OneToOneChat) {
@@ -102,7 +97,6 @@ public class ConversationMessagingService extends PostingService {
                 conversationService.broadcastOnConversationMembershipChannel(course, MetisCrudAction.CREATE, conversation, participants);
             }
         }
-        conversationParticipantRepository.incrementUnreadMessagesCountOfParticipants(conversation.getId(), author.getId());
         // ToDo: Optimization Idea: Maybe we can save this websocket call and instead get the last message date from the conversation object in the post somehow?
         // send conversation with updated last message date to participants. This is necessary to show the unread messages badge in the client
         conversationService.notifyAllConversationMembersAboutNewMessage(conversation, author);
@@ -126,11 +120,7 @@ public class ConversationMessagingService extends PostingService {
             conversationPosts.stream().map(Post::getExercise).filter(Objects::nonNull).forEach(Exercise::filterSensitiveInformation);
             setAuthorRoleOfPostings(conversationPosts.getContent());
 
-            var participantOfRequestingUser = conversationParticipantRepository.findConversationParticipantByConversationIdAndUserIdElseThrow(conversation.getId(),
-                    requestingUser.getId());
-            participantOfRequestingUser.setLastRead(ZonedDateTime.now());
-            participantOfRequestingUser.setUnreadMessagesCount(0L);
-            conversationParticipantRepository.save(participantOfRequestingUser);
+            conversationParticipantRepository.markConversationAsReadElseThrow(conversation.getId(), requestingUser.getId());
         }
         else {
             throw new BadRequestAlertException("A new message post cannot be associated with more than one context", METIS_POST_ENTITY_NAME, "ambiguousContext");
@@ -199,7 +189,7 @@ public class ConversationMessagingService extends PostingService {
 
         // delete
         conversationMessageRepository.deleteById(postId);
-        conversationParticipantRepository.decrementUnreadMessagesCountOfParticipants(conversation.getId(), user.getId());
+        conversationParticipantRepository.skipDeletedMessageForParticipants(conversation.getId(), user.getId());
         conversation = conversationService.getConversationById(conversation.getId());
 
         conversationService.notifyAllConversationMembersAboutUpdate(conversation);
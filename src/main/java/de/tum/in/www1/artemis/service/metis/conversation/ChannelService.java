@@ -124,7 +124,7 @@ public class ChannelService {
             var conversationParticipantOfRequestingUser = new ConversationParticipant();
             // set the last reading time of a participant in the past when creating conversation for the first time!
             conversationParticipantOfRequestingUser.setLastRead(ZonedDateTime.now().minusYears(2));
-            conversationParticipantOfRequestingUser.setUnreadMessagesCount(0L);
+            conversationParticipantOfRequestingUser.setLastReadSequence(savedChannel.getMessageSequence());
             conversationParticipantOfRequestingUser.setUser(creator.get());
             conversationParticipantOfRequestingUser.setConversation(savedChannel);
             // Creator is a moderator. Special case, because creator is the only moderator that can not be revoked the role
@@ -1,5 +1,7 @@
 package de.tum.in.www1.artemis.service.metis.conversation;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -14,6 +16,7 @@ import org.springframework.stereotype.Service;
 import de.tum.in.www1.artemis.domain.Course;
 import de.tum.in.www1.artemis.domain.User;
 import de.tum.in.www1.artemis.domain.metis.ConversationParticipant;
+import de.tum.in.www1.artemis.domain.metis.ConversationUnreadMessagesCount;
 import de.tum.in.www1.artemis.domain.metis.conversation.Channel;
 import de.tum.in.www1.artemis.domain.metis.conversation.Conversation;
 import de.tum.in.www1.artemis.domain.metis.conversation.GroupChat;
@@ -66,6 +69,29 @@ public class ConversationDTOService {
         throw new IllegalArgumentException("Conversation type not supported");
     }
 
+    /**
+     * Creates the ConversationDTOs of a list of conversations, e.g. of all conversations of a user in a course
+     * <p>
+     * The unread messages of all conversations are computed in one query
+     *
+     * @param conversations  the conversations to create the DTOs from
+     * @param requestingUser the user requesting the DTOs
+     * @return the created ConversationDTOs in the order of the conversations
+     */
+    public List<ConversationDTO> convertToDTOs(List<Conversation> conversations, User requestingUser) {
+        if (conversations.isEmpty()) {
+            return List.of();
+        }
+        var conversationIds = conversations.stream().map(Conversation::getId).collect(Collectors.toSet());
+        Map<Long, Long> unreadMessagesCounts = conversationParticipantRepository.findUnreadMessagesCountsOfUser(requestingUser.getId(), conversationIds).stream()
+                .collect(Collectors.toMap(ConversationUnreadMessagesCount::conversationId, ConversationUnreadMessagesCount::unreadMessagesCount));
+        return conversations.stream().map(conversation -> {
+            var conversationDTO = convertToDTO(conversation, requestingUser);
+            conversationDTO.setUnreadMessagesCount(unreadMessagesCounts.get(conversation.getId()));
+            return conversationDTO;
+        }).toList();
+    }
+
     /**
      * Creates a ConversationDTO from a Conversation
      * <p>
@@ -100,7 +126,7 @@ public class ConversationDTOService {
         channelDTO.setIsChannelModerator(channelAuthorizationService.isChannelModerator(channel.getId(), requestingUser.getId()));
         channelDTO.setHasChannelModerationRights(channelAuthorizationService.hasChannelModerationRights(channel.getId(), requestingUser));
         var participantOptional = conversationParticipantRepository.findConversationParticipantByConversationIdAndUserId(channel.getId(), requestingUser.getId());
-        setDTOPropertiesBasedOnParticipant(channelDTO, participantOptional);
+        setDTOPropertiesBasedOnParticipant(channelDTO, channel, participantOptional);
         setDTOCreatorProperty(requestingUser, channel, channelDTO);
         channelDTO.setNumberOfMembers(conversationParticipantRepository.countByConversationId(channel.getId()));
         var tutorialGroup = tutorialGroupRepository.findByTutorialGroupChannelId(channel.getId());
@@ -127,7 +153,7 @@ public class ConversationDTOService {
                 .filter(conversationParticipant -> conversationParticipant.getUser().getId().equals(requestingUser.getId())).findFirst();
         Set<ConversationUserDTO> chatParticipants = getChatParticipantDTOs(requestingUser, course, conversationParticipants);
         var oneToOneChatDTO = new OneToOneChatDTO(oneToOneChat);
-        setDTOPropertiesBasedOnParticipant(oneToOneChatDTO, participantOfRequestingUser);
+        setDTOPropertiesBasedOnParticipant(oneToOneChatDTO, oneToOneChat, participantOfRequestingUser);
         setDTOCreatorProperty(requestingUser, oneToOneChat, oneToOneChatDTO);
         oneToOneChatDTO.setMembers(chatParticipants);
         oneToOneChatDTO.setNumberOfMembers(conversationParticipants.size());
@@ -149,7 +175,7 @@ public class ConversationDTOService {
                 .filter(conversationParticipant -> conversationParticipant.getUser().getId().equals(requestingUser.getId())).findFirst();
         Set<ConversationUserDTO> chatParticipants = getChatParticipantDTOs(requestingUser, course, conversationParticipants);
         var groupChatDTO = new GroupChatDTO(groupChat);
-        setDTOPropertiesBasedOnParticipant(groupChatDTO, participantOfRequestingUser);
+        setDTOPropertiesBasedOnParticipant(groupChatDTO, groupChat, participantOfRequestingUser);
         setDTOCreatorProperty(requestingUser, groupChat, groupChatDTO);
         groupChatDTO.setMembers(chatParticipants);
         groupChatDTO.setNumberOfMembers(conversationParticipants.size());
@@ -186,11 +212,13 @@ public class ConversationDTOService {
         }).collect(Collectors.toSet());
     }
 
-    private void setDTOPropertiesBasedOnParticipant(ConversationDTO conversationDTO, Optional<ConversationParticipant> participantOptional) {
+    private void setDTOPropertiesBasedOnParticipant(ConversationDTO conversationDTO, Conversation conversation, Optional<ConversationParticipant> participantOptional) {
         conversationDTO.setIsMember(participantOptional.isPresent());
         participantOptional.ifPresent(participant -> {
             conversationDTO.setLastReadDate(participant.getLastRead());
-            conversationDTO.setUnreadMessagesCount(participant.getUnreadMessagesCount());
+            if (conversation.getMessageSequence() != null && participant.getLastReadSequence() != null) {
+                conversationDTO.setUnreadMessagesCount(Math.max(conversation.getMessageSequence() - participant.getLastReadSequence(), 0L));
+            }
         });
         conversationDTO.setIsFavorite(participantOptional.map(ConversationParticipant::getIsFavorite).orElse(false));
         conversationDTO.setIsHidden(participantOptional.map(ConversationParticipant::getIsHidden).orElse(false));
@@ -105,17 +105,18 @@ public class ConversationService {
         conversations.addAll(oneToOneChatsOfUser);
         conversations.addAll(channelsOfUser);
         conversations.addAll(groupChatsOfUser);
-        return conversations.stream().map(conversation -> conversationDTOService.convertToDTO(conversation, requestingUser)).toList();
+        return conversationDTOService.convertToDTOs(conversations, requestingUser);
     }
 
     /**
-     * Updates a conversation
+     * Updates the last message date and the message sequence of a conversation for a new message
      *
-     * @param conversation the conversation to be updated
-     * @return the updated conversation
+     * @param conversation the conversation in which the message was created
      */
-    public Conversation updateConversation(Conversation conversation) {
-        return conversationRepository.save(conversation);
+    public void updateConversationForNewMessage(Conversation conversation) {
+        var lastMessageDate = ZonedDateTime.now();
+        conversationRepository.updateLastMessageDateAndIncrementMessageSequence(conversation.getId(), lastMessageDate);
+        conversation.setLastMessageDate(lastMessageDate);
     }
 
     /**
@@ -147,7 +148,7 @@ public class ConversationService {
             conversationParticipant.setIsFavorite(false);
             // set the last reading time of a participant in the past when creating conversation for the first time!
             conversationParticipant.setLastRead(ZonedDateTime.now().minusYears(2));
-            conversationParticipant.setUnreadMessagesCount(0L);
+            conversationParticipant.setLastReadSequence(conversation.getMessageSequence());
             newConversationParticipants.add(conversationParticipant);
         }
         if (!newConversationParticipants.isEmpty()) {
@@ -70,7 +70,7 @@ public class GroupChatService {
         participant.setIsHidden(false);
         // set the last reading time of a participant in the past when creating conversation for the first time!
         participant.setLastRead(ZonedDateTime.now().minusYears(2));
-        participant.setUnreadMessagesCount(0L);
+        participant.setLastReadSequence(groupChat.getMessageSequence());
         return participant;
     }
 
@@ -1,22 +1,86 @@
 package de.tum.in.www1.artemis.service.plagiarism;
 
+import java.util.Objects;
+
+import javax.annotation.Nullable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import de.tum.in.www1.artemis.domain.Submission;
+import de.tum.in.www1.artemis.domain.plagiarism.PlagiarismComparison;
+import de.tum.in.www1.artemis.domain.plagiarism.PlagiarismResult;
 import de.tum.in.www1.artemis.domain.plagiarism.PlagiarismStatus;
 import de.tum.in.www1.artemis.repository.plagiarism.PlagiarismComparisonRepository;
+import de.tum.in.www1.artemis.repository.plagiarism.PlagiarismResultRepository;
+import de.tum.in.www1.artemis.service.util.TimeLogUtil;
+import de.tum.in.www1.artemis.web.rest.dto.PageableSearchDTO;
+import de.tum.in.www1.artemis.web.rest.dto.SearchResultPageDTO;
 import de.tum.in.www1.artemis.web.rest.errors.AccessForbiddenException;
+import de.tum.in.www1.artemis.web.rest.util.PageUtil;
 
 @Service
 public class PlagiarismService {
 
+    private final Logger log = LoggerFactory.getLogger(PlagiarismService.class);
+
     private final PlagiarismComparisonRepository plagiarismComparisonRepository;
 
+    private final PlagiarismResultRepository plagiarismResultRepository;
+
     private final PlagiarismCaseService plagiarismCaseService;
 
-    public PlagiarismService(PlagiarismComparisonRepository plagiarismComparisonRepository, PlagiarismCaseService plagiarismCaseService) {
+    private final int maxSavedComparisons;
+
+    public PlagiarismService(PlagiarismComparisonRepository plagiarismComparisonRepository, PlagiarismResultRepository plagiarismResultRepository,
+            PlagiarismCaseService plagiarismCaseService, @Value("${artemis.plagiarism-checks.max-saved-comparisons:1000}") int maxSavedComparisons) {
         this.plagiarismComparisonRepository = plagiarismComparisonRepository;
+        this.plagiarismResultRepository = plagiarismResultRepository;
         this.plagiarismCaseService = plagiarismCaseService;
+        this.maxSavedComparisons = maxSavedComparisons;
+    }
+
+    /**
+     * Keeps the comparisons with the highest similarity (at most the configured number of comparisons) of the given plagiarism result, stores it in the database
+     * and removes the previous result of the exercise.
+     *
+     * @param plagiarismResult the new plagiarism result
+     */
+    public void savePlagiarismResultAndRemovePrevious(PlagiarismResult<?> plagiarismResult) {
+        plagiarismResult.sortAndLimit(maxSavedComparisons);
+        log.info("Limited number of comparisons to {} before saving them to the database", plagiarismResult.getComparisons().size());
+        long start = System.nanoTime();
+        plagiarismResultRepository.savePlagiarismResultAndRemovePrevious(plagiarismResult);
+        log.info("Finished plagiarismResultRepository.savePlagiarismResultAndRemovePrevious call in {}", TimeLogUtil.formatDurationFrom(start));
+    }
+
+    /**
+     * Get one page of the comparisons of a plagiarism result. The comparisons contain the compared submissions, but not their elements and matches, which are loaded
+     * for the detailed view of a single comparison.
+     *
+     * @param exerciseId         the id of the exercise the plagiarism result belongs to
+     * @param plagiarismResultId the id of the plagiarism result
+     * @param search             the page, its size, the sort order and the login (or a part of it) of one of the compared students
+     * @param minimumSimilarity  the minimum similarity (in % between 0 and 100) of the comparisons
+     * @param maximumSimilarity  the similarity (in % between 0 and 100) the comparisons have to be below, a maximum of 100 includes the comparisons with a similarity of 100
+     * @param status             the status of the comparisons or null to get comparisons with any status
+     * @return the requested page of comparisons
+     */
+    public SearchResultPageDTO<PlagiarismComparison<?>> getComparisonsOnPage(long exerciseId, long plagiarismResultId, PageableSearchDTO<String> search,
+            double minimumSimilarity, double maximumSimilarity, @Nullable PlagiarismStatus status) {
+        var pageable = PageUtil.createPlagiarismComparisonPageRequest(search);
+        var partialStudentLogin = Objects.requireNonNullElse(search.getSearchTerm(), "");
+        var comparisonPage = plagiarismComparisonRepository.findByPlagiarismResultIdWithSubmissions(plagiarismResultId, exerciseId, minimumSimilarity, maximumSimilarity,
+                status, partialStudentLogin, pageable);
+        for (var comparison : comparisonPage.getContent()) {
+            comparison.setPlagiarismResult(null);
+            // avoid circular dependency during serialization
+            comparison.getSubmissionA().setPlagiarismComparison(null);
+            comparison.getSubmissionB().setPlagiarismComparison(null);
+        }
+        return new SearchResultPageDTO<>(comparisonPage.getContent(), comparisonPage.getTotalPages());
     }
 
     /**
@@ -35,7 +35,6 @@ import de.tum.in.www1.artemis.domain.plagiarism.text.TextPlagiarismResult;
 import de.tum.in.www1.artemis.exception.GitException;
 import de.tum.in.www1.artemis.repository.ProgrammingExerciseRepository;
 import de.tum.in.www1.artemis.repository.StudentParticipationRepository;
-import de.tum.in.www1.artemis.repository.plagiarism.PlagiarismResultRepository;
 import de.tum.in.www1.artemis.service.FileService;
 import de.tum.in.www1.artemis.service.UrlService;
 import de.tum.in.www1.artemis.service.connectors.GitService;
@@ -64,7 +63,7 @@ public class ProgrammingPlagiarismDetectionService {
 
     private final ProgrammingExerciseExportService programmingExerciseExportService;
 
-    private final PlagiarismResultRepository plagiarismResultRepository;
+    private final PlagiarismService plagiarismService;
 
     private final PlagiarismWebsocketService plagiarismWebsocketService;
 
@@ -73,7 +72,7 @@ public class ProgrammingPlagiarismDetectionService {
     private final UrlService urlService;
 
     public ProgrammingPlagiarismDetectionService(ProgrammingExerciseRepository programmingExerciseRepository, FileService fileService, GitService gitService,
-            StudentParticipationRepository studentParticipationRepository, PlagiarismResultRepository plagiarismResultRepository,
+            StudentParticipationRepository studentParticipationRepository, PlagiarismService plagiarismService,
             ProgrammingExerciseExportService programmingExerciseExportService, PlagiarismWebsocketService plagiarismWebsocketService, PlagiarismCacheService plagiarismCacheService,
             UrlService urlService) {
         this.programmingExerciseRepository = programmingExerciseRepository;
@@ -81,7 +80,7 @@ public class ProgrammingPlagiarismDetectionService {
         this.gitService = gitService;
         this.studentParticipationRepository = studentParticipationRepository;
         this.programmingExerciseExportService = programmingExerciseExportService;
-        this.plagiarismResultRepository = plagiarismResultRepository;
+        this.plagiarismService = plagiarismService;
         this.plagiarismWebsocketService = plagiarismWebsocketService;
         this.plagiarismCacheService = plagiarismCacheService;
         this.urlService = urlService;
@@ -121,8 +120,7 @@ public class ProgrammingPlagiarismDetectionService {
 
                 log.info("Finished programmingExerciseExportService.checkPlagiarism call for {} comparisons in {}", textPlagiarismResult.getComparisons().size(),
                         TimeLogUtil.formatDurationFrom(start));
-                limitAndSavePlagiarismResult(textPlagiarismResult);
-                log.info("Finished plagiarismResultRepository.savePlagiarismResultAndRemovePrevious call in {}", TimeLogUtil.formatDurationFrom(start));
+                plagiarismService.savePlagiarismResultAndRemovePrevious(textPlagiarismResult);
                 return textPlagiarismResult;
             }
 
@@ -132,7 +130,7 @@ public class ProgrammingPlagiarismDetectionService {
 
             log.info("JPlag programming comparison done in {}", TimeLogUtil.formatDurationFrom(start));
             plagiarismWebsocketService.notifyInstructorAboutPlagiarismState(topic, PlagiarismCheckState.COMPLETED, List.of());
-            limitAndSavePlagiarismResult(textPlagiarismResult);
+            plagiarismService.savePlagiarismResultAndRemovePrevious(textPlagiarismResult);
             return textPlagiarismResult;
         }
         finally {
@@ -222,19 +220,6 @@ public class ProgrammingPlagiarismDetectionService {
         return result;
     }
 
-    /**
-     * Sorts and limits the text plagiarism result amount to 500 and saves it into the database.
-     * Removes the previously saved result.
-     *
-     * @param textPlagiarismResult the plagiarism result to save
-     */
-    private void limitAndSavePlagiarismResult(TextPlagiarismResult textPlagiarismResult) {
-        // TODO: limit the amount temporarily because of database issues
-        textPlagiarismResult.sortAndLimit(100);
-        log.info("Limited number of comparisons to {} to avoid performance issues when saving to database", textPlagiarismResult.getComparisons().size());
-        plagiarismResultRepository.savePlagiarismResultAndRemovePrevious(textPlagiarismResult);
-    }
-
     /**
      * Generates a JPlag report and zips it.
      *
@@ -0,0 +1,472 @@
+package de.tum.in.www1.artemis.service.programming;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hazelcast.collection.IQueue;
+import com.hazelcast.collection.ItemEvent;
+import com.hazelcast.collection.ItemListener;
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+
+import de.tum.in.www1.artemis.domain.ProgrammingSubmission;
+import de.tum.in.www1.artemis.domain.Result;
+import de.tum.in.www1.artemis.domain.enumeration.BuildPlanType;
+import de.tum.in.www1.artemis.domain.enumeration.SubmissionType;
+import de.tum.in.www1.artemis.domain.participation.ProgrammingExerciseParticipation;
+import de.tum.in.www1.artemis.domain.participation.ProgrammingExerciseStudentParticipation;
+import de.tum.in.www1.artemis.domain.participation.SolutionProgrammingExerciseParticipation;
+import de.tum.in.www1.artemis.repository.ProgrammingExerciseStudentParticipationRepository;
+import de.tum.in.www1.artemis.repository.SolutionProgrammingExerciseParticipationRepository;
+import de.tum.in.www1.artemis.repository.TemplateProgrammingExerciseParticipationRepository;
+import de.tum.in.www1.artemis.security.SecurityUtils;
+import de.tum.in.www1.artemis.service.hestia.TestwiseCoverageService;
+import de.tum.in.www1.artemis.web.rest.errors.EntityNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Processes the build results that the CI system sends to Artemis.
+ * <p>
+ * Instead of processing a build result within the webhook request of the CI system, the result is put into a distributed Hazelcast queue and the request is
+ * acknowledged immediately. Workers on all Artemis instances take the results from the queues and process them.
+ * The queue is split into partitions by participation. A partition is only processed by one worker in the cluster at a time (guarded by a Hazelcast lock),
+ * therefore the results of one participation are processed in the order in which they were received.
+ * A queued result is only removed from its queue after it has been processed, so results are not lost if an instance stops during processing.
+ * <p>
+ * If the queue of a participation is full, the request of the CI system waits until there is space again. If there is still no space after
+ * {@link #QUEUE_OFFER_TIMEOUT_SECONDS}, the build result is rejected (back-pressure). It is not processed synchronously, as this would overtake the build results of
+ * the same participation that are still queued.
+ */
+@Service
+public class BuildResultQueueService {
+
+    private final Logger log = LoggerFactory.getLogger(BuildResultQueueService.class);
+
+    private static final String QUEUE_NAME_PREFIX = "buildResultQueue-";
+
+    private static final String PARTITION_LOCKS = "buildResultQueuePartitionLocks";
+
+    private static final int NUMBER_OF_PARTITIONS = 32;
+
+    private static final int MAX_SIZE_PER_PARTITION = 1000;
+
+    // the number of results a worker processes before it releases the lock of a partition, so that other partitions are not starved
+    private static final int MAX_RESULTS_PER_LOCK = 50;
+
+    // the lock of a partition is released automatically if the instance holding it stops
+    private static final int PARTITION_LOCK_LEASE_MINUTES = 10;
+
+    private static final int QUEUE_OFFER_TIMEOUT_SECONDS = 10;
+
+    private static final String METRIC_PREFIX = "artemis.build_result_queue.";
+
+    @Value("${artemis.continuous-integration.result-queue.enabled:true}")
+    private boolean enabled;
+
+    @Value("${artemis.continuous-integration.result-queue.workers:4}")
+    private int numberOfWorkers;
+
+    private final ProgrammingExerciseGradingService programmingExerciseGradingService;
+
+    private final ProgrammingTriggerService programmingTriggerService;
+
+    private final TestwiseCoverageService testwiseCoverageService;
+
+    private final ProgrammingMessagingService programmingMessagingService;
+
+    private final TemplateProgrammingExerciseParticipationRepository templateProgrammingExerciseParticipationRepository;
+
+    private final SolutionProgrammingExerciseParticipationRepository solutionProgrammingExerciseParticipationRepository;
+
+    private final ProgrammingExerciseStudentParticipationRepository programmingExerciseStudentParticipationRepository;
+
+    private final ObjectMapper objectMapper;
+
+    private final List<IQueue<QueuedBuildResult>> partitions = new ArrayList<>(NUMBER_OF_PARTITIONS);
+
+    private final IMap<Integer, Boolean> partitionLocks;
+
+    // signals idle workers on this instance that new build results were queued
+    private final Semaphore newBuildResults = new Semaphore(0);
+
+    private final Counter queuedCounter;
+
+    private final Counter synchronouslyProcessedCounter;
+
+    private final Counter rejectedCounter;
+
+    private final Counter processedCounter;
+
+    private final Counter failedCounter;
+
+    private final Timer waitingTimer;
+
+    private final Timer processingTimer;
+
+    private ExecutorService workers;
+
+    private final List<UUID> itemListenerIds = new ArrayList<>(NUMBER_OF_PARTITIONS);
+
+    private volatile boolean running;
+
+    public BuildResultQueueService(ProgrammingExerciseGradingService programmingExerciseGradingService, ProgrammingTriggerService programmingTriggerService,
+            TestwiseCoverageService testwiseCoverageService, ProgrammingMessagingService programmingMessagingService,
+            TemplateProgrammingExerciseParticipationRepository templateProgrammingExerciseParticipationRepository,
+            SolutionProgrammingExerciseParticipationRepository solutionProgrammingExerciseParticipationRepository,
+            ProgrammingExerciseStudentParticipationRepository programmingExerciseStudentParticipationRepository, ObjectMapper objectMapper, HazelcastInstance hazelcastInstance,
+            MeterRegistry meterRegistry) {
+        this.programmingExerciseGradingService = programmingExerciseGradingService;
+        this.programmingTriggerService = programmingTriggerService;
+        this.testwiseCoverageService = testwiseCoverageService;
+        this.programmingMessagingService = programmingMessagingService;
+        this.templateProgrammingExerciseParticipationRepository = templateProgrammingExerciseParticipationRepository;
+        this.solutionProgrammingExerciseParticipationRepository = solutionProgrammingExerciseParticipationRepository;
+        this.programmingExerciseStudentParticipationRepository = programmingExerciseStudentParticipationRepository;
+        this.objectMapper = objectMapper;
+        for (int partition = 0; partition < NUMBER_OF_PARTITIONS; partition++) {
+            partitions.add(hazelcastInstance.getQueue(QUEUE_NAME_PREFIX + partition));
+        }
+        this.partitionLocks = hazelcastInstance.getMap(PARTITION_LOCKS);
+
+        Gauge.builder(METRIC_PREFIX + "size", partitions, queues -> queues.stream().mapToInt(IQueue::size).sum())
+                .description("Number of build results in the queue (cluster-wide) that have not been processed yet").register(meterRegistry);
+        this.queuedCounter = buildResultsCounterBuilder("queued").register(meterRegistry);
+        this.synchronouslyProcessedCounter = buildResultsCounterBuilder("processed-synchronously").register(meterRegistry);
+        this.rejectedCounter = buildResultsCounterBuilder("rejected").register(meterRegistry);
+        this.processedCounter = buildResultsCounterBuilder("processed").register(meterRegistry);
+        this.failedCounter = buildResultsCounterBuilder("failed").register(meterRegistry);
+        this.waitingTimer = Timer.builder(METRIC_PREFIX + "waiting.time").description("Time build results wait in the queue before they are processed").register(meterRegistry);
+        this.processingTimer = Timer.builder(METRIC_PREFIX + "processing.time").description("Time needed to process one queued build result").register(meterRegistry);
+    }
+
+    private Counter.Builder buildResultsCounterBuilder(String event) {
+        return Counter.builder(METRIC_PREFIX + "results").description("Number of build results received from the CI system, by what happened to them").tag("event", event);
+    }
+
+    /**
+     * Configures the queues of the build results: they are bounded and have a backup on another instance.
+     *
+     * @param config the Hazelcast config that should be adapted
+     */
+    public static void configureHazelcast(Config config) {
+        config.getQueueConfig(QUEUE_NAME_PREFIX + "*").setMaxSize(MAX_SIZE_PER_PARTITION).setBackupCount(1);
+    }
+
+    /**
+     * Starts the workers of this instance once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startWorkers() {
+        if (!enabled) {
+            log.info("Asynchronous processing of build results is disabled, build results are processed within the requests of the CI system");
+            return;
+        }
+        ItemListener<QueuedBuildResult> listener = new ItemListener<>() {
+
+            @Override
+            public void itemAdded(ItemEvent<QueuedBuildResult> item) {
+                newBuildResults.release();
+            }
+
+            @Override
+            public void itemRemoved(ItemEvent<QueuedBuildResult> item) {
+                // nothing to do
+            }
+        };
+        partitions.forEach(queue -> itemListenerIds.add(queue.addItemListener(listener, false)));
+
+        running = true;
+        workers = Executors.newFixedThreadPool(numberOfWorkers);
+        for (int worker = 0; worker < numberOfWorkers; worker++) {
+            final int firstPartition = worker * NUMBER_OF_PARTITIONS / numberOfWorkers;
+            workers.submit(() -> processPartitionsUntilStopped(firstPartition));
+        }
+        log.info("Started {} workers for the processing of build results", numberOfWorkers);
+    }
+
+    /**
+     * Stops the workers of this instance. Build results that are still queued are processed by the other instances or after the next start.
+     */
+    @PreDestroy
+    public void stopWorkers() {
+        running = false;
+        if (workers != null) {
+            workers.shutdownNow();
+        }
+        for (int partition = 0; partition < itemListenerIds.size(); partition++) {
+            partitions.get(partition).removeItemListener(itemListenerIds.get(partition));
+        }
+        itemListenerIds.clear();
+    }
+
+    /**
+     * Queues a build result for asynchronous processing, or processes it synchronously if asynchronous processing is disabled.
+     * If the queue is full, this waits for at most {@link #QUEUE_OFFER_TIMEOUT_SECONDS} until there is space again.
+     *
+     * @param planKey       the key of the build plan that produced the build result
+     * @param participation the participation of the build plan
+     * @param requestBody   the build result as sent by the CI system
+     * @throws ResponseStatusException with status 503 (Service Unavailable) if the queue is still full after the timeout
+     */
+    public void queueBuildResult(String planKey, ProgrammingExerciseParticipation participation, Object requestBody) {
+        if (enabled) {
+            try {
+                var queuedBuildResult = new QueuedBuildResult(planKey, participation.getId(), objectMapper.writeValueAsString(requestBody), System.currentTimeMillis());
+                if (partitionFor(participation.getId()).offer(queuedBuildResult, QUEUE_OFFER_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    queuedCounter.increment();
+                    return;
+                }
+                rejectedCounter.increment();
+                log.warn("The build result queue is full, rejecting the build result for build plan {}", planKey);
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "The build result queue is full");
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                rejectedCounter.increment();
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted while queueing the build result", e);
+            }
+            catch (JsonProcessingException e) {
+                // this does not depend on the load, so the few affected build results are processed right away instead of being lost
+                log.error("Could not queue the build result for build plan {}, processing it synchronously", planKey, e);
+            }
+        }
+        synchronouslyProcessedCounter.increment();
+        processBuildResult(participation, requestBody);
+    }
+
+    private IQueue<QueuedBuildResult> partitionFor(long participationId) {
+        return partitions.get((int) (participationId % NUMBER_OF_PARTITIONS));
+    }
+
+    private void processPartitionsUntilStopped(int firstPartition) {
+        // No 'user' is properly logged into Artemis, this leads to an issue when accessing custom repository methods.
+        // Therefore, a mock auth object has to be created.
+        SecurityUtils.setAuthorizationObject();
+        while (running) {
+            boolean processedAny = false;
+            for (int i = 0; i < NUMBER_OF_PARTITIONS; i++) {
+                int partition = (firstPartition + i) % NUMBER_OF_PARTITIONS;
+                try {
+                    processedAny |= processPartition(partition);
+                }
+                catch (Exception e) {
+                    // the worker has to keep running, otherwise the partitions would not be processed on this instance anymore
+                    log.error("Unexpected error while processing the build results of partition {}", partition, e);
+                }
+            }
+            if (!processedAny) {
+                try {
+                    // also check regularly, in case new build results were queued by another instance while this worker was busy
+                    newBuildResults.tryAcquire(1, TimeUnit.SECONDS);
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Processes the queued build results of the given partition, if no other worker in the cluster currently processes it.
+     *
+     * @param partition the partition to process
+     * @return true if at least one build result was processed, false otherwise
+     */
+    private boolean processPartition(int partition) {
+        var queue = partitions.get(partition);
+        if (queue.isEmpty() || !tryLockPartition(partition)) {
+            return false;
+        }
+        int processed = 0;
+        try {
+            QueuedBuildResult queuedBuildResult;
+            while (running && processed < MAX_RESULTS_PER_LOCK && (queuedBuildResult = queue.peek()) != null) {
+                processQueuedBuildResult(queuedBuildResult);
+                // only remove the build result after it has been processed, so that it is not lost if this instance stops
+                queue.poll();
+                processed++;
+            }
+        }
+        finally {
+            unlockPartition(partition);
+        }
+        return processed > 0;
+    }
+
+    private boolean tryLockPartition(int partition) {
+        try {
+            return partitionLocks.tryLock(partition, 0, TimeUnit.MILLISECONDS, PARTITION_LOCK_LEASE_MINUTES, TimeUnit.MINUTES);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void unlockPartition(int partition) {
+        try {
+            partitionLocks.unlock(partition);
+        }
+        catch (IllegalMonitorStateException e) {
+            // the lease has expired in the meantime, so the lock is already released (and might be held by another worker now)
+            log.warn("The lock of build result partition {} expired before all build results were processed", partition);
+        }
+    }
+
+    private void processQueuedBuildResult(QueuedBuildResult queuedBuildResult) {
+        waitingTimer.record(System.currentTimeMillis() - queuedBuildResult.receivedAt(), TimeUnit.MILLISECONDS);
+        processingTimer.record(() -> {
+            try {
+                var participation = findParticipationWithResults(queuedBuildResult.planKey());
+                if (participation == null) {
+                    log.warn("Participation {} for build plan {} does not exist anymore, skipping the queued build result", queuedBuildResult.participationId(),
+                            queuedBuildResult.planKey());
+                    failedCounter.increment();
+                    return;
+                }
+                processBuildResult(participation, objectMapper.readValue(queuedBuildResult.requestBody(), Object.class));
+                processedCounter.increment();
+            }
+            catch (Exception e) {
+                // the build result is removed from the queue anyway, otherwise a broken build result would block the whole partition
+                failedCounter.increment();
+                log.error("Could not process the queued build result for build plan {}", queuedBuildResult.planKey(), e);
+            }
+        });
+    }
+
+    /**
+     * Processes a build result:
+     * - Create a result from the build result including its feedbacks
+     * - Assign the result to an existing submission OR create a new submission if needed
+     * - Update the result's score based on the exercise's test cases (weights, etc.)
+     * - Update the exercise's test cases if the build is from a solution participation
+     * - Notify the user about the new result
+     *
+     * @param participation the participation of the build plan
+     * @param requestBody   the build result as sent by the CI system
+     */
+    private void processBuildResult(ProgrammingExerciseParticipation participation, Object requestBody) {
+        Optional<Result> optResult = programmingExerciseGradingService.processNewProgrammingExerciseResult(participation, requestBody);
+
+        // Only notify the user about the new result if the result was created successfully.
+        if (optResult.isPresent()) {
+            Result result = optResult.get();
+
+            if (participation instanceof SolutionProgrammingExerciseParticipation) {
+                // If the solution participation was updated, also trigger the template participation build.
+                // This method will return without triggering the build if the submission is not of type TEST.
+                var programmingSubmission = (ProgrammingSubmission) result.getSubmission();
+                triggerTemplateBuildIfTestCasesChanged(participation.getProgrammingExercise().getId(), programmingSubmission);
+
+                // the test cases and the submission have been saved to the database previously, therefore we can add the reference to the coverage reports
+                if (Boolean.TRUE.equals(participation.getProgrammingExercise().isTestwiseCoverageEnabled()) && Boolean.TRUE.equals(result.isSuccessful())) {
+                    testwiseCoverageService.createTestwiseCoverageReportInBackground(result.getCoverageFileReportsByTestCaseName(), participation.getProgrammingExercise(),
+                            programmingSubmission);
+                }
+            }
+
+            programmingMessagingService.notifyUserAboutNewResult(result, participation);
+
+            log.info("The new result for {} was saved successfully", participation.getBuildPlanId());
+        }
+    }
+
+    /**
+     * Trigger the build of the template repository, if the submission of the provided result is of type TEST.
+     * Will use the commitHash of the submission for triggering the template build.
+     * <p>
+     * If the submission of the provided result is not of type TEST, the method will return without triggering the build.
+     *
+     * @param programmingExerciseId ProgrammingExercise id that belongs to the result.
+     * @param submission            ProgrammingSubmission
+     */
+    private void triggerTemplateBuildIfTestCasesChanged(long programmingExerciseId, ProgrammingSubmission submission) {
+        // We only trigger the template build when the test repository was changed.
+        // If the submission is from type TEST but already has a result, this build was not triggered by a test repository change
+        if (!submission.belongsToTestRepository() || (submission.belongsToTestRepository() && submission.getResults() != null && !submission.getResults().isEmpty())) {
+            return;
+        }
+        try {
+            programmingTriggerService.triggerTemplateBuildAndNotifyUser(programmingExerciseId, submission.getCommitHash(), SubmissionType.TEST);
+        }
+        catch (EntityNotFoundException ex) {
+            // If for some reason the programming exercise does not have a template participation, we can only log and abort.
+            log.error(
+                    "Could not trigger the build of the template repository for the programming exercise id {} because no template participation could be found for the given exercise",
+                    programmingExerciseId);
+        }
+    }
+
+    /**
+     * Retrieves the participation of a build plan including its results
+     *
+     * @param planKey the key of the build plan
+     * @return the template, solution or student participation of the build plan or null if it does not exist
+     */
+    @Nullable
+    public ProgrammingExerciseParticipation findParticipationWithResults(String planKey) {
+        // we have to support template, solution and student build plans here
+        if (planKey.endsWith("-" + BuildPlanType.TEMPLATE.getName())) {
+            return templateProgrammingExerciseParticipationRepository.findByBuildPlanIdWithResults(planKey).orElse(null);
+        }
+        else if (planKey.endsWith("-" + BuildPlanType.SOLUTION.getName())) {
+            return solutionProgrammingExerciseParticipationRepository.findByBuildPlanIdWithResults(planKey).orElse(null);
+        }
+        List<ProgrammingExerciseStudentParticipation> participations = programmingExerciseStudentParticipationRepository.findByBuildPlanId(planKey);
+        ProgrammingExerciseStudentParticipation participation = null;
+        if (!participations.isEmpty()) {
+            participation = participations.get(0);
+            if (participations.size() > 1) {
+                // in the rare case of multiple participations, take the latest one.
+                for (ProgrammingExerciseStudentParticipation otherParticipation : participations) {
+                    if (otherParticipation.getInitializationDate().isAfter(participation.getInitializationDate())) {
+                        participation = otherParticipation;
+                    }
+                }
+            }
+        }
+        return participation;
+    }
+
+    /**
+     * A build result in the queue. The request body is stored as JSON, so that it does not depend on the CI system specific DTOs.
+     *
+     * @param planKey         the key of the build plan that produced the build result
+     * @param participationId the id of the participation of the build plan when the build result was received
+     * @param requestBody     the build result as sent by the CI system, as JSON
+     * @param receivedAt      the point in time (in epoch milliseconds) when the build result was received
+     */
+    record QueuedBuildResult(String planKey, long participationId, String requestBody, long receivedAt) implements Serializable {
+
+        @Serial
+        private static final long serialVersionUID = 1L;
+    }
+}
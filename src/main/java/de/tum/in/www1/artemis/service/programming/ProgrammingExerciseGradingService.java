@@ -1,13 +1,20 @@
 package de.tum.in.www1.artemis.service.programming;
 
+import static de.tum.in.www1.artemis.config.Constants.PROGRAMMING_EXERCISE_RE_EVALUATION_STATUS;
 import static de.tum.in.www1.artemis.config.Constants.TEST_CASES_DUPLICATE_NOTIFICATION;
 import static de.tum.in.www1.artemis.domain.ProgrammingSubmission.createFallbackSubmission;
 
 import java.time.ZonedDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import javax.annotation.PreDestroy;
 import javax.validation.constraints.NotNull;
 
 import org.apache.commons.math3.util.Precision;
@@ -15,10 +22,16 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.actuate.audit.AuditEvent;
 import org.springframework.boot.actuate.audit.AuditEventRepository;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
 import com.google.common.base.Strings;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
 
 import de.tum.in.www1.artemis.config.Constants;
 import de.tum.in.www1.artemis.domain.*;
@@ -37,7 +50,9 @@ import de.tum.in.www1.artemis.service.connectors.ci.ContinuousIntegrationResultS
 import de.tum.in.www1.artemis.service.connectors.vcs.VersionControlService;
 import de.tum.in.www1.artemis.service.dto.AbstractBuildResultNotificationDTO;
 import de.tum.in.www1.artemis.service.notifications.GroupNotificationService;
+import de.tum.in.www1.artemis.service.util.ProgrammingExerciseReEvaluationStatus;
 import de.tum.in.www1.artemis.web.rest.dto.ProgrammingExerciseGradingStatisticsDTO;
+import de.tum.in.www1.artemis.web.rest.errors.ConflictException;
 import de.tum.in.www1.artemis.web.rest.errors.EntityNotFoundException;
 
 @Service
@@ -45,6 +60,16 @@ public class ProgrammingExerciseGradingService {
 
     private final Logger log = LoggerFactory.getLogger(ProgrammingExerciseGradingService.class);
 
+    private static final String RE_EVALUATION_STATUS_TOPIC = "/topic/programming-exercises/%s/re-evaluation-status";
+
+    // the number of student participations that are loaded, re-evaluated and saved together
+    private static final int RE_EVALUATION_PAGE_SIZE = 100;
+
+    private static final int RE_EVALUATION_THREADS = 8;
+
+    // only one re-evaluation per exercise runs in the cluster at a time, the lock is released automatically if the instance holding it stops
+    private static final String RE_EVALUATION_LOCKS = "programmingExerciseReEvaluationLocks";
+
     private final Optional<ContinuousIntegrationResultService> continuousIntegrationResultService;
 
     private final Optional<VersionControlService> versionControlService;
@@ -81,6 +106,13 @@ public class ProgrammingExerciseGradingService {
 
     private final StaticCodeAnalysisCategoryRepository staticCodeAnalysisCategoryRepository;
 
+    private final CacheManager cacheManager;
+
+    private final IMap<Long, Boolean> reEvaluationLocks;
+
+    // shared by all re-evaluations of this instance, so that concurrent re-evaluations of different exercises do not start more threads
+    private final ExecutorService reEvaluationExecutor = Executors.newFixedThreadPool(RE_EVALUATION_THREADS);
+
     public ProgrammingExerciseGradingService(StudentParticipationRepository studentParticipationRepository, ResultRepository resultRepository,
             Optional<ContinuousIntegrationResultService> continuousIntegrationResultService, Optional<VersionControlService> versionControlService,
             ProgrammingExerciseFeedbackService programmingExerciseFeedbackService, SimpMessageSendingOperations messagingTemplate,
@@ -88,7 +120,7 @@ public class ProgrammingExerciseGradingService {
             SolutionProgrammingExerciseParticipationRepository solutionProgrammingExerciseParticipationRepository, ProgrammingSubmissionRepository programmingSubmissionRepository,
             AuditEventRepository auditEventRepository, GroupNotificationService groupNotificationService, ResultService resultService, ExerciseDateService exerciseDateService,
             SubmissionPolicyService submissionPolicyService, ProgrammingExerciseRepository programmingExerciseRepository, BuildLogEntryService buildLogService,
-            StaticCodeAnalysisCategoryRepository staticCodeAnalysisCategoryRepository) {
+            StaticCodeAnalysisCategoryRepository staticCodeAnalysisCategoryRepository, CacheManager cacheManager, HazelcastInstance hazelcastInstance) {
         this.studentParticipationRepository = studentParticipationRepository;
         this.continuousIntegrationResultService = continuousIntegrationResultService;
         this.resultRepository = resultRepository;
@@ -107,6 +139,13 @@ public class ProgrammingExerciseGradingService {
         this.exerciseDateService = exerciseDateService;
         this.buildLogService = buildLogService;
         this.staticCodeAnalysisCategoryRepository = staticCodeAnalysisCategoryRepository;
+        this.cacheManager = cacheManager;
+        this.reEvaluationLocks = hazelcastInstance.getMap(RE_EVALUATION_LOCKS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        reEvaluationExecutor.shutdownNow();
     }
 
     /**
@@ -365,7 +404,8 @@ public class ProgrammingExerciseGradingService {
         }
 
         // We only apply submission policies if it is a student participation
-        return calculateScoreForResult(testCases, relevantTestCases, result, exercise, isStudentParticipation);
+        SubmissionPolicy submissionPolicy = isStudentParticipation ? findSubmissionPolicy(exercise) : null;
+        return calculateScoreForResult(testCases, relevantTestCases, result, exercise, submissionPolicy);
     }
 
     /**
@@ -387,17 +427,146 @@ public class ProgrammingExerciseGradingService {
     public List<Result> updateAllResults(final ProgrammingExercise exercise) {
         final Set<ProgrammingExerciseTestCase> testCases = testCaseRepository.findByExerciseIdAndActive(exercise.getId(), true);
 
-        final Stream<Result> updatedTemplateAndSolutionResult = updateTemplateAndSolutionResults(exercise, testCases);
+        final List<Result> updatedResults = new ArrayList<>(updateTemplateAndSolutionResults(exercise, testCases).toList());
+        updateStudentResultsInPages(exercise, testCases, 0L, (participationIds, updatedResultsOfPage) -> updatedResults.addAll(updatedResultsOfPage));
+        return updatedResults;
+    }
 
-        final List<StudentParticipation> studentParticipations = new ArrayList<>();
-        // We only update the latest automatic results here, later manual assessments are not affected
-        studentParticipations.addAll(studentParticipationRepository.findByExerciseIdWithLatestAutomaticResultAndFeedbacks(exercise.getId()));
-        // Also update manual results
-        studentParticipations.addAll(studentParticipationRepository.findByExerciseIdWithManualResultAndFeedbacks(exercise.getId()));
+    /**
+     * Re-evaluates <b>all</b> latest results of the given exercise with the information of the exercises test cases (see {@link #updateAllResults}) and saves them.
+     * <p>
+     * In contrast to {@link #updateAllResults}, the student participations are processed page by page: the results of a page are re-evaluated in parallel and saved
+     * together, before the next page is loaded. The progress is sent to the instructors via websocket and stored in a distributed cache.
+     * Only one re-evaluation of an exercise can run in the cluster at a time. If a re-evaluation is interrupted (e.g. because the instance stopped), the next
+     * re-evaluation of the exercise continues after the last saved page, as long as the test cases did not change in the meantime.
+     *
+     * @param exercise whose results should be re-evaluated.
+     * @return the number of results that have been updated.
+     * @throws ConflictException if the results of the exercise are already being re-evaluated
+     */
+    public int reEvaluateAllResults(final ProgrammingExercise exercise) {
+        if (!reEvaluationLocks.tryLock(exercise.getId())) {
+            throw new ConflictException("The results of this exercise are already being re-evaluated", "programmingExercise", "reEvaluationRunning");
+        }
+        try {
+            return reEvaluateAllResultsWhileLocked(exercise);
+        }
+        finally {
+            reEvaluationLocks.unlock(exercise.getId());
+        }
+    }
 
-        final Stream<Result> updatedStudentResults = updateResults(exercise, testCases, studentParticipations);
+    private int reEvaluateAllResultsWhileLocked(final ProgrammingExercise exercise) {
+        final Set<ProgrammingExerciseTestCase> testCases = testCaseRepository.findByExerciseIdAndActive(exercise.getId(), true);
+        final String testCaseFingerprint = getTestCaseFingerprint(exercise, testCases);
+        final int overallParticipations = (int) studentParticipationRepository.countByExerciseId(exercise.getId());
+
+        // no other re-evaluation holds the lock, so an unfinished status belongs to an interrupted re-evaluation
+        final Optional<ProgrammingExerciseReEvaluationStatus> interruptedReEvaluation = getReEvaluationStatus(exercise.getId())
+                .filter(status -> !status.finished() && testCaseFingerprint.equals(status.testCaseFingerprint()));
+        final ProgrammingExerciseReEvaluationStatus initialStatus;
+        if (interruptedReEvaluation.isPresent()) {
+            initialStatus = interruptedReEvaluation.get();
+            log.info("Resuming the re-evaluation of exercise {} after participation {}", exercise.getId(), initialStatus.lastProcessedParticipationId());
+        }
+        else {
+            List<Result> updatedTemplateAndSolutionResults = updateTemplateAndSolutionResults(exercise, testCases).toList();
+            resultRepository.saveAll(updatedTemplateAndSolutionResults);
+            initialStatus = new ProgrammingExerciseReEvaluationStatus(0, overallParticipations, updatedTemplateAndSolutionResults.size(), 0L, testCaseFingerprint, false,
+                    ZonedDateTime.now());
+        }
+        sendReEvaluationStatus(exercise.getId(), initialStatus);
+
+        final var currentStatus = new AtomicReference<>(initialStatus);
+        updateStudentResultsInPages(exercise, testCases, initialStatus.lastProcessedParticipationId(), (participationIds, updatedResultsOfPage) -> {
+            // the update statements are sent in JDBC batches, as all results of the page are saved within one transaction
+            resultRepository.saveAll(updatedResultsOfPage);
+            var previousStatus = currentStatus.get();
+            var status = new ProgrammingExerciseReEvaluationStatus(previousStatus.processedParticipations() + participationIds.size(), overallParticipations,
+                    previousStatus.updatedResults() + updatedResultsOfPage.size(), participationIds.get(participationIds.size() - 1), testCaseFingerprint, false,
+                    previousStatus.startedAt());
+            currentStatus.set(status);
+            sendReEvaluationStatus(exercise.getId(), status);
+        });
 
-        return Stream.concat(updatedTemplateAndSolutionResult, updatedStudentResults).toList();
+        var finalStatus = currentStatus.get();
+        finalStatus = new ProgrammingExerciseReEvaluationStatus(finalStatus.processedParticipations(), overallParticipations, finalStatus.updatedResults(),
+                finalStatus.lastProcessedParticipationId(), testCaseFingerprint, true, finalStatus.startedAt());
+        sendReEvaluationStatus(exercise.getId(), finalStatus);
+        return finalStatus.updatedResults();
+    }
+
+    /**
+     * Get the status of the latest re-evaluation of the given exercise.
+     *
+     * @param exerciseId the id of the programming exercise
+     * @return the status of the re-evaluation, or nothing if there was no recent re-evaluation
+     */
+    public Optional<ProgrammingExerciseReEvaluationStatus> getReEvaluationStatus(long exerciseId) {
+        return Optional.ofNullable(cacheManager.getCache(PROGRAMMING_EXERCISE_RE_EVALUATION_STATUS)).map(cache -> cache.get(exerciseId))
+                .map(wrapper -> (ProgrammingExerciseReEvaluationStatus) wrapper.get());
+    }
+
+    private void sendReEvaluationStatus(long exerciseId, ProgrammingExerciseReEvaluationStatus status) {
+        var cache = cacheManager.getCache(PROGRAMMING_EXERCISE_RE_EVALUATION_STATUS);
+        if (cache != null) {
+            cache.put(exerciseId, status);
+        }
+        else {
+            log.warn("Unable to add the re-evaluation status to the distributed cache because it is null");
+        }
+        messagingTemplate.convertAndSend(RE_EVALUATION_STATUS_TOPIC.formatted(exerciseId), status);
+    }
+
+    /**
+     * Describes everything that influences the re-evaluation of the results, so that an interrupted re-evaluation is only resumed if nothing changed.
+     *
+     * @param exercise  whose results are re-evaluated.
+     * @param testCases the active test cases of the exercise.
+     * @return a string that changes whenever the score calculation changes.
+     */
+    private static String getTestCaseFingerprint(final ProgrammingExercise exercise, final Set<ProgrammingExerciseTestCase> testCases) {
+        return exercise.getMaxPoints() + ";" + exercise.getBonusPoints() + ";" + testCases.stream().sorted(Comparator.comparing(ProgrammingExerciseTestCase::getId))
+                .map(testCase -> testCase.getId() + ":" + testCase.getWeight() + ":" + testCase.getBonusMultiplier() + ":" + testCase.getBonusPoints() + ":"
+                        + testCase.getVisibility())
+                .collect(Collectors.joining(","));
+    }
+
+    /**
+     * Updates the latest automatic and manual results of the student participations of the given exercise page by page, without loading all participations at once.
+     * The results of a page are updated in parallel.
+     *
+     * @param exercise                     whose results should be updated.
+     * @param allTestCases                 of the programming exercise.
+     * @param lastProcessedParticipationId only participations with a greater id are updated, use 0 to update all participations.
+     * @param pageConsumer                 is invoked with the ids of the participations of each page and the updated results of the page, before the next page is loaded.
+     */
+    private void updateStudentResultsInPages(final ProgrammingExercise exercise, final Set<ProgrammingExerciseTestCase> allTestCases, long lastProcessedParticipationId,
+            final BiConsumer<List<Long>, List<Result>> pageConsumer) {
+        final Set<ProgrammingExerciseTestCase> testCasesBeforeDueDate = filterTestCasesForStudents(allTestCases, true);
+        final Set<ProgrammingExerciseTestCase> testCasesAfterDueDate = filterTestCasesForStudents(allTestCases, false);
+        // loaded once, as the results are updated in parallel
+        final SubmissionPolicy submissionPolicy = findSubmissionPolicy(exercise);
+
+        // not shut down, as it only delegates to the executor of the service
+        var threadPool = new DelegatingSecurityContextExecutorService(reEvaluationExecutor, SecurityContextHolder.getContext());
+        List<Long> participationIds;
+        while (!(participationIds = studentParticipationRepository.findIdsByExerciseIdAfterId(exercise.getId(), lastProcessedParticipationId,
+                PageRequest.of(0, RE_EVALUATION_PAGE_SIZE))).isEmpty()) {
+            final List<StudentParticipation> participations = new ArrayList<>();
+            // We only update the latest automatic results here, later manual assessments are not affected
+            participations.addAll(studentParticipationRepository.findByIdsWithLatestAutomaticResultAndFeedbacks(participationIds));
+            // Also update manual results
+            participations.addAll(studentParticipationRepository.findByIdsWithManualResultAndFeedbacks(participationIds));
+
+            final List<Result> updatedResults = participations.stream()
+                    .map(participation -> CompletableFuture.supplyAsync(
+                            () -> updateLatestResult(exercise, participation, allTestCases, testCasesBeforeDueDate, testCasesAfterDueDate, submissionPolicy), threadPool))
+                    .toList().stream().map(CompletableFuture::join).flatMap(Optional::stream).toList();
+
+            pageConsumer.accept(participationIds, updatedResults);
+            lastProcessedParticipationId = participationIds.get(participationIds.size() - 1);
+        }
     }
 
     /**
@@ -437,11 +606,12 @@ public class ProgrammingExerciseGradingService {
         final Set<ProgrammingExerciseTestCase> testCases = testCaseRepository.findByExerciseIdAndActive(exercise.getId(), true);
         final Set<ProgrammingExerciseTestCase> testCasesBeforeDueDate = filterTestCasesForStudents(testCases, true);
         final Set<ProgrammingExerciseTestCase> testCasesAfterDueDate = filterTestCasesForStudents(testCases, false);
+        final SubmissionPolicy submissionPolicy = findSubmissionPolicy(exercise);
 
-        final Optional<Result> updatedAutomaticResult = studentParticipationRepository.findByIdWithLatestAutomaticResultAndFeedbacks(participation.getId())
-                .flatMap(studentParticipation -> updateLatestResult(exercise, studentParticipation, testCases, testCasesBeforeDueDate, testCasesAfterDueDate, true));
-        final Optional<Result> updatedManualResult = studentParticipationRepository.findByIdWithManualResultAndFeedbacks(participation.getId())
-                .flatMap(studentParticipation -> updateLatestResult(exercise, studentParticipation, testCases, testCasesBeforeDueDate, testCasesAfterDueDate, true));
+        final Optional<Result> updatedAutomaticResult = studentParticipationRepository.findByIdWithLatestAutomaticResultAndFeedbacks(participation.getId()).flatMap(
+                studentParticipation -> updateLatestResult(exercise, studentParticipation, testCases, testCasesBeforeDueDate, testCasesAfterDueDate, submissionPolicy));
+        final Optional<Result> updatedManualResult = studentParticipationRepository.findByIdWithManualResultAndFeedbacks(participation.getId()).flatMap(
+                studentParticipation -> updateLatestResult(exercise, studentParticipation, testCases, testCasesBeforeDueDate, testCasesAfterDueDate, submissionPolicy));
 
         return Stream.of(updatedAutomaticResult, updatedManualResult).flatMap(Optional::stream).toList();
     }
@@ -457,8 +627,10 @@ public class ProgrammingExerciseGradingService {
     private Stream<Result> updateResults(final ProgrammingExercise exercise, final Set<ProgrammingExerciseTestCase> allTestCases, final List<StudentParticipation> participations) {
         final Set<ProgrammingExerciseTestCase> testCasesBeforeDueDate = filterTestCasesForStudents(allTestCases, true);
         final Set<ProgrammingExerciseTestCase> testCasesAfterDueDate = filterTestCasesForStudents(allTestCases, false);
+        final SubmissionPolicy submissionPolicy = findSubmissionPolicy(exercise);
 
-        return participations.stream().map(participation -> updateLatestResult(exercise, participation, allTestCases, testCasesBeforeDueDate, testCasesAfterDueDate, true))
+        return participations.stream()
+                .map(participation -> updateLatestResult(exercise, participation, allTestCases, testCasesBeforeDueDate, testCasesAfterDueDate, submissionPolicy))
                 .flatMap(Optional::stream);
     }
 
@@ -473,11 +645,11 @@ public class ProgrammingExerciseGradingService {
     private Stream<Result> updateTemplateAndSolutionResults(final ProgrammingExercise exercise, final Set<ProgrammingExerciseTestCase> testCases) {
         final Optional<Result> templateResult = templateProgrammingExerciseParticipationRepository
                 .findWithEagerResultsAndFeedbacksAndSubmissionsByProgrammingExerciseId(exercise.getId())
-                .flatMap(templateParticipation -> updateLatestResult(exercise, templateParticipation, testCases, testCases, testCases, false));
+                .flatMap(templateParticipation -> updateLatestResult(exercise, templateParticipation, testCases, testCases, testCases, null));
 
         final Optional<Result> solutionResult = solutionProgrammingExerciseParticipationRepository
                 .findWithEagerResultsAndFeedbacksAndSubmissionsByProgrammingExerciseId(exercise.getId())
-                .flatMap(solutionParticipation -> updateLatestResult(exercise, solutionParticipation, testCases, testCases, testCases, false));
+                .flatMap(solutionParticipation -> updateLatestResult(exercise, solutionParticipation, testCases, testCases, testCases, null));
 
         return Stream.of(templateResult, solutionResult).flatMap(Optional::stream);
     }
@@ -490,11 +662,11 @@ public class ProgrammingExerciseGradingService {
      * @param allTestCases           of this exercise.
      * @param testCasesBeforeDueDate the test cases that are visible to the student before the due date.
      * @param testCasesAfterDueDate  the test cases that are visible to the student after the due date.
-     * @param applySubmissionPolicy  true, if submission policies should be taken into account when updating the score.
+     * @param submissionPolicy       the submission policy of the exercise that should be taken into account when updating the score, null if none should be applied.
      * @return the latest result with an updated score, or nothing if the participation had no results.
      */
     private Optional<Result> updateLatestResult(ProgrammingExercise exercise, Participation participation, Set<ProgrammingExerciseTestCase> allTestCases,
-            Set<ProgrammingExerciseTestCase> testCasesBeforeDueDate, Set<ProgrammingExerciseTestCase> testCasesAfterDueDate, boolean applySubmissionPolicy) {
+            Set<ProgrammingExerciseTestCase> testCasesBeforeDueDate, Set<ProgrammingExerciseTestCase> testCasesAfterDueDate, SubmissionPolicy submissionPolicy) {
         final Result result = participation.findLatestLegalResult();
         if (result == null) {
             return Optional.empty();
@@ -503,7 +675,7 @@ public class ProgrammingExerciseGradingService {
         boolean isBeforeDueDate = exerciseDateService.isBeforeDueDate(participation);
         final Set<ProgrammingExerciseTestCase> testCasesForCurrentDate = isBeforeDueDate ? testCasesBeforeDueDate : testCasesAfterDueDate;
 
-        calculateScoreForResult(allTestCases, testCasesForCurrentDate, result, exercise, applySubmissionPolicy);
+        calculateScoreForResult(allTestCases, testCasesForCurrentDate, result, exercise, submissionPolicy);
 
         return Optional.of(result);
     }
@@ -511,16 +683,16 @@ public class ProgrammingExerciseGradingService {
     /**
      * Creates an audit event logging that a re-evaluation was triggered.
      *
-     * @param user     who triggered the re-evaluation.
-     * @param exercise for which the evaluation was triggered.
-     * @param course   the exercise belongs to.
-     * @param results  of the exercise.
+     * @param user            who triggered the re-evaluation.
+     * @param exercise        for which the evaluation was triggered.
+     * @param course          the exercise belongs to.
+     * @param numberOfResults the number of re-evaluated results of the exercise.
      */
-    public void logReEvaluate(User user, ProgrammingExercise exercise, Course course, List<Result> results) {
+    public void logReEvaluate(User user, ProgrammingExercise exercise, Course course, int numberOfResults) {
         var auditEvent = new AuditEvent(user.getLogin(), Constants.RE_EVALUATE_RESULTS, "exercise=" + exercise.getTitle(), "course=" + course.getTitle(),
-                "results=" + results.size());
+                "results=" + numberOfResults);
         auditEventRepository.add(auditEvent);
-        log.info("User {} triggered a re-evaluation of {} results for exercise {} with id {}", user.getLogin(), results.size(), exercise.getTitle(), exercise.getId());
+        log.info("User {} triggered a re-evaluation of {} results for exercise {} with id {}", user.getLogin(), numberOfResults, exercise.getTitle(), exercise.getId());
     }
 
     /**
@@ -577,11 +749,11 @@ public class ProgrammingExerciseGradingService {
      * @param relevantTestCases     Test cases relevant at the current due date depending on visibility and permission
      * @param result                The result to be updated
      * @param exercise              The current exercise
-     * @param applySubmissionPolicy true, if submission policies should be taken into account when updating the score.
+     * @param submissionPolicy  The submission policy of the exercise that should be taken into account when updating the score, null if none should be applied.
      * @return The updated result
      */
     private Result calculateScoreForResult(Set<ProgrammingExerciseTestCase> testCases, Set<ProgrammingExerciseTestCase> relevantTestCases, @NotNull Result result,
-            ProgrammingExercise exercise, boolean applySubmissionPolicy) {
+            ProgrammingExercise exercise, SubmissionPolicy submissionPolicy) {
         List<Feedback> automaticFeedbacks = result.getFeedbacks().stream().filter(feedback -> FeedbackType.AUTOMATIC.equals(feedback.getType())).toList();
         List<Feedback> staticCodeAnalysisFeedback = new ArrayList<>();
         List<Feedback> testCaseFeedback = new ArrayList<>();
@@ -598,11 +770,6 @@ public class ProgrammingExerciseGradingService {
         // Remove feedback that is in an invisible SCA category
         staticCodeAnalysisFeedback = staticCodeAnalysisCategoryRepository.categorizeScaFeedback(result, staticCodeAnalysisFeedback, exercise);
 
-        if (applySubmissionPolicy) {
-            SubmissionPolicy submissionPolicy = programmingExerciseRepository.findByIdWithSubmissionPolicyElseThrow(exercise.getId()).getSubmissionPolicy();
-            exercise.setSubmissionPolicy(submissionPolicy);
-        }
-
         // Case 1: There are tests and test case feedback, find out which tests were not executed or should only count to the score after the due date.
         if (!relevantTestCases.isEmpty() && !testCaseFeedback.isEmpty() && !result.getFeedbacks().isEmpty()) {
             filterAutomaticFeedbacksWithoutTestCase(result, testCases);
@@ -610,14 +777,14 @@ public class ProgrammingExerciseGradingService {
 
             createFeedbackForNotExecutedTests(result, relevantTestCases);
             boolean hasDuplicateTestCases = createFeedbacksForDuplicateTests(result, exercise);
-            createSubmissionPolicyFeedback(result, exercise);
+            createSubmissionPolicyFeedback(result, submissionPolicy);
 
             final Set<ProgrammingExerciseTestCase> successfulTestCases = relevantTestCases.stream().filter(testCase -> testCase.isSuccessful(result)).collect(Collectors.toSet());
 
             var scoreCalculationData = new ScoreCalculationData(exercise, result, testCases, successfulTestCases, staticCodeAnalysisFeedback);
             // The score is always calculated from ALL (except visibility=never) test cases, regardless of the current date!
 
-            updateResultScore(scoreCalculationData, hasDuplicateTestCases, applySubmissionPolicy);
+            updateResultScore(scoreCalculationData, hasDuplicateTestCases, submissionPolicy);
             updateFeedbackCredits(scoreCalculationData);
 
             result.setTestCaseCount(relevantTestCases.size());
@@ -639,8 +806,18 @@ public class ProgrammingExerciseGradingService {
         return result;
     }
 
-    private void createSubmissionPolicyFeedback(Result result, ProgrammingExercise exercise) {
-        if (exercise.getSubmissionPolicy() instanceof SubmissionPenaltyPolicy penaltyPolicy) {
+    /**
+     * Loads the submission policy of the exercise, which is applied to the results of student participations.
+     *
+     * @param exercise the programming exercise
+     * @return the submission policy of the exercise, or null if it has none
+     */
+    private SubmissionPolicy findSubmissionPolicy(ProgrammingExercise exercise) {
+        return programmingExerciseRepository.findByIdWithSubmissionPolicyElseThrow(exercise.getId()).getSubmissionPolicy();
+    }
+
+    private void createSubmissionPolicyFeedback(Result result, SubmissionPolicy submissionPolicy) {
+        if (submissionPolicy instanceof SubmissionPenaltyPolicy penaltyPolicy) {
             submissionPolicyService.createFeedbackForPenaltyPolicy(result, penaltyPolicy);
         }
     }
@@ -734,11 +911,11 @@ public class ProgrammingExerciseGradingService {
      * Takes weight, bonus multiplier and absolute bonus points into account.
      * All tests in this case do not include ones with visibility=never.
      */
-    private void updateResultScore(ScoreCalculationData scoreCalculationData, boolean hasDuplicateTestCases, boolean applySubmissionPolicy) {
+    private void updateResultScore(ScoreCalculationData scoreCalculationData, boolean hasDuplicateTestCases, SubmissionPolicy submissionPolicy) {
         double score = 0D;
 
         if (!hasDuplicateTestCases) {
-            score = calculateScore(scoreCalculationData, applySubmissionPolicy);
+            score = calculateScore(scoreCalculationData, submissionPolicy);
         }
 
         scoreCalculationData.result().setScore(score, scoreCalculationData.exercise().getCourseViaExerciseGroupOrCourseMember());
@@ -759,10 +936,10 @@ public class ProgrammingExerciseGradingService {
      *
      * @return the final total score in percent that should be given to the result.
      */
-    private double calculateScore(ScoreCalculationData scoreCalculationData, boolean applySubmissionPolicy) {
+    private double calculateScore(ScoreCalculationData scoreCalculationData, SubmissionPolicy submissionPolicy) {
 
         double points = calculateSuccessfulTestPoints(scoreCalculationData);
-        points -= calculateTotalPenalty(scoreCalculationData, applySubmissionPolicy);
+        points -= calculateTotalPenalty(scoreCalculationData, submissionPolicy);
 
         points = Math.max(0, points);
 
@@ -861,7 +1038,7 @@ public class ProgrammingExerciseGradingService {
      *
      * @return a total penalty that should be deducted from the score.
      */
-    private double calculateTotalPenalty(ScoreCalculationData scoreCalculationData, boolean applySubmissionPolicy) {
+    private double calculateTotalPenalty(ScoreCalculationData scoreCalculationData, SubmissionPolicy submissionPolicy) {
         double penalty = 0;
         var exercise = scoreCalculationData.exercise();
         int maxStaticCodeAnalysisPenalty = Optional.ofNullable(exercise.getMaxStaticCodeAnalysisPenalty()).orElse(100);
@@ -869,7 +1046,7 @@ public class ProgrammingExerciseGradingService {
             penalty += calculateStaticCodeAnalysisPenalty(scoreCalculationData.staticCodeAnalysisFeedback(), exercise);
         }
 
-        if (applySubmissionPolicy && exercise.getSubmissionPolicy() instanceof SubmissionPenaltyPolicy penaltyPolicy) {
+        if (submissionPolicy instanceof SubmissionPenaltyPolicy penaltyPolicy) {
             penalty += submissionPolicyService.calculateSubmissionPenalty(scoreCalculationData.participation(), penaltyPolicy);
         }
 
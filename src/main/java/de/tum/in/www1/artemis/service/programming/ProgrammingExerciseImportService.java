@@ -53,10 +53,13 @@ public class ProgrammingExerciseImportService {
 
     private final ProgrammingExerciseImportBasicService programmingExerciseImportBasicService;
 
+    private final ProgrammingExerciseSetupExecutor setupExecutor;
+
     public ProgrammingExerciseImportService(Optional<VersionControlService> versionControlService, Optional<ContinuousIntegrationService> continuousIntegrationService,
             Optional<ContinuousIntegrationTriggerService> continuousIntegrationTriggerService, ProgrammingExerciseService programmingExerciseService, GitService gitService,
             FileService fileService, UserRepository userRepository, AuxiliaryRepositoryRepository auxiliaryRepositoryRepository, UrlService urlService,
-            TemplateUpgradePolicy templateUpgradePolicy, ProgrammingExerciseImportBasicService programmingExerciseImportBasicService) {
+            TemplateUpgradePolicy templateUpgradePolicy, ProgrammingExerciseImportBasicService programmingExerciseImportBasicService,
+            ProgrammingExerciseSetupExecutor setupExecutor) {
         this.versionControlService = versionControlService;
         this.continuousIntegrationService = continuousIntegrationService;
         this.continuousIntegrationTriggerService = continuousIntegrationTriggerService;
@@ -68,6 +71,7 @@ public class ProgrammingExerciseImportService {
         this.urlService = urlService;
         this.templateUpgradePolicy = templateUpgradePolicy;
         this.programmingExerciseImportBasicService = programmingExerciseImportBasicService;
+        this.setupExecutor = setupExecutor;
     }
 
     /**
@@ -90,17 +94,24 @@ public class ProgrammingExerciseImportService {
 
         String sourceBranch = versionControlService.get().getOrRetrieveBranchOfExercise(templateExercise);
 
-        versionControlService.get().copyRepository(sourceProjectKey, templateRepoName, sourceBranch, targetProjectKey, RepositoryType.TEMPLATE.getName());
-        versionControlService.get().copyRepository(sourceProjectKey, solutionRepoName, sourceBranch, targetProjectKey, RepositoryType.SOLUTION.getName());
-        versionControlService.get().copyRepository(sourceProjectKey, testRepoName, sourceBranch, targetProjectKey, RepositoryType.TESTS.getName());
-
+        // The repositories are independent of each other, so they are copied in parallel
         List<AuxiliaryRepository> auxiliaryRepositories = templateExercise.getAuxiliaryRepositories();
+        String[] auxiliaryRepositoryUrls = new String[auxiliaryRepositories.size()];
+        List<ProgrammingExerciseSetupExecutor.SetupJob<RuntimeException>> copyJobs = new ArrayList<>();
+        copyJobs.add(() -> versionControlService.get().copyRepository(sourceProjectKey, templateRepoName, sourceBranch, targetProjectKey, RepositoryType.TEMPLATE.getName()));
+        copyJobs.add(() -> versionControlService.get().copyRepository(sourceProjectKey, solutionRepoName, sourceBranch, targetProjectKey, RepositoryType.SOLUTION.getName()));
+        copyJobs.add(() -> versionControlService.get().copyRepository(sourceProjectKey, testRepoName, sourceBranch, targetProjectKey, RepositoryType.TESTS.getName()));
         for (int i = 0; i < auxiliaryRepositories.size(); i++) {
+            final int index = i;
             AuxiliaryRepository auxiliaryRepository = auxiliaryRepositories.get(i);
-            String repositoryUrl = versionControlService.get()
-                    .copyRepository(sourceProjectKey, auxiliaryRepository.getRepositoryName(), sourceBranch, targetProjectKey, auxiliaryRepository.getName()).toString();
+            copyJobs.add(() -> auxiliaryRepositoryUrls[index] = versionControlService.get()
+                    .copyRepository(sourceProjectKey, auxiliaryRepository.getRepositoryName(), sourceBranch, targetProjectKey, auxiliaryRepository.getName()).toString());
+        }
+        setupExecutor.runAll(copyJobs);
+
+        for (int i = 0; i < auxiliaryRepositories.size(); i++) {
             AuxiliaryRepository newAuxiliaryRepository = newExercise.getAuxiliaryRepositories().get(i);
-            newAuxiliaryRepository.setRepositoryUrl(repositoryUrl);
+            newAuxiliaryRepository.setRepositoryUrl(auxiliaryRepositoryUrls[i]);
             auxiliaryRepositoryRepository.save(newAuxiliaryRepository);
         }
 
@@ -196,13 +207,15 @@ public class ProgrammingExerciseImportService {
         final var targetKey = newExercise.getProjectKey();
         final var targetName = newExercise.getCourseViaExerciseGroupOrCourseMember().getShortName().toUpperCase() + " " + newExercise.getTitle();
         continuousIntegrationService.get().createProjectForExercise(newExercise);
+        // Copying the first build plan might create the target project (e.g. in Bamboo), afterwards the build plans are configured and enabled in parallel
         continuousIntegrationService.get().copyBuildPlan(templateKey, templatePlanName, targetKey, targetName, templatePlanName, false);
-        continuousIntegrationService.get().copyBuildPlan(templateKey, solutionPlanName, targetKey, targetName, solutionPlanName, true);
-        continuousIntegrationService.get().givePlanPermissions(newExercise, templatePlanName);
-        continuousIntegrationService.get().givePlanPermissions(newExercise, solutionPlanName);
+        setupExecutor.runAll(() -> {
+            continuousIntegrationService.get().copyBuildPlan(templateKey, solutionPlanName, targetKey, targetName, solutionPlanName, true);
+            continuousIntegrationService.get().givePlanPermissions(newExercise, solutionPlanName);
+        }, () -> continuousIntegrationService.get().givePlanPermissions(newExercise, templatePlanName));
         programmingExerciseService.giveCIProjectPermissions(newExercise);
-        continuousIntegrationService.get().enablePlan(targetExerciseProjectKey, templateParticipation.getBuildPlanId());
-        continuousIntegrationService.get().enablePlan(targetExerciseProjectKey, solutionParticipation.getBuildPlanId());
+        setupExecutor.runAll(() -> continuousIntegrationService.get().enablePlan(targetExerciseProjectKey, templateParticipation.getBuildPlanId()),
+                () -> continuousIntegrationService.get().enablePlan(targetExerciseProjectKey, solutionParticipation.getBuildPlanId()));
     }
 
     /**
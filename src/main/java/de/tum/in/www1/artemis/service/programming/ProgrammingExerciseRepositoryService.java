@@ -55,13 +55,16 @@ public class ProgrammingExerciseRepositoryService {
 
     private final Optional<VersionControlService> versionControlService;
 
+    private final ProgrammingExerciseSetupExecutor setupExecutor;
+
     public ProgrammingExerciseRepositoryService(FileService fileService, GitService gitService, InstanceMessageSendService instanceMessageSendService,
-            ResourceLoaderService resourceLoaderService, Optional<VersionControlService> versionControlService) {
+            ResourceLoaderService resourceLoaderService, Optional<VersionControlService> versionControlService, ProgrammingExerciseSetupExecutor setupExecutor) {
         this.fileService = fileService;
         this.gitService = gitService;
         this.instanceMessageSendService = instanceMessageSendService;
         this.resourceLoaderService = resourceLoaderService;
         this.versionControlService = versionControlService;
+        this.setupExecutor = setupExecutor;
     }
 
     /**
@@ -89,9 +92,12 @@ public class ProgrammingExerciseRepositoryService {
      * @param exerciseCreator     the User that performed the action (used as Git commit author)
      */
     void setupExerciseTemplate(final ProgrammingExercise programmingExercise, final User exerciseCreator) throws GitAPIException {
-        final RepositoryResources exerciseResources = getRepositoryResources(programmingExercise, RepositoryType.TEMPLATE);
-        final RepositoryResources solutionResources = getRepositoryResources(programmingExercise, RepositoryType.SOLUTION);
-        final RepositoryResources testResources = getRepositoryResources(programmingExercise, RepositoryType.TESTS);
+        // the repositories are checked out in parallel
+        final Map<RepositoryType, RepositoryResources> repositoryResources = setupExecutor
+                .applyToAll(List.of(RepositoryType.TEMPLATE, RepositoryType.SOLUTION, RepositoryType.TESTS), type -> getRepositoryResources(programmingExercise, type));
+        final RepositoryResources exerciseResources = repositoryResources.get(RepositoryType.TEMPLATE);
+        final RepositoryResources solutionResources = repositoryResources.get(RepositoryType.SOLUTION);
+        final RepositoryResources testResources = repositoryResources.get(RepositoryType.TESTS);
 
         setupRepositories(programmingExercise, exerciseCreator, exerciseResources, solutionResources, testResources);
     }
@@ -160,7 +166,7 @@ public class ProgrammingExerciseRepositoryService {
     }
 
     /**
-     * Sets up the three initial repositories for a new exercise.
+     * Sets up the three initial repositories for a new exercise. The repositories are independent of each other and are therefore populated and pushed in parallel.
      *
      * @param programmingExercise The exercise that should be set up.
      * @param exerciseCreator     The user that wants to create the exercise
@@ -172,14 +178,14 @@ public class ProgrammingExerciseRepositoryService {
     private void setupRepositories(final ProgrammingExercise programmingExercise, final User exerciseCreator, final RepositoryResources exerciseResources,
             final RepositoryResources solutionResources, final RepositoryResources testResources) throws GitAPIException {
         try {
-            setupTemplateAndPush(exerciseResources, "Exercise", programmingExercise, exerciseCreator);
-            // The template repo can be re-written, so we can unprotect the default branch.
-            final var templateVcsRepositoryUrl = programmingExercise.getVcsTemplateRepositoryUrl();
-            final String templateBranch = versionControlService.orElseThrow().getOrRetrieveBranchOfExercise(programmingExercise);
-            versionControlService.get().unprotectBranch(templateVcsRepositoryUrl, templateBranch);
-
-            setupTemplateAndPush(solutionResources, "Solution", programmingExercise, exerciseCreator);
-            setupTestTemplateAndPush(testResources, programmingExercise, exerciseCreator);
+            setupExecutor.runAll(() -> {
+                setupTemplateAndPush(exerciseResources, "Exercise", programmingExercise, exerciseCreator);
+                // The template repo can be re-written, so we can unprotect the default branch.
+                final var templateVcsRepositoryUrl = programmingExercise.getVcsTemplateRepositoryUrl();
+                final String templateBranch = versionControlService.orElseThrow().getOrRetrieveBranchOfExercise(programmingExercise);
+                versionControlService.get().unprotectBranch(templateVcsRepositoryUrl, templateBranch);
+            }, () -> setupTemplateAndPush(solutionResources, "Solution", programmingExercise, exerciseCreator),
+                    () -> setupTestTemplateAndPush(testResources, programmingExercise, exerciseCreator));
         }
         catch (Exception ex) {
             // if any exception occurs, try to at least push an empty commit, so that the
@@ -202,23 +208,28 @@ public class ProgrammingExerciseRepositoryService {
     void createRepositoriesForNewExercise(final ProgrammingExercise programmingExercise) throws GitAPIException {
         final String projectKey = programmingExercise.getProjectKey();
         versionControlService.orElseThrow().createProjectForExercise(programmingExercise); // Create project
-        versionControlService.orElseThrow().createRepository(projectKey, programmingExercise.generateRepositoryName(RepositoryType.TEMPLATE), null); // Create template repository
-        versionControlService.orElseThrow().createRepository(projectKey, programmingExercise.generateRepositoryName(RepositoryType.TESTS), null); // Create tests repository
-        versionControlService.orElseThrow().createRepository(projectKey, programmingExercise.generateRepositoryName(RepositoryType.SOLUTION), null); // Create solution repository
+
+        // The repositories only depend on the project, so they are created in parallel
+        final List<ProgrammingExerciseSetupExecutor.SetupJob<GitAPIException>> setupJobs = new ArrayList<>();
+        setupJobs.add(() -> versionControlService.orElseThrow().createRepository(projectKey, programmingExercise.generateRepositoryName(RepositoryType.TEMPLATE), null));
+        setupJobs.add(() -> versionControlService.orElseThrow().createRepository(projectKey, programmingExercise.generateRepositoryName(RepositoryType.TESTS), null));
+        setupJobs.add(() -> versionControlService.orElseThrow().createRepository(projectKey, programmingExercise.generateRepositoryName(RepositoryType.SOLUTION), null));
 
         // Create auxiliary repositories
-        createAndInitializeAuxiliaryRepositories(projectKey, programmingExercise);
+        for (final AuxiliaryRepository repo : programmingExercise.getAuxiliaryRepositories()) {
+            setupJobs.add(() -> createAndInitializeAuxiliaryRepository(projectKey, programmingExercise, repo));
+        }
+        setupExecutor.runAll(setupJobs);
     }
 
-    private void createAndInitializeAuxiliaryRepositories(final String projectKey, final ProgrammingExercise programmingExercise) throws GitAPIException {
-        for (final AuxiliaryRepository repo : programmingExercise.getAuxiliaryRepositories()) {
-            final String repositoryName = programmingExercise.generateRepositoryName(repo.getName());
-            versionControlService.orElseThrow().createRepository(projectKey, repositoryName, null);
-            repo.setRepositoryUrl(versionControlService.orElseThrow().getCloneRepositoryUrl(programmingExercise.getProjectKey(), repositoryName).toString());
+    private void createAndInitializeAuxiliaryRepository(final String projectKey, final ProgrammingExercise programmingExercise, final AuxiliaryRepository repo)
+            throws GitAPIException {
+        final String repositoryName = programmingExercise.generateRepositoryName(repo.getName());
+        versionControlService.orElseThrow().createRepository(projectKey, repositoryName, null);
+        repo.setRepositoryUrl(versionControlService.orElseThrow().getCloneRepositoryUrl(programmingExercise.getProjectKey(), repositoryName).toString());
 
-            final Repository vcsRepository = gitService.getOrCheckoutRepository(repo.getVcsRepositoryUrl(), true);
-            gitService.commitAndPush(vcsRepository, SETUP_COMMIT_MESSAGE, true, null);
-        }
+        final Repository vcsRepository = gitService.getOrCheckoutRepository(repo.getVcsRepositoryUrl(), true);
+        gitService.commitAndPush(vcsRepository, SETUP_COMMIT_MESSAGE, true, null);
     }
 
     /**
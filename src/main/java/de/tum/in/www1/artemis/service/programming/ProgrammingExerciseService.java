@@ -38,6 +38,7 @@ import de.tum.in.www1.artemis.repository.hestia.ProgrammingExerciseSolutionEntry
 import de.tum.in.www1.artemis.repository.hestia.ProgrammingExerciseTaskRepository;
 import de.tum.in.www1.artemis.service.ExerciseSpecificationService;
 import de.tum.in.www1.artemis.service.ParticipationService;
+import de.tum.in.www1.artemis.service.PlantUmlService;
 import de.tum.in.www1.artemis.service.connectors.GitService;
 import de.tum.in.www1.artemis.service.connectors.ci.CIPermission;
 import de.tum.in.www1.artemis.service.connectors.ci.ContinuousIntegrationService;
@@ -98,6 +99,8 @@ public class ProgrammingExerciseService {
 
     private final ExerciseSpecificationService exerciseSpecificationService;
 
+    private final PlantUmlService plantUmlService;
+
     public ProgrammingExerciseService(ProgrammingExerciseRepository programmingExerciseRepository, GitService gitService, Optional<VersionControlService> versionControlService,
             Optional<ContinuousIntegrationService> continuousIntegrationService,
             TemplateProgrammingExerciseParticipationRepository templateProgrammingExerciseParticipationRepository,
@@ -107,7 +110,7 @@ public class ProgrammingExerciseService {
             AuxiliaryRepositoryRepository auxiliaryRepositoryRepository, ProgrammingExerciseTaskRepository programmingExerciseTaskRepository,
             ProgrammingExerciseSolutionEntryRepository programmingExerciseSolutionEntryRepository, ProgrammingExerciseTaskService programmingExerciseTaskService,
             ProgrammingExerciseGitDiffReportRepository programmingExerciseGitDiffReportRepository, ExerciseSpecificationService exerciseSpecificationService,
-            ProgrammingExerciseRepositoryService programmingExerciseRepositoryService) {
+            ProgrammingExerciseRepositoryService programmingExerciseRepositoryService, PlantUmlService plantUmlService) {
         this.programmingExerciseRepository = programmingExerciseRepository;
         this.gitService = gitService;
         this.versionControlService = versionControlService;
@@ -128,6 +131,7 @@ public class ProgrammingExerciseService {
         this.programmingExerciseGitDiffReportRepository = programmingExerciseGitDiffReportRepository;
         this.exerciseSpecificationService = exerciseSpecificationService;
         this.programmingExerciseRepositoryService = programmingExerciseRepositoryService;
+        this.plantUmlService = plantUmlService;
     }
 
     /**
@@ -181,6 +185,7 @@ public class ProgrammingExerciseService {
         programmingExercise = programmingExerciseRepository.saveAndFlush(programmingExercise);
 
         programmingExerciseTaskService.updateTasksFromProblemStatement(programmingExercise);
+        plantUmlService.preRenderDiagrams(programmingExercise.getProblemStatement());
 
         // The creation of the webhooks must occur after the initial push, because the participation is
         // not yet saved in the database, so we cannot save the submission accordingly (see ProgrammingSubmissionService.processNewProgrammingSubmission)
@@ -301,6 +306,7 @@ public class ProgrammingExerciseService {
 
         participationRepository.removeIndividualDueDatesIfBeforeDueDate(savedProgrammingExercise, programmingExerciseBeforeUpdate.getDueDate());
         programmingExerciseTaskService.updateTasksFromProblemStatement(savedProgrammingExercise);
+        plantUmlService.preRenderDiagrams(savedProgrammingExercise.getProblemStatement());
         // TODO: in case of an exam exercise, this is not necessary
         scheduleOperations(updatedProgrammingExercise.getId());
         groupNotificationScheduleService.checkAndCreateAppropriateNotificationsWhenUpdatingExercise(programmingExerciseBeforeUpdate, savedProgrammingExercise, notificationText);
@@ -378,6 +384,7 @@ public class ProgrammingExerciseService {
         ProgrammingExercise updatedProgrammingExercise = programmingExerciseRepository.save(programmingExercise);
 
         programmingExerciseTaskService.updateTasksFromProblemStatement(updatedProgrammingExercise);
+        plantUmlService.preRenderDiagrams(updatedProgrammingExercise.getProblemStatement());
 
         groupNotificationService.notifyAboutExerciseUpdate(programmingExercise, notificationText);
 
@@ -0,0 +1,153 @@
+package de.tum.in.www1.artemis.service.programming;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
+import org.springframework.stereotype.Service;
+
+/**
+ * Runs the independent steps of the setup of a programming exercise (e.g. copying or populating one repository, creating one build plan) in parallel on a bounded
+ * thread pool. Steps that depend on each other are expressed by running them one after another within the same job, or by waiting for one group of jobs before
+ * starting the next one.
+ * <p>
+ * Jobs must not wait for other jobs of this executor themselves, otherwise the bounded pool could run out of threads. If only one thread is configured, all jobs
+ * are executed one after another in the calling thread.
+ */
+@Service
+public class ProgrammingExerciseSetupExecutor {
+
+    private final Logger log = LoggerFactory.getLogger(ProgrammingExerciseSetupExecutor.class);
+
+    private final ExecutorService executor;
+
+    /**
+     * A step of the setup that might fail with a checked exception, e.g. a {@link org.eclipse.jgit.api.errors.GitAPIException}
+     *
+     * @param <E> the type of the checked exception
+     */
+    @FunctionalInterface
+    public interface SetupJob<E extends Exception> {
+
+        void run() throws E;
+    }
+
+    /**
+     * A step of the setup that computes a result for one item, e.g. the resources of one repository
+     *
+     * @param <T> the type of the items
+     * @param <R> the type of the results
+     * @param <E> the type of the checked exception
+     */
+    @FunctionalInterface
+    public interface SetupFunction<T, R, E extends Exception> {
+
+        R apply(T item) throws E;
+    }
+
+    public ProgrammingExerciseSetupExecutor(@Value("${artemis.programming-exercise-setup.threads:4}") int numberOfThreads) {
+        // the security context of the user who creates or imports the exercise is required by some connectors
+        this.executor = numberOfThreads > 1 ? new DelegatingSecurityContextExecutorService(Executors.newFixedThreadPool(numberOfThreads)) : null;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs the given jobs in parallel and waits until all of them are finished, even if one of them fails.
+     *
+     * @param jobs the independent jobs
+     * @param <E>  the type of the checked exception the jobs might throw
+     * @throws E the exception of the first failed job (in the order of the given jobs)
+     */
+    @SafeVarargs
+    public final <E extends Exception> void runAll(SetupJob<E>... jobs) throws E {
+        runAll(Arrays.asList(jobs));
+    }
+
+    /**
+     * Runs the given jobs in parallel and waits until all of them are finished, even if one of them fails.
+     *
+     * @param jobs the independent jobs
+     * @param <E>  the type of the checked exception the jobs might throw
+     * @throws E the exception of the first failed job (in the order of the given jobs)
+     */
+    public <E extends Exception> void runAll(List<SetupJob<E>> jobs) throws E {
+        if (executor == null || jobs.size() <= 1) {
+            for (SetupJob<E> job : jobs) {
+                job.run();
+            }
+            return;
+        }
+        List<CompletableFuture<Void>> futures = jobs.stream().map(job -> CompletableFuture.runAsync(() -> {
+            try {
+                job.run();
+            }
+            catch (Exception ex) {
+                throw new CompletionException(ex);
+            }
+        }, executor)).toList();
+        awaitAll(futures);
+    }
+
+    /**
+     * Applies the given function to all items in parallel and waits until all of them are finished, even if one of them fails.
+     *
+     * @param items    the items, e.g. the repository types that should be set up
+     * @param function the function that is applied to every item independently
+     * @param <T>      the type of the items
+     * @param <R>      the type of the results
+     * @param <E>      the type of the checked exception the function might throw
+     * @return the (non-null) results of the items in the order of the given items
+     * @throws E the exception of the first failed item (in the order of the given items)
+     */
+    public <T, R, E extends Exception> Map<T, R> applyToAll(Collection<T> items, SetupFunction<T, R, E> function) throws E {
+        Map<T, R> results = new ConcurrentHashMap<>();
+        runAll(items.stream().<SetupJob<E>>map(item -> () -> results.put(item, Objects.requireNonNull(function.apply(item)))).toList());
+        Map<T, R> orderedResults = new LinkedHashMap<>();
+        items.forEach(item -> orderedResults.put(item, results.get(item)));
+        return orderedResults;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <E extends Exception> void awaitAll(List<CompletableFuture<Void>> futures) throws E {
+        Throwable firstFailure = null;
+        for (CompletableFuture<Void> future : futures) {
+            try {
+                future.join();
+            }
+            catch (CompletionException ex) {
+                Throwable cause = ex.getCause() instanceof CompletionException completionException ? completionException.getCause() : ex.getCause();
+                if (firstFailure == null) {
+                    firstFailure = cause;
+                }
+                else {
+                    log.warn("Another setup job failed as well", cause);
+                }
+            }
+        }
+        if (firstFailure instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        else if (firstFailure instanceof Error error) {
+            throw error;
+        }
+        else if (firstFailure != null) {
+            // only the checked exception of the jobs can be wrapped here
+            throw (E) firstFailure;
+        }
+    }
+}
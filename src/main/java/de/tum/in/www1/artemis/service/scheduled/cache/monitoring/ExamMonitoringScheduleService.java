@@ -1,10 +1,17 @@
 package de.tum.in.www1.artemis.service.scheduled.cache.monitoring;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -22,6 +29,7 @@ import de.tum.in.www1.artemis.domain.exam.Exam;
 import de.tum.in.www1.artemis.domain.exam.StudentExam;
 import de.tum.in.www1.artemis.domain.exam.monitoring.ExamAction;
 import de.tum.in.www1.artemis.domain.exam.monitoring.ExamActivity;
+import de.tum.in.www1.artemis.repository.ExamActivityRepository;
 import de.tum.in.www1.artemis.repository.ExamRepository;
 import de.tum.in.www1.artemis.repository.StudentExamRepository;
 import de.tum.in.www1.artemis.security.SecurityUtils;
@@ -33,12 +41,22 @@ import tech.jhipster.config.JHipsterConstants;
  * For all {@link Exam}s where monitoring is enabled, the scheduling service schedules the cache reset after another 30 minutes {@link Constants}
  * after the last {@link StudentExam} is completed. In addition, it takes care of adding new {@link ExamAction}s per {@link ExamActivity} and {@link Exam}.
  * The service works as an interface for the distributed hazelcast exam monitoring cache;
+ * <p>
+ * New actions are buffered on the instance that received them (bounded) and flushed every two seconds on the task scheduler: the actions are stored with JDBC batches
+ * in the database first and the instructors subscribed to the monitoring of an exam then receive the saved actions as one message per exam. Actions that could not be
+ * saved are kept in the buffer and retried with the next flush. The distributed cache only keeps the latest action of every student exam.
  */
 @Service
 public class ExamMonitoringScheduleService {
 
     private final Logger logger = LoggerFactory.getLogger(ExamMonitoringScheduleService.class);
 
+    private static final Duration EXAM_ACTIONS_FLUSH_INTERVAL = Duration.ofSeconds(2);
+
+    private static final int MAX_BUFFERED_EXAM_ACTIONS = 10_000;
+
+    private static final int MAX_FLUSH_ATTEMPTS = 3;
+
     private final ExamCache examCache;
 
     private final TaskScheduler scheduler;
@@ -53,14 +71,23 @@ public class ExamMonitoringScheduleService {
 
     private final WebsocketMessagingService messagingService;
 
+    private final ExamActivityRepository examActivityRepository;
+
+    private final BlockingDeque<BufferedExamAction> bufferedExamActions = new LinkedBlockingDeque<>(MAX_BUFFERED_EXAM_ACTIONS);
+
+    private final AtomicBoolean immediateFlushScheduled = new AtomicBoolean(false);
+
+    private ScheduledFuture<?> examActionsFlush;
+
     public ExamMonitoringScheduleService(HazelcastInstance hazelcastInstance, @Qualifier("taskScheduler") TaskScheduler scheduler, Environment env, ExamRepository examRepository,
-            StudentExamRepository studentExamRepository, WebsocketMessagingService messagingService) {
+            StudentExamRepository studentExamRepository, WebsocketMessagingService messagingService, ExamActivityRepository examActivityRepository) {
         this.examCache = new ExamCache(hazelcastInstance);
         this.scheduler = scheduler;
         this.env = env;
         this.examRepository = examRepository;
         this.studentExamRepository = studentExamRepository;
         this.messagingService = messagingService;
+        this.examActivityRepository = examActivityRepository;
     }
 
     /**
@@ -77,6 +104,8 @@ public class ExamMonitoringScheduleService {
      */
     @PostConstruct
     public void startSchedule() {
+        // every instance buffers the actions it receives, therefore every instance has to flush them
+        examActionsFlush = scheduler.scheduleWithFixedDelay(this::flushExamActions, EXAM_ACTIONS_FLUSH_INTERVAL);
         try {
             Collection<String> activeProfiles = Arrays.asList(env.getActiveProfiles());
             if (activeProfiles.contains(JHipsterConstants.SPRING_PROFILE_DEVELOPMENT)) {
@@ -117,21 +146,86 @@ public class ExamMonitoringScheduleService {
                 if (activity == null) {
                     activity = new ExamActivity();
                     activity.setStudentExamId(studentExamId);
-                    // Since we don't store the activity in the database at the moment, we reuse the student exam id
+                    // the activity is stored with the id of the student exam, see ExamActivityRepository
                     activity.setId(studentExamId);
-                    // TODO: Save Activity
                 }
 
                 // Connect action and activity
                 action.setExamActivityId(activity.getId());
 
+                // all actions are stored in the database, the cache only keeps the latest one to bound its size
+                activity.getExamActions().clear();
                 activity.addExamAction(action);
 
                 return activity;
             });
 
-            // send message to subscribers
-            messagingService.sendMessage("/topic/exam-monitoring/" + examId + "/action", action);
+            if (!bufferedExamActions.offerLast(new BufferedExamAction(examId, action, 0))) {
+                // the buffer is full: the request thread must not wait for the database, the buffer is flushed on the task scheduler
+                logger.warn("Could not buffer exam action of student exam {} in exam {}, the buffer is full", studentExamId, examId);
+            }
+            if (bufferedExamActions.remainingCapacity() == 0 && immediateFlushScheduled.compareAndSet(false, true)) {
+                scheduler.schedule(() -> {
+                    immediateFlushScheduled.set(false);
+                    flushExamActions();
+                }, Instant.now());
+            }
+        }
+    }
+
+    /**
+     * Stores all buffered exam actions in the database and sends the saved actions to the instructors subscribed to the monitoring (one message per exam).
+     * The actions of an exam that could not be stored are put back into the buffer and retried with the next flush.
+     * This is invoked periodically and whenever the buffer is full.
+     */
+    public synchronized void flushExamActions() {
+        List<BufferedExamAction> actionsToFlush = new ArrayList<>();
+        bufferedExamActions.drainTo(actionsToFlush);
+        if (actionsToFlush.isEmpty()) {
+            return;
+        }
+        var actionsByExam = actionsToFlush.stream().collect(Collectors.groupingBy(BufferedExamAction::examId, LinkedHashMap::new, Collectors.toList()));
+        actionsByExam.forEach((examId, bufferedActions) -> {
+            List<ExamAction> examActions = bufferedActions.stream().map(BufferedExamAction::action).toList();
+            try {
+                examActivityRepository.saveAllInBatches(examId, examActions);
+            }
+            catch (Exception e) {
+                logger.error("Failed to save {} exam actions of exam {}", examActions.size(), examId, e);
+                requeue(bufferedActions);
+                return;
+            }
+            // only send the saved actions (with their ids), the others do not belong to a student exam of the exam
+            List<ExamAction> savedExamActions = examActions.stream().filter(action -> action.getId() != null).toList();
+            if (savedExamActions.isEmpty()) {
+                return;
+            }
+            try {
+                messagingService.sendMessage("/topic/exam-monitoring/" + examId + "/action", savedExamActions);
+            }
+            catch (Exception e) {
+                // the actions are saved, the subscribers can still load them
+                logger.error("Failed to send {} exam actions of exam {}", savedExamActions.size(), examId, e);
+            }
+        });
+    }
+
+    /**
+     * Puts actions that could not be saved back to the front of the buffer (keeping their order), unless they have been attempted too often or the buffer is full.
+     *
+     * @param bufferedActions the actions that could not be saved
+     */
+    private void requeue(List<BufferedExamAction> bufferedActions) {
+        int droppedActions = 0;
+        for (int i = bufferedActions.size() - 1; i >= 0; i--) {
+            BufferedExamAction bufferedAction = bufferedActions.get(i);
+            if (bufferedAction.attempts() + 1 >= MAX_FLUSH_ATTEMPTS
+                    || !bufferedExamActions.offerFirst(new BufferedExamAction(bufferedAction.examId(), bufferedAction.action(), bufferedAction.attempts() + 1))) {
+                droppedActions++;
+            }
+        }
+        if (droppedActions > 0) {
+            logger.error("Dropped {} exam actions that could not be saved", droppedActions);
         }
     }
 
@@ -146,20 +240,25 @@ public class ExamMonitoringScheduleService {
     }
 
     /**
-     * Returns all exam actions.
+     * Returns all exam actions stored in the database. Actions that are still buffered (on any instance) are sent to the subscribers after they have been stored,
+     * therefore subscribers that load the actions after subscribing do not miss any action.
      *
-     * @param examId identifies the cache
+     * @param examId identifies the exam
      * @return all exam actions of the exam
      */
     public List<ExamAction> getAllExamActions(Long examId) {
-        var examActivities = ((ExamMonitoringCache) examCache.getTransientWriteCacheFor(examId)).getActivities();
-        var examActions = new ArrayList<ExamAction>();
+        return examActivityRepository.findAllActionsByExamId(examId);
+    }
 
-        for (var examActivity : examActivities.values()) {
-            examActions.addAll(examActivity.getExamActions());
+    /**
+     * Stops the periodic flush of the exam actions and stores the remaining buffered actions.
+     */
+    @PreDestroy
+    public void stopFlushingExamActions() {
+        if (examActionsFlush != null) {
+            examActionsFlush.cancel(false);
         }
-
-        return examActions;
+        flushExamActions();
     }
 
     /**
@@ -221,13 +320,13 @@ public class ExamMonitoringScheduleService {
     }
 
     /**
-     * Saves the exam activities and actions into the database (after the end of the exam) for a specific exam.
+     * Removes the exam activities of a specific exam from the cache (after the end of the exam). The actions remain available in the database.
      *
      * @param examId specific exam
      */
     public void executeExamActivitySaveTask(Long examId) {
-        // TODO: Save actions in future PR in database
-        // examActivityService.saveAll(cache.getActivities().values());
+        // make sure the actions received by this instance are stored before the cached activities are removed
+        flushExamActions();
         examCache.performCacheWriteIfPresent(examId, cachedMonitoring -> {
             ((ExamMonitoringCache) cachedMonitoring).getActivities().clear();
             return cachedMonitoring;
@@ -240,6 +339,7 @@ public class ExamMonitoringScheduleService {
      * This will cause cached exam activity to be lost.
      */
     public void clearAllExamMonitoringData() {
+        bufferedExamActions.clear();
         examCache.clear();
     }
 
@@ -253,4 +353,7 @@ public class ExamMonitoringScheduleService {
     public ExamActivity getExamActivityFromCache(Long examId, Long studentExamId) {
         return ((ExamMonitoringCache) examCache.getReadCacheFor(examId)).getActivities().getOrDefault(studentExamId, null);
     }
+
+    private record BufferedExamAction(Long examId, ExamAction action, int attempts) {
+    }
 }
@@ -7,11 +7,10 @@ import static de.tum.in.www1.artemis.security.Role.STUDENT;
 
 import java.time.Instant;
 import java.time.ZonedDateTime;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Optional;
-import java.util.Set;
+import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -40,6 +39,7 @@ import de.tum.in.www1.artemis.security.SecurityUtils;
 import de.tum.in.www1.artemis.service.connectors.ci.CIUserManagementService;
 import de.tum.in.www1.artemis.service.connectors.jira.JiraAuthenticationProvider;
 import de.tum.in.www1.artemis.service.connectors.vcs.VcsUserManagementService;
+import de.tum.in.www1.artemis.service.dto.StudentDTO;
 import de.tum.in.www1.artemis.service.dto.UserDTO;
 import de.tum.in.www1.artemis.service.ldap.LdapUserDto;
 import de.tum.in.www1.artemis.service.ldap.LdapUserService;
@@ -58,6 +58,11 @@ public class UserService {
 
     private final Logger log = LoggerFactory.getLogger(UserService.class);
 
+    /**
+     * The number of students that are processed together by {@link #findUsersAndAddToCourse(List, String, Role)} when many students are registered at once
+     */
+    public static final int BULK_REGISTRATION_BATCH_SIZE = 500;
+
     @Value("${artemis.user-management.use-external}")
     private Boolean useExternalUserManagement;
 
@@ -624,6 +629,17 @@ public class UserService {
      */
     public void addUserToGroup(User user, String group, Role role) {
         addUserToGroupInternal(user, group); // internal Artemis database
+        userRepository.evictUserWithGroupsAndAuthorities(user.getLogin());
+        addUserToGroupInConnectors(user, group);
+    }
+
+    /**
+     * add the user to the specified group in the external user management, VCS and CI (e.g. JIRA, GitLab, Jenkins) if used
+     *
+     * @param user  the user
+     * @param group the group
+     */
+    private void addUserToGroupInConnectors(User user, String group) {
         try {
             artemisAuthenticationProvider.addUserToGroup(user, group);  // e.g. JIRA
         }
@@ -658,6 +674,7 @@ public class UserService {
      */
     public void removeUserFromGroup(User user, String group) {
         removeUserFromGroupInternal(user, group); // internal Artemis database
+        userRepository.evictUserWithGroupsAndAuthorities(user.getLogin());
         artemisAuthenticationProvider.removeUserFromGroup(user, group); // e.g. JIRA
         // e.g. Gitlab/Bitbucket
         optionalVcsUserManagementService.ifPresent(vcsUserManagementService -> vcsUserManagementService.updateVcsUser(user.getLogin(), user, Set.of(group), Set.of()));
@@ -729,11 +746,147 @@ public class UserService {
         return Optional.empty();
     }
 
+    /**
+     * Bulk version of {@link #findUserAndAddToCourse(String, String, Role, String, String)} for many students at once, e.g. when a whole course is imported.
+     * <p>
+     * The students are searched with one query per identifier type (registration number, login, email) instead of individual lookups. The LDAP is only searched for
+     * registration numbers that are unknown to Artemis. All found users that are not yet part of the course group are added to it with one batched write. Afterwards,
+     * the group changes are pushed to the external user management, VCS and CI.
+     *
+     * @param students        the students that should be added, identified by registration number, login or email (in this order)
+     * @param courseGroupName the courseGroup the students have to be added to
+     * @param courseGroupRole the courseGroupRole enum
+     * @return the found students in the order of the given students, an empty optional if the student was not found
+     */
+    public List<Optional<User>> findUsersAndAddToCourse(List<StudentDTO> students, String courseGroupName, Role courseGroupRole) {
+        List<User> foundUsers = new ArrayList<>(Collections.nCopies(students.size(), null));
+        List<String> logins = new ArrayList<>(Collections.nCopies(students.size(), null));
+        BitSet foundByRegistrationNumber = new BitSet(students.size());
+
+        var registrationNumbers = identifiers(students.stream().map(StudentDTO::getRegistrationNumber).toList());
+        var usersByRegistrationNumber = findUsersByIdentifiers(registrationNumbers, userRepository::findAllWithGroupsAndAuthoritiesByRegistrationNumberIn,
+                User::getRegistrationNumber);
+        for (int i = 0; i < students.size(); i++) {
+            var student = students.get(i);
+            var user = usersByRegistrationNumber.get(identifierKey(student.getRegistrationNumber()));
+            if (user != null) {
+                foundUsers.set(i, user);
+                foundByRegistrationNumber.set(i);
+                continue;
+            }
+            logins.set(i, student.getLogin());
+            if (ldapUserService.isEmpty() || !StringUtils.hasText(student.getRegistrationNumber())) {
+                // the student can only be found by login or email
+                continue;
+            }
+            try {
+                // a user found in the LDAP is created in Artemis (if necessary) and then loaded by its login together with the other students
+                var ldapUser = createUserFromLdap(student.getRegistrationNumber());
+                if (ldapUser.isPresent()) {
+                    logins.set(i, ldapUser.get().getLogin());
+                }
+            }
+            catch (Exception ex) {
+                log.warn("Error while processing user with registration number {}", student.getRegistrationNumber(), ex);
+            }
+        }
+
+        var usersByLogin = findUsersByIdentifiers(identifiers(logins), userRepository::findAllWithGroupsAndAuthoritiesByLoginIn, User::getLogin);
+        var emails = identifiers(IntStream.range(0, students.size()).filter(i -> foundUsers.get(i) == null).mapToObj(i -> students.get(i).getEmail()).toList());
+        var usersByEmail = findUsersByIdentifiers(emails, userRepository::findAllWithGroupsAndAuthoritiesByEmailIn, User::getEmail);
+
+        // the same user might have been loaded by different queries, only one instance per user is updated
+        Map<Long, User> usersById = new HashMap<>();
+        List<User> usersToSave = new ArrayList<>();
+        Set<User> usersToAddInConnectors = new LinkedHashSet<>();
+        for (int i = 0; i < students.size(); i++) {
+            var student = students.get(i);
+            var user = foundUsers.get(i);
+            if (user == null) {
+                user = Optional.ofNullable(usersByLogin.get(identifierKey(logins.get(i)))).orElse(usersByEmail.get(identifierKey(student.getEmail())));
+            }
+            if (user == null) {
+                log.warn("User with registration number '{}', login '{}' and email '{}' not found in Artemis user database nor found in (TUM) LDAP",
+                        student.getRegistrationNumber(), student.getLogin(), student.getEmail());
+                continue;
+            }
+            User sameUser = usersById.putIfAbsent(user.getId(), user);
+            if (sameUser != null) {
+                user = sameUser;
+            }
+            foundUsers.set(i, user);
+            if (!user.getGroups().contains(courseGroupName)) {
+                user.getGroups().add(courseGroupName);
+                user.setAuthorities(authorityService.buildAuthorities(user));
+                usersToSave.add(user);
+                usersToAddInConnectors.add(user);
+            }
+            else if (!foundByRegistrationNumber.get(i)) {
+                // as in findUserAndAddToCourse, users that are not found by their registration number are always added in the connectors
+                usersToAddInConnectors.add(user);
+            }
+        }
+
+        if (!usersToSave.isEmpty()) {
+            log.debug("Add {} users to group {}", usersToSave.size(), courseGroupName);
+            usersToSave.forEach(this::clearUserCaches);
+            userRepository.saveAll(usersToSave);
+        }
+        for (User user : usersToAddInConnectors) {
+            userRepository.evictUserWithGroupsAndAuthorities(user.getLogin());
+            try {
+                addUserToGroupInConnectors(user, courseGroupName);
+            }
+            catch (Exception ex) {
+                log.warn("Error while adding user {} to group {} in the connected systems", user.getLogin(), courseGroupName, ex);
+            }
+        }
+        return foundUsers.stream().map(Optional::ofNullable).toList();
+    }
+
+    /**
+     * @param identifiers registration numbers, logins or emails
+     * @return the identifiers that are not empty
+     */
+    private static Set<String> identifiers(List<String> identifiers) {
+        return identifiers.stream().filter(StringUtils::hasText).collect(Collectors.toSet());
+    }
+
+    /**
+     * Depending on the collation, the database compares identifiers case-insensitively, therefore the found users are matched case-insensitively as well
+     */
+    private static String identifierKey(String identifier) {
+        return identifier != null ? identifier.toLowerCase(Locale.ROOT) : null;
+    }
+
+    /**
+     * Finds the users with one query and indexes them by the given identifier
+     *
+     * @param identifiers the identifiers to search for
+     * @param query       the query searching the users by the identifiers
+     * @param identifier  the identifier of a user
+     * @return the found users by identifier key
+     */
+    private static Map<String, User> findUsersByIdentifiers(Set<String> identifiers, Function<Set<String>, Set<User>> query, Function<User, String> identifier) {
+        if (identifiers.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, User> usersByIdentifier = new HashMap<>();
+        for (User user : query.apply(identifiers)) {
+            if (identifier.apply(user) != null) {
+                usersByIdentifier.putIfAbsent(identifierKey(identifier.apply(user)), user);
+            }
+        }
+        return usersByIdentifier;
+    }
+
     public void updateUserNotificationVisibility(Long userId, ZonedDateTime hideUntil) {
         userRepository.updateUserNotificationVisibility(userId, hideUntil);
+        userRepository.evictUserWithGroupsAndAuthoritiesById(userId);
     }
 
     public void updateUserLanguageKey(Long userId, String languageKey) {
         userRepository.updateUserLanguageKey(userId, languageKey);
+        userRepository.evictUserWithGroupsAndAuthoritiesById(userId);
     }
 }
@@ -0,0 +1,24 @@
+package de.tum.in.www1.artemis.service.util;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+/**
+ * The status of a bulk registration of students for a course or an exam that runs in the background
+ *
+ * @param processed the number of processed students
+ * @param total     the number of students that should be registered
+ * @param notFound  the students that could not be found, only complete if the registration is finished
+ * @param finished  whether the registration is finished
+ * @param failed    whether the registration failed
+ * @param startedAt the time the registration was started
+ * @param <T>       the type of the uploaded students
+ */
+public record BulkRegistrationStatus<T extends Serializable>(int processed, int total, List<T> notFound, boolean finished, boolean failed, ZonedDateTime startedAt)
+        implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+}
@@ -0,0 +1,197 @@
+package de.tum.in.www1.artemis.service.util;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.*;
+import org.hibernate.internal.SessionFactoryImpl;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+
+/**
+ * Base class of caches that are invalidated by Hibernate events. Subclasses implement the listener interfaces of the events they are interested in and register
+ * themselves with {@link #registerEventListeners(EntityManagerFactory)}.
+ * <p>
+ * The events are handled during the flush, i.e. before the surrounding transaction has been committed, therefore {@link #evictNowAndAfterCommit(String, Runnable)}
+ * evicts a second time after the commit. This alone does not prevent a lookup that read the database before the commit from putting its outdated value into the cache
+ * after both evictions. Every eviction therefore increments a cluster-wide counter of its scope (e.g. the id of the evicted entry) before it evicts, and
+ * {@link #loadAndCache(Set, Supplier, Consumer, Runnable)} removes a loaded value again if the counter of one of its scopes changed while it was loading.
+ */
+public abstract class CacheEvictionEventListener {
+
+    /**
+     * The scope that all cached values belong to, evictions of this scope affect all values that are currently loading
+     */
+    protected static final String ALL_ENTRIES = "*";
+
+    private static final String EVICTION_COUNTERS_MAP_SUFFIX = "Evictions";
+
+    // the eviction counters only have to outlive the lookups that are loading a value from the database
+    private static final int EVICTION_COUNTERS_TIME_TO_LIVE_SECONDS = 60 * 60;
+
+    private final IMap<String, Long> evictionCounters;
+
+    /**
+     * @param hazelcastInstance the Hazelcast instance that stores the eviction counters
+     * @param cacheName         the name of the cache, used for the name of the map of the eviction counters
+     */
+    protected CacheEvictionEventListener(HazelcastInstance hazelcastInstance, String cacheName) {
+        this.evictionCounters = hazelcastInstance.getMap(cacheName + EVICTION_COUNTERS_MAP_SUFFIX);
+    }
+
+    /**
+     * Configures the Hazelcast map of the eviction counters of the given cache. The counters are not near cached, as they have to be consistent across the cluster.
+     *
+     * @param config    the Hazelcast config that should be adapted
+     * @param cacheName the name of the cache
+     */
+    protected static void configureEvictionCounters(Config config, String cacheName) {
+        config.getMapConfig(cacheName + EVICTION_COUNTERS_MAP_SUFFIX).setTimeToLiveSeconds(EVICTION_COUNTERS_TIME_TO_LIVE_SECONDS);
+    }
+
+    /**
+     * Registers this listener for all Hibernate events whose listener interfaces it implements
+     *
+     * @param entityManagerFactory the entity manager factory whose events should be handled
+     */
+    protected void registerEventListeners(EntityManagerFactory entityManagerFactory) {
+        var eventListenerRegistry = entityManagerFactory.unwrap(SessionFactoryImpl.class).getServiceRegistry().getService(EventListenerRegistry.class);
+        if (this instanceof PostInsertEventListener listener) {
+            eventListenerRegistry.appendListeners(EventType.POST_INSERT, listener);
+        }
+        if (this instanceof PostUpdateEventListener listener) {
+            eventListenerRegistry.appendListeners(EventType.POST_UPDATE, listener);
+        }
+        if (this instanceof PostDeleteEventListener listener) {
+            eventListenerRegistry.appendListeners(EventType.POST_DELETE, listener);
+        }
+        if (this instanceof PostCollectionRecreateEventListener listener) {
+            eventListenerRegistry.appendListeners(EventType.POST_COLLECTION_RECREATE, listener);
+        }
+        if (this instanceof PostCollectionUpdateEventListener listener) {
+            eventListenerRegistry.appendListeners(EventType.POST_COLLECTION_UPDATE, listener);
+        }
+        if (this instanceof PostCollectionRemoveEventListener listener) {
+            eventListenerRegistry.appendListeners(EventType.POST_COLLECTION_REMOVE, listener);
+        }
+    }
+
+    /**
+     * Loads the value with the given key and puts it into the given cache, unless it has been evicted while it was loading
+     *
+     * @param cache  the cache the value should be put into
+     * @param key    the key of the value
+     * @param scopes the scopes whose evictions affect the value
+     * @param loader loads the value from the database
+     * @param <K>    the type of the keys of the cache
+     * @param <V>    the type of the values of the cache
+     * @return the loaded value
+     */
+    protected <K, V> V loadAndCache(IMap<K, V> cache, K key, Set<String> scopes, Supplier<V> loader) {
+        return loadAndCache(scopes, loader, value -> cache.putIfAbsent(key, value), () -> cache.delete(key));
+    }
+
+    /**
+     * Loads a value and caches it. If one of the given scopes (or all entries) has been evicted in the meantime, the value might have been loaded before a change
+     * that evicted it, but put after the eviction. It is removed from the cache again in this case.
+     *
+     * @param scopes the scopes whose evictions affect the value
+     * @param loader loads the value from the database
+     * @param put    puts the loaded value into the cache
+     * @param remove removes the value from the cache again
+     * @param <V>    the type of the value
+     * @return the loaded value
+     */
+    protected <V> V loadAndCache(Set<String> scopes, Supplier<V> loader, Consumer<V> put, Runnable remove) {
+        long evictionsBeforeLoading = getEvictionCount(scopes);
+        V value = loader.get();
+        put.accept(value);
+        if (getEvictionCount(scopes) != evictionsBeforeLoading) {
+            remove.run();
+        }
+        return value;
+    }
+
+    /**
+     * Gets the number of evictions of the given scopes and of all entries. The counters only increase, so the count changes whenever one of the scopes is evicted.
+     *
+     * @param scopes the scopes
+     * @return the sum of the eviction counters
+     */
+    private long getEvictionCount(Set<String> scopes) {
+        Set<String> keys = new HashSet<>(scopes);
+        keys.add(ALL_ENTRIES);
+        return evictionCounters.getAll(keys).values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    /**
+     * Evicts immediately and again after the surrounding transaction (if any) has been committed. Values of the given scope that are loading during the commit are
+     * not kept in the cache (see {@link #loadAndCache(Set, Supplier, Consumer, Runnable)}).
+     *
+     * @param scope    the scope of the evicted values
+     * @param eviction the eviction to perform
+     */
+    protected void evictNowAndAfterCommit(String scope, Runnable eviction) {
+        evict(scope, eviction);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            runAfterCommit(() -> evict(scope, eviction));
+        }
+    }
+
+    /**
+     * Runs the given action after the surrounding transaction has been committed or immediately if there is no transaction. This is useful if the values that have to
+     * be evicted can only be determined with database queries, which are not possible while Hibernate flushes. The action should evict with
+     * {@link #evict(String, Runnable)}.
+     *
+     * @param action the action to run
+     */
+    protected void evictAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            runAfterCommit(action);
+        }
+        else {
+            action.run();
+        }
+    }
+
+    /**
+     * Increments the eviction counter of the given scope and evicts
+     *
+     * @param scope    the scope of the evicted values
+     * @param eviction the eviction to perform
+     */
+    protected void evict(String scope, Runnable eviction) {
+        evictionCounters.merge(scope, 1L, Long::sum);
+        eviction.run();
+    }
+
+    private static void runAfterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Implements the method of the post action event listeners (e.g. {@link PostInsertEventListener}) of subclasses, the evictions do not wait for the commit
+     *
+     * @param persister the persister of the changed entity
+     * @return false, as the events should be handled during the flush
+     */
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return false;
+    }
+}
@@ -0,0 +1,23 @@
+package de.tum.in.www1.artemis.service.util;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.ZonedDateTime;
+
+/**
+ * The progress of the re-evaluation of all results of a programming exercise.
+ *
+ * @param processedParticipations      the number of student participations that have already been re-evaluated
+ * @param overallParticipations        the number of student participations of the exercise
+ * @param updatedResults               the number of results that have been updated and saved so far
+ * @param lastProcessedParticipationId the id of the last student participation whose results have been saved, the re-evaluation continues after it
+ * @param testCaseFingerprint          the test case configuration used for the re-evaluation, an interrupted re-evaluation is only resumed if it did not change
+ * @param finished                     true if all participations have been re-evaluated
+ * @param startedAt                    the point in time when the re-evaluation was started
+ */
+public record ProgrammingExerciseReEvaluationStatus(int processedParticipations, int overallParticipations, int updatedResults, long lastProcessedParticipationId,
+        String testCaseFingerprint, boolean finished, ZonedDateTime startedAt) implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+}
@@ -49,6 +49,7 @@ import de.tum.in.www1.artemis.service.dto.UserPublicInfoDTO;
 import de.tum.in.www1.artemis.service.feature.Feature;
 import de.tum.in.www1.artemis.service.feature.FeatureToggle;
 import de.tum.in.www1.artemis.service.tutorialgroups.TutorialGroupsConfigurationService;
+import de.tum.in.www1.artemis.service.util.BulkRegistrationStatus;
 import de.tum.in.www1.artemis.service.util.TimeLogUtil;
 import de.tum.in.www1.artemis.web.rest.dto.*;
 import de.tum.in.www1.artemis.web.rest.errors.AccessForbiddenException;
@@ -105,11 +106,13 @@ public class CourseResource {
 
     private final TutorialGroupsConfigurationService tutorialGroupsConfigurationService;
 
+    private final BulkRegistrationService bulkRegistrationService;
+
     public CourseResource(UserRepository userRepository, CourseService courseService, CourseRepository courseRepository, ExerciseService exerciseService,
             OAuth2JWKSService oAuth2JWKSService, OnlineCourseConfigurationService onlineCourseConfigurationService, AuthorizationCheckService authCheckService,
             TutorParticipationRepository tutorParticipationRepository, SubmissionService submissionService, Optional<VcsUserManagementService> optionalVcsUserManagementService,
             AssessmentDashboardService assessmentDashboardService, ExerciseRepository exerciseRepository, Optional<CIUserManagementService> optionalCiUserManagementService,
-            FileService fileService, TutorialGroupsConfigurationService tutorialGroupsConfigurationService) {
+            FileService fileService, TutorialGroupsConfigurationService tutorialGroupsConfigurationService, BulkRegistrationService bulkRegistrationService) {
         this.courseService = courseService;
         this.courseRepository = courseRepository;
         this.exerciseService = exerciseService;
@@ -125,6 +128,7 @@ public class CourseResource {
         this.exerciseRepository = exerciseRepository;
         this.fileService = fileService;
         this.tutorialGroupsConfigurationService = tutorialGroupsConfigurationService;
+        this.bulkRegistrationService = bulkRegistrationService;
     }
 
     /**
@@ -476,7 +480,7 @@ public class CourseResource {
     @PreAuthorize("hasRole('TA')")
     public ResponseEntity<Course> getCourseForAssessmentDashboard(@PathVariable long courseId) {
         log.debug("REST request /courses/{courseId}/for-assessment-dashboard");
-        Course course = courseRepository.findWithEagerExercisesById(courseId);
+        Course course = courseRepository.getCourseWithExercises(courseId);
         User user = userRepository.getUserWithGroupsAndAuthorities();
         authCheckService.checkHasAtLeastRoleInCourseElseThrow(Role.TEACHING_ASSISTANT, course, user);
 
@@ -547,7 +551,7 @@ public class CourseResource {
     @PreAuthorize("hasRole('TA')")
     public ResponseEntity<Course> getCourseWithExercises(@PathVariable Long courseId) {
         log.debug("REST request to get Course : {}", courseId);
-        Course course = courseRepository.findWithEagerExercisesById(courseId);
+        Course course = courseRepository.getCourseWithExercises(courseId);
         authCheckService.checkHasAtLeastRoleInCourseElseThrow(Role.TEACHING_ASSISTANT, course, null);
         return ResponseEntity.ok(course);
     }
@@ -577,7 +581,7 @@ public class CourseResource {
     @PreAuthorize("hasRole('TA')")
     public ResponseEntity<List<Submission>> getLockedSubmissionsForCourse(@PathVariable Long courseId) {
         log.debug("REST request to get all locked submissions for course : {}", courseId);
-        Course course = courseRepository.findWithEagerExercisesById(courseId);
+        Course course = courseRepository.getCourseWithExercises(courseId);
         User user = userRepository.getUserWithGroupsAndAuthorities();
         authCheckService.checkHasAtLeastRoleInCourseElseThrow(Role.TEACHING_ASSISTANT, course, user);
 
@@ -1140,4 +1144,46 @@ public class CourseResource {
         List<StudentDTO> notFoundStudentsDtos = courseService.registerUsersForCourseGroup(courseId, studentDtos, courseGroup);
         return ResponseEntity.ok().body(notFoundStudentsDtos);
     }
+
+    /**
+     * POST /courses/:courseId/bulk-registration/:courseGroup : Starts adding multiple users to the user group of the course in the background, see
+     * {@link #addUsersToCourseGroup(Long, String, List)}. This is intended for large imports, e.g. all students of a course at the start of the term.
+     * The progress is sent to the requesting user via websocket and can be retrieved with {@link #getBulkRegistrationStatus(Long, String)}.
+     *
+     * @param courseId    the id of the course
+     * @param studentDtos the list of students (with at least registration number) who should get access to the course
+     * @param courseGroup the group, the user has to be added to, either 'students', 'tutors', 'instructors' or 'editors'
+     * @return the initial status of the registration, with status 400 (Bad Request) if the course group does not exist, or with status 409 (Conflict) if another
+     *         registration for the course group is still running
+     */
+    @PostMapping("courses/{courseId}/bulk-registration/{courseGroup}")
+    @PreAuthorize("hasRole('INSTRUCTOR')")
+    public ResponseEntity<BulkRegistrationStatus<StudentDTO>> startBulkRegistration(@PathVariable Long courseId, @PathVariable String courseGroup,
+            @RequestBody List<StudentDTO> studentDtos) {
+        Course course = courseRepository.findByIdElseThrow(courseId);
+        authCheckService.checkHasAtLeastRoleInCourseElseThrow(Role.INSTRUCTOR, course, null);
+        // the course group is validated before the registration is started, as errors of the registration are only reported in its status
+        try {
+            course.defineCourseGroupName(courseGroup);
+        }
+        catch (IllegalArgumentException ex) {
+            throw new BadRequestAlertException(ex.getMessage(), Course.ENTITY_NAME, "groupNotFound", true);
+        }
+        log.debug("REST request to add {} students as {} to course {} in the background", studentDtos.size(), courseGroup, courseId);
+        return ResponseEntity.ok(bulkRegistrationService.startCourseRegistration(courseId, courseGroup, studentDtos));
+    }
+
+    /**
+     * GET /courses/:courseId/bulk-registration/:courseGroup : Return the status of the last registration of multiple users started for the course group if available
+     *
+     * @param courseId    the id of the course
+     * @param courseGroup the group, either 'students', 'tutors', 'instructors' or 'editors'
+     * @return ResponseEntity containing the status
+     */
+    @GetMapping("courses/{courseId}/bulk-registration/{courseGroup}")
+    @PreAuthorize("hasRole('INSTRUCTOR')")
+    public ResponseEntity<BulkRegistrationStatus<StudentDTO>> getBulkRegistrationStatus(@PathVariable Long courseId, @PathVariable String courseGroup) {
+        authCheckService.checkHasAtLeastRoleInCourseElseThrow(Role.INSTRUCTOR, courseRepository.findByIdElseThrow(courseId), null);
+        return ResponseEntity.ok(bulkRegistrationService.getCourseRegistrationStatus(courseId, courseGroup).orElse(null));
+    }
 }
@@ -41,6 +41,7 @@ import de.tum.in.www1.artemis.repository.*;
 import de.tum.in.www1.artemis.security.Role;
 import de.tum.in.www1.artemis.service.AssessmentDashboardService;
 import de.tum.in.www1.artemis.service.AuthorizationCheckService;
+import de.tum.in.www1.artemis.service.BulkRegistrationService;
 import de.tum.in.www1.artemis.service.SubmissionService;
 import de.tum.in.www1.artemis.service.dto.StudentDTO;
 import de.tum.in.www1.artemis.service.exam.*;
@@ -48,6 +49,7 @@ import de.tum.in.www1.artemis.service.feature.Feature;
 import de.tum.in.www1.artemis.service.feature.FeatureToggle;
 import de.tum.in.www1.artemis.service.messaging.InstanceMessageSendService;
 import de.tum.in.www1.artemis.service.scheduled.cache.monitoring.ExamMonitoringScheduleService;
+import de.tum.in.www1.artemis.service.util.BulkRegistrationStatus;
 import de.tum.in.www1.artemis.web.rest.dto.*;
 import de.tum.in.www1.artemis.web.rest.errors.*;
 import de.tum.in.www1.artemis.web.rest.util.HeaderUtil;
@@ -105,11 +107,14 @@ public class ExamResource {
 
     private final CustomAuditEventRepository auditEventRepository;
 
+    private final BulkRegistrationService bulkRegistrationService;
+
     public ExamResource(UserRepository userRepository, CourseRepository courseRepository, ExamService examService, ExamDeletionService examDeletionService,
             ExamAccessService examAccessService, InstanceMessageSendService instanceMessageSendService, ExamRepository examRepository, SubmissionService submissionService,
             AuthorizationCheckService authCheckService, ExamDateService examDateService, TutorParticipationRepository tutorParticipationRepository,
             AssessmentDashboardService assessmentDashboardService, ExamRegistrationService examRegistrationService, StudentExamRepository studentExamRepository,
-            ExamImportService examImportService, ExamMonitoringScheduleService examMonitoringScheduleService, CustomAuditEventRepository auditEventRepository) {
+            ExamImportService examImportService, ExamMonitoringScheduleService examMonitoringScheduleService, CustomAuditEventRepository auditEventRepository,
+            BulkRegistrationService bulkRegistrationService) {
         this.userRepository = userRepository;
         this.courseRepository = courseRepository;
         this.examService = examService;
@@ -127,6 +132,7 @@ public class ExamResource {
         this.examImportService = examImportService;
         this.examMonitoringScheduleService = examMonitoringScheduleService;
         this.auditEventRepository = auditEventRepository;
+        this.bulkRegistrationService = bulkRegistrationService;
     }
 
     /**
@@ -906,6 +912,42 @@ public class ExamResource {
         return ResponseEntity.ok().body(notFoundStudentsDtos);
     }
 
+    /**
+     * POST /courses/:courseId/exams/:examId/bulk-registration : Starts adding multiple users to the students of the exam in the background, see
+     * {@link #addStudentsToExam(Long, Long, List)}. This is intended for large imports with thousands of students.
+     * The progress is sent to the requesting user via websocket and can be retrieved with {@link #getBulkRegistrationStatus(Long, Long)}.
+     *
+     * @param courseId    the id of the course
+     * @param examId      the id of the exam
+     * @param studentDtos the list of students (with at least registration number) who should get access to the exam
+     * @return the initial status of the registration, or with status 409 (Conflict) if another registration for the exam is still running
+     */
+    @PostMapping("courses/{courseId}/exams/{examId}/bulk-registration")
+    @PreAuthorize("hasRole('INSTRUCTOR')")
+    public ResponseEntity<BulkRegistrationStatus<ExamUserDTO>> startBulkRegistration(@PathVariable Long courseId, @PathVariable Long examId,
+            @RequestBody List<ExamUserDTO> studentDtos) {
+        log.debug("REST request to add {} students to exam {} in the background", studentDtos.size(), examId);
+        examAccessService.checkCourseAndExamAccessForInstructorElseThrow(courseId, examId);
+        if (examRepository.findByIdElseThrow(examId).isTestExam()) {
+            throw new AccessForbiddenException("Registration of students is only allowed for real exams");
+        }
+        return ResponseEntity.ok(bulkRegistrationService.startExamRegistration(courseId, examId, studentDtos));
+    }
+
+    /**
+     * GET /courses/:courseId/exams/:examId/bulk-registration : Return the status of the last registration of multiple users started for the exam if available
+     *
+     * @param courseId the id of the course
+     * @param examId   the id of the exam
+     * @return ResponseEntity containing the status
+     */
+    @GetMapping("courses/{courseId}/exams/{examId}/bulk-registration")
+    @PreAuthorize("hasRole('INSTRUCTOR')")
+    public ResponseEntity<BulkRegistrationStatus<ExamUserDTO>> getBulkRegistrationStatus(@PathVariable Long courseId, @PathVariable Long examId) {
+        examAccessService.checkCourseAndExamAccessForInstructorElseThrow(courseId, examId);
+        return ResponseEntity.ok(bulkRegistrationService.getExamRegistrationStatus(examId).orElse(null));
+    }
+
     /**
      * POST /courses/:courseId/exams/:examId/register-course-students : Add all users which are enrolled in the course to the exam so that the student can access the exam
      *
@@ -1082,7 +1124,7 @@ public class ExamResource {
     public ResponseEntity<List<Submission>> getLockedSubmissionsForExam(@PathVariable Long courseId, @PathVariable Long examId) {
         log.debug("REST request to get all locked submissions for course : {}", courseId);
         long start = System.currentTimeMillis();
-        Course course = courseRepository.findWithEagerExercisesById(courseId);
+        Course course = courseRepository.getCourseWithExercises(courseId);
         User user = userRepository.getUserWithGroupsAndAuthorities();
         authCheckService.checkHasAtLeastRoleInCourseElseThrow(Role.INSTRUCTOR, course, user);
 
@@ -69,7 +69,7 @@ public class ExerciseScoresChartResource {
     @PreAuthorize("hasRole('USER')")
     public ResponseEntity<List<ExerciseScoresDTO>> getCourseExerciseScores(@PathVariable Long courseId) {
         log.debug("REST request to get exercise scores for course with id: {}", courseId);
-        Course course = courseRepository.findByIdWithEagerExercisesElseThrow(courseId);
+        Course course = courseRepository.getCourseWithExercises(courseId);
         User user = userRepository.getUserWithGroupsAndAuthorities();
         authorizationCheckService.checkHasAtLeastRoleInCourseElseThrow(Role.STUDENT, course, user);
         // we only consider exercises in which the student had a chance to earn a score (released and due date over)
@@ -58,7 +58,7 @@ public class ParticipantScoreResource {
     public ResponseEntity<List<ScoreDTO>> getScoresOfCourse(@PathVariable Long courseId) {
         long start = System.currentTimeMillis();
         log.debug("REST request to get course scores for course : {}", courseId);
-        Course course = courseRepository.findByIdWithEagerExercisesElseThrow(courseId);
+        Course course = courseRepository.getCourseWithExercises(courseId);
         authorizationCheckService.checkHasAtLeastRoleInCourseElseThrow(Role.INSTRUCTOR, course, null);
         List<ScoreDTO> scoreDTOS = participantScoreService.calculateCourseScores(course);
         log.info("getScoresOfCourse took {}ms", System.currentTimeMillis() - start);
@@ -1,7 +1,5 @@
 package de.tum.in.www1.artemis.web.rest;
 
-import java.util.List;
-
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
@@ -10,11 +8,11 @@ import org.springframework.web.bind.annotation.*;
 
 import de.tum.in.www1.artemis.domain.*;
 import de.tum.in.www1.artemis.repository.ProgrammingExerciseRepository;
-import de.tum.in.www1.artemis.repository.ResultRepository;
 import de.tum.in.www1.artemis.repository.UserRepository;
 import de.tum.in.www1.artemis.security.Role;
 import de.tum.in.www1.artemis.service.AuthorizationCheckService;
 import de.tum.in.www1.artemis.service.programming.ProgrammingExerciseGradingService;
+import de.tum.in.www1.artemis.service.util.ProgrammingExerciseReEvaluationStatus;
 import de.tum.in.www1.artemis.web.rest.dto.ProgrammingExerciseGradingStatisticsDTO;
 
 /**
@@ -27,6 +25,8 @@ public class ProgrammingExerciseGradingResource {
 
     public static final String RE_EVALUATE = "/programming-exercises/{exerciseId}/grading/re-evaluate";
 
+    public static final String RE_EVALUATE_STATUS = "/programming-exercises/{exerciseId}/grading/re-evaluate/status";
+
     public static final String STATISTICS = "/programming-exercises/{exerciseId}/grading/statistics";
 
     private final Logger log = LoggerFactory.getLogger(ProgrammingExerciseGradingResource.class);
@@ -39,15 +39,12 @@ public class ProgrammingExerciseGradingResource {
 
     private final UserRepository userRepository;
 
-    private final ResultRepository resultRepository;
-
     public ProgrammingExerciseGradingResource(ProgrammingExerciseGradingService programmingExerciseGradingService, ProgrammingExerciseRepository programmingExerciseRepository,
-            AuthorizationCheckService authCheckService, UserRepository userRepository, ResultRepository resultRepository) {
+            AuthorizationCheckService authCheckService, UserRepository userRepository) {
         this.programmingExerciseGradingService = programmingExerciseGradingService;
         this.programmingExerciseRepository = programmingExerciseRepository;
         this.authCheckService = authCheckService;
         this.userRepository = userRepository;
-        this.resultRepository = resultRepository;
     }
 
     /**
@@ -66,11 +63,27 @@ public class ProgrammingExerciseGradingResource {
 
         authCheckService.checkHasAtLeastRoleForExerciseElseThrow(Role.INSTRUCTOR, programmingExercise, user);
 
-        List<Result> updatedResults = programmingExerciseGradingService.updateAllResults(programmingExercise);
+        int numberOfUpdatedResults = programmingExerciseGradingService.reEvaluateAllResults(programmingExercise);
+
+        programmingExerciseGradingService.logReEvaluate(user, programmingExercise, course, numberOfUpdatedResults);
+        return ResponseEntity.ok(numberOfUpdatedResults);
+    }
+
+    /**
+     * Get the status of the latest re-evaluation of the results of the given programming exercise.
+     * The progress of a running re-evaluation is also sent via websocket.
+     *
+     * @param exerciseId the id of the exercise
+     * @return the status of the re-evaluation, or null if there was no recent re-evaluation
+     */
+    @GetMapping(RE_EVALUATE_STATUS)
+    @PreAuthorize("hasRole('INSTRUCTOR')")
+    public ResponseEntity<ProgrammingExerciseReEvaluationStatus> getReEvaluationStatus(@PathVariable Long exerciseId) {
+        log.debug("REST request to get the re-evaluation status of exercise {}", exerciseId);
+        ProgrammingExercise programmingExercise = programmingExerciseRepository.findByIdElseThrow(exerciseId);
+        authCheckService.checkHasAtLeastRoleForExerciseElseThrow(Role.INSTRUCTOR, programmingExercise, null);
 
-        programmingExerciseGradingService.logReEvaluate(user, programmingExercise, course, updatedResults);
-        resultRepository.saveAll(updatedResults);
-        return ResponseEntity.ok(updatedResults.size());
+        return ResponseEntity.ok(programmingExerciseGradingService.getReEvaluationStatus(exerciseId).orElse(null));
     }
 
     /**
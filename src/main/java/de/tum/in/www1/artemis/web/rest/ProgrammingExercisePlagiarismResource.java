@@ -91,7 +91,7 @@ public class ProgrammingExercisePlagiarismResource {
      * @param exerciseId          The ID of the programming exercise for which the plagiarism check should be executed
      * @param similarityThreshold ignore comparisons whose similarity is below this threshold (in % between 0 and 100)
      * @param minimumScore        consider only submissions whose score is greater or equal to this value
-     * @return the ResponseEntity with status 200 (OK) and the list of at most 500 pair-wise submissions with a similarity above the given threshold (e.g. 50%).
+     * @return the ResponseEntity with status 200 (OK) and the pair-wise submissions with the highest similarity above the given threshold (e.g. 50%).
      * @throws ExitException is thrown if JPlag exits unexpectedly
      * @throws IOException   is thrown for file handling errors
      */
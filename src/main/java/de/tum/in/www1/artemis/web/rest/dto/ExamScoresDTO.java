@@ -1,5 +1,6 @@
 package de.tum.in.www1.artemis.web.rest.dto;
 
+import java.io.Serializable;
 import java.util.*;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
@@ -8,14 +9,14 @@ import de.tum.in.www1.artemis.domain.plagiarism.PlagiarismVerdict;
 
 @JsonInclude(JsonInclude.Include.NON_EMPTY)
 public record ExamScoresDTO(Long examId, String title, Integer maxPoints, Double averagePointsAchieved, Boolean hasSecondCorrectionAndStarted, List<ExerciseGroup> exerciseGroups,
-        List<StudentResult> studentResults) {
+        List<StudentResult> studentResults) implements Serializable {
 
     // Inner DTO
     @JsonInclude(JsonInclude.Include.NON_EMPTY)
-    public record ExerciseGroup(Long id, String title, Double maxPoints, Long numberOfParticipants, List<ExerciseInfo> containedExercises) {
+    public record ExerciseGroup(Long id, String title, Double maxPoints, Long numberOfParticipants, List<ExerciseInfo> containedExercises) implements Serializable {
 
         @JsonInclude(JsonInclude.Include.NON_EMPTY)
-        public record ExerciseInfo(Long exerciseId, String title, Double maxPoints, Long numberOfParticipants, String exerciseType) {
+        public record ExerciseInfo(Long exerciseId, String title, Double maxPoints, Long numberOfParticipants, String exerciseType) implements Serializable {
         }
     }
 
@@ -23,11 +24,12 @@ public record ExamScoresDTO(Long examId, String title, Integer maxPoints, Double
     @JsonInclude(JsonInclude.Include.NON_EMPTY)
     public record StudentResult(Long userId, String name, String email, String login, String registrationNumber, Boolean submitted, Double overallPointsAchieved,
             Double overallScoreAchieved, String overallGrade, String overallGradeInFirstCorrection, Boolean hasPassed, Double overallPointsAchievedInFirstCorrection,
-            BonusResultDTO gradeWithBonus, Map<Long, ExerciseResult> exerciseGroupIdToExerciseResult, PlagiarismVerdict mostSeverePlagiarismVerdict) {
+            BonusResultDTO gradeWithBonus, Map<Long, ExerciseResult> exerciseGroupIdToExerciseResult, PlagiarismVerdict mostSeverePlagiarismVerdict) implements Serializable {
     }
 
     // Inner DTO
     @JsonInclude(JsonInclude.Include.NON_EMPTY)
-    public record ExerciseResult(Long exerciseId, String title, Double maxScore, Double achievedScore, Double achievedPoints, Boolean hasNonEmptySubmission) {
+    public record ExerciseResult(Long exerciseId, String title, Double maxScore, Double achievedScore, Double achievedPoints, Boolean hasNonEmptySubmission)
+            implements Serializable {
     }
 }
@@ -1,5 +1,7 @@
 package de.tum.in.www1.artemis.web.rest.dto;
 
+import java.io.Serializable;
+
 import javax.validation.constraints.Email;
 import javax.validation.constraints.Size;
 
@@ -8,5 +10,5 @@ import javax.validation.constraints.Size;
  */
 public record ExamUserDTO(@Size(max = 50) String login, @Size(max = 50) String firstName, @Size(max = 50) String lastName, @Size(max = 10) String registrationNumber,
         @Email @Size(max = 100) String email, String studentIdentifier, String room, String seat, boolean didCheckImage, boolean didCheckName, boolean didCheckRegistrationNumber,
-        boolean didCheckLogin, @Size(max = 100) String signingImagePath) {
+        boolean didCheckLogin, @Size(max = 100) String signingImagePath) implements Serializable {
 }
@@ -1,12 +1,10 @@
 package de.tum.in.www1.artemis.web.rest.dto;
 
-import org.springframework.web.multipart.MultipartFile;
-
 import de.tum.in.www1.artemis.domain.Attachment;
 import de.tum.in.www1.artemis.domain.lecture.AttachmentUnit;
 
 /**
- * Represents a lecture unit to be created with attachmentUnit, attachment and file
+ * Represents a lecture unit to be created with attachmentUnit and attachment, which links the already written file of the unit
  */
-public record LectureUnitDTO(AttachmentUnit attachmentUnit, Attachment attachment, MultipartFile file) {
+public record LectureUnitDTO(AttachmentUnit attachmentUnit, Attachment attachment) {
 }
@@ -19,7 +19,9 @@ import de.tum.in.www1.artemis.repository.plagiarism.PlagiarismResultRepository;
 import de.tum.in.www1.artemis.security.Role;
 import de.tum.in.www1.artemis.service.AuthorizationCheckService;
 import de.tum.in.www1.artemis.service.plagiarism.PlagiarismService;
+import de.tum.in.www1.artemis.web.rest.dto.PageableSearchDTO;
 import de.tum.in.www1.artemis.web.rest.dto.PlagiarismComparisonStatusDTO;
+import de.tum.in.www1.artemis.web.rest.dto.SearchResultPageDTO;
 import de.tum.in.www1.artemis.web.rest.errors.AccessForbiddenException;
 import de.tum.in.www1.artemis.web.rest.errors.BadRequestAlertException;
 
@@ -114,6 +116,7 @@ public class PlagiarismResource {
         }
 
         comparisonA.setSubmissionB(comparisonB.getSubmissionB());
+        comparisonA.setMatches(plagiarismComparisonRepository.findByIdWithMatchesElseThrow(comparisonId).getMatches());
         if (authCheckService.isOnlyStudentInCourse(course, user)) {
             // Note: this calls also checks that the student is allowed to see the complaint, and throws otherwise
             checkStudentAccess(comparisonA, user.getLogin());
@@ -152,6 +155,29 @@ public class PlagiarismResource {
         }
     }
 
+    /**
+     * GET exercises/{exerciseId}/plagiarism-results/{plagiarismResultId}/plagiarism-comparisons : Get one page of the comparisons of the plagiarism result.
+     * The comparisons contain the compared submissions, but not the matches, which are loaded for a single comparison in the split view.
+     *
+     * @param exerciseId         the id of the exercise
+     * @param plagiarismResultId the id of plagiarism result
+     * @param search             the page, its size, the sort order and the login (or a part of it) of one of the compared students
+     * @param minimumSimilarity  optional minimum similarity (in % between 0 and 100) of the comparisons
+     * @param maximumSimilarity  optional similarity (in % between 0 and 100) the comparisons have to be below, 100 includes the comparisons with a similarity of 100
+     * @param status             optional status of the comparisons
+     * @return the ResponseEntity with status 200 (OK) and the requested page of comparisons or with status 400 (Bad Request) if the page or the sorted column is invalid
+     */
+    @GetMapping("exercises/{exerciseId}/plagiarism-results/{plagiarismResultId}/plagiarism-comparisons")
+    @PreAuthorize("hasRole('EDITOR')")
+    public ResponseEntity<SearchResultPageDTO<PlagiarismComparison<?>>> getPlagiarismComparisons(@PathVariable("exerciseId") long exerciseId,
+            @PathVariable("plagiarismResultId") long plagiarismResultId, PageableSearchDTO<String> search, @RequestParam(defaultValue = "0") double minimumSimilarity,
+            @RequestParam(defaultValue = "100") double maximumSimilarity, @RequestParam(required = false) PlagiarismStatus status) {
+        log.debug("REST request to get the plagiarism comparisons of plagiarism result {} on page {}", plagiarismResultId, search.getPage());
+        Exercise exercise = exerciseRepository.findByIdElseThrow(exerciseId);
+        authCheckService.checkHasAtLeastRoleForExerciseElseThrow(Role.EDITOR, exercise, null);
+        return ResponseEntity.ok(plagiarismService.getComparisonsOnPage(exerciseId, plagiarismResultId, search, minimumSimilarity, maximumSimilarity, status));
+    }
+
     /**
      * Cleans up plagiarism results and comparisons
      * If deleteAll is set to true, all plagiarism results belonging to the exercise are deleted, otherwise only plagiarism comparisons or with status DENIED or CONFIRMED are
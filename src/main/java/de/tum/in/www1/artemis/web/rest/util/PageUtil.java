@@ -2,6 +2,7 @@ package de.tum.in.www1.artemis.web.rest.util;
 
 import javax.validation.constraints.NotNull;
 
+import org.apache.commons.lang3.EnumUtils;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 
@@ -11,7 +12,9 @@ import de.tum.in.www1.artemis.domain.LearningGoal;
 import de.tum.in.www1.artemis.domain.Lecture;
 import de.tum.in.www1.artemis.domain.enumeration.SortingOrder;
 import de.tum.in.www1.artemis.domain.exam.Exam;
+import de.tum.in.www1.artemis.domain.plagiarism.PlagiarismComparison;
 import de.tum.in.www1.artemis.web.rest.dto.PageableSearchDTO;
+import de.tum.in.www1.artemis.web.rest.errors.BadRequestAlertException;
 
 public class PageUtil {
 
@@ -49,4 +52,25 @@ public class PageUtil {
         sortOptions = search.getSortingOrder() == SortingOrder.ASCENDING ? sortOptions.ascending() : sortOptions.descending();
         return PageRequest.of(search.getPage() - 1, search.getPageSize(), sortOptions);
     }
+
+    /**
+     * Creates the page request for the comparisons of a plagiarism result. Comparisons with the same value in the sorted column are ordered by their id, so that the pages
+     * do not overlap.
+     *
+     * @param search the page, its size and the sort order requested by the client
+     * @return the page request
+     * @throws BadRequestAlertException if the sorted column, the page or the page size is invalid
+     */
+    @NotNull
+    public static PageRequest createPlagiarismComparisonPageRequest(PageableSearchDTO<String> search) {
+        if (!EnumUtils.isValidEnum(PlagiarismComparison.PlagiarismComparisonSearchColumn.class, search.getSortedColumn())) {
+            throw new BadRequestAlertException("The comparisons cannot be sorted by " + search.getSortedColumn(), "plagiarismComparison", "invalidSortedColumn");
+        }
+        if (search.getPage() < 1 || search.getPageSize() < 1) {
+            throw new BadRequestAlertException("The page and the page size must be positive", "plagiarismComparison", "invalidPage");
+        }
+        var sortOptions = Sort.by(PlagiarismComparison.PlagiarismComparisonSearchColumn.valueOf(search.getSortedColumn()).getMappedColumnName(), "id");
+        sortOptions = search.getSortingOrder() == SortingOrder.ASCENDING ? sortOptions.ascending() : sortOptions.descending();
+        return PageRequest.of(search.getPage() - 1, search.getPageSize(), sortOptions);
+    }
 }
@@ -1,12 +1,22 @@
 package de.tum.in.www1.artemis.web.websocket.team;
 
+import java.io.Serializable;
 import java.security.Principal;
+import java.time.Duration;
 import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import javax.annotation.PreDestroy;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,23 +27,34 @@ import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.messaging.simp.SimpMessageSendingOperations;
 import org.springframework.messaging.simp.annotation.SubscribeMapping;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
-import org.springframework.messaging.simp.user.*;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Controller;
+import org.springframework.util.StringUtils;
 import org.springframework.web.socket.messaging.SessionDisconnectEvent;
 import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
 
+import com.hazelcast.cluster.Member;
+import com.hazelcast.cluster.MembershipEvent;
+import com.hazelcast.cluster.MembershipListener;
+import com.hazelcast.core.EntryAdapter;
+import com.hazelcast.core.EntryEvent;
 import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.multimap.MultiMap;
 
 import de.tum.in.www1.artemis.domain.*;
+import de.tum.in.www1.artemis.domain.enumeration.SubmissionType;
 import de.tum.in.www1.artemis.domain.modeling.ModelingExercise;
 import de.tum.in.www1.artemis.domain.modeling.ModelingSubmission;
 import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
 import de.tum.in.www1.artemis.repository.ExerciseRepository;
 import de.tum.in.www1.artemis.repository.StudentParticipationRepository;
+import de.tum.in.www1.artemis.repository.SubmissionRepository;
 import de.tum.in.www1.artemis.repository.UserRepository;
 import de.tum.in.www1.artemis.security.SecurityUtils;
 import de.tum.in.www1.artemis.service.ModelingSubmissionService;
+import de.tum.in.www1.artemis.service.SubmissionService;
 import de.tum.in.www1.artemis.service.TextSubmissionService;
+import de.tum.in.www1.artemis.web.websocket.WebsocketError;
 import de.tum.in.www1.artemis.web.websocket.dto.OnlineTeamStudentDTO;
 import de.tum.in.www1.artemis.web.websocket.dto.SubmissionSyncPayload;
 
@@ -42,12 +63,28 @@ public class ParticipationTeamWebsocketService {
 
     private static final Logger log = LoggerFactory.getLogger(ParticipationTeamWebsocketService.class);
 
+    private static final Pattern PARTICIPATION_TEAM_DESTINATION_PATTERN = Pattern.compile("^" + getDestination("(\\d*)"));
+
+    /**
+     * Submission updates of a participation are collected for this duration before they are saved (matches the throttle time of the clients)
+     */
+    private static final Duration SUBMISSION_SAVE_DELAY = Duration.ofSeconds(2);
+
+    /**
+     * Participations (used for the ownership check) are reused for this duration instead of being loaded for every submission update
+     */
+    private static final Duration PARTICIPATION_CACHE_DURATION = Duration.ofMinutes(1);
+
+    private static final String SAVE_FAILED_ERROR_KEY = "artemisApp.team.submissionSync.saveFailed";
+
     private final SimpMessageSendingOperations messagingTemplate;
 
-    private final SimpUserRegistry simpUserRegistry;
+    private final TaskScheduler taskScheduler;
 
     private final Map<String, String> destinationTracker;
 
+    private final MultiMap<Long, TeamSession> presenceTracker;
+
     private final Map<String, Instant> lastTypingTracker;
 
     private final Map<String, Instant> lastActionTracker;
@@ -58,20 +95,32 @@ public class ParticipationTeamWebsocketService {
 
     private final ExerciseRepository exerciseRepository;
 
+    private final SubmissionRepository submissionRepository;
+
     private final TextSubmissionService textSubmissionService;
 
     private final ModelingSubmissionService modelingSubmissionService;
 
-    public ParticipationTeamWebsocketService(SimpMessageSendingOperations messagingTemplate, SimpUserRegistry simpUserRegistry, UserRepository userRepository,
-            StudentParticipationRepository studentParticipationRepository, ExerciseRepository exerciseRepository, TextSubmissionService textSubmissionService,
-            ModelingSubmissionService modelingSubmissionService, HazelcastInstance hazelcastInstance) {
+    private final HazelcastInstance hazelcastInstance;
+
+    // participationId -> participation (only used on this instance for the ownership and due date check)
+    private final Map<Long, CachedParticipation> participationCache = new ConcurrentHashMap<>();
+
+    // participationId -> latest submission update that has not been saved yet (only on this instance)
+    private final Map<Long, PendingSubmission> pendingSubmissions = new ConcurrentHashMap<>();
+
+    public ParticipationTeamWebsocketService(SimpMessageSendingOperations messagingTemplate, TaskScheduler taskScheduler, UserRepository userRepository,
+            StudentParticipationRepository studentParticipationRepository, ExerciseRepository exerciseRepository, SubmissionRepository submissionRepository,
+            TextSubmissionService textSubmissionService, ModelingSubmissionService modelingSubmissionService, HazelcastInstance hazelcastInstance) {
         this.messagingTemplate = messagingTemplate;
-        this.simpUserRegistry = simpUserRegistry;
+        this.taskScheduler = taskScheduler;
         this.userRepository = userRepository;
         this.studentParticipationRepository = studentParticipationRepository;
         this.exerciseRepository = exerciseRepository;
+        this.submissionRepository = submissionRepository;
         this.textSubmissionService = textSubmissionService;
         this.modelingSubmissionService = modelingSubmissionService;
+        this.hazelcastInstance = hazelcastInstance;
 
         // participationId-username -> timestamp
         this.lastTypingTracker = hazelcastInstance.getMap("lastTypingTracker");
@@ -79,6 +128,30 @@ public class ParticipationTeamWebsocketService {
         this.lastActionTracker = hazelcastInstance.getMap("lastActionTracker");
         // sessionId -> destination
         this.destinationTracker = hazelcastInstance.getMap("destinationTracker");
+        // participationId -> sessions (with login) subscribed to the team destination of the participation
+        this.presenceTracker = hazelcastInstance.getMultiMap("participationTeamPresenceTracker");
+
+        // the participation is not needed on this instance anymore once a session (on any instance) left, it is reloaded for the next update
+        this.presenceTracker.addEntryListener(new EntryAdapter<>() {
+
+            @Override
+            public void entryRemoved(EntryEvent<Long, TeamSession> event) {
+                participationCache.remove(event.getKey());
+            }
+        }, false);
+        // the sessions of an instance that left the cluster (e.g. because it crashed) are never unsubscribed, so they are removed by the remaining instances
+        hazelcastInstance.getCluster().addMembershipListener(new MembershipListener() {
+
+            @Override
+            public void memberAdded(MembershipEvent event) {
+                // nothing to do
+            }
+
+            @Override
+            public void memberRemoved(MembershipEvent event) {
+                removeSessionsOfMember(event.getMember().getUuid());
+            }
+        });
     }
 
     /**
@@ -86,6 +159,7 @@ public class ParticipationTeamWebsocketService {
      *
      * We have to keep track of the destination that this session belongs to since it is
      * needed on unsubscribe and disconnect but is not available there.
+     * In addition, the session is added to the presence index of the participation, from which the list of online team students is built.
      *
      * @param participationId     id of participation
      * @param stompHeaderAccessor header from STOMP frame
@@ -93,7 +167,10 @@ public class ParticipationTeamWebsocketService {
     @SubscribeMapping("/topic/participations/{participationId}/team")
     public void subscribe(@DestinationVariable Long participationId, StompHeaderAccessor stompHeaderAccessor) {
         final String destination = getDestination(participationId);
-        destinationTracker.put(stompHeaderAccessor.getSessionId(), destination);
+        final String sessionId = stompHeaderAccessor.getSessionId();
+        destinationTracker.put(sessionId, destination);
+        Optional.ofNullable(stompHeaderAccessor.getUser()).map(Principal::getName).filter(StringUtils::hasText)
+                .ifPresent(login -> presenceTracker.put(participationId, new TeamSession(sessionId, login, hazelcastInstance.getCluster().getLocalMember().getUuid())));
         sendOnlineTeamStudents(participationId);
     }
 
@@ -150,6 +227,10 @@ public class ParticipationTeamWebsocketService {
 
     /**
      * Updates a modeling or text submission
+     * <p>
+     * The update is sent to the other team members right away if the submission can still be changed. Saving it is deferred by {@link #SUBMISSION_SAVE_DELAY}, so that the
+     * rapid updates of a team are coalesced and only the latest state is saved. If the deferred save fails, the sender is notified. Submissions which do not exist in the
+     * database yet are saved immediately.
      *
      * @param participationId id of participation
      * @param submission      updated modeling text submission
@@ -160,26 +241,38 @@ public class ParticipationTeamWebsocketService {
         // Without this, custom jpa repository methods don't work in websocket channel.
         SecurityUtils.setAuthorizationObject();
 
-        final StudentParticipation participation = studentParticipationRepository.findByIdElseThrow(participationId);
+        final StudentParticipation participation = getParticipation(participationId);
 
         // user must belong to the team who owns the participation in order to update a submission
         if (!participation.isOwnedBy(principal.getName())) {
             return;
         }
+        if (!isSubmissionTypeOfExercise(submission, participation.getExercise())) {
+            throw new IllegalArgumentException("Submission type '" + submission.getType() + "' not allowed.");
+        }
+        if (submission.getParticipation() != null && !participationId.equals(submission.getParticipation().getId())) {
+            log.warn("Ignoring submission update of {} for participation {}: the submission belongs to another participation", principal.getName(), participationId);
+            return;
+        }
 
         final User user = userRepository.getUserWithGroupsAndAuthorities(principal.getName());
-        final Exercise exercise = exerciseRepository.findByIdElseThrow(participation.getExercise().getId());
 
-        if (submission instanceof ModelingSubmission modelingSubmission && exercise instanceof ModelingExercise modelingExercise) {
-            submission = modelingSubmissionService.handleModelingSubmission(modelingSubmission, modelingExercise, user);
-            modelingSubmissionService.hideDetails(submission, user);
-        }
-        else if (submission instanceof TextSubmission textSubmission && exercise instanceof TextExercise textExercise) {
-            submission = textSubmissionService.handleTextSubmission(textSubmission, textExercise, user);
-            textSubmissionService.hideDetails(submission, user);
+        if (submission.getId() == null) {
+            final Exercise exercise = exerciseRepository.findByIdElseThrow(participation.getExercise().getId());
+            submission = saveSubmission(submission, exercise, user);
+            submissionServiceFor(submission).hideDetails(submission, user);
         }
         else {
-            throw new IllegalArgumentException("Submission type '" + submission.getType() + "' not allowed.");
+            // the same check is done again when the submission is saved, but teammates must not see changes that cannot be saved anymore
+            submissionServiceFor(submission).checkSubmissionBeforeDueDateElseThrow(participation);
+            // students must not be able to inject results, the other properties are set in the same way when the submission is saved
+            submission.setResults(new ArrayList<>());
+            submission.setSubmissionDate(ZonedDateTime.now());
+            submission.setType(SubmissionType.MANUAL);
+            if (submission.getParticipation() != null) {
+                submission.getParticipation().setSubmissions(null);
+                submission.getParticipation().setResults(null);
+            }
         }
 
         // update the last action date for the user and send out list of team members
@@ -188,25 +281,120 @@ public class ParticipationTeamWebsocketService {
 
         SubmissionSyncPayload payload = new SubmissionSyncPayload(submission, user);
         messagingTemplate.convertAndSend(getDestination(participationId, topicPath), payload);
+
+        if (submission.getId() != null) {
+            queueSubmission(participationId, submission, user, topicPath);
+        }
     }
 
     /**
-     * Sends out a list of online team students to all members of the team
+     * Stores the submission as the latest pending update of the participation and schedules the save if there was no pending update yet.
+     * If there was one, it is replaced and saved together with the new one.
      *
-     * @param participationId id of participation for which to send out the list
-     * @param exceptSessionID session id that should be ignored (optional)
+     * @param participationId id of participation
+     * @param submission      the updated submission
+     * @param user            the user who updated the submission
+     * @param topicPath       path of websocket destination topic of the submission, used to notify the user if the save fails
      */
-    private void sendOnlineTeamStudents(Long participationId, String exceptSessionID) {
-        final String destination = getDestination(participationId);
+    private void queueSubmission(Long participationId, Submission submission, User user, String topicPath) {
+        final var previous = pendingSubmissions.put(participationId, new PendingSubmission(submission, user, ZonedDateTime.now(), topicPath));
+        if (previous == null) {
+            taskScheduler.schedule(() -> savePendingSubmission(participationId), Instant.now().plus(SUBMISSION_SAVE_DELAY));
+        }
+    }
 
-        final List<OnlineTeamStudentDTO> onlineTeamStudents = getSubscriberPrincipals(destination, exceptSessionID).stream()
-                .map(login -> new OnlineTeamStudentDTO(login, getValue(lastTypingTracker, participationId, login), lastActionTracker.get(participationId + "-" + login))).toList();
+    /**
+     * Saves all submission updates which have not been saved yet, e.g. on shutdown
+     */
+    @PreDestroy
+    public void savePendingSubmissions() {
+        List.copyOf(pendingSubmissions.keySet()).forEach(this::savePendingSubmission);
+    }
 
-        messagingTemplate.convertAndSend(destination, onlineTeamStudents);
+    /**
+     * Saves the latest pending submission update of the given participation (if any).
+     * The update is dropped if the submission was saved in the meantime through another way (e.g. the REST API), so that the newer state is not overwritten.
+     * If the update cannot be saved (e.g. because the due date passed in the meantime), the user who sent it is notified, so that the changes are not lost silently.
+     *
+     * @param participationId id of participation
+     */
+    private void savePendingSubmission(Long participationId) {
+        final PendingSubmission pendingSubmission = pendingSubmissions.remove(participationId);
+        if (pendingSubmission == null) {
+            return;
+        }
+        try {
+            SecurityUtils.setAuthorizationObject();
+            final Submission submission = pendingSubmission.submission();
+            final Optional<ZonedDateTime> lastSaved = submissionRepository.findById(submission.getId()).map(Submission::getSubmissionDate);
+            if (lastSaved.isPresent() && lastSaved.get().isAfter(pendingSubmission.receivedAt())) {
+                log.debug("Skip saving the submission {} of participation {}, it was saved in the meantime", submission.getId(), participationId);
+                return;
+            }
+            final Exercise exercise = exerciseRepository.findByIdElseThrow(getParticipation(participationId).getExercise().getId());
+            saveSubmission(submission, exercise, pendingSubmission.user());
+        }
+        catch (Exception ex) {
+            log.warn("Could not save the submission update of {} for participation {}: {}", pendingSubmission.user().getLogin(), participationId, ex.getMessage());
+            messagingTemplate.convertAndSendToUser(pendingSubmission.user().getLogin(), getDestination(participationId, pendingSubmission.topicPath() + "/errors"),
+                    new WebsocketError(SAVE_FAILED_ERROR_KEY));
+        }
+    }
+
+    private static boolean isSubmissionTypeOfExercise(Submission submission, Exercise exercise) {
+        return (submission instanceof ModelingSubmission && exercise instanceof ModelingExercise) || (submission instanceof TextSubmission && exercise instanceof TextExercise);
+    }
+
+    private Submission saveSubmission(Submission submission, Exercise exercise, User user) {
+        if (submission instanceof ModelingSubmission modelingSubmission && exercise instanceof ModelingExercise modelingExercise) {
+            return modelingSubmissionService.handleModelingSubmission(modelingSubmission, modelingExercise, user);
+        }
+        else if (submission instanceof TextSubmission textSubmission && exercise instanceof TextExercise textExercise) {
+            return textSubmissionService.handleTextSubmission(textSubmission, textExercise, user);
+        }
+        throw new IllegalArgumentException("Submission type '" + submission.getType() + "' not allowed.");
+    }
+
+    private SubmissionService submissionServiceFor(Submission submission) {
+        return submission instanceof ModelingSubmission ? modelingSubmissionService : textSubmissionService;
     }
 
+    /**
+     * Returns the participation for the ownership and due date check, it is only loaded from the database once within {@link #PARTICIPATION_CACHE_DURATION}.
+     * Expired participations are removed whenever a participation is loaded, so that the cache does not grow if sessions are never unsubscribed on this instance.
+     *
+     * @param participationId id of participation
+     * @return the participation
+     */
+    private StudentParticipation getParticipation(Long participationId) {
+        final CachedParticipation cachedParticipation = participationCache.get(participationId);
+        if (cachedParticipation != null && cachedParticipation.loadedAt().plus(PARTICIPATION_CACHE_DURATION).isAfter(Instant.now())) {
+            return cachedParticipation.participation();
+        }
+        final Instant now = Instant.now();
+        participationCache.values().removeIf(cached -> !cached.loadedAt().plus(PARTICIPATION_CACHE_DURATION).isAfter(now));
+        final StudentParticipation participation = studentParticipationRepository.findByIdElseThrow(participationId);
+        participationCache.put(participationId, new CachedParticipation(participation, now));
+        return participation;
+    }
+
+    /**
+     * Sends out a list of online team students to all members of the team.
+     * The list is built from the presence index of the participation, which is maintained on subscribe, unsubscribe and disconnect. Sessions of instances that are not
+     * part of the cluster anymore are ignored, even if they have not been removed yet.
+     *
+     * @param participationId id of participation for which to send out the list
+     */
     private void sendOnlineTeamStudents(Long participationId) {
-        sendOnlineTeamStudents(participationId, null);
+        final String destination = getDestination(participationId);
+        final Set<UUID> memberIds = hazelcastInstance.getCluster().getMembers().stream().map(Member::getUuid).collect(Collectors.toSet());
+
+        final List<OnlineTeamStudentDTO> onlineTeamStudents = presenceTracker.get(participationId).stream().filter(teamSession -> memberIds.contains(teamSession.memberId()))
+                .map(TeamSession::login).distinct().sorted()
+                .map(login -> new OnlineTeamStudentDTO(login, getValue(lastTypingTracker, participationId, login), getValue(lastActionTracker, participationId, login)))
+                .toList();
+
+        messagingTemplate.convertAndSend(destination, onlineTeamStudents);
     }
 
     /**
@@ -232,31 +420,33 @@ public class ParticipationTeamWebsocketService {
     /**
      * Since this method is called for any sort of unsubscribe or disconnect event, it first needs to be checked whether this event is relevant at all
      * for this particular service which is the case if the session id was tracked by the destinationTracker.
-     * The list of subscribed users - explicitly excluding the session that is about to be destroyed - is send to all subscribers.
+     * The session is removed from the presence index and the list of subscribed users is sent to all subscribers.
      * Note: Since a single user can have multiple sessions for a single destination (e.g. by having two open tabs), the user list might not change at all.
      *
      * @param sessionId id of the sessions which is unsubscribing
      */
     public void unsubscribe(String sessionId) {
-        Optional.ofNullable(destinationTracker.get(sessionId)).ifPresent(destination -> {
+        Optional.ofNullable(destinationTracker.remove(sessionId)).ifPresent(destination -> {
             Long participationId = getParticipationIdFromDestination(destination);
-            sendOnlineTeamStudents(participationId, sessionId);
-            destinationTracker.remove(sessionId);
+            presenceTracker.get(participationId).stream().filter(teamSession -> teamSession.sessionId().equals(sessionId))
+                    .forEach(teamSession -> presenceTracker.remove(participationId, teamSession));
+            if (presenceTracker.valueCount(participationId) == 0) {
+                participationCache.remove(participationId);
+            }
+            sendOnlineTeamStudents(participationId);
         });
     }
 
     /**
-     * Finds all subscriptions to a certain destination and returns the corresponding user logins as a list.
-     * Optionally, a certain session ID can be excluded from consideration (which is handy for the unsubscribe event listener which is
-     * called before the session is actually removed).
+     * Removes the sessions of the given (crashed or shut down) instance from the presence index and the destination tracker
      *
-     * @param destination     destination/topic for which to get the subscribers
-     * @param exceptSessionID session id that should be excluded from subscription sessions
-     * @return an unmodifiable list of principals / logins
+     * @param memberId the uuid of the Hazelcast member of the instance
      */
-    private List<String> getSubscriberPrincipals(String destination, String exceptSessionID) {
-        return simpUserRegistry.findSubscriptions(subscription -> subscription.getDestination().equals(destination)).stream().map(SimpSubscription::getSession)
-                .filter(simpSession -> !simpSession.getId().equals(exceptSessionID)).map(SimpSession::getUser).map(SimpUser::getName).distinct().toList();
+    private void removeSessionsOfMember(UUID memberId) {
+        presenceTracker.entrySet().stream().filter(entry -> memberId.equals(entry.getValue().memberId())).forEach(entry -> {
+            presenceTracker.remove(entry.getKey(), entry.getValue());
+            destinationTracker.remove(entry.getValue().sessionId());
+        });
     }
 
     /**
@@ -276,8 +466,7 @@ public class ParticipationTeamWebsocketService {
      * @return participation id
      */
     public static Long getParticipationIdFromDestination(String destination) {
-        Pattern pattern = Pattern.compile("^" + getDestination("(\\d*)"));
-        Matcher matcher = pattern.matcher(destination);
+        Matcher matcher = PARTICIPATION_TEAM_DESTINATION_PATTERN.matcher(destination);
         return matcher.find() ? Long.parseLong(matcher.group(1)) : null;
     }
 
@@ -303,6 +492,7 @@ public class ParticipationTeamWebsocketService {
 
     public void clearDestinationTracker() {
         this.destinationTracker.clear();
+        this.presenceTracker.clear();
     }
 
     private void updateValue(Map<String, Instant> map, long participationId, String username) {
@@ -312,4 +502,20 @@ public class ParticipationTeamWebsocketService {
     private Instant getValue(Map<String, Instant> map, long participationId, String username) {
         return map.get(participationId + "-" + username);
     }
+
+    /**
+     * A websocket session of a user subscribed to the team destination of a participation
+     *
+     * @param sessionId id of the websocket session
+     * @param login     login of the user
+     * @param memberId  uuid of the Hazelcast member of the instance the session is connected to
+     */
+    private record TeamSession(String sessionId, String login, UUID memberId) implements Serializable {
+    }
+
+    private record CachedParticipation(StudentParticipation participation, Instant loadedAt) {
+    }
+
+    private record PendingSubmission(Submission submission, User user, ZonedDateTime receivedAt, String topicPath) {
+    }
 }
@@ -16,6 +16,7 @@ import { SubjectObservablePair } from 'app/utils/rxjs.utils';
 import { CourseManagementOverviewStatisticsDto } from 'app/course/manage/overview/course-management-overview-statistics-dto.model';
 import { CourseManagementDetailViewDto } from 'app/course/manage/course-management-detail-view-dto.model';
 import { StudentDTO } from 'app/entities/student-dto.model';
+import { BulkRegistrationStatus } from 'app/entities/bulk-registration-status.model';
 import { EntityTitleService, EntityType } from 'app/shared/layouts/navbar/entity-title.service';
 import { convertDateFromClient } from 'app/utils/date.utils';
 import { objectToJsonBlob } from 'app/utils/blob-util';
@@ -412,6 +413,27 @@ export class CourseManagementService {
         return this.http.post<StudentDTO[]>(`${this.resourceUrl}/${courseId}/${courseGroup}`, studentDtos, { observe: 'response' });
     }
 
+    /**
+     * Starts adding users to the given group of a course in the background.
+     * @param courseId to which the users shall be added.
+     * @param studentDtos Student DTOs of users to add to the course.
+     * @param courseGroup the course group into which the users should be added
+     * @return the initial status of the registration.
+     */
+    startBulkRegistration(courseId: number, studentDtos: StudentDTO[], courseGroup: string): Observable<BulkRegistrationStatus> {
+        return this.http.post<BulkRegistrationStatus>(`${this.resourceUrl}/${courseId}/bulk-registration/${courseGroup}`, studentDtos);
+    }
+
+    /**
+     * Returns the status of the last registration of users started in the background for the given group of a course.
+     * @param courseId the id of the course
+     * @param courseGroup the course group
+     * @return the status of the registration, undefined if there is none.
+     */
+    getBulkRegistrationStatus(courseId: number, courseGroup: string): Observable<BulkRegistrationStatus | undefined> {
+        return this.http.get<BulkRegistrationStatus>(`${this.resourceUrl}/${courseId}/bulk-registration/${courseGroup}`).pipe(map((status) => status ?? undefined));
+    }
+
     /**
      * removes a user from the given group of the course corresponding to the given unique identifier using a DELETE request
      * @param courseId - the id of the course
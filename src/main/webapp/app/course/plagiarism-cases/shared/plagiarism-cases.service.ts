@@ -7,6 +7,8 @@ import { PlagiarismComparison } from 'app/exercises/shared/plagiarism/types/Plag
 import { PlagiarismSubmissionElement } from 'app/exercises/shared/plagiarism/types/PlagiarismSubmissionElement';
 import { PlagiarismVerdict } from 'app/exercises/shared/plagiarism/types/PlagiarismVerdict';
 import { PlagiarismCaseInfo } from 'app/exercises/shared/plagiarism/types/PlagiarismCaseInfo';
+import { PageableSearch, SearchResult } from 'app/shared/table/pageable-table';
+import { Range } from 'app/shared/util/utils';
 
 export type EntityResponseType = HttpResponse<PlagiarismCase>;
 export type EntityArrayResponseType = HttpResponse<PlagiarismCase[]>;
@@ -105,6 +107,28 @@ export class PlagiarismCasesService {
         });
     }
 
+    /**
+     * Get one page of the comparisons of the plagiarism result with the given id (without their matches)
+     * @param { number } exerciseId
+     * @param { number } plagiarismResultId
+     * @param { PageableSearch } pageable the page, its size, the sort order and the login (or a part of it) of one of the compared students
+     * @param { Range } range optional similarity range [lowerBound, upperBound) of the comparisons, an upper bound of 100 includes comparisons with a similarity of 100
+     */
+    public getPlagiarismComparisons(exerciseId: number, plagiarismResultId: number, pageable: PageableSearch, range?: Range): Observable<SearchResult<Comparison>> {
+        let params = new HttpParams()
+            .set('pageSize', String(pageable.pageSize))
+            .set('page', String(pageable.page))
+            .set('sortingOrder', pageable.sortingOrder)
+            .set('searchTerm', pageable.searchTerm)
+            .set('sortedColumn', pageable.sortedColumn);
+        if (range) {
+            params = params.set('minimumSimilarity', String(range.lowerBound)).set('maximumSimilarity', String(range.upperBound));
+        }
+        return this.http.get<SearchResult<Comparison>>(`${this.resourceUrlExercises}/${exerciseId}/plagiarism-results/${plagiarismResultId}/plagiarism-comparisons`, {
+            params,
+        });
+    }
+
     /**
      * Update the status of the plagiarism comparison with given id
      * @param { number } courseId
@@ -0,0 +1,14 @@
+import { StudentDTO } from 'app/entities/student-dto.model';
+
+/**
+ * The status of a registration of many students for a course group or an exam that runs in the background on the server
+ */
+export class BulkRegistrationStatus<T extends StudentDTO = StudentDTO> {
+    public processed: number;
+    public total: number;
+    // only complete if the registration is finished
+    public notFound: T[];
+    public finished: boolean;
+    public failed: boolean;
+    public startedAt?: string;
+}
@@ -1,6 +1,7 @@
 import { Injectable } from '@angular/core';
 import { Router } from '@angular/router';
 import { ExamUserDTO } from 'app/entities/exam-user-dto.model';
+import { BulkRegistrationStatus } from 'app/entities/bulk-registration-status.model';
 import { ExamUserAttendanceCheckDTO } from 'app/entities/exam-users-attendance-check-dto.model';
 import { filter, map, tap } from 'rxjs/operators';
 import { HttpClient, HttpResponse } from '@angular/common/http';
@@ -211,6 +212,29 @@ export class ExamManagementService {
         return this.http.post<StudentDTO[]>(`${this.resourceUrl}/${courseId}/exams/${examId}/students`, studentDtos, { observe: 'response' });
     }
 
+    /**
+     * Starts adding students to the registered users for an exam in the background
+     * @param courseId The course id.
+     * @param examId The id of the exam to which to add the students
+     * @param studentDtos Student DTOs of students to add to the exam
+     * @return the initial status of the registration
+     */
+    startBulkRegistration(courseId: number, examId: number, studentDtos: ExamUserDTO[]): Observable<BulkRegistrationStatus<ExamUserDTO>> {
+        return this.http.post<BulkRegistrationStatus<ExamUserDTO>>(`${this.resourceUrl}/${courseId}/exams/${examId}/bulk-registration`, studentDtos);
+    }
+
+    /**
+     * Returns the status of the last registration of students started in the background for an exam
+     * @param courseId The course id.
+     * @param examId The id of the exam
+     * @return the status of the registration, undefined if there is none
+     */
+    getBulkRegistrationStatus(courseId: number, examId: number): Observable<BulkRegistrationStatus<ExamUserDTO> | undefined> {
+        return this.http
+            .get<BulkRegistrationStatus<ExamUserDTO>>(`${this.resourceUrl}/${courseId}/exams/${examId}/bulk-registration`)
+            .pipe(map((status) => status ?? undefined));
+    }
+
     /**
      * Add all students of the course to the exam
      * @param courseId
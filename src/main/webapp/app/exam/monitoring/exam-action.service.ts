@@ -14,6 +14,7 @@ export const EXAM_MONITORING_STATUS_TOPIC = (examId: number) => `/topic/exam-mon
 @Injectable({ providedIn: 'root' })
 export class ExamActionService {
     cachedExamActions: Map<number, ExamAction[]> = new Map<number, ExamAction[]>();
+    cachedExamActionIds: Map<number, Set<number>> = new Map<number, Set<number>>();
     cachedExamActionsGroupedByTimestamp: Map<number, Map<string, number>> = new Map();
     cachedExamActionsGroupedByTimestampAndCategory: Map<number, Map<string, Map<string, number>>> = new Map();
     cachedLastActionPerStudent: Map<number, Map<number, ExamAction>> = new Map<number, Map<number, ExamAction>>();
@@ -32,6 +33,12 @@ export class ExamActionService {
      * @param examActions received exam actions
      */
     public updateCachedActions = (exam: Exam, examActions: ExamAction[]) => {
+        // Actions saved while the initial actions are loaded can be received twice (loaded and via websocket)
+        const actionIds = this.cachedExamActionIds.get(exam.id!) ?? new Set<number>();
+        examActions = examActions.filter((action) => action.id === undefined || !actionIds.has(action.id));
+        examActions.forEach((action) => action.id !== undefined && actionIds.add(action.id));
+        this.cachedExamActionIds.set(exam.id!, actionIds);
+
         // Cache and group actions
         const actionsPerTimestamp = this.cachedExamActionsGroupedByTimestamp.get(exam.id!) ?? new Map();
         const actionsPerTimestampAndCategory = this.cachedExamActionsGroupedByTimestampAndCategory.get(exam.id!) ?? new Map();
@@ -126,6 +133,7 @@ export class ExamActionService {
      * Checks if a websocket connection for the exam monitoring to the server already exists.
      * @param exam to monitor
      * If not a new one will be opened.
+     * The server sends the new actions of the exam periodically in batches.
      *
      */
     public openExamMonitoringWebsocketSubscriptionIfNotExisting(exam: Exam) {
@@ -135,7 +143,7 @@ export class ExamActionService {
         this.jhiWebsocketService
             .subscribe(topic)
             .receive(topic)
-            .subscribe((exmAction: ExamAction) => this.updateCachedActions(exam, [exmAction]));
+            .subscribe((examActions: ExamAction[]) => this.updateCachedActions(exam, examActions));
     }
 
     /**
@@ -156,6 +164,7 @@ export class ExamActionService {
     public unsubscribeForExamAction(exam: Exam): void {
         const topic = EXAM_MONITORING_ACTION_TOPIC(exam.id!);
         this.cachedExamActions.set(exam.id!, []);
+        this.cachedExamActionIds.set(exam.id!, new Set());
         this.cachedExamActionsGroupedByTimestamp.set(exam.id!, new Map());
         this.cachedExamActionsGroupedByTimestampAndCategory.set(exam.id!, new Map());
         this.cachedLastActionPerStudent.set(exam.id!, new Map());
@@ -24,6 +24,7 @@ import { PlagiarismInspectorService } from 'app/exercises/shared/plagiarism/plag
 import { PlagiarismCasesService } from 'app/course/plagiarism-cases/shared/plagiarism-cases.service';
 import { NgbModal } from '@ng-bootstrap/ng-bootstrap';
 import { AlertService, AlertType } from 'app/core/util/alert.service';
+import { PageableSearch, SortingOrder } from 'app/shared/table/pageable-table';
 
 export type PlagiarismCheckState = {
     state: 'COMPLETED' | 'RUNNING';
@@ -98,10 +99,24 @@ export class PlagiarismInspectorComponent implements OnInit {
      */
     enableMinimumSize = false;
     /**
-     * Comparisons that are currently visible (might differ from the original set as filtering can be applied)
+     * Comparisons on the page that is currently visible in the sidebar, loaded from the server (filtering can be applied)
      */
     visibleComparisons?: PlagiarismComparison<any>[];
+    /**
+     * Index of the page of comparisons that is currently visible in the sidebar
+     */
+    comparisonsPage = 0;
+    numberOfComparisonPages = 0;
+    readonly comparisonsPageSize = 100;
+    /**
+     * The similarity range selected in the chart, undefined if the comparisons are not filtered
+     */
+    similarityRange?: Range;
     chartFilterApplied = false;
+    /**
+     * The comparison shown in the details, it stays selected if the sidebar shows another page
+     */
+    selectedComparison?: PlagiarismComparison<any>;
     /**
      * Offset of the currently visible comparisons to the original set in order to keep the numbering even if comparisons are filtered
      */
@@ -243,6 +258,7 @@ export class PlagiarismInspectorComponent implements OnInit {
 
     selectComparisonWithID(id: number) {
         this.selectedComparisonId = id;
+        this.selectedComparison = this.visibleComparisons?.find((comparison) => comparison.id === id);
         this.showRunDetails = false;
     }
 
@@ -320,7 +336,33 @@ export class PlagiarismInspectorComponent implements OnInit {
         }
 
         this.plagiarismResult = result;
-        this.visibleComparisons = result?.comparisons;
+        this.selectedComparison = undefined;
+        this.loadComparisons(0);
+    }
+
+    /**
+     * Loads a page of the comparisons of the current plagiarism result for the sidebar. The comparisons are sorted by their similarity and only contain the compared
+     * submissions, the details of the selected comparison are loaded separately.
+     * @param page the index of the page
+     */
+    loadComparisons(page: number): void {
+        const plagiarismResultId = this.plagiarismResult?.id;
+        if (plagiarismResultId === undefined) {
+            this.visibleComparisons = undefined;
+            return;
+        }
+        const search: PageableSearch = {
+            page: page + 1,
+            pageSize: this.comparisonsPageSize,
+            searchTerm: '',
+            sortingOrder: SortingOrder.DESCENDING,
+            sortedColumn: 'SIMILARITY',
+        };
+        this.plagiarismCasesService.getPlagiarismComparisons(this.exercise.id!, plagiarismResultId, search, this.similarityRange).subscribe((searchResult) => {
+            this.comparisonsPage = page;
+            this.numberOfComparisonPages = searchResult.numberOfPages;
+            this.visibleComparisons = searchResult.resultsOnPage;
+        });
     }
 
     sortComparisonsForResult(result: PlagiarismResult<any>) {
@@ -405,17 +447,24 @@ export class PlagiarismInspectorComponent implements OnInit {
      * @param range the range selected by the user in the chart by clicking on a chart bar
      */
     filterByChart(range: Range): void {
-        this.visibleComparisons = this.inspectorService.filterComparisons(range, this.plagiarismResult?.comparisons);
-        const index = this.plagiarismResult?.comparisons.indexOf(this.visibleComparisons[0]) ?? 0;
+        const comparisonsInRange = this.inspectorService.filterComparisons(range, this.plagiarismResult?.comparisons);
+        const index = this.plagiarismResult?.comparisons.indexOf(comparisonsInRange[0]) ?? 0;
         this.sidebarOffset = index !== -1 ? index : 0;
+        this.similarityRange = range;
         this.chartFilterApplied = true;
+        this.loadComparisons(0);
     }
 
     /**
      * Resets the filter applied by chart interaction
      */
     resetFilter(): void {
-        this.visibleComparisons = this.plagiarismResult?.comparisons;
+        this.clearFilter();
+        this.loadComparisons(0);
+    }
+
+    private clearFilter(): void {
+        this.similarityRange = undefined;
         this.chartFilterApplied = false;
         this.sidebarOffset = 0;
     }
@@ -426,19 +475,12 @@ export class PlagiarismInspectorComponent implements OnInit {
      * @param flag emitted by {@link PlagiarismSidebarComponent#showRunDetailsChange}
      */
     showSimilarityDistribution(flag: boolean): void {
-        this.resetFilter();
+        // the comparisons are loaded again together with the latest result
+        this.clearFilter();
         this.getLatestPlagiarismResult();
         this.showRunDetails = flag;
     }
 
-    /**
-     * Auxiliary method that returns the comparison currently selected by the user
-     */
-    getSelectedComparison(): PlagiarismComparison<any> {
-        // as the id is unique, the filtered array should always have length 1
-        return this.visibleComparisons!.filter((comparison) => comparison.id === this.selectedComparisonId)[0];
-    }
-
     /**
      * Switches the state if all plagiarism comparisons should be deleted
      */
@@ -1,4 +1,4 @@
-import { Component, EventEmitter, Input, OnChanges, Output, SimpleChanges } from '@angular/core';
+import { Component, EventEmitter, Input, Output } from '@angular/core';
 import { PlagiarismComparison } from 'app/exercises/shared/plagiarism/types/PlagiarismComparison';
 import { TextSubmissionElement } from 'app/exercises/shared/plagiarism/types/text/TextSubmissionElement';
 import { ModelingSubmissionElement } from 'app/exercises/shared/plagiarism/types/modeling/ModelingSubmissionElement';
@@ -10,72 +10,56 @@ import { faArrowLeft, faArrowRight, faChevronRight, faExclamationTriangle } from
     styleUrls: ['./plagiarism-sidebar.component.scss'],
     templateUrl: './plagiarism-sidebar.component.html',
 })
-export class PlagiarismSidebarComponent implements OnChanges {
+export class PlagiarismSidebarComponent {
     @Input() activeID: number;
+    /**
+     * Comparisons of the current page, the pages are loaded from the server by the parent component.
+     */
     @Input() comparisons?: PlagiarismComparison<TextSubmissionElement | ModelingSubmissionElement>[];
     @Input() casesFiltered = false;
     @Input() offset = 0;
 
-    @Input() showRunDetails: boolean;
-    @Output() showRunDetailsChange = new EventEmitter<boolean>();
-
-    @Output() selectIndex = new EventEmitter<number>();
-
-    readonly CONFIRMED = PlagiarismStatus.CONFIRMED;
-    readonly DENIED = PlagiarismStatus.DENIED;
-
-    faExclamationTriangle = faExclamationTriangle;
-
     /**
      * Index of the currently selected result page.
      */
-    public currentPage = 0;
+    @Input() currentPage = 0;
 
     /**
      * Total number of result pages.
      */
-    public numberOfPages = 0;
+    @Input() numberOfPages = 0;
 
     /**
-     * Subset of currently paged comparisons.
+     * Number of comparisons per page.
      */
-    public pagedComparisons?: PlagiarismComparison<TextSubmissionElement | ModelingSubmissionElement>[];
+    @Input() pageSize = 100;
 
     /**
-     * Number of comparisons per page.
+     * Emits the index of the page that should be loaded.
      */
-    public pageSize = 100;
+    @Output() pageChange = new EventEmitter<number>();
+
+    @Input() showRunDetails: boolean;
+    @Output() showRunDetailsChange = new EventEmitter<boolean>();
+
+    @Output() selectIndex = new EventEmitter<number>();
+
+    readonly CONFIRMED = PlagiarismStatus.CONFIRMED;
+    readonly DENIED = PlagiarismStatus.DENIED;
+
+    faExclamationTriangle = faExclamationTriangle;
 
     // Icons
     faChevronRight = faChevronRight;
     faArrowLeft = faArrowLeft;
     faArrowRight = faArrowRight;
 
-    ngOnChanges(changes: SimpleChanges) {
-        if (changes.comparisons) {
-            const comparisons: PlagiarismComparison<TextSubmissionElement | ModelingSubmissionElement>[] = changes.comparisons.currentValue;
-
-            this.currentPage = 0;
-            if (!comparisons) {
-                this.numberOfPages = 0;
-            } else {
-                this.numberOfPages = this.computeNumberOfPages(comparisons.length);
-            }
-            this.pagedComparisons = this.getPagedComparisons();
-        }
-    }
-
     displayRunDetails() {
         this.showRunDetailsChange.emit(true);
     }
 
-    computeNumberOfPages(totalComparisons: number) {
-        return Math.floor(totalComparisons / this.pageSize);
-    }
-
-    getPagedComparisons() {
-        const startIndex = this.currentPage * this.pageSize;
-        return this.comparisons?.slice(startIndex, startIndex + this.pageSize);
+    isLastPage() {
+        return this.currentPage >= this.numberOfPages - 1;
     }
 
     getPagedIndex(idx: number) {
@@ -87,16 +71,14 @@ export class PlagiarismSidebarComponent implements OnChanges {
             return;
         }
 
-        this.currentPage--;
-        this.pagedComparisons = this.getPagedComparisons();
+        this.pageChange.emit(this.currentPage - 1);
     }
 
     handlePageRight() {
-        if (this.currentPage === this.numberOfPages) {
+        if (this.isLastPage()) {
             return;
         }
 
-        this.currentPage++;
-        this.pagedComparisons = this.getPagedComparisons();
+        this.pageChange.emit(this.currentPage + 1);
     }
 }
@@ -26,6 +26,7 @@ export class TeamSubmissionSyncComponent implements OnInit {
 
     currentUser: User;
     websocketTopic: string;
+    errorWebsocketTopic: string;
 
     constructor(private accountService: AccountService, private teamSubmissionWebsocketService: JhiWebsocketService, private alertService: AlertService) {
         this.accountService.identity().then((user: User) => (this.currentUser = user));
@@ -36,8 +37,11 @@ export class TeamSubmissionSyncComponent implements OnInit {
      */
     ngOnInit(): void {
         this.websocketTopic = this.buildWebsocketTopic('');
+        this.errorWebsocketTopic = '/user' + this.buildWebsocketTopic('/errors');
         this.teamSubmissionWebsocketService.subscribe(this.websocketTopic);
+        this.teamSubmissionWebsocketService.subscribe(this.errorWebsocketTopic);
         this.setupReceiver();
+        this.setupErrorReceiver();
         this.setupSender();
     }
 
@@ -56,6 +60,16 @@ export class TeamSubmissionSyncComponent implements OnInit {
             });
     }
 
+    /**
+     * Receives errors of own updates that could not be saved by the server (e.g. because the due date has passed in the meantime)
+     */
+    private setupErrorReceiver() {
+        this.teamSubmissionWebsocketService.receive(this.errorWebsocketTopic).subscribe({
+            next: ({ error }: { error: string }) => this.onError(error),
+            error: (error) => this.onError(error),
+        });
+    }
+
     /**
      * Subscribes to the submission stream and sends out updated submissions based on those own changes via websockets
      */
@@ -4,7 +4,8 @@ import { NgbActiveModal } from '@ng-bootstrap/ng-bootstrap';
 import { AlertService } from 'app/core/util/alert.service';
 import { HttpResponse } from '@angular/common/http';
 import { ExamUserDTO } from 'app/entities/exam-user-dto.model';
-import { Subject } from 'rxjs';
+import { EMPTY, Observable, Subject, Subscription, of, throwError, timer } from 'rxjs';
+import { expand, last, switchMap, tap } from 'rxjs/operators';
 import { ActionType } from 'app/shared/delete-dialog/delete-dialog.model';
 import { CourseManagementService } from 'app/course/manage/course-management.service';
 import { Exam } from 'app/entities/exam.model';
@@ -14,6 +15,7 @@ import { parse } from 'papaparse';
 import { faArrowRight, faBan, faCheck, faCircleNotch, faSpinner, faUpload } from '@fortawesome/free-solid-svg-icons';
 import { TutorialGroup } from 'app/entities/tutorial-group/tutorial-group.model';
 import { TutorialGroupsService } from 'app/course/tutorial-groups/services/tutorial-groups.service';
+import { BulkRegistrationStatus } from 'app/entities/bulk-registration-status.model';
 
 const POSSIBLE_REGISTRATION_NUMBER_HEADERS = ['registrationnumber', 'matriculationnumber', 'matrikelnummer', 'number'];
 const POSSIBLE_LOGIN_HEADERS = ['login', 'user', 'username', 'benutzer', 'benutzername'];
@@ -23,8 +25,15 @@ const POSSIBLE_LAST_NAME_HEADERS = ['familyname', 'lastname', 'familynameofstude
 const POSSIBLE_ROOM_HEADERS = ['actualroom', 'actualRoom', 'raum', 'room', 'Room'];
 const POSSIBLE_SEAT_HEADERS = ['actualseat', 'actualSeat', 'sitzplatz', 'sitz', 'seat', 'Seat'];
 
+// the registration of course groups and exams runs in the background on the server, its status is requested in this interval until it is finished
+const BULK_REGISTRATION_STATUS_POLL_INTERVAL_MS = 1000;
+
 type CsvUser = object;
 
+// the status of a running registration only disappears if the server running it stopped
+const requireStatus = (status: BulkRegistrationStatus | undefined): Observable<BulkRegistrationStatus> =>
+    status ? of(status) : throwError(() => new Error('The registration status is not available'));
+
 @Component({
     selector: 'jhi-users-import-dialog',
     templateUrl: './users-import-dialog.component.html',
@@ -51,6 +60,9 @@ export class UsersImportDialogComponent implements OnDestroy {
     noUsersFoundError?: boolean;
     isImporting = false;
     hasImported = false;
+    registrationStatus?: BulkRegistrationStatus;
+
+    private registrationSubscription?: Subscription;
 
     private dialogErrorSource = new Subject<string>();
     dialogError$ = this.dialogErrorSource.asObservable();
@@ -73,6 +85,7 @@ export class UsersImportDialogComponent implements OnDestroy {
 
     ngOnDestroy(): void {
         this.dialogErrorSource.unsubscribe();
+        this.registrationSubscription?.unsubscribe();
     }
 
     private resetDialog() {
@@ -228,20 +241,39 @@ export class UsersImportDialogComponent implements OnDestroy {
                 error: () => this.onSaveError(),
             });
         } else if (this.courseGroup && !this.exam) {
-            this.courseManagementService.addUsersToGroupInCourse(this.courseId, this.usersToImport, this.courseGroup).subscribe({
-                next: (res) => this.onSaveSuccess(res),
-                error: () => this.onSaveError(),
-            });
+            this.awaitBulkRegistration(
+                this.courseManagementService.startBulkRegistration(this.courseId, this.usersToImport, this.courseGroup),
+                () => this.courseManagementService.getBulkRegistrationStatus(this.courseId, this.courseGroup),
+            );
         } else if (!this.courseGroup && this.exam) {
-            this.examManagementService.addStudentsToExam(this.courseId, this.exam.id!, this.examUsersToImport).subscribe({
-                next: (res) => this.onSaveSuccess(res),
-                error: () => this.onSaveError(),
-            });
+            const examId = this.exam.id!;
+            this.awaitBulkRegistration(this.examManagementService.startBulkRegistration(this.courseId, examId, this.examUsersToImport), () =>
+                this.examManagementService.getBulkRegistrationStatus(this.courseId, examId),
+            );
         } else {
             this.alertService.error('artemisApp.importUsers.genericErrorMessage');
         }
     }
 
+    /**
+     * Starts a registration in the background and requests its status until it is finished
+     * @param start starts the registration and returns its initial status
+     * @param getStatus requests the current status of the registration
+     */
+    private awaitBulkRegistration(start: Observable<BulkRegistrationStatus>, getStatus: () => Observable<BulkRegistrationStatus | undefined>) {
+        this.registrationSubscription?.unsubscribe();
+        this.registrationSubscription = start
+            .pipe(
+                expand((status) => (status.finished ? EMPTY : timer(BULK_REGISTRATION_STATUS_POLL_INTERVAL_MS).pipe(switchMap(getStatus), switchMap(requireStatus)))),
+                tap((status) => (this.registrationStatus = status)),
+                last(),
+            )
+            .subscribe({
+                next: (status) => (status.failed ? this.onSaveError() : this.onSaveSuccess(new HttpResponse({ body: status.notFound }))),
+                error: () => this.onSaveError(),
+            });
+    }
+
     /**
      * True if this user was successfully imported, false otherwise
      * @param user The user to be checked
@@ -188,6 +188,12 @@ class UserBambooBitbucketJiraIntegrationTest extends AbstractSpringIntegrationBa
         userTestService.deleteUsers();
     }
 
+    @Test
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    void getUserWithGroupsAndAuthorities_reflectsGroupChanges() {
+        userTestService.getUserWithGroupsAndAuthorities_reflectsGroupChanges();
+    }
+
     @Test
     @WithMockUser(username = "admin", roles = "ADMIN")
     void getUsers_asAdmin_isSuccessful() throws Exception {
@@ -262,6 +262,12 @@ class UserJenkinsGitlabIntegrationTest extends AbstractSpringIntegrationJenkinsG
         userTestService.deleteUsersException();
     }
 
+    @Test
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    void getUserWithGroupsAndAuthorities_reflectsGroupChanges() {
+        userTestService.getUserWithGroupsAndAuthorities_reflectsGroupChanges();
+    }
+
     @Test
     @WithMockUser(username = "admin", roles = "ADMIN")
     void getUsers_asAdmin_isSuccessful() throws Exception {
@@ -4,6 +4,7 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 import java.security.Principal;
+import java.util.HashSet;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,6 +15,7 @@ import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 
 import de.tum.in.www1.artemis.AbstractSpringIntegrationBambooBitbucketJiraTest;
 import de.tum.in.www1.artemis.config.websocket.WebsocketConfiguration;
+import de.tum.in.www1.artemis.repository.UserRepository;
 
 @SuppressWarnings("unchecked")
 class TopicSubscriptionInterceptorTest extends AbstractSpringIntegrationBambooBitbucketJiraTest {
@@ -23,6 +25,9 @@ class TopicSubscriptionInterceptorTest extends AbstractSpringIntegrationBambooBi
     @Autowired
     private WebsocketConfiguration websocketConfiguration;
 
+    @Autowired
+    private UserRepository userRepository;
+
     @Test
     void testAllowSubscription() {
         database.addUsers(TEST_PREFIX, 4, 0, 1, 1);
@@ -103,4 +108,34 @@ class TopicSubscriptionInterceptorTest extends AbstractSpringIntegrationBambooBi
             assertNull(returnedValue);
         }
     }
+
+    @Test
+    void testCachedSubscriptionDecisionIsInvalidatedOnGroupChange() {
+        database.addUsers(TEST_PREFIX + "cache", 0, 0, 0, 1);
+        var course = database.addEmptyCourse();
+        var exam = database.addExam(course);
+
+        var interceptor = websocketConfiguration.new TopicSubscriptionInterceptor();
+        var msgMock = (Message<String>) mock(Message.class);
+        try (var ignored = mockStatic(StompHeaderAccessor.class)) {
+            var headerAccessorMock = mock(StompHeaderAccessor.class);
+            when(StompHeaderAccessor.wrap(msgMock)).thenReturn(headerAccessorMock);
+            when(headerAccessorMock.getCommand()).thenReturn(StompCommand.SUBSCRIBE);
+            var principalMock = mock(Principal.class);
+            when(headerAccessorMock.getUser()).thenReturn(principalMock);
+            when(principalMock.getName()).thenReturn(TEST_PREFIX + "cacheinstructor1");
+            when(headerAccessorMock.getDestination()).thenReturn("/topic/exams/" + exam.getId() + "/test");
+            var channel = mock(MessageChannel.class);
+
+            assertEquals(msgMock, interceptor.preSend(msgMock, channel));
+            // the second subscription is served by the cache
+            assertEquals(msgMock, interceptor.preSend(msgMock, channel));
+
+            var instructor = userRepository.getUserWithGroupsAndAuthorities(TEST_PREFIX + "cacheinstructor1");
+            instructor.setGroups(new HashSet<>());
+            userRepository.save(instructor);
+
+            assertNull(interceptor.preSend(msgMock, channel));
+        }
+    }
 }
@@ -2,7 +2,9 @@ package de.tum.in.www1.artemis.exam;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.mockito.Mockito.verify;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
 
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
@@ -15,6 +17,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EnumSource;
 import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.test.context.support.WithMockUser;
@@ -116,7 +119,8 @@ class ExamActivityIntegrationTest extends AbstractSpringIntegrationBambooBitbuck
         ExamAction examAction = createExamActionBasedOnType(examActionType);
 
         examActivityResource.updatePerformedExamActions(exam.getId(), examAction);
-        verify(this.websocketMessagingService).sendMessage("/topic/exam-monitoring/" + exam.getId() + "/action", examAction);
+        examMonitoringScheduleService.flushExamActions();
+        verify(this.websocketMessagingService).sendMessage("/topic/exam-monitoring/" + exam.getId() + "/action", List.of(examAction));
     }
 
     @ParameterizedTest(name = "{displayName} [{index}] {argumentsWithNames}")
@@ -126,7 +130,8 @@ class ExamActivityIntegrationTest extends AbstractSpringIntegrationBambooBitbuck
         ExamAction examAction = createExamActionBasedOnType(examActionType);
 
         examActivityResource.updatePerformedExamActions(exam.getId(), examAction);
-        verify(this.websocketMessagingService).sendMessage("/topic/exam-monitoring/" + exam.getId() + "/action", examAction);
+        examMonitoringScheduleService.flushExamActions();
+        verify(this.websocketMessagingService).sendMessage("/topic/exam-monitoring/" + exam.getId() + "/action", List.of(examAction));
 
         var examActivity = examMonitoringScheduleService.getExamActivityFromCache(exam.getId(), studentExam.getId());
         assertThat(examActivity).isNotNull();
@@ -141,7 +146,8 @@ class ExamActivityIntegrationTest extends AbstractSpringIntegrationBambooBitbuck
         ExamAction examAction = createExamActionBasedOnType(examActionType);
 
         examActivityResource.updatePerformedExamActions(exam.getId(), examAction);
-        verify(this.websocketMessagingService).sendMessage("/topic/exam-monitoring/" + exam.getId() + "/action", examAction);
+        examMonitoringScheduleService.flushExamActions();
+        verify(this.websocketMessagingService).sendMessage("/topic/exam-monitoring/" + exam.getId() + "/action", List.of(examAction));
 
         examMonitoringScheduleService.executeExamActivitySaveTask(exam.getId());
 
@@ -156,15 +162,71 @@ class ExamActivityIntegrationTest extends AbstractSpringIntegrationBambooBitbuck
 
         for (ExamAction examAction : examActions) {
             examActivityResource.updatePerformedExamActions(exam.getId(), examAction);
-            verify(this.websocketMessagingService).sendMessage("/topic/exam-monitoring/" + exam.getId() + "/action", examAction);
         }
+        examMonitoringScheduleService.flushExamActions();
+        assertThat(getSentExamActions()).containsExactlyElementsOf(examActions);
 
+        // the cache only keeps the latest action of the student
         var examActivity = examMonitoringScheduleService.getExamActivityFromCache(exam.getId(), studentExam.getId());
 
         assertThat(examActivity).isNotNull();
-        assertThat(examActivity.getExamActions()).hasSameSizeAs(examActions);
+        assertThat(examActivity.getExamActions()).hasSize(1);
+        assertThat(examActivity.getExamActions().get(0).getType()).isEqualTo(examActions.get(examActions.size() - 1).getType());
+
+        examMonitoringScheduleService.executeExamActivitySaveTask(exam.getId());
+    }
+
+    @Test
+    @WithMockUser(username = TEST_PREFIX + "student1", roles = "USER")
+    @SuppressWarnings("unchecked")
+    void testExamActionsAreSavedBeforeTheyAreSent() {
+        List<Long> sentExamActionIds = new ArrayList<>();
+        doAnswer(invocation -> {
+            // the ids are set when the actions are saved
+            ((List<ExamAction>) invocation.getArgument(1)).forEach(examAction -> sentExamActionIds.add(examAction.getId()));
+            return null;
+        }).when(websocketMessagingService).sendMessage(eq("/topic/exam-monitoring/" + exam.getId() + "/action"), any());
+
+        List<ExamAction> examActions = Arrays.stream(ExamActionType.values()).map(this::createExamActionBasedOnType).toList();
+        for (ExamAction examAction : examActions) {
+            examActivityResource.updatePerformedExamActions(exam.getId(), examAction);
+        }
+        examMonitoringScheduleService.flushExamActions();
 
+        assertThat(sentExamActionIds).hasSameSizeAs(examActions).doesNotContainNull();
+        assertThat(sentExamActionIds).containsExactlyElementsOf(examActions.stream().map(ExamAction::getId).toList());
+    }
+
+    @Test
+    @WithMockUser(username = TEST_PREFIX + "admin", roles = "ADMIN")
+    void testLoadExamActionsAfterCacheReset() throws Exception {
+        List<ExamAction> examActions = Arrays.stream(ExamActionType.values()).map(this::createExamActionBasedOnType).toList();
+        for (ExamAction examAction : examActions) {
+            examActivityResource.updatePerformedExamActions(exam.getId(), examAction);
+        }
+
+        // the buffered actions are stored before the cache is cleared
         examMonitoringScheduleService.executeExamActivitySaveTask(exam.getId());
+        assertThat(examMonitoringScheduleService.getExamActivityFromCache(exam.getId(), studentExam.getId())).isNull();
+
+        List<ExamAction> loadedExamActions = request.getList("/api/exam-monitoring/" + exam.getId() + "/load-actions", HttpStatus.OK, ExamAction.class);
+        assertThat(loadedExamActions).hasSameSizeAs(examActions);
+        for (int i = 0; i < examActions.size(); i++) {
+            assertThat(loadedExamActions.get(i).getId()).isEqualTo(examActions.get(i).getId());
+            assertThat(loadedExamActions.get(i).getType()).isEqualTo(examActions.get(i).getType());
+            assertThat(loadedExamActions.get(i).getExamActivityId()).isEqualTo(studentExam.getId());
+        }
+        assertThat(loadedExamActions.get(ExamActionType.SAVED_EXERCISE.ordinal())).isInstanceOfSatisfying(SavedExerciseAction.class, savedExerciseAction -> {
+            assertThat(savedExerciseAction.isFailed()).isTrue();
+            assertThat(savedExerciseAction.getSubmissionId()).isZero();
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<ExamAction> getSentExamActions() {
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(this.websocketMessagingService, atLeastOnce()).sendMessage(eq("/topic/exam-monitoring/" + exam.getId() + "/action"), captor.capture());
+        return captor.getAllValues().stream().flatMap(examActions -> ((List<ExamAction>) examActions).stream()).toList();
     }
 
     @ParameterizedTest(name = "{displayName} [{index}] {argumentsWithNames}")
@@ -178,7 +240,8 @@ class ExamActivityIntegrationTest extends AbstractSpringIntegrationBambooBitbuck
 
         examActivityResource.updatePerformedExamActions(exam.getId(), examAction);
 
-        verify(this.websocketMessagingService).sendMessage("/topic/exam-monitoring/" + exam.getId() + "/action", examAction);
+        examMonitoringScheduleService.flushExamActions();
+        verify(this.websocketMessagingService).sendMessage("/topic/exam-monitoring/" + exam.getId() + "/action", List.of(examAction));
 
         // Currently, we don't apply any filtering - so there should be an activity and action in the cache
         var examActivity = examMonitoringScheduleService.getExamActivityFromCache(exam.getId(), studentExam.getId());
@@ -195,7 +258,8 @@ class ExamActivityIntegrationTest extends AbstractSpringIntegrationBambooBitbuck
 
         examActivityResource.updatePerformedExamActions(exam.getId(), examAction);
 
-        verify(this.websocketMessagingService).sendMessage("/topic/exam-monitoring/" + exam.getId() + "/action", examAction);
+        examMonitoringScheduleService.flushExamActions();
+        verify(this.websocketMessagingService).sendMessage("/topic/exam-monitoring/" + exam.getId() + "/action", List.of(examAction));
 
         List<ExamAction> examActions = request.getList("/api/exam-monitoring/" + exam.getId() + "/load-actions", HttpStatus.OK, ExamAction.class);
 
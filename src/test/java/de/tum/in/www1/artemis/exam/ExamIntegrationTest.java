@@ -2255,6 +2255,30 @@ class ExamIntegrationTest extends AbstractSpringIntegrationBambooBitbucketJiraTe
             expectedTotalExamAssessmentsFinishedByCorrectionRound[1] = 0L;
         }
 
+        // the cached scores have to reflect changed results
+        var studentResult = examScores.studentResults().get(0);
+        var exerciseResult = studentResult.exerciseGroupIdToExerciseResult().values().stream().filter(result -> result.achievedPoints() > 0).findFirst().orElseThrow();
+        var participation = studentParticipationRepository.findByExerciseIdAndStudentId(exerciseResult.exerciseId(), studentResult.userId()).get(0);
+        var resultsOfParticipation = resultRepository.findAllByParticipationIdOrderByCompletionDateDesc(participation.getId());
+        var originalScores = resultsOfParticipation.stream().map(Result::getScore).toList();
+        for (var result : resultsOfParticipation) {
+            result.setScore(0D);
+        }
+        resultRepository.saveAll(resultsOfParticipation);
+
+        var changedExamScores = request.get("/api/courses/" + course.getId() + "/exams/" + exam.getId() + "/scores", HttpStatus.OK, ExamScoresDTO.class);
+        var changedStudentResult = changedExamScores.studentResults().stream().filter(result -> result.userId().equals(studentResult.userId())).findFirst().orElseThrow();
+        assertThat(changedStudentResult.overallPointsAchieved()).isLessThan(studentResult.overallPointsAchieved());
+
+        for (int i = 0; i < resultsOfParticipation.size(); i++) {
+            resultsOfParticipation.get(i).setScore(originalScores.get(i));
+        }
+        resultRepository.saveAll(resultsOfParticipation);
+
+        changedExamScores = request.get("/api/courses/" + course.getId() + "/exams/" + exam.getId() + "/scores", HttpStatus.OK, ExamScoresDTO.class);
+        changedStudentResult = changedExamScores.studentResults().stream().filter(result -> result.userId().equals(studentResult.userId())).findFirst().orElseThrow();
+        assertThat(changedStudentResult.overallPointsAchieved()).isEqualTo(studentResult.overallPointsAchieved());
+
         // check if stats are set correctly for the instructor
         examChecklistDTO = examService.getStatsForChecklist(exam, true);
         assertThat(examChecklistDTO).isNotNull();
@@ -1,6 +1,7 @@
 package de.tum.in.www1.artemis.exam;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
 import static org.springframework.http.HttpStatus.OK;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -38,6 +39,7 @@ import de.tum.in.www1.artemis.domain.exam.ExamUser;
 import de.tum.in.www1.artemis.domain.exam.StudentExam;
 import de.tum.in.www1.artemis.programmingexercise.ProgrammingExerciseTestService;
 import de.tum.in.www1.artemis.repository.*;
+import de.tum.in.www1.artemis.service.util.BulkRegistrationStatus;
 import de.tum.in.www1.artemis.util.LocalRepository;
 import de.tum.in.www1.artemis.web.rest.dto.ExamUserAttendanceCheckDTO;
 import de.tum.in.www1.artemis.web.rest.dto.ExamUserDTO;
@@ -144,6 +146,28 @@ class ExamUserIntegrationTest extends AbstractSpringIntegrationBambooBitbucketJi
         });
     }
 
+    @Test
+    @WithMockUser(username = TEST_PREFIX + "instructor1", roles = "INSTRUCTOR")
+    void testBulkRegistrationOfStudentsForExam() throws Exception {
+        List<ExamUserDTO> examUserDTOs = new ArrayList<>();
+        examUserDTOs.add(new ExamUserDTO(TEST_PREFIX + "student1", "", "", "03756882", "", "", "101", "11", true, true, true, true, ""));
+        examUserDTOs.add(new ExamUserDTO(TEST_PREFIX + "student2", "", "", "03756883", "", "", "102", "12", true, true, true, true, ""));
+        String path = "/api/courses/" + course1.getId() + "/exams/" + exam1.getId() + "/bulk-registration";
+
+        BulkRegistrationStatus<?> initialStatus = request.postWithResponseBody(path, examUserDTOs, BulkRegistrationStatus.class, OK);
+        assertThat(initialStatus.total()).isEqualTo(2);
+        assertThat(initialStatus.finished()).isFalse();
+
+        await().until(() -> request.get(path, OK, BulkRegistrationStatus.class).finished());
+        BulkRegistrationStatus<?> status = request.get(path, OK, BulkRegistrationStatus.class);
+        assertThat(status.failed()).isFalse();
+        assertThat(status.processed()).isEqualTo(2);
+        assertThat(status.notFound()).isEmpty();
+
+        Exam exam = examRepository.findWithExamUsersById(exam1.getId()).orElseThrow();
+        assertThat(exam.getExamUsers()).hasSize(2).extracting(ExamUser::getPlannedRoom).containsExactlyInAnyOrder("101", "102");
+    }
+
     @Test
     @WithMockUser(username = TEST_PREFIX + "instructor1", roles = "INSTRUCTOR")
     void testUploadExamUserImages() throws Exception {
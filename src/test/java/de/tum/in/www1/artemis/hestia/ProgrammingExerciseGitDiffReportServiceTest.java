@@ -2,8 +2,12 @@ package de.tum.in.www1.artemis.hestia;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -16,6 +20,9 @@ import de.tum.in.www1.artemis.domain.ProgrammingExercise;
 import de.tum.in.www1.artemis.domain.hestia.ProgrammingExerciseGitDiffEntry;
 import de.tum.in.www1.artemis.domain.hestia.ProgrammingExerciseGitDiffReport;
 import de.tum.in.www1.artemis.repository.ProgrammingExerciseRepository;
+import de.tum.in.www1.artemis.repository.ProgrammingSubmissionRepository;
+import de.tum.in.www1.artemis.repository.SolutionProgrammingExerciseParticipationRepository;
+import de.tum.in.www1.artemis.repository.TemplateProgrammingExerciseParticipationRepository;
 import de.tum.in.www1.artemis.repository.hestia.ProgrammingExerciseGitDiffReportRepository;
 import de.tum.in.www1.artemis.service.hestia.ProgrammingExerciseGitDiffReportService;
 import de.tum.in.www1.artemis.util.HestiaUtilTestService;
@@ -48,6 +55,15 @@ class ProgrammingExerciseGitDiffReportServiceTest extends AbstractSpringIntegrat
     @Autowired
     private ProgrammingExerciseRepository programmingExerciseRepository;
 
+    @Autowired
+    private ProgrammingSubmissionRepository programmingSubmissionRepository;
+
+    @Autowired
+    private TemplateProgrammingExerciseParticipationRepository templateProgrammingExerciseParticipationRepository;
+
+    @Autowired
+    private SolutionProgrammingExerciseParticipationRepository solutionProgrammingExerciseParticipationRepository;
+
     @BeforeEach
     void initTestCase() {
         database.addUsers(TEST_PREFIX, 1, 1, 1, 1);
@@ -152,6 +168,44 @@ class ProgrammingExerciseGitDiffReportServiceTest extends AbstractSpringIntegrat
         assertThat(report1.getId()).isEqualTo(report2.getId());
     }
 
+    @Test
+    @WithMockUser(username = TEST_PREFIX + "instructor1", roles = "INSTRUCTOR")
+    void updateGitDiffIncrementally() throws Exception {
+        exercise = hestiaUtilTestService.setupTemplate(Map.of("A.java", "a1\na2\n", "B.java", "b1\nb2\n"), exercise, templateRepo);
+        exercise = hestiaUtilTestService.setupSolution(Map.of("A.java", "a1\na2 solved\n", "B.java", "b1 solved\nb2\n"), exercise, solutionRepo);
+        commitAndUpdateSubmission(templateRepo, templateProgrammingExerciseParticipationRepository.findByProgrammingExerciseId(exercise.getId()).orElseThrow().getId());
+        long solutionParticipationId = solutionProgrammingExerciseParticipationRepository.findByProgrammingExerciseId(exercise.getId()).orElseThrow().getId();
+        commitAndUpdateSubmission(solutionRepo, solutionParticipationId);
+        var report1 = reportService.updateReport(exercise);
+        assertThat(report1.getEntries()).hasSize(2);
+        var unchangedEntry = report1.getEntries().stream().filter(entry -> "B.java".equals(entry.getFilePath())).findFirst().orElseThrow();
+
+        // only A.java changes, the entry of B.java must be kept
+        FileUtils.write(solutionRepo.localRepoFile.toPath().resolve("A.java").toFile(), "a1 solved\na2 solved\n", Charset.defaultCharset());
+        commitAndUpdateSubmission(solutionRepo, solutionParticipationId);
+        var report2 = reportService.updateReport(exercise);
+
+        assertThat(report2.getId()).isEqualTo(report1.getId());
+        assertThat(report2.getEntries()).hasSize(2);
+        assertThat(report2.getEntries()).filteredOn(entry -> "B.java".equals(entry.getFilePath())).singleElement().satisfies(entry -> {
+            assertThat(entry.getId()).isEqualTo(unchangedEntry.getId());
+            assertThat(entry.getStartLine()).isEqualTo(1);
+        });
+        assertThat(report2.getEntries()).filteredOn(entry -> "A.java".equals(entry.getFilePath())).singleElement().satisfies(entry -> {
+            assertThat(entry.getPreviousStartLine()).isEqualTo(1);
+            assertThat(entry.getPreviousLineCount()).isEqualTo(2);
+            assertThat(entry.getLineCount()).isEqualTo(2);
+        });
+    }
+
+    private void commitAndUpdateSubmission(LocalRepository repository, long participationId) throws Exception {
+        repository.localGit.add().addFilepattern(".").call();
+        var commit = repository.localGit.commit().setMessage("update").call();
+        var submission = programmingSubmissionRepository.findFirstByParticipationIdOrderBySubmissionDateDesc(participationId).orElseThrow();
+        submission.setCommitHash(commit.getName());
+        programmingSubmissionRepository.save(submission);
+    }
+
     @Test
     @WithMockUser(username = TEST_PREFIX + "instructor1", roles = "INSTRUCTOR")
     void ensureDeletionOfDuplicateReports() {
@@ -1,6 +1,7 @@
 package de.tum.in.www1.artemis.hestia;
 
 import static org.assertj.core.api.Assertions.*;
+import static org.awaitility.Awaitility.await;
 
 import java.util.Map;
 import java.util.Set;
@@ -16,10 +17,14 @@ import de.tum.in.www1.artemis.domain.*;
 import de.tum.in.www1.artemis.domain.enumeration.ProgrammingLanguage;
 import de.tum.in.www1.artemis.domain.hestia.TestwiseCoverageReportEntry;
 import de.tum.in.www1.artemis.repository.*;
+import de.tum.in.www1.artemis.repository.hestia.CoverageFileReportRepository;
 import de.tum.in.www1.artemis.repository.hestia.CoverageReportRepository;
+import de.tum.in.www1.artemis.service.RepositoryService;
+import de.tum.in.www1.artemis.service.connectors.GitService;
 import de.tum.in.www1.artemis.service.hestia.TestwiseCoverageService;
 import de.tum.in.www1.artemis.util.HestiaUtilTestService;
 import de.tum.in.www1.artemis.util.LocalRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 class TestwiseCoverageReportServiceTest extends AbstractSpringIntegrationBambooBitbucketJiraTest {
 
@@ -31,6 +36,15 @@ class TestwiseCoverageReportServiceTest extends AbstractSpringIntegrationBambooB
     @Autowired
     private CoverageReportRepository coverageReportRepository;
 
+    @Autowired
+    private CoverageFileReportRepository coverageFileReportRepository;
+
+    @Autowired
+    private RepositoryService repositoryService;
+
+    @Autowired
+    private GitService gitService;
+
     @Autowired
     private ProgrammingExerciseRepository programmingExerciseRepository;
 
@@ -103,6 +117,38 @@ class TestwiseCoverageReportServiceTest extends AbstractSpringIntegrationBambooB
         checkIfSetContainsEntry(contextFileReport.getTestwiseCoverageEntries(), 1, 10, testCase2);
     }
 
+    @Test
+    @WithMockUser(username = TEST_PREFIX + "instructor1", roles = "INSTRUCTOR")
+    void shouldCreateTestwiseCoverageReportInBackground() {
+        // the service of the test context creates the reports in the calling thread
+        var backgroundTestwiseCoverageService = new TestwiseCoverageService(coverageReportRepository, coverageFileReportRepository, programmingExerciseTestCaseRepository,
+                repositoryService, gitService, new SimpleMeterRegistry(), 1);
+        try {
+            var fileReportsByTestName = TestwiseCoverageTestUtil.generateCoverageFileReportByTestName();
+            backgroundTestwiseCoverageService.createTestwiseCoverageReportInBackground(fileReportsByTestName, programmingExercise, solutionSubmission);
+
+            await().until(() -> coverageReportRepository.existsBySubmissionId(solutionSubmission.getId()));
+            var report = coverageReportRepository.getLatestCoverageReportsForLegalSubmissionsForProgrammingExercise(programmingExercise.getId(), Pageable.ofSize(1)).get(0);
+            assertThat(report.getCoveredLineRatio()).isEqualTo(0.32);
+            // the report is only visible together with its file reports
+            var fullReport = coverageReportRepository.findCoverageReportByIdWithEagerFileReportsAndEntriesElseThrow(report.getId());
+            assertThat(fullReport.getFileReports()).hasSize(2);
+        }
+        finally {
+            backgroundTestwiseCoverageService.shutdown();
+        }
+    }
+
+    @Test
+    @WithMockUser(username = TEST_PREFIX + "instructor1", roles = "INSTRUCTOR")
+    void shouldNotCreateTestwiseCoverageReportTwice() {
+        testwiseCoverageService.createTestwiseCoverageReport(TestwiseCoverageTestUtil.generateCoverageFileReportByTestName(), programmingExercise, solutionSubmission);
+        testwiseCoverageService.createTestwiseCoverageReport(TestwiseCoverageTestUtil.generateCoverageFileReportByTestName(), programmingExercise, solutionSubmission);
+
+        var reports = coverageReportRepository.getLatestCoverageReportsForLegalSubmissionsForProgrammingExercise(programmingExercise.getId(), Pageable.ofSize(10));
+        assertThat(reports).hasSize(1);
+    }
+
     private void checkIfSetContainsEntry(Set<TestwiseCoverageReportEntry> set, Integer startLine, Integer lineCount, ProgrammingExerciseTestCase testCase) {
         assertThat(set).anyMatch(entry -> startLine.equals(entry.getStartLine()) && lineCount.equals(entry.getLineCount()) && testCase.equals(entry.getTestCase()));
     }
@@ -109,6 +109,28 @@ class ConversationIntegrationTest extends AbstractConversationTest {
         conversationRepository.deleteById(channel2.getId());
     }
 
+    @Test
+    @WithMockUser(username = TEST_PREFIX + "instructor1", roles = "INSTRUCTOR")
+    void getConversationsOfUser_shouldReturnUnreadMessagesCount() throws Exception {
+        // given
+        var channel = createChannel(false);
+        addUsersToConversation(channel.getId(), "tutor1");
+        var post1 = this.postInConversation(channel.getId(), "instructor1");
+        var post2 = this.postInConversation(channel.getId(), "instructor1");
+
+        // then
+        var convOfInstructor = request.getList("/api/courses/" + exampleCourseId + "/conversations", HttpStatus.OK, ConversationDTO.class);
+        assertThat(convOfInstructor).filteredOn(conv -> conv.getId().equals(channel.getId())).singleElement().extracting(ConversationDTO::getUnreadMessagesCount).isEqualTo(0L);
+        database.changeUser(testPrefix + "tutor1");
+        var convOfTutor = request.getList("/api/courses/" + exampleCourseId + "/conversations", HttpStatus.OK, ConversationDTO.class);
+        assertThat(convOfTutor).filteredOn(conv -> conv.getId().equals(channel.getId())).singleElement().extracting(ConversationDTO::getUnreadMessagesCount).isEqualTo(2L);
+
+        // cleanup
+        conversationMessageRepository.deleteById(post1.getId());
+        conversationMessageRepository.deleteById(post2.getId());
+        conversationRepository.deleteById(channel.getId());
+    }
+
     @Test
     @WithMockUser(username = TEST_PREFIX + "instructor1", roles = "INSTRUCTOR")
     void switchFavoriteStatus_shouldSwitchFavoriteStatus() throws Exception {
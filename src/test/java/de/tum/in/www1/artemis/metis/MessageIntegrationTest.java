@@ -307,9 +307,7 @@ class MessageIntegrationTest extends AbstractSpringIntegrationBambooBitbucketJir
         Post postToSave = createPostWithOneToOneChat(TEST_PREFIX);
         Post createdPost = request.postWithResponseBody("/api/courses/" + courseId + "/messages", postToSave, Post.class, HttpStatus.CREATED);
 
-        long unreadMessages = oneToOneChatRepository.findByIdWithConversationParticipantsAndUserGroups(createdPost.getConversation().getId()).get().getConversationParticipants()
-                .stream().filter(conversationParticipant -> !Objects.equals(conversationParticipant.getUser().getId(), postToSave.getAuthor().getId())).findAny().orElseThrow()
-                .getUnreadMessagesCount();
+        long unreadMessages = getUnreadMessagesCountOfOtherParticipant(createdPost.getConversation().getId(), postToSave.getAuthor().getId());
         assertThat(unreadMessages).isEqualTo(1L);
     }
 
@@ -334,9 +332,7 @@ class MessageIntegrationTest extends AbstractSpringIntegrationBambooBitbucketJir
                 .andExpect(status().isOk());
 
         SecurityContextHolder.setContext(TestSecurityContextHolder.getContext());
-        long unreadMessages = oneToOneChatRepository.findByIdWithConversationParticipantsAndUserGroups(createdPost1.getConversation().getId()).get().getConversationParticipants()
-                .stream().filter(conversationParticipant -> !Objects.equals(conversationParticipant.getUser().getId(), postToSave1.getAuthor().getId())).findAny().orElseThrow()
-                .getUnreadMessagesCount();
+        long unreadMessages = getUnreadMessagesCountOfOtherParticipant(createdPost1.getConversation().getId(), postToSave1.getAuthor().getId());
 
         assertThat(unreadMessages).isEqualTo(0);
     }
@@ -369,13 +365,19 @@ class MessageIntegrationTest extends AbstractSpringIntegrationBambooBitbucketJir
                 .accept(MediaType.APPLICATION_JSON)).andExpect(status().isOk());
 
         SecurityContextHolder.setContext(TestSecurityContextHolder.getContext());
-        long unreadMessages = oneToOneChatRepository.findByIdWithConversationParticipantsAndUserGroups(createdPost1.getConversation().getId()).get().getConversationParticipants()
-                .stream().filter(conversationParticipant -> !Objects.equals(conversationParticipant.getUser().getId(), postToSave1.getAuthor().getId())).findAny().orElseThrow()
-                .getUnreadMessagesCount();
+        long unreadMessages = getUnreadMessagesCountOfOtherParticipant(createdPost1.getConversation().getId(), postToSave1.getAuthor().getId());
 
         assertThat(unreadMessages).isEqualTo(1);
     }
 
+    private long getUnreadMessagesCountOfOtherParticipant(Long conversationId, Long authorId) {
+        var otherParticipant = oneToOneChatRepository.findByIdWithConversationParticipantsAndUserGroups(conversationId).get().getConversationParticipants().stream()
+                .filter(conversationParticipant -> !Objects.equals(conversationParticipant.getUser().getId(), authorId)).findAny().orElseThrow();
+        var unreadMessagesCounts = conversationParticipantRepository.findUnreadMessagesCountsOfUser(otherParticipant.getUser().getId(), Set.of(conversationId));
+        assertThat(unreadMessagesCounts).hasSize(1);
+        return unreadMessagesCounts.get(0).unreadMessagesCount();
+    }
+
     private Post createPostWithOneToOneChat(String userPrefix) {
         var student1 = userRepository.findOneWithGroupsAndAuthoritiesByLogin(userPrefix + "student1").get();
         var student2 = userRepository.findOneWithGroupsAndAuthoritiesByLogin(userPrefix + "student2").get();
@@ -388,13 +390,13 @@ class MessageIntegrationTest extends AbstractSpringIntegrationBambooBitbucketJir
         var participant1 = new ConversationParticipant();
         participant1.setConversation(chat);
         participant1.setUser(student1);
-        participant1.setUnreadMessagesCount(0L);
+        participant1.setLastReadSequence(0L);
         participant1.setLastRead(ZonedDateTime.now().minusYears(2));
         conversationParticipantRepository.save(participant1);
         var participant2 = new ConversationParticipant();
         participant2.setConversation(chat);
         participant2.setUser(student2);
-        participant2.setUnreadMessagesCount(0L);
+        participant2.setLastReadSequence(0L);
         participant2.setLastRead(ZonedDateTime.now().minusYears(2));
         conversationParticipantRepository.save(participant2);
         chat = oneToOneChatRepository.findByIdWithConversationParticipantsAndUserGroups(chat.getId()).get();
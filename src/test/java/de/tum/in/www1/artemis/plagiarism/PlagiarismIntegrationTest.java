@@ -14,6 +14,7 @@ import org.springframework.security.test.context.support.WithMockUser;
 import de.tum.in.www1.artemis.AbstractSpringIntegrationBambooBitbucketJiraTest;
 import de.tum.in.www1.artemis.domain.Course;
 import de.tum.in.www1.artemis.domain.TextExercise;
+import de.tum.in.www1.artemis.domain.enumeration.SortingOrder;
 import de.tum.in.www1.artemis.domain.plagiarism.PlagiarismCase;
 import de.tum.in.www1.artemis.domain.plagiarism.PlagiarismComparison;
 import de.tum.in.www1.artemis.domain.plagiarism.PlagiarismSubmission;
@@ -61,6 +62,7 @@ class PlagiarismIntegrationTest extends AbstractSpringIntegrationBambooBitbucket
         plagiarismComparison1 = new PlagiarismComparison<>();
         plagiarismComparison1.setPlagiarismResult(textPlagiarismResult);
         plagiarismComparison1.setStatus(CONFIRMED);
+        plagiarismComparison1.setSimilarity(80);
         var plagiarismSubmissionA1 = new PlagiarismSubmission<TextSubmissionElement>();
         plagiarismSubmissionA1.setStudentLogin(TEST_PREFIX + "student1");
         var plagiarismSubmissionB1 = new PlagiarismSubmission<TextSubmissionElement>();
@@ -72,6 +74,7 @@ class PlagiarismIntegrationTest extends AbstractSpringIntegrationBambooBitbucket
         plagiarismComparison2 = new PlagiarismComparison<>();
         plagiarismComparison2.setPlagiarismResult(textPlagiarismResult);
         plagiarismComparison2.setStatus(NONE);
+        plagiarismComparison2.setSimilarity(55);
         var plagiarismSubmissionA2 = new PlagiarismSubmission<TextSubmissionElement>();
         plagiarismSubmissionA2.setStudentLogin(TEST_PREFIX + "student2");
         var plagiarismSubmissionB2 = new PlagiarismSubmission<TextSubmissionElement>();
@@ -166,6 +169,62 @@ class PlagiarismIntegrationTest extends AbstractSpringIntegrationBambooBitbucket
         assertThat(comparison.getSubmissionB().getPlagiarismCase()).isNull();
     }
 
+    @Test
+    @WithMockUser(username = TEST_PREFIX + "tutor1", roles = "TA")
+    void testGetPlagiarismComparisonsOnPage_tutor_forbidden() throws Exception {
+        var path = "/api/exercises/" + textExercise.getId() + "/plagiarism-results/" + textPlagiarismResult.getId() + "/plagiarism-comparisons";
+        request.getSearchResult(path, HttpStatus.FORBIDDEN, PlagiarismComparison.class, database.searchMapping(database.configureSearch("")));
+    }
+
+    @Test
+    @WithMockUser(username = TEST_PREFIX + "editor1", roles = "EDITOR")
+    void testGetPlagiarismComparisonsOnPage() throws Exception {
+        var path = "/api/exercises/" + textExercise.getId() + "/plagiarism-results/" + textPlagiarismResult.getId() + "/plagiarism-comparisons";
+
+        var allComparisons = request.getSearchResult(path, HttpStatus.OK, PlagiarismComparison.class, database.searchMapping(database.configureSearch("")));
+        assertThat(allComparisons.getNumberOfPages()).isEqualTo(1);
+        assertThat(allComparisons.getResultsOnPage()).extracting(PlagiarismComparison::getId).containsExactly(plagiarismComparison1.getId(), plagiarismComparison2.getId());
+        // the matches are only loaded for the split view
+        assertThat(allComparisons.getResultsOnPage()).allMatch(comparison -> comparison.getMatches() == null);
+
+        var comparisonsOfStudent3 = request.getSearchResult(path, HttpStatus.OK, PlagiarismComparison.class,
+                database.searchMapping(database.configureSearch(TEST_PREFIX + "student3")));
+        assertThat(comparisonsOfStudent3.getResultsOnPage()).extracting(PlagiarismComparison::getId).containsExactly(plagiarismComparison2.getId());
+
+        var confirmedSearch = database.searchMapping(database.configureSearch(""));
+        confirmedSearch.add("status", CONFIRMED.name());
+        var confirmedComparisons = request.getSearchResult(path, HttpStatus.OK, PlagiarismComparison.class, confirmedSearch);
+        assertThat(confirmedComparisons.getResultsOnPage()).extracting(PlagiarismComparison::getId).containsExactly(plagiarismComparison1.getId());
+
+        var similaritySearch = database.searchMapping(database.configureSearch(""));
+        similaritySearch.add("minimumSimilarity", "50");
+        similaritySearch.add("maximumSimilarity", "60");
+        var comparisonsInRange = request.getSearchResult(path, HttpStatus.OK, PlagiarismComparison.class, similaritySearch);
+        assertThat(comparisonsInRange.getResultsOnPage()).extracting(PlagiarismComparison::getId).containsExactly(plagiarismComparison2.getId());
+
+        var sortedBySimilarity = database.configureSearch("");
+        sortedBySimilarity.setSortedColumn(PlagiarismComparison.PlagiarismComparisonSearchColumn.SIMILARITY.name());
+        sortedBySimilarity.setSortingOrder(SortingOrder.DESCENDING);
+        sortedBySimilarity.setPageSize(1);
+        var firstPage = request.getSearchResult(path, HttpStatus.OK, PlagiarismComparison.class, database.searchMapping(sortedBySimilarity));
+        assertThat(firstPage.getNumberOfPages()).isEqualTo(2);
+        assertThat(firstPage.getResultsOnPage()).extracting(PlagiarismComparison::getId).containsExactly(plagiarismComparison1.getId());
+    }
+
+    @Test
+    @WithMockUser(username = TEST_PREFIX + "editor1", roles = "EDITOR")
+    void testGetPlagiarismComparisonsOnPage_invalidSearch() throws Exception {
+        var path = "/api/exercises/" + textExercise.getId() + "/plagiarism-results/" + textPlagiarismResult.getId() + "/plagiarism-comparisons";
+
+        var invalidColumn = database.configureSearch("");
+        invalidColumn.setSortedColumn("SUBMISSION_A");
+        request.getSearchResult(path, HttpStatus.BAD_REQUEST, PlagiarismComparison.class, database.searchMapping(invalidColumn));
+
+        var invalidPage = database.configureSearch("");
+        invalidPage.setPage(0);
+        request.getSearchResult(path, HttpStatus.BAD_REQUEST, PlagiarismComparison.class, database.searchMapping(invalidPage));
+    }
+
     @Test
     @WithMockUser(username = TEST_PREFIX + "student1", roles = "USER")
     void testDeletePlagiarismComparisons_student() throws Exception {
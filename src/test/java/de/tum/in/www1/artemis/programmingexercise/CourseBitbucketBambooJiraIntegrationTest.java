@@ -235,6 +235,12 @@ class CourseBitbucketBambooJiraIntegrationTest extends AbstractSpringIntegration
         courseTestService.testGetCoursesWithoutActiveExercises();
     }
 
+    @Test
+    @WithMockUser(username = TEST_PREFIX + "tutor1", roles = "TA")
+    void testGetAllCoursesForDashboardReflectsCourseAndExerciseUpdates() throws Exception {
+        courseTestService.testGetAllCoursesForDashboardReflectsCourseAndExerciseUpdates();
+    }
+
     @Test
     @WithMockUser(username = TEST_PREFIX + "tutor1", roles = "TA")
     void testGetCoursesAccurateTimezoneEvaluation() throws Exception {
@@ -774,6 +780,18 @@ class CourseBitbucketBambooJiraIntegrationTest extends AbstractSpringIntegration
         courseTestService.testAddUsersToCourseGroup(group, registrationNumber1, registrationNumber2, email);
     }
 
+    @Test
+    @WithMockUser(username = TEST_PREFIX + "instructor1", roles = "INSTRUCTOR")
+    void testStartBulkRegistrationWithInvalidCourseGroup() throws Exception {
+        courseTestService.testStartBulkRegistrationWithInvalidCourseGroup();
+    }
+
+    @Test
+    @WithMockUser(username = TEST_PREFIX + "instructor1", roles = "INSTRUCTOR")
+    void testStartBulkRegistrationWhileAnotherRegistrationIsRunning() throws Exception {
+        courseTestService.testStartBulkRegistrationWhileAnotherRegistrationIsRunning();
+    }
+
     @Test
     @WithMockUser(username = "admin", roles = "ADMIN")
     void testCreateInvalidOnlineCourse() throws Exception {
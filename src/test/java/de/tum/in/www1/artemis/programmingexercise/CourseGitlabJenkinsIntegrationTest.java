@@ -399,6 +399,12 @@ class CourseGitlabJenkinsIntegrationTest extends AbstractSpringIntegrationJenkin
         courseTestService.testGetCoursesWithoutActiveExercises();
     }
 
+    @Test
+    @WithMockUser(username = TEST_PREFIX + "tutor1", roles = "TA")
+    void testGetAllCoursesForDashboardReflectsCourseAndExerciseUpdates() throws Exception {
+        courseTestService.testGetAllCoursesForDashboardReflectsCourseAndExerciseUpdates();
+    }
+
     @Test
     @WithMockUser(username = TEST_PREFIX + "tutor1", roles = "TA")
     void testGetCoursesAccurateTimezoneEvaluation() throws Exception {
@@ -885,6 +891,18 @@ class CourseGitlabJenkinsIntegrationTest extends AbstractSpringIntegrationJenkin
         courseTestService.testAddUsersToCourseGroup(group, registrationNumber1, registrationNumber2, email);
     }
 
+    @Test
+    @WithMockUser(username = TEST_PREFIX + "instructor1", roles = "INSTRUCTOR")
+    void testStartBulkRegistrationWithInvalidCourseGroup() throws Exception {
+        courseTestService.testStartBulkRegistrationWithInvalidCourseGroup();
+    }
+
+    @Test
+    @WithMockUser(username = TEST_PREFIX + "instructor1", roles = "INSTRUCTOR")
+    void testStartBulkRegistrationWhileAnotherRegistrationIsRunning() throws Exception {
+        courseTestService.testStartBulkRegistrationWhileAnotherRegistrationIsRunning();
+    }
+
     @Test
     @WithMockUser(username = "admin", roles = "ADMIN")
     void testCreateCourseWithValidStartAndEndDate() throws Exception {
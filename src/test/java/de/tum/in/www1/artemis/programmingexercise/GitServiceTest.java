@@ -5,6 +5,8 @@ import static org.junit.jupiter.params.provider.Arguments.arguments;
 import static org.mockito.Mockito.*;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
@@ -31,7 +33,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import de.tum.in.www1.artemis.AbstractSpringIntegrationBambooBitbucketJiraTest;
 import de.tum.in.www1.artemis.domain.File;
 import de.tum.in.www1.artemis.domain.FileType;
+import de.tum.in.www1.artemis.domain.ProgrammingExercise;
 import de.tum.in.www1.artemis.domain.Repository;
+import de.tum.in.www1.artemis.domain.participation.ProgrammingExerciseStudentParticipation;
+import de.tum.in.www1.artemis.domain.participation.TemplateProgrammingExerciseParticipation;
 import de.tum.in.www1.artemis.util.GitUtilService;
 
 class GitServiceTest extends AbstractSpringIntegrationBambooBitbucketJiraTest {
@@ -288,4 +293,49 @@ class GitServiceTest extends AbstractSpringIntegrationBambooBitbucketJiraTest {
             assertThat(fileContent3).isEqualTo(oldFileContent3);
         });
     }
+
+    @Test
+    void testCheckoutStudentRepositoryWithSharedTemplateObjects() throws Exception {
+        gitUtilService.initRepo(defaultBranch);
+        // the remote repository of the git util service is the template repository, the student repository is based on it
+        Path studentRemotePath = Files.createTempDirectory("studentRemote");
+        Path targetPath = Files.createTempDirectory("repos");
+        try (Git studentRemote = Git.cloneRepository().setURI(gitUtilService.getCompleteRepoPathStringByType(GitUtilService.REPOS.REMOTE))
+                .setDirectory(studentRemotePath.toFile()).call()) {
+            Files.writeString(studentRemotePath.resolve("Student.java"), "class Student {}");
+            studentRemote.add().addFilepattern(".").call();
+            studentRemote.commit().setMessage("student commit").call();
+
+            var templateParticipation = new TemplateProgrammingExerciseParticipation();
+            templateParticipation.setRepositoryUrl(gitUtilService.getRepoUrlByType(GitUtilService.REPOS.REMOTE).toString());
+            var exercise = new ProgrammingExercise();
+            exercise.setTemplateParticipation(templateParticipation);
+            var participation = new ProgrammingExerciseStudentParticipation();
+            participation.setProgrammingExercise(exercise);
+            participation.setRepositoryUrl(studentRemotePath.toUri().toString());
+
+            Repository repository = gitService.getOrCheckoutRepository(participation, targetPath.toString());
+
+            Path alternatesFile = repository.getDirectory().toPath().resolve(Path.of("objects", "info", "alternates"));
+            assertThat(alternatesFile).exists();
+            // the mirror must not be located in the folder of the checked out repositories, e.g. the submissions of a plagiarism check
+            Path templateMirrorPath = Path.of(Files.readString(alternatesFile).trim()).getParent();
+            assertThat(templateMirrorPath).isDirectory();
+            assertThat(templateMirrorPath.startsWith(targetPath.toAbsolutePath())).isFalse();
+            assertThat(repository.getLocalPath().resolve("Student.java")).hasContent("class Student {}");
+            assertThat(repository.getLocalPath().resolve(GitUtilService.FILES.FILE1.toString())).exists();
+
+            // the repository must still be complete without the mirror of the template repository
+            gitService.removeSharedObjects(repository);
+            assertThat(alternatesFile).doesNotExist();
+            FileUtils.deleteDirectory(templateMirrorPath.toFile());
+            try (Git git = Git.open(repository.getLocalPath().toFile())) {
+                assertThat(git.log().call()).hasSize(2);
+            }
+        }
+        finally {
+            FileUtils.deleteQuietly(studentRemotePath.toFile());
+            FileUtils.deleteQuietly(targetPath.toFile());
+        }
+    }
 }
@@ -2,23 +2,34 @@ package de.tum.in.www1.artemis.programmingexercise;
 
 import static de.tum.in.www1.artemis.web.rest.PlantUmlResource.Endpoints.*;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.when;
 
 import java.io.ByteArrayOutputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.util.LinkedMultiValueMap;
 
 import de.tum.in.www1.artemis.AbstractSpringIntegrationBambooBitbucketJiraTest;
+import de.tum.in.www1.artemis.service.PlantUmlService;
+import de.tum.in.www1.artemis.service.ResourceLoaderService;
 import net.sourceforge.plantuml.SourceStringReader;
 import net.sourceforge.plantuml.core.DiagramDescription;
 
@@ -34,6 +45,9 @@ class PlantUmlIntegrationTest extends AbstractSpringIntegrationBambooBitbucketJi
 
     private final byte[] UML_PNG = new byte[] { 3, 4, 2, 1 };
 
+    @Autowired
+    private ResourceLoaderService resourceLoaderService;
+
     @BeforeEach
     void setUp() {
         database.addUsers(TEST_PREFIX, 1, 0, 0, 0);
@@ -80,4 +94,82 @@ class PlantUmlIntegrationTest extends AbstractSpringIntegrationBambooBitbucketJi
         paramMap.setAll(Map.of("plantuml", veryLongString));
         request.get(ROOT + GENERATE_SVG, HttpStatus.INTERNAL_SERVER_ERROR, String.class, paramMap);
     }
+
+    @Test
+    void preRenderDiagrams_rendersDiagramsOfProblemStatementInBothThemes() throws Exception {
+        var cacheManager = new ConcurrentMapCacheManager();
+        // the service of the test context renders the diagrams within the requests, so that the mocked readers are used
+        var plantUmlService = new PlantUmlService(resourceLoaderService, cacheManager, 2);
+        try {
+            plantUmlService.preRenderDiagrams("# Task\n@startuml\nAlice -[#testsColor(testAlice)]> Bob: hello\n@enduml\nImplement it");
+            var svgCache = (ConcurrentMap<?, ?>) cacheManager.getCache("plantUmlSvg").getNativeCache();
+            await().until(() -> svgCache.size() == 2);
+
+            // the diagram without test results is served from the cache
+            var svg = plantUmlService.generateSvg("@startuml\nAlice -[#grey]> Bob: hello\n@enduml", false);
+            assertThat(svgCache.values()).contains(svg);
+            assertThat(svgCache).hasSize(2);
+        }
+        finally {
+            plantUmlService.shutdown();
+        }
+    }
+
+    @Test
+    void generateSvg_concurrentIdenticalRequests_renderOnce() throws Exception {
+        var renders = new AtomicInteger();
+        var releaseRender = new CountDownLatch(1);
+        var cacheManager = new ConcurrentMapCacheManager() {
+
+            @Override
+            protected Cache createConcurrentMapCache(String name) {
+                // never returns a cached diagram, so that only the running render can be reused; the render is blocked until all requests have been started
+                return new ConcurrentMapCache(name) {
+
+                    @Override
+                    public ValueWrapper get(Object key) {
+                        return null;
+                    }
+
+                    @Override
+                    public void put(Object key, Object value) {
+                        renders.incrementAndGet();
+                        try {
+                            releaseRender.await(10, TimeUnit.SECONDS);
+                        }
+                        catch (InterruptedException ex) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                };
+            }
+        };
+        var plantUmlService = new PlantUmlService(resourceLoaderService, cacheManager, 2);
+        var requestExecutor = Executors.newFixedThreadPool(5);
+        try {
+            var requestsStarted = new CountDownLatch(5);
+            List<Future<String>> requests = IntStream.range(0, 5).mapToObj(i -> requestExecutor.submit(() -> {
+                requestsStarted.countDown();
+                return plantUmlService.generateSvg("@startuml\nAlice -> Bob: hello\n@enduml", false);
+            })).toList();
+
+            assertThat(requestsStarted.await(10, TimeUnit.SECONDS)).isTrue();
+            await().until(() -> renders.get() == 1);
+            // give the other requests time to join the running render
+            Thread.sleep(200);
+            releaseRender.countDown();
+
+            var svg = requests.get(0).get(10, TimeUnit.SECONDS);
+            assertThat(svg).isNotEmpty();
+            for (var pendingRequest : requests) {
+                assertThat(pendingRequest.get(10, TimeUnit.SECONDS)).isEqualTo(svg);
+            }
+            assertThat(renders).hasValue(1);
+        }
+        finally {
+            releaseRender.countDown();
+            requestExecutor.shutdownNow();
+            plantUmlService.shutdown();
+        }
+    }
 }
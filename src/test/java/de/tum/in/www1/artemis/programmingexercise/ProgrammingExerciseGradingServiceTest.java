@@ -7,6 +7,7 @@ import static org.mockito.Mockito.verify;
 
 import java.time.ZonedDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -22,6 +23,8 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.test.context.TestSecurityContextHolder;
 import org.springframework.security.test.context.support.WithMockUser;
 
+import com.hazelcast.core.HazelcastInstance;
+
 import de.tum.in.www1.artemis.AbstractSpringIntegrationBambooBitbucketJiraTest;
 import de.tum.in.www1.artemis.domain.*;
 import de.tum.in.www1.artemis.domain.enumeration.AssessmentType;
@@ -35,6 +38,7 @@ import de.tum.in.www1.artemis.domain.participation.SolutionProgrammingExercisePa
 import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
 import de.tum.in.www1.artemis.repository.*;
 import de.tum.in.www1.artemis.service.programming.ProgrammingExerciseGradingService;
+import de.tum.in.www1.artemis.service.util.ProgrammingExerciseReEvaluationStatus;
 import de.tum.in.www1.artemis.service.util.RoundingUtil;
 import de.tum.in.www1.artemis.util.ModelFactory;
 import de.tum.in.www1.artemis.web.rest.ProgrammingExerciseGradingResource;
@@ -76,6 +80,9 @@ abstract class ProgrammingExerciseGradingServiceTest extends AbstractSpringInteg
     @Autowired
     private ProgrammingExerciseGradingService gradingService;
 
+    @Autowired
+    private HazelcastInstance hazelcastInstance;
+
     private ProgrammingExercise programmingExerciseSCAEnabled;
 
     private ProgrammingExercise programmingExercise;
@@ -533,6 +540,43 @@ abstract class ProgrammingExerciseGradingServiceTest extends AbstractSpringInteg
         assertThat(result.getFeedbacks()).anyMatch(feedback -> "test3".equals(feedback.getText()));
     }
 
+    @Test
+    @WithMockUser(username = TEST_PREFIX + "instructor1", roles = "INSTRUCTOR")
+    void shouldReportReEvaluationStatus() throws Exception {
+        programmingExercise = (ProgrammingExercise) database.addMaxScoreAndBonusPointsToExercise(programmingExercise);
+        programmingExercise = database.addTemplateParticipationForProgrammingExercise(programmingExercise);
+        programmingExercise = database.addSolutionParticipationForProgrammingExercise(programmingExercise);
+
+        var testCases = createTestCases(false);
+        createTestParticipations();
+        changeTestCaseWeights(testCases);
+
+        final var endpoint = ProgrammingExerciseGradingResource.RE_EVALUATE.replace("{exerciseId}", programmingExercise.getId().toString());
+        final var updatedResults = request.putWithResponseBody(ROOT + endpoint, "{}", Integer.class, HttpStatus.OK);
+
+        final var statusEndpoint = ProgrammingExerciseGradingResource.RE_EVALUATE_STATUS.replace("{exerciseId}", programmingExercise.getId().toString());
+        final var status = request.get(ROOT + statusEndpoint, HttpStatus.OK, ProgrammingExerciseReEvaluationStatus.class);
+        assertThat(status.finished()).isTrue();
+        assertThat(status.updatedResults()).isEqualTo(updatedResults);
+        assertThat(status.processedParticipations()).isEqualTo(status.overallParticipations());
+    }
+
+    @Test
+    @WithMockUser(username = TEST_PREFIX + "instructor1", roles = "INSTRUCTOR")
+    void shouldRejectReEvaluationWhileAnotherReEvaluationIsRunning() throws Exception {
+        final var reEvaluationLocks = hazelcastInstance.getMap("programmingExerciseReEvaluationLocks");
+        // the lock has to be held by another thread, as the locks are reentrant
+        CompletableFuture.runAsync(() -> reEvaluationLocks.lock(programmingExercise.getId())).join();
+        try {
+            final var endpoint = ProgrammingExerciseGradingResource.RE_EVALUATE.replace("{exerciseId}", programmingExercise.getId().toString());
+            request.put(ROOT + endpoint, "{}", HttpStatus.CONFLICT);
+        }
+        finally {
+            reEvaluationLocks.forceUnlock(programmingExercise.getId());
+        }
+        assertThat(gradingService.getReEvaluationStatus(programmingExercise.getId())).isEmpty();
+    }
+
     @Test
     @WithMockUser(username = TEST_PREFIX + "instructor1", roles = "INSTRUCTOR")
     void shouldReEvaluateScoreOfTheCorrectResults() throws Exception {
@@ -5,6 +5,7 @@ import static de.tum.in.www1.artemis.domain.enumeration.ProgrammingLanguage.C;
 import static de.tum.in.www1.artemis.programmingexercise.ProgrammingSubmissionConstants.*;
 import static de.tum.in.www1.artemis.util.TestConstants.COMMIT_HASH_OBJECT_ID;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
 import static org.mockito.Mockito.*;
 
 import java.time.Duration;
@@ -48,6 +49,8 @@ import de.tum.in.www1.artemis.repository.*;
 import de.tum.in.www1.artemis.service.connectors.bamboo.dto.BambooBuildLogDTO;
 import de.tum.in.www1.artemis.service.connectors.bamboo.dto.BambooBuildResultNotificationDTO;
 import de.tum.in.www1.artemis.service.exam.ExamDateService;
+import de.tum.in.www1.artemis.service.programming.BuildResultQueueService;
+import de.tum.in.www1.artemis.util.ConfigUtil;
 import de.tum.in.www1.artemis.util.ModelFactory;
 
 class ProgrammingSubmissionAndResultBitbucketBambooIntegrationTest extends AbstractSpringIntegrationBambooBitbucketJiraTest {
@@ -103,6 +106,9 @@ class ProgrammingSubmissionAndResultBitbucketBambooIntegrationTest extends Abstr
     @Autowired
     private ProgrammingSubmissionAndResultIntegrationTestService testService;
 
+    @Autowired
+    private BuildResultQueueService buildResultQueueService;
+
     private Long exerciseId;
 
     private Long templateParticipationId;
@@ -338,6 +344,42 @@ class ProgrammingSubmissionAndResultBitbucketBambooIntegrationTest extends Abstr
         assertThat(latestResult.getId()).isEqualTo(results.get(1).getId());
     }
 
+    /**
+     * The CI system sends two build results for the same submission while the build result queue is enabled.
+     * Both are acknowledged right away and processed by the workers in the order in which they were received.
+     */
+    @Test
+    @WithMockUser(username = TEST_PREFIX + "student1", roles = "USER")
+    void shouldProcessQueuedBuildResultsInOrder() throws Throwable {
+        bitbucketRequestMockProvider.mockGetDefaultBranch(defaultBranch, exercise.getProjectKey());
+        doReturn(defaultBranch).when(versionControlService).getOrRetrieveBranchOfExercise(exercise);
+        bitbucketRequestMockProvider.mockGetPushDate(exercise.getProjectKey(), "9b3a9bd71a0d80e5bbc42204c319ed3d1d4f0d6d", ZonedDateTime.now());
+        bitbucketRequestMockProvider.mockDefaultBranch(defaultBranch, exercise.getProjectKey());
+
+        Long participationId = getParticipationIdByType(IntegrationTestParticipationType.STUDENT, 0);
+        var submission = postSubmission(participationId, HttpStatus.OK);
+
+        ConfigUtil.testWithChangedConfig(buildResultQueueService, "enabled", true, () -> {
+            buildResultQueueService.startWorkers();
+            try {
+                postResult(IntegrationTestParticipationType.STUDENT, 0, HttpStatus.OK, false);
+                postResult(IntegrationTestParticipationType.STUDENT, 0, HttpStatus.OK, false);
+
+                await().untilAsserted(() -> assertThat(resultRepository.findByParticipationIdOrderByCompletionDateDesc(participationId)).hasSize(2));
+            }
+            finally {
+                buildResultQueueService.stopWorkers();
+            }
+        });
+
+        assertNoNewSubmissionsAndIsSubmission(participationId, submission);
+        List<Result> results = resultRepository.findByParticipationIdOrderByCompletionDateDesc(participationId);
+        var latestSubmission = submissionRepository.findWithEagerResultsById(submission.getId()).orElseThrow();
+        assertThat(latestSubmission.getResults()).hasSize(2);
+        long lastCreatedResultId = results.stream().mapToLong(Result::getId).max().orElseThrow();
+        assertThat(latestSubmission.getLatestResult().getId()).as("the build result received last is processed last").isEqualTo(lastCreatedResultId);
+    }
+
     /**
      * The student commits, the code change is pushed to the VCS.
      * The VCS notifies Artemis about a new submission - however for an unknown reason this request is sent twice!
@@ -28,6 +28,7 @@ import de.tum.in.www1.artemis.domain.submissionpolicy.SubmissionPenaltyPolicy;
 import de.tum.in.www1.artemis.domain.submissionpolicy.SubmissionPolicy;
 import de.tum.in.www1.artemis.repository.ProgrammingExerciseRepository;
 import de.tum.in.www1.artemis.repository.UserRepository;
+import de.tum.in.www1.artemis.service.connectors.bamboo.dto.BambooBuildResultNotificationDTO;
 import de.tum.in.www1.artemis.service.programming.ProgrammingExerciseGradingService;
 import de.tum.in.www1.artemis.util.ModelFactory;
 
@@ -427,7 +428,10 @@ class SubmissionPolicyIntegrationTest extends AbstractSpringIntegrationBambooBit
         Optional<Result> result = gradingService.processNewProgrammingExerciseResult(participation, resultNotification);
         assertThat(result).isPresent();
         assertThat(result.get().getScore()).isEqualTo(25);
-        result = gradingService.processNewProgrammingExerciseResult(participation, resultNotification);
+        var secondCommit = new BambooBuildResultNotificationDTO.BambooVCSDTO("commit2", repositoryName, ModelFactory.DEFAULT_BRANCH, new ArrayList<>());
+        var secondResultNotification = ModelFactory.generateBambooBuildResult(repositoryName, null, null, null, List.of("test1", "test2", "test3"), List.of(),
+                List.of(secondCommit));
+        result = gradingService.processNewProgrammingExerciseResult(participation, secondResultNotification);
         assertThat(result).isPresent();
         if (type == EnforcePolicyTestType.POLICY_ACTIVE) {
             assertThat(result.get().getScore()).isEqualTo(15);
@@ -439,6 +443,26 @@ class SubmissionPolicyIntegrationTest extends AbstractSpringIntegrationBambooBit
         }
     }
 
+    @Test
+    @WithMockUser(username = TEST_PREFIX + "instructor1", roles = "INSTRUCTOR")
+    void test_enforceSubmissionPenaltyPolicy_sameCommitCountedOnce() throws Exception {
+        programmingExercise.setMaxPoints(10.0);
+        programmingExerciseRepository.save(programmingExercise);
+        addSubmissionPolicyToExercise(SubmissionPolicyBuilder.submissionPenalty().limit(1).penalty(1.0).active(true).policy());
+        ProgrammingExerciseStudentParticipation participation = database.addStudentParticipationForProgrammingExercise(programmingExercise, TEST_PREFIX + "student1");
+        String repositoryName = programmingExercise.getProjectKey().toLowerCase() + "-" + TEST_PREFIX + "student1";
+        var resultNotification = ModelFactory.generateBambooBuildResult(repositoryName, null, null, null, List.of("test1", "test2", "test3"), List.of(), new ArrayList<>());
+        mockBitbucketRequests(participation);
+
+        // the second build of the same commit (e.g. a re-run of the build plan) must not be counted as another submission
+        Optional<Result> result = gradingService.processNewProgrammingExerciseResult(participation, resultNotification);
+        assertThat(result).isPresent();
+        result = gradingService.processNewProgrammingExerciseResult(participation, resultNotification);
+        assertThat(result).isPresent();
+        assertThat(result.get().getScore()).isEqualTo(25);
+        assertThat(result.get().getFeedbacks()).noneMatch(feedback -> feedback.getText().startsWith(SUBMISSION_POLICY_FEEDBACK_IDENTIFIER));
+    }
+
     private void mockBitbucketRequests(ProgrammingExerciseParticipation participation) throws Exception {
         User student = userRepository.getUserByLoginElseThrow(TEST_PREFIX + "student1");
         bitbucketRequestMockProvider.enableMockingOfRequests();
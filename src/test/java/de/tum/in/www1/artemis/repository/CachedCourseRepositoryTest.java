@@ -0,0 +1,88 @@
+package de.tum.in.www1.artemis.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import de.tum.in.www1.artemis.AbstractSpringIntegrationBambooBitbucketJiraTest;
+import de.tum.in.www1.artemis.domain.Course;
+import de.tum.in.www1.artemis.domain.Exercise;
+import de.tum.in.www1.artemis.domain.TeamAssignmentConfig;
+
+class CachedCourseRepositoryTest extends AbstractSpringIntegrationBambooBitbucketJiraTest {
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private ExerciseRepository exerciseRepository;
+
+    private Course course;
+
+    private Exercise exercise;
+
+    @BeforeEach
+    void initTestCase() {
+        course = database.addCourseWithOneReleasedTextExercise();
+        exercise = course.getExercises().iterator().next();
+    }
+
+    @Test
+    void testCachedCourseIsEvictedWhenTheCourseIsUpdated() {
+        assertThat(courseRepository.getCourseWithExercises(course.getId()).getTitle()).isEqualTo(course.getTitle());
+
+        Course courseToUpdate = courseRepository.findByIdElseThrow(course.getId());
+        courseToUpdate.setTitle("Updated course title");
+        courseRepository.save(courseToUpdate);
+
+        assertThat(courseRepository.getCourseWithExercises(course.getId()).getTitle()).isEqualTo("Updated course title");
+    }
+
+    @Test
+    void testCachedCourseIsEvictedWhenAnExerciseIsUpdated() {
+        assertThat(getCachedExercise().getTitle()).isEqualTo(exercise.getTitle());
+
+        Exercise exerciseToUpdate = exerciseRepository.findByIdElseThrow(exercise.getId());
+        exerciseToUpdate.setTitle("Updated exercise title");
+        exerciseRepository.save(exerciseToUpdate);
+
+        assertThat(getCachedExercise().getTitle()).isEqualTo("Updated exercise title");
+    }
+
+    @Test
+    void testCachedCourseIsEvictedWhenTheCategoriesOfAnExerciseChange() {
+        assertThat(getCachedExercise().getCategories()).isEmpty();
+
+        Exercise exerciseToUpdate = exerciseRepository.findByIdWithCategoriesAndTeamAssignmentConfigElseThrow(exercise.getId());
+        exerciseToUpdate.getCategories().add("{\"color\":\"#6ae8ac\",\"category\":\"cached\"}");
+        exerciseRepository.save(exerciseToUpdate);
+
+        assertThat(getCachedExercise().getCategories()).hasSize(1);
+    }
+
+    @Test
+    void testCachedCourseIsEvictedWhenTheTeamAssignmentConfigOfAnExerciseChanges() {
+        Exercise exerciseToUpdate = exerciseRepository.findByIdWithCategoriesAndTeamAssignmentConfigElseThrow(exercise.getId());
+        var teamAssignmentConfig = new TeamAssignmentConfig();
+        teamAssignmentConfig.setExercise(exerciseToUpdate);
+        teamAssignmentConfig.setMinTeamSize(1);
+        teamAssignmentConfig.setMaxTeamSize(5);
+        exerciseToUpdate.setTeamAssignmentConfig(teamAssignmentConfig);
+        exerciseRepository.save(exerciseToUpdate);
+        assertThat(getCachedExercise().getTeamAssignmentConfig().getMaxTeamSize()).isEqualTo(5);
+
+        exerciseToUpdate = exerciseRepository.findByIdWithCategoriesAndTeamAssignmentConfigElseThrow(exercise.getId());
+        exerciseToUpdate.getTeamAssignmentConfig().setMaxTeamSize(10);
+        exerciseRepository.save(exerciseToUpdate);
+
+        assertThat(getCachedExercise().getTeamAssignmentConfig().getMaxTeamSize()).isEqualTo(10);
+    }
+
+    private Exercise getCachedExercise() {
+        var exercises = courseRepository.getCourseWithExercises(course.getId()).getExercises();
+        assertThat(exercises).hasSize(1);
+        return exercises.iterator().next();
+    }
+}
@@ -22,6 +22,7 @@ import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import tech.jhipster.config.JHipsterProperties;
 
@@ -35,13 +36,16 @@ class TokenProviderTest {
 
     private TokenProvider tokenProvider;
 
+    private MeterRegistry meterRegistry;
+
     @BeforeEach
     void setup() {
         JHipsterProperties jHipsterProperties = new JHipsterProperties();
         String base64Secret = "fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8";
         jHipsterProperties.getSecurity().getAuthentication().getJwt().setBase64Secret(base64Secret);
 
-        SecurityMetersService securityMetersService = new SecurityMetersService(new SimpleMeterRegistry());
+        meterRegistry = new SimpleMeterRegistry();
+        SecurityMetersService securityMetersService = new SecurityMetersService(meterRegistry);
 
         tokenProvider = new TokenProvider(jHipsterProperties, securityMetersService);
         key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64Secret));
@@ -97,6 +101,34 @@ class TokenProviderTest {
         assertThat(isTokenValid).isFalse();
     }
 
+    @Test
+    void testValidatedAuthenticationIsCached() {
+        String token = tokenProvider.createToken(createAuthentication(), false);
+
+        Authentication authentication = tokenProvider.getValidatedAuthentication(token);
+        assertThat(authentication).isNotNull();
+        assertThat(authentication.getName()).isEqualTo("anonymous");
+        assertThat(authentication.getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly(Role.ANONYMOUS.getAuthority());
+        assertThat(tokenProvider.validateTokenForAuthority(token)).isTrue();
+        // the cached claims are shared, but every request gets its own authentication
+        Authentication secondAuthentication = tokenProvider.getAuthentication(token);
+        assertThat(secondAuthentication).isNotSameAs(authentication).isEqualTo(authentication);
+        assertThat(secondAuthentication.getPrincipal()).isNotSameAs(authentication.getPrincipal());
+
+        assertThat(meterRegistry.get(SecurityMetersService.TOKEN_CACHE_METER_NAME).tag("result", "miss").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(SecurityMetersService.TOKEN_CACHE_METER_NAME).tag("result", "hit").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get(SecurityMetersService.TOKEN_VERIFICATION_METER_NAME).timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testValidatedAuthenticationIsNullForInvalidTokens() {
+        assertThat(tokenProvider.getValidatedAuthentication(createTokenWithDifferentSignature())).isNull();
+        assertThat(tokenProvider.getValidatedAuthentication("")).isNull();
+        // the signature of an invalid token is verified every time
+        assertThat(tokenProvider.getValidatedAuthentication(createTokenWithDifferentSignature())).isNull();
+        assertThat(meterRegistry.get(SecurityMetersService.TOKEN_CACHE_METER_NAME).tag("result", "hit").counter().count()).isZero();
+    }
+
     @Test
     void testKeyIsSetFromSecretWhenSecretIsNotEmpty() {
         final String secret = "NwskoUmKHZtzGRKJKVjsJF7BtQMMxNWi";
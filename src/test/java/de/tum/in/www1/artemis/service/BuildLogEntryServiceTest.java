@@ -334,6 +334,20 @@ class BuildLogEntryServiceTest extends AbstractSpringIntegrationBambooBitbucketJ
         assertThat(result).isEmpty();
     }
 
+    @Test
+    void filterOutDuplicateLogs() {
+        var logs = convertToBuildLogs("error: cannot find symbol", "symbol: variable sizeX", "error: cannot find symbol", "symbol: variable sizeY", "symbol: variable sizeX");
+        var result = buildLogEntryService.removeUnnecessaryLogsForProgrammingLanguage(logs, ProgrammingLanguage.SWIFT);
+        assertThat(result).extracting(BuildLogEntry::getLog).containsExactly("error: cannot find symbol", "symbol: variable sizeX", "symbol: variable sizeY");
+    }
+
+    @Test
+    void keepDuplicateLogsForC() {
+        var logs = convertToBuildLogs("test failed", "test failed");
+        var result = buildLogEntryService.removeUnnecessaryLogsForProgrammingLanguage(logs, ProgrammingLanguage.C);
+        assertThat(result).extracting(BuildLogEntry::getLog).containsExactly("test failed", "test failed");
+    }
+
     private List<BuildLogEntry> convertToBuildLogs(List<String> content) {
         return convertToBuildLogs(content.stream());
     }
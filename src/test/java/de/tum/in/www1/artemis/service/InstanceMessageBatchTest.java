@@ -0,0 +1,135 @@
+package de.tum.in.www1.artemis.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.topic.ITopic;
+
+import de.tum.in.www1.artemis.repository.*;
+import de.tum.in.www1.artemis.service.messaging.DistributedInstanceMessageSendService;
+import de.tum.in.www1.artemis.service.messaging.InstanceMessage;
+import de.tum.in.www1.artemis.service.messaging.InstanceMessageReceiveService;
+import de.tum.in.www1.artemis.service.messaging.MessageTopic;
+import de.tum.in.www1.artemis.service.scheduled.*;
+import de.tum.in.www1.artemis.service.scheduled.cache.monitoring.ExamMonitoringScheduleService;
+
+/**
+ * Tests the batching of instance messages between {@link DistributedInstanceMessageSendService} and {@link InstanceMessageReceiveService}.
+ */
+class InstanceMessageBatchTest {
+
+    private ITopic<Object> batchTopic;
+
+    private HazelcastInstance hazelcastInstance;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setup() {
+        batchTopic = mock(ITopic.class);
+        hazelcastInstance = mock(HazelcastInstance.class);
+        doReturn(batchTopic).when(hazelcastInstance).getTopic(anyString());
+    }
+
+    @Test
+    void testIdenticalMessagesAreSentOnceInTheOrderOfTheirLatestRequest() {
+        var sendService = new DistributedInstanceMessageSendService(hazelcastInstance);
+        sendService.sendProgrammingExerciseSchedule(1L);
+        sendService.sendProgrammingExerciseScheduleCancel(1L);
+        sendService.sendProgrammingExerciseSchedule(1L);
+        sendService.sendParticipantScoreSchedule(2L, 3L, null);
+        sendService.sendParticipantScoreSchedule(2L, 3L, null);
+
+        var batch = awaitPublishedBatches(1).get(0);
+        assertThat(batch).containsExactly(message(MessageTopic.PROGRAMMING_EXERCISE_SCHEDULE_CANCEL, 1L), message(MessageTopic.PROGRAMMING_EXERCISE_SCHEDULE, 1L),
+                message(MessageTopic.PARTICIPANT_SCORE_SCHEDULE, 2L, 3L, null));
+    }
+
+    @Test
+    void testMessagesArePublishedOnlyAfterTheBatchWindow() throws InterruptedException {
+        var sendService = new DistributedInstanceMessageSendService(hazelcastInstance);
+        sendService.sendProgrammingExerciseSchedule(1L);
+        Thread.sleep(500);
+        sendService.sendProgrammingExerciseSchedule(2L);
+
+        // the second message has not been delayed long enough when the first one is published
+        var batches = awaitPublishedBatches(2);
+        assertThat(batches.get(0)).containsExactly(message(MessageTopic.PROGRAMMING_EXERCISE_SCHEDULE, 1L));
+        assertThat(batches.get(1)).containsExactly(message(MessageTopic.PROGRAMMING_EXERCISE_SCHEDULE, 2L));
+    }
+
+    @Test
+    void testPendingMessagesArePublishedOnShutdown() throws InterruptedException {
+        var sendService = new DistributedInstanceMessageSendService(hazelcastInstance);
+        sendService.sendProgrammingExerciseSchedule(1L);
+        sendService.sendExamMonitoringScheduleCancel(2L);
+
+        sendService.publishPendingMessagesOnShutdown();
+
+        // the messages are published without waiting for the batch window
+        verify(batchTopic).publish(List.of(message(MessageTopic.PROGRAMMING_EXERCISE_SCHEDULE, 1L), message(MessageTopic.EXAM_MONITORING_SCHEDULE_CANCEL, 2L)));
+        // the delayed publication has been discarded
+        Thread.sleep(1500);
+        verify(batchTopic, times(1)).publish(any());
+    }
+
+    @Test
+    void testMessagesSentAfterShutdownArePublishedImmediately() throws InterruptedException {
+        var sendService = new DistributedInstanceMessageSendService(hazelcastInstance);
+        sendService.publishPendingMessagesOnShutdown();
+        verify(batchTopic, never()).publish(any());
+
+        sendService.sendProgrammingExerciseSchedule(1L);
+
+        verify(batchTopic).publish(List.of(message(MessageTopic.PROGRAMMING_EXERCISE_SCHEDULE, 1L)));
+    }
+
+    @Test
+    void testReceivedBatchIsProcessedInOrderWithOnlyTheLatestParticipantScoreAndContinuesAfterFailures() {
+        var examMonitoringScheduleService = mock(ExamMonitoringScheduleService.class);
+        var participantScoreScheduleService = mock(ParticipantScoreScheduleService.class);
+        doThrow(new IllegalStateException("test")).when(examMonitoringScheduleService).cancelExamMonitoringTask(1L);
+        var receiveService = new InstanceMessageReceiveService(mock(ProgrammingExerciseRepository.class), mock(ProgrammingExerciseScheduleService.class),
+                mock(ModelingExerciseRepository.class), mock(ModelingExerciseScheduleService.class), examMonitoringScheduleService, mock(TextExerciseRepository.class),
+                mock(ExerciseRepository.class), Optional.empty(), hazelcastInstance, mock(UserRepository.class), mock(UserScheduleService.class),
+                mock(NotificationScheduleService.class), participantScoreScheduleService);
+
+        receiveService.processMessageBatch(List.of(message(MessageTopic.PARTICIPANT_SCORE_SCHEDULE, 2L, 3L, null), message(MessageTopic.EXAM_MONITORING_SCHEDULE_CANCEL, 1L),
+                message(MessageTopic.PARTICIPANT_SCORE_SCHEDULE, 2L, 4L, null), message(MessageTopic.EXAM_MONITORING_SCHEDULE_CANCEL, 5L),
+                message(MessageTopic.PARTICIPANT_SCORE_SCHEDULE, 2L, 3L, 6L)));
+
+        // the first participant score message for participant 3 is replaced by the last one, all other messages keep their position
+        InOrder inOrder = inOrder(examMonitoringScheduleService, participantScoreScheduleService);
+        inOrder.verify(examMonitoringScheduleService).cancelExamMonitoringTask(1L);
+        inOrder.verify(participantScoreScheduleService).scheduleTask(2L, 4L, null);
+        inOrder.verify(examMonitoringScheduleService).cancelExamMonitoringTask(5L);
+        inOrder.verify(participantScoreScheduleService).scheduleTask(2L, 3L, 6L);
+        verify(participantScoreScheduleService, times(2)).scheduleTask(anyLong(), anyLong(), any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<InstanceMessage>> awaitPublishedBatches(int numberOfBatches) {
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> verify(batchTopic, times(numberOfBatches)).publish(any()));
+        ArgumentCaptor<Object> batchCaptor = ArgumentCaptor.forClass(Object.class);
+        verify(batchTopic, times(numberOfBatches)).publish(batchCaptor.capture());
+        return batchCaptor.getAllValues().stream().map(batch -> (List<InstanceMessage>) batch).toList();
+    }
+
+    private static InstanceMessage message(MessageTopic topic, Long... payload) {
+        return new InstanceMessage(topic, Arrays.asList(payload));
+    }
+}
@@ -1,8 +1,11 @@
 package de.tum.in.www1.artemis.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
+import java.security.Principal;
+import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -17,8 +20,17 @@ import org.springframework.security.test.context.support.WithMockUser;
 import de.tum.in.www1.artemis.AbstractSpringIntegrationBambooBitbucketJiraTest;
 import de.tum.in.www1.artemis.domain.Course;
 import de.tum.in.www1.artemis.domain.modeling.ModelingExercise;
+import de.tum.in.www1.artemis.domain.modeling.ModelingSubmission;
 import de.tum.in.www1.artemis.domain.participation.Participation;
 import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
+import de.tum.in.www1.artemis.repository.ExerciseRepository;
+import de.tum.in.www1.artemis.repository.ModelingSubmissionRepository;
+import de.tum.in.www1.artemis.repository.StudentParticipationRepository;
+import de.tum.in.www1.artemis.util.ModelFactory;
+import de.tum.in.www1.artemis.web.rest.errors.AccessForbiddenException;
+import de.tum.in.www1.artemis.web.websocket.WebsocketError;
+import de.tum.in.www1.artemis.web.websocket.dto.OnlineTeamStudentDTO;
+import de.tum.in.www1.artemis.web.websocket.dto.SubmissionSyncPayload;
 import de.tum.in.www1.artemis.web.websocket.team.ParticipationTeamWebsocketService;
 
 class ParticipationTeamWebsocketServiceTest extends AbstractSpringIntegrationBambooBitbucketJiraTest {
@@ -28,6 +40,17 @@ class ParticipationTeamWebsocketServiceTest extends AbstractSpringIntegrationBam
     @Autowired
     private ParticipationTeamWebsocketService participationTeamWebsocketService;
 
+    @Autowired
+    private ModelingSubmissionRepository modelingSubmissionRepo;
+
+    @Autowired
+    private ExerciseRepository exerciseRepo;
+
+    @Autowired
+    private StudentParticipationRepository studentParticipationRepo;
+
+    private ModelingExercise modelingExercise;
+
     private StudentParticipation participation;
 
     private static String websocketTopic(Participation participation) {
@@ -40,7 +63,7 @@ class ParticipationTeamWebsocketServiceTest extends AbstractSpringIntegrationBam
     void init() {
         database.addUsers(TEST_PREFIX, 3, 0, 0, 0);
         Course course = database.addCourseWithOneModelingExercise();
-        ModelingExercise modelingExercise = database.findModelingExerciseWithTitle(course.getExercises(), "ClassDiagram");
+        modelingExercise = database.findModelingExerciseWithTitle(course.getExercises(), "ClassDiagram");
         participation = database.createAndSaveParticipationForExercise(modelingExercise, TEST_PREFIX + "student1");
 
         closeable = MockitoAnnotations.openMocks(this);
@@ -85,6 +108,89 @@ class ParticipationTeamWebsocketServiceTest extends AbstractSpringIntegrationBam
         assertThat(participationTeamWebsocketService.getDestinationTracker()).as("Correct session was removed.").containsKey(stompHeaderAccessor2.getSessionId());
     }
 
+    @Test
+    @WithMockUser(username = TEST_PREFIX + "student1", roles = "USER")
+    void testOnlineTeamStudentsAreTrackedOnSubscribeAndUnsubscribe() {
+        StompHeaderAccessor stompHeaderAccessor1 = getStompHeaderAccessorMock();
+        StompHeaderAccessor stompHeaderAccessor2 = getStompHeaderAccessorMock();
+        Principal principal = () -> TEST_PREFIX + "student1";
+        when(stompHeaderAccessor1.getUser()).thenReturn(principal);
+        when(stompHeaderAccessor2.getUser()).thenReturn(principal);
+
+        participationTeamWebsocketService.subscribe(participation.getId(), stompHeaderAccessor1);
+        participationTeamWebsocketService.subscribe(participation.getId(), stompHeaderAccessor2);
+        participationTeamWebsocketService.unsubscribe(stompHeaderAccessor1.getSessionId());
+        participationTeamWebsocketService.unsubscribe(stompHeaderAccessor2.getSessionId());
+
+        var onlineStudents = List.of(new OnlineTeamStudentDTO(TEST_PREFIX + "student1", null, null));
+        // the user stays online as long as one of the sessions is subscribed
+        verify(messagingTemplate, times(3)).convertAndSend(websocketTopic(participation), onlineStudents);
+        verify(messagingTemplate, times(1)).convertAndSend(websocketTopic(participation), List.of());
+    }
+
+    @Test
+    @WithMockUser(username = TEST_PREFIX + "student1", roles = "USER")
+    void testSubmissionUpdatesAreSentImmediatelyAndSavedCoalesced() {
+        ModelingSubmission submission = database.addModelingSubmission(modelingExercise, ModelFactory.generateModelingSubmission("{}", false), TEST_PREFIX + "student1");
+        Principal principal = () -> TEST_PREFIX + "student1";
+
+        for (String model : List.of("{\"elements\": {}, \"version\": 1}", "{\"elements\": {}, \"version\": 2}")) {
+            ModelingSubmission update = new ModelingSubmission();
+            update.setId(submission.getId());
+            update.setModel(model);
+            participationTeamWebsocketService.updateModelingSubmission(participation.getId(), update, principal);
+        }
+
+        verify(messagingTemplate, times(2)).convertAndSend(eq(websocketTopic(participation) + "/modeling-submissions"), any(SubmissionSyncPayload.class));
+        assertThat(modelingSubmissionRepo.findById(submission.getId())).get().extracting(ModelingSubmission::getModel).as("Update is not saved right away").isEqualTo("{}");
+
+        participationTeamWebsocketService.savePendingSubmissions();
+        assertThat(modelingSubmissionRepo.findById(submission.getId())).get().extracting(ModelingSubmission::getModel).as("Only the latest update is saved")
+                .isEqualTo("{\"elements\": {}, \"version\": 2}");
+    }
+
+    @Test
+    @WithMockUser(username = TEST_PREFIX + "student1", roles = "USER")
+    void testSubmissionUpdatesAfterDueDateAreNotSent() {
+        ModelingSubmission submission = database.addModelingSubmission(modelingExercise, ModelFactory.generateModelingSubmission("{}", false), TEST_PREFIX + "student1");
+        participation.setInitializationDate(ZonedDateTime.now().minusHours(2));
+        studentParticipationRepo.save(participation);
+        modelingExercise.setDueDate(ZonedDateTime.now().minusHours(1));
+        exerciseRepo.save(modelingExercise);
+        Principal principal = () -> TEST_PREFIX + "student1";
+
+        ModelingSubmission update = new ModelingSubmission();
+        update.setId(submission.getId());
+        update.setModel("{\"elements\": {}, \"version\": 1}");
+        assertThrows(AccessForbiddenException.class, () -> participationTeamWebsocketService.updateModelingSubmission(participation.getId(), update, principal));
+
+        verify(messagingTemplate, never()).convertAndSend(eq(websocketTopic(participation) + "/modeling-submissions"), any(SubmissionSyncPayload.class));
+        participationTeamWebsocketService.savePendingSubmissions();
+        assertThat(modelingSubmissionRepo.findById(submission.getId())).get().extracting(ModelingSubmission::getModel).as("Update is not saved").isEqualTo("{}");
+    }
+
+    @Test
+    @WithMockUser(username = TEST_PREFIX + "student1", roles = "USER")
+    void testFailedSaveOfSubmissionUpdateIsReportedToSender() {
+        ModelingSubmission submission = database.addModelingSubmission(modelingExercise, ModelFactory.generateModelingSubmission("{}", false), TEST_PREFIX + "student1");
+        participation.setInitializationDate(ZonedDateTime.now().minusHours(2));
+        studentParticipationRepo.save(participation);
+        Principal principal = () -> TEST_PREFIX + "student1";
+
+        ModelingSubmission update = new ModelingSubmission();
+        update.setId(submission.getId());
+        update.setModel("{\"elements\": {}, \"version\": 1}");
+        participationTeamWebsocketService.updateModelingSubmission(participation.getId(), update, principal);
+
+        // the due date passes before the update is saved
+        modelingExercise.setDueDate(ZonedDateTime.now().minusMinutes(1));
+        exerciseRepo.save(modelingExercise);
+        participationTeamWebsocketService.savePendingSubmissions();
+
+        verify(messagingTemplate).convertAndSendToUser(eq(TEST_PREFIX + "student1"), eq(websocketTopic(participation) + "/modeling-submissions/errors"), any(WebsocketError.class));
+        assertThat(modelingSubmissionRepo.findById(submission.getId())).get().extracting(ModelingSubmission::getModel).as("Update is not saved").isEqualTo("{}");
+    }
+
     private StompHeaderAccessor getStompHeaderAccessorMock() {
         String fakeSessionId = UUID.randomUUID().toString();
         StompHeaderAccessor stompHeaderAccessor = mock(StompHeaderAccessor.class, RETURNS_MOCKS);
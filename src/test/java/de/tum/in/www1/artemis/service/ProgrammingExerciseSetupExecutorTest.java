@@ -0,0 +1,104 @@
+package de.tum.in.www1.artemis.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import de.tum.in.www1.artemis.service.programming.ProgrammingExerciseSetupExecutor;
+import de.tum.in.www1.artemis.service.programming.ProgrammingExerciseSetupExecutor.SetupJob;
+
+/**
+ * Tests the parallel execution of {@link ProgrammingExerciseSetupExecutor}. The integration tests only use one thread, i.e. they run the jobs in the calling thread.
+ */
+class ProgrammingExerciseSetupExecutorTest {
+
+    private ProgrammingExerciseSetupExecutor setupExecutor;
+
+    @BeforeEach
+    void init() {
+        setupExecutor = new ProgrammingExerciseSetupExecutor(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        setupExecutor.shutdown();
+    }
+
+    @Test
+    void testRunsJobsInParallel() throws Exception {
+        // both jobs only finish if they run at the same time
+        CountDownLatch bothJobsStarted = new CountDownLatch(2);
+        SetupJob<InterruptedException> job = () -> {
+            bothJobsStarted.countDown();
+            assertThat(bothJobsStarted.await(10, TimeUnit.SECONDS)).isTrue();
+        };
+
+        setupExecutor.runAll(job, job);
+
+        assertThat(bothJobsStarted.getCount()).isZero();
+    }
+
+    @Test
+    void testRethrowsFirstCheckedExceptionAfterAllJobsAreFinished() {
+        CountDownLatch failuresThrown = new CountDownLatch(2);
+        AtomicBoolean slowJobFinished = new AtomicBoolean(false);
+        SetupJob<IOException> firstFailingJob = () -> {
+            failuresThrown.countDown();
+            throw new IOException("first");
+        };
+        SetupJob<IOException> secondFailingJob = () -> {
+            failuresThrown.countDown();
+            throw new IOException("second");
+        };
+        SetupJob<IOException> slowJob = () -> {
+            try {
+                // only finishes after both other jobs have failed
+                assertThat(failuresThrown.await(10, TimeUnit.SECONDS)).isTrue();
+                Thread.sleep(100);
+            }
+            catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            slowJobFinished.set(true);
+        };
+
+        assertThatThrownBy(() -> setupExecutor.runAll(List.of(slowJob, firstFailingJob, secondFailingJob))).isExactlyInstanceOf(IOException.class).hasMessage("first");
+        assertThat(slowJobFinished).isTrue();
+    }
+
+    @Test
+    void testRethrowsRuntimeException() {
+        SetupJob<IOException> failingJob = () -> {
+            throw new IllegalStateException("failed");
+        };
+        SetupJob<IOException> job = () -> {
+        };
+
+        assertThatThrownBy(() -> setupExecutor.runAll(job, failingJob)).isExactlyInstanceOf(IllegalStateException.class).hasMessage("failed");
+    }
+
+    @Test
+    void testApplyToAllKeepsTheOrderOfTheItems() throws Exception {
+        List<Integer> items = IntStream.range(0, 20).boxed().toList();
+
+        // the first items take the longest, i.e. they finish last
+        Map<Integer, String> results = setupExecutor.applyToAll(items, item -> {
+            Thread.sleep(5L * (items.size() - item));
+            return "result-" + item;
+        });
+
+        assertThat(results.keySet()).containsExactlyElementsOf(items);
+        assertThat(results.values()).containsExactlyElementsOf(items.stream().map(item -> "result-" + item).toList());
+    }
+}
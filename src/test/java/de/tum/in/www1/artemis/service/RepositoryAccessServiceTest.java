@@ -1,5 +1,6 @@
 package de.tum.in.www1.artemis.service;
 
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -12,9 +13,11 @@ import org.springframework.security.test.context.support.WithMockUser;
 import de.tum.in.www1.artemis.AbstractSpringIntegrationBambooBitbucketJiraTest;
 import de.tum.in.www1.artemis.domain.Course;
 import de.tum.in.www1.artemis.domain.ProgrammingExercise;
+import de.tum.in.www1.artemis.domain.Result;
 import de.tum.in.www1.artemis.domain.User;
 import de.tum.in.www1.artemis.domain.participation.ProgrammingExerciseStudentParticipation;
 import de.tum.in.www1.artemis.domain.submissionpolicy.LockRepositoryPolicy;
+import de.tum.in.www1.artemis.repository.ResultRepository;
 import de.tum.in.www1.artemis.repository.UserRepository;
 import de.tum.in.www1.artemis.web.rest.errors.AccessForbiddenException;
 import de.tum.in.www1.artemis.web.rest.repository.RepositoryActionType;
@@ -29,6 +32,12 @@ class RepositoryAccessServiceTest extends AbstractSpringIntegrationBambooBitbuck
     @Autowired
     private RepositoryAccessService repositoryAccessService;
 
+    @Autowired
+    private ResultService resultService;
+
+    @Autowired
+    private ResultRepository resultRepository;
+
     User student;
 
     Course course;
@@ -60,6 +69,42 @@ class RepositoryAccessServiceTest extends AbstractSpringIntegrationBambooBitbuck
                 () -> repositoryAccessService.checkAccessRepositoryElseThrow(participation, student, programmingExercise, RepositoryActionType.WRITE));
     }
 
+    @Test
+    @WithMockUser(username = TEST_PREFIX + "student1", roles = "STUDENT")
+    void testShouldNotEnforceLockRepositoryPolicyAfterResultWasDeleted() {
+        ProgrammingExerciseStudentParticipation participation = database.addStudentParticipationForProgrammingExercise(programmingExercise, student.getLogin());
+        Result result = database.createSubmissionAndResult(participation, 50, true);
+
+        LockRepositoryPolicy lockRepositoryPolicy = new LockRepositoryPolicy();
+        lockRepositoryPolicy.setActive(true);
+        lockRepositoryPolicy.setSubmissionLimit(1);
+        database.addSubmissionPolicyToExercise(lockRepositoryPolicy, programmingExercise);
+        assertThrows(AccessForbiddenException.class,
+                () -> repositoryAccessService.checkAccessRepositoryElseThrow(participation, student, programmingExercise, RepositoryActionType.WRITE));
+
+        // The submission does not count anymore once its only result has been deleted (e.g. by an instructor).
+        resultService.deleteResult(resultRepository.findByIdWithEagerSubmissionAndFeedbackElseThrow(result.getId()), true);
+        assertDoesNotThrow(() -> repositoryAccessService.checkAccessRepositoryElseThrow(participation, student, programmingExercise, RepositoryActionType.WRITE));
+    }
+
+    @Test
+    @WithMockUser(username = TEST_PREFIX + "student1", roles = "STUDENT")
+    void testShouldCountSubmissionsOfTheSameCommitOnceForLockRepositoryPolicy() {
+        ProgrammingExerciseStudentParticipation participation = database.addStudentParticipationForProgrammingExercise(programmingExercise, student.getLogin());
+        database.addProgrammingSubmissionToResultAndParticipation(new Result().score(20.0), participation, "commit1");
+        database.addProgrammingSubmissionToResultAndParticipation(new Result().score(30.0), participation, "commit1");
+
+        LockRepositoryPolicy lockRepositoryPolicy = new LockRepositoryPolicy();
+        lockRepositoryPolicy.setActive(true);
+        lockRepositoryPolicy.setSubmissionLimit(2);
+        database.addSubmissionPolicyToExercise(lockRepositoryPolicy, programmingExercise);
+        assertDoesNotThrow(() -> repositoryAccessService.checkAccessRepositoryElseThrow(participation, student, programmingExercise, RepositoryActionType.WRITE));
+
+        database.addProgrammingSubmissionToResultAndParticipation(new Result().score(40.0), participation, "commit2");
+        assertThrows(AccessForbiddenException.class,
+                () -> repositoryAccessService.checkAccessRepositoryElseThrow(participation, student, programmingExercise, RepositoryActionType.WRITE));
+    }
+
     @ParameterizedTest(name = "{displayName} [{index}] {argumentsWithNames}")
     @ValueSource(booleans = { true, false })
     // Student should not have access to the tests repository.
@@ -112,6 +112,18 @@ class ResourceLoaderServiceTest extends AbstractSpringIntegrationBambooBitbucket
         assertThat(actualContent.trim()).isEqualTo("classpath");
     }
 
+    @Test
+    void testClassPathResourcesAreReused() {
+        final Path basePath = Path.of("templates", "java");
+        Resource[] resources = resourceLoaderService.getResources(basePath, "*.txt");
+        Resource[] cachedResources = resourceLoaderService.getResources(basePath, "*.txt");
+
+        assertThat(cachedResources).isNotSameAs(resources).containsExactly(resources);
+        // modifying the returned array must not affect later calls
+        resources[0] = null;
+        assertThat(resourceLoaderService.getResources(basePath, "*.txt")).containsExactly(cachedResources);
+    }
+
     @Test
     void testLoadNonExistingResources() {
         Resource[] resources = resourceLoaderService.getResources(Path.of("non", "existing"), "*");
@@ -0,0 +1,164 @@
+package de.tum.in.www1.artemis.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Reads the zip files created by {@link ZipFileService} with java.util.zip, which validates the sizes and checksums of the entries.
+ */
+class ZipFileServiceTest {
+
+    private static final int LARGE_FILE_SIZE = 9 * 1024 * 1024;
+
+    private final ZipFileService zipFileService = new ZipFileService(2);
+
+    private final Random random = new Random(42);
+
+    @TempDir
+    Path tempPath;
+
+    @AfterEach
+    void tearDown() {
+        zipFileService.shutdown();
+    }
+
+    @Test
+    void testSmallFilesAreDeflatedOrStored() throws IOException {
+        Path contentPath = Files.createDirectories(tempPath.resolve("content"));
+        byte[] sourceCode = "class BubbleSort {\n}\n".repeat(100).getBytes(StandardCharsets.UTF_8);
+        byte[] image = randomBytes(10_000);
+        byte[] incompressible = randomBytes(1_000);
+        Files.write(contentPath.resolve("BubbleSort.java"), sourceCode);
+        Files.write(contentPath.resolve("image.png"), image);
+        Files.write(Files.createDirectories(contentPath.resolve("data")).resolve("random.bin"), incompressible);
+
+        Path zipFilePath = zipFileService.createZipFileWithFolderContent(tempPath.resolve("small.zip"), contentPath, null);
+
+        assertThat(readMethods(zipFilePath)).containsOnly(Map.entry("BubbleSort.java", ZipEntry.DEFLATED), Map.entry("image.png", ZipEntry.STORED),
+                Map.entry("data/random.bin", ZipEntry.STORED));
+        assertThat(readContents(zipFilePath)).containsOnlyKeys("BubbleSort.java", "image.png", "data/random.bin").containsEntry("BubbleSort.java", sourceCode)
+                .containsEntry("image.png", image).containsEntry("data/random.bin", incompressible);
+    }
+
+    @Test
+    void testLargeFilesAreStreamed() throws IOException {
+        Path contentPath = Files.createDirectories(tempPath.resolve("content"));
+        byte[] largeSourceCode = "int value = 42;\n".repeat(LARGE_FILE_SIZE / 16 + 1).getBytes(StandardCharsets.UTF_8);
+        byte[] largeArchive = randomBytes(LARGE_FILE_SIZE);
+        Files.write(contentPath.resolve("Large.java"), largeSourceCode);
+        Files.write(contentPath.resolve("repository.zip"), largeArchive);
+
+        Path zipFilePath = zipFileService.createZipFileWithFolderContent(tempPath.resolve("large.zip"), contentPath, null);
+
+        assertThat(readMethods(zipFilePath)).containsOnly(Map.entry("Large.java", ZipEntry.DEFLATED), Map.entry("repository.zip", ZipEntry.STORED));
+        var contents = readContents(zipFilePath);
+        assertThat(contents.get("Large.java")).isEqualTo(largeSourceCode);
+        assertThat(contents.get("repository.zip")).isEqualTo(largeArchive);
+    }
+
+    @Test
+    void testManyFilesKeepTheirOrderAndDuplicatesAreSkipped() throws IOException {
+        var paths = new ArrayList<Path>();
+        for (int i = 0; i < 200; i++) {
+            Path filePath = Files.createDirectories(tempPath.resolve("folder" + i)).resolve("file" + (i % 100) + ".txt");
+            Files.writeString(filePath, "content " + i);
+            paths.add(filePath);
+        }
+
+        Path zipFilePath = tempPath.resolve("many.zip");
+        zipFileService.createZipFile(zipFilePath, paths, false);
+
+        var contents = readContents(zipFilePath);
+        assertThat(contents).hasSize(100);
+        // the first file with a name is kept
+        assertThat(new String(contents.get("file42.txt"), StandardCharsets.UTF_8)).isEqualTo("content 42");
+        try (ZipFile zipFile = new ZipFile(zipFilePath.toFile())) {
+            assertThat(zipFile.stream().map(ZipEntry::getName).toList()).isEqualTo(paths.subList(0, 100).stream().map(path -> path.getFileName().toString()).toList());
+        }
+    }
+
+    @Test
+    void testSingleCompressionThread() throws IOException {
+        var singleThreadZipFileService = new ZipFileService(1);
+        try {
+            var paths = new ArrayList<Path>();
+            for (int i = 0; i < 50; i++) {
+                paths.add(Files.writeString(tempPath.resolve("file" + i + ".txt"), "content " + i));
+            }
+
+            Path zipFilePath = tempPath.resolve("single-thread.zip");
+            singleThreadZipFileService.createZipFile(zipFilePath, paths, false);
+
+            try (ZipFile zipFile = new ZipFile(zipFilePath.toFile())) {
+                assertThat(zipFile.stream().map(ZipEntry::getName).toList()).isEqualTo(paths.stream().map(path -> path.getFileName().toString()).toList());
+            }
+            assertThat(new String(readContents(zipFilePath).get("file49.txt"), StandardCharsets.UTF_8)).isEqualTo("content 49");
+        }
+        finally {
+            singleThreadZipFileService.shutdown();
+        }
+    }
+
+    @Test
+    void testDeletedFilesAreSkipped() throws IOException {
+        Path existingPath = Files.writeString(tempPath.resolve("existing.txt"), "existing");
+        Path deletedPath = tempPath.resolve("deleted.txt");
+
+        Path zipFilePath = tempPath.resolve("deleted.zip");
+        zipFileService.createZipFile(zipFilePath, List.of(existingPath, deletedPath), tempPath);
+
+        assertThat(readContents(zipFilePath)).containsOnlyKeys("existing.txt");
+    }
+
+    private byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+
+    private static Map<String, Integer> readMethods(Path zipFilePath) throws IOException {
+        try (ZipFile zipFile = new ZipFile(zipFilePath.toFile())) {
+            var methods = new HashMap<String, Integer>();
+            zipFile.stream().forEach(entry -> methods.put(entry.getName(), entry.getMethod()));
+            return methods;
+        }
+    }
+
+    /**
+     * Reads the contents with a {@link ZipInputStream}, which throws if the size or checksum of an entry does not match its content
+     *
+     * @param zipFilePath the path of the zip file
+     * @return the contents of the entries by their names
+     */
+    private static Map<String, byte[]> readContents(Path zipFilePath) throws IOException {
+        var contents = new HashMap<String, byte[]>();
+        try (ZipInputStream zipInputStream = new ZipInputStream(Files.newInputStream(zipFilePath))) {
+            ZipEntry entry;
+            while ((entry = zipInputStream.getNextEntry()) != null) {
+                byte[] content = zipInputStream.readAllBytes();
+                CRC32 crc = new CRC32();
+                crc.update(content);
+                assertThat(entry.getCrc()).as("checksum of %s", entry.getName()).isEqualTo(crc.getValue());
+                contents.put(entry.getName(), content);
+            }
+        }
+        return contents;
+    }
+}
@@ -0,0 +1,108 @@
+package de.tum.in.www1.artemis.service.connectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.Mockito.*;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import de.tum.in.www1.artemis.domain.Repository;
+
+class LocalRepositoryCacheTest {
+
+    private static final Path PATH_1 = Path.of("repos", "PROJECT", "project-student1");
+
+    private static final Path PATH_2 = Path.of("repos", "PROJECT", "project-student2");
+
+    private static final Path PATH_3 = Path.of("repos", "PROJECT", "project-student3");
+
+    @Test
+    void testRejectsEmptyCache() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new LocalRepositoryCache(0, Duration.ofMinutes(1)));
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsedRepositoryWhenFull() {
+        LocalRepositoryCache cache = new LocalRepositoryCache(2, Duration.ofMinutes(1));
+        Repository repository1 = mock(Repository.class);
+        Repository repository2 = mock(Repository.class);
+        Repository repository3 = mock(Repository.class);
+
+        cache.put(PATH_1, repository1);
+        cache.put(PATH_2, repository2);
+        // the access makes the second repository the least recently used one
+        assertThat(cache.get(PATH_1)).isSameAs(repository1);
+        cache.put(PATH_3, repository3);
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.contains(PATH_2)).isFalse();
+        assertThat(cache.get(PATH_1)).isSameAs(repository1);
+        assertThat(cache.get(PATH_3)).isSameAs(repository3);
+        verify(repository2).close();
+        verify(repository1, never()).close();
+        verify(repository3, never()).close();
+    }
+
+    @Test
+    void testClosesReplacedRepository() {
+        LocalRepositoryCache cache = new LocalRepositoryCache(2, Duration.ofMinutes(1));
+        Repository repository = mock(Repository.class);
+        Repository newRepository = mock(Repository.class);
+
+        cache.put(PATH_1, repository);
+        // putting the same instance again must not close it
+        cache.put(PATH_1, repository);
+        verify(repository, never()).close();
+
+        cache.put(PATH_1, newRepository);
+        verify(repository).close();
+        assertThat(cache.get(PATH_1)).isSameAs(newRepository);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void testRemoveDoesNotCloseRepository() {
+        LocalRepositoryCache cache = new LocalRepositoryCache(2, Duration.ofMinutes(1));
+        Repository repository = mock(Repository.class);
+
+        cache.put(PATH_1, repository);
+        cache.remove(PATH_1);
+
+        assertThat(cache.contains(PATH_1)).isFalse();
+        assertThat(cache.get(PATH_1)).isNull();
+        verify(repository, never()).close();
+    }
+
+    @Test
+    void testEvictsIdleRepositories() throws InterruptedException {
+        LocalRepositoryCache cache = new LocalRepositoryCache(2, Duration.ofMillis(1));
+        Repository repository1 = mock(Repository.class);
+        Repository repository2 = mock(Repository.class);
+
+        cache.put(PATH_1, repository1);
+        cache.put(PATH_2, repository2);
+        Thread.sleep(10);
+
+        // idle repositories are evicted on access and by the regular eviction
+        assertThat(cache.get(PATH_1)).isNull();
+        verify(repository1).close();
+        assertThat(cache.evictIdleRepositories()).isEqualTo(1);
+        verify(repository2).close();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void testKeepsRepositoriesThatAreInUse() {
+        LocalRepositoryCache cache = new LocalRepositoryCache(2, Duration.ofMinutes(1));
+        Repository repository = mock(Repository.class);
+
+        cache.put(PATH_1, repository);
+
+        assertThat(cache.evictIdleRepositories()).isZero();
+        assertThat(cache.get(PATH_1)).isSameAs(repository);
+        verify(repository, never()).close();
+    }
+}
@@ -108,6 +108,22 @@ class ExamSubmissionServiceTest extends AbstractSpringIntegrationBambooBitbucket
         assertThat(result2).isFalse();
     }
 
+    @Test
+    @WithMockUser(username = TEST_PREFIX + "student1", roles = "USER")
+    void testCheckSubmissionAllowance_workingTimeExtension() {
+        exam.setStartDate(ZonedDateTime.now().minusMinutes(130));
+        examRepository.save(exam);
+        assertThat(examSubmissionService.isAllowedToSubmitDuringExam(exercise, student1, false)).isFalse();
+        // the cached eligibility has to be updated when the working time is extended during the exam
+        studentExam.setWorkingTime(9000);
+        studentExam = studentExamRepository.save(studentExam);
+        assertThat(examSubmissionService.isAllowedToSubmitDuringExam(exercise, student1, false)).isTrue();
+        // and when the student hands in
+        studentExam.setSubmitted(true);
+        studentExamRepository.save(studentExam);
+        assertThat(examSubmissionService.isAllowedToSubmitDuringExam(exercise, student1, false)).isFalse();
+    }
+
     @Test
     @WithMockUser(username = TEST_PREFIX + "student1", roles = "USER")
     void testCheckSubmissionAllowance_allowedToSubmitToExercise() {
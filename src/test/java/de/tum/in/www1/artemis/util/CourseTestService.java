@@ -38,6 +38,7 @@ import org.springframework.util.MultiValueMap;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hazelcast.core.HazelcastInstance;
 
 import de.tum.in.www1.artemis.config.Constants;
 import de.tum.in.www1.artemis.domain.*;
@@ -58,6 +59,7 @@ import de.tum.in.www1.artemis.service.dto.StudentDTO;
 import de.tum.in.www1.artemis.service.dto.UserDTO;
 import de.tum.in.www1.artemis.service.dto.UserPublicInfoDTO;
 import de.tum.in.www1.artemis.service.notifications.GroupNotificationService;
+import de.tum.in.www1.artemis.service.util.BulkRegistrationStatus;
 import de.tum.in.www1.artemis.web.rest.dto.*;
 import de.tum.in.www1.artemis.web.rest.errors.EntityNotFoundException;
 
@@ -142,6 +144,9 @@ public class CourseTestService {
     @Autowired
     private ExamUserRepository examUserRepository;
 
+    @Autowired
+    private HazelcastInstance hazelcastInstance;
+
     private static final int numberOfStudents = 8;
 
     private static final int numberOfTutors = 5;
@@ -818,6 +823,41 @@ public class CourseTestService {
         assertThat(courseInList.getExercises()).as("Course doesn't have any exercises").isEmpty();
     }
 
+    // Test
+    public void testGetAllCoursesForDashboardReflectsCourseAndExerciseUpdates() throws Exception {
+        String suffix = "dashboardcache";
+        adjustUserGroupsToCustomGroups(suffix);
+        Course course = ModelFactory.generateCourse(null, null, null, new HashSet<>(), userPrefix + "student" + suffix, userPrefix + "tutor" + suffix,
+                userPrefix + "editor" + suffix, userPrefix + "instructor" + suffix);
+        course = courseRepo.save(course);
+        final long courseId = course.getId();
+
+        // the first request puts the course structure into the cache
+        List<Course> courses = request.getList("/api/courses/for-dashboard", HttpStatus.OK, Course.class);
+        Course courseInList = courses.stream().filter(c -> c.getId().equals(courseId)).findFirst().orElseThrow();
+        assertThat(courseInList.getExercises()).isEmpty();
+
+        // creating an exercise has to invalidate the cached course structure
+        TextExercise textExercise = exerciseRepo.save(ModelFactory.generateTextExercise(ZonedDateTime.now().minusDays(1), null, null, course));
+        courses = request.getList("/api/courses/for-dashboard", HttpStatus.OK, Course.class);
+        courseInList = courses.stream().filter(c -> c.getId().equals(courseId)).findFirst().orElseThrow();
+        assertThat(courseInList.getExercises()).extracting(Exercise::getId).containsExactly(textExercise.getId());
+
+        // updating the exercise has to invalidate the cached course structure as well
+        textExercise.setTitle("Updated title");
+        exerciseRepo.save(textExercise);
+        courses = request.getList("/api/courses/for-dashboard", HttpStatus.OK, Course.class);
+        courseInList = courses.stream().filter(c -> c.getId().equals(courseId)).findFirst().orElseThrow();
+        assertThat(courseInList.getExercises()).extracting(Exercise::getTitle).containsExactly("Updated title");
+
+        // changing the groups of the course has to invalidate the cached course summaries
+        course.setStudentGroupName(userPrefix + "student" + suffix + "other");
+        course.setTeachingAssistantGroupName(userPrefix + "tutor" + suffix + "other");
+        courseRepo.save(course);
+        courses = request.getList("/api/courses/for-dashboard", HttpStatus.OK, Course.class);
+        assertThat(courses).noneMatch(c -> c.getId().equals(courseId));
+    }
+
     // Test
     public void testGetCoursesAccurateTimezoneEvaluation() throws Exception {
         String suffix = "timezone";
@@ -2505,6 +2545,27 @@ public class CourseTestService {
         assertThat(newStudents).contains(dto1, dto2, dto3);
     }
 
+    // Test
+    public void testStartBulkRegistrationWithInvalidCourseGroup() throws Exception {
+        var course = database.createCoursesWithExercisesAndLectures(userPrefix, false, 5).get(0);
+        StudentDTO dto = new StudentDTO().registrationNumber("1234567");
+        request.post("/api/courses/" + course.getId() + "/bulk-registration/invalid-group", List.of(dto), HttpStatus.BAD_REQUEST);
+    }
+
+    // Test
+    public void testStartBulkRegistrationWhileAnotherRegistrationIsRunning() throws Exception {
+        var course = database.createCoursesWithExercisesAndLectures(userPrefix, false, 5).get(0);
+        String key = "course-" + course.getId() + "-students";
+        hazelcastInstance.getMap(Constants.BULK_REGISTRATION_STATUS).put(key, new BulkRegistrationStatus<StudentDTO>(0, 10, List.of(), false, false, ZonedDateTime.now()));
+        try {
+            StudentDTO dto = new StudentDTO().registrationNumber("1234567");
+            request.post("/api/courses/" + course.getId() + "/bulk-registration/students", List.of(dto), HttpStatus.CONFLICT);
+        }
+        finally {
+            hazelcastInstance.getMap(Constants.BULK_REGISTRATION_STATUS).delete(key);
+        }
+    }
+
     // Test
     public void testCreateCourseWithValidStartAndEndDate() throws Exception {
         Course course = ModelFactory.generateCourse(null, ZonedDateTime.now().minusDays(1), ZonedDateTime.now(), new HashSet<>(), "student", "tutor", "editor", "instructor");
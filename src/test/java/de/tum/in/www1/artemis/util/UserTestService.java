@@ -204,6 +204,19 @@ public class UserTestService {
         }
     }
 
+    // Test
+    public void getUserWithGroupsAndAuthorities_reflectsGroupChanges() {
+        var cachedUser = userRepository.getUserWithGroupsAndAuthorities(student.getLogin());
+        assertThat(cachedUser.getGroups()).doesNotContain("cachedUserGroup");
+
+        var user = userRepository.findOneWithGroupsAndAuthoritiesByLogin(student.getLogin()).orElseThrow();
+        user.getGroups().add("cachedUserGroup");
+        userRepository.save(user);
+
+        cachedUser = userRepository.getUserWithGroupsAndAuthorities(student.getLogin());
+        assertThat(cachedUser.getGroups()).contains("cachedUserGroup");
+    }
+
     // Test
     public void updateUser_asAdmin_isSuccessful() throws Exception {
         student.setInternal(true);
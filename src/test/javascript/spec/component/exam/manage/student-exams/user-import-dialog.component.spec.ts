@@ -1,4 +1,4 @@
-import { HttpClient, HttpResponse } from '@angular/common/http';
+import { HttpClient } from '@angular/common/http';
 import { ComponentFixture, TestBed, fakeAsync, tick } from '@angular/core/testing';
 import { FormsModule } from '@angular/forms';
 import { By } from '@angular/platform-browser';
@@ -20,6 +20,7 @@ import { Router } from '@angular/router';
 import * as fs from 'fs';
 import * as path from 'path';
 import { ExamUserDTO } from 'app/entities/exam-user-dto.model';
+import { BulkRegistrationStatus } from 'app/entities/bulk-registration-status.model';
 
 describe('UsersImportButtonComponent', () => {
     let fixture: ComponentFixture<UsersImportDialogComponent>;
@@ -67,6 +68,8 @@ describe('UsersImportButtonComponent', () => {
         jest.restoreAllMocks();
     });
 
+    const finishedStatus = (notFound: ExamUserDTO[]): BulkRegistrationStatus<ExamUserDTO> => ({ processed: 3, total: 3, notFound, finished: true, failed: false });
+
     it('should reset dialog when selecting csv file', fakeAsync(() => {
         component.usersToImport = [{ registrationNumber: '1', lastName: 'lastName', firstName: 'firstName', login: 'login1', email: 'test@mail' }];
         component.notFoundUsers = [{ registrationNumber: '2', lastName: 'lastName2', firstName: 'firstName2', login: 'login2', email: 'test@mail' }];
@@ -119,18 +122,53 @@ describe('UsersImportButtonComponent', () => {
         ];
         const studentsNotFound: ExamUserDTO[] = [{ registrationNumber: '2', firstName: 'Bob', lastName: 'Ross', login: 'login2', email: 'test@mail' }];
 
-        const fakeResponse = { body: studentsNotFound } as HttpResponse<ExamUserDTO[]>;
-        jest.spyOn(examManagementService, 'addStudentsToExam').mockReturnValue(of(fakeResponse));
+        const fakeStatus = finishedStatus(studentsNotFound);
+        jest.spyOn(examManagementService, 'startBulkRegistration').mockReturnValue(of(fakeStatus));
 
         component.usersToImport = studentsToImport;
         component.importUsers();
 
-        expect(examManagementService.addStudentsToExam).toHaveBeenCalledOnce();
+        expect(examManagementService.startBulkRegistration).toHaveBeenCalledOnce();
         expect(component.isImporting).toBeFalse();
         expect(component.hasImported).toBeTrue();
         expect(component.notFoundUsers).toHaveLength(studentsNotFound.length);
     });
 
+    it('should request the status of the registration until it is finished', fakeAsync(() => {
+        const studentsNotFound: ExamUserDTO[] = [{ registrationNumber: '2', firstName: 'Bob', lastName: 'Ross', login: 'login2', email: 'test@mail' }];
+        const runningStatus: BulkRegistrationStatus<ExamUserDTO> = { processed: 0, total: 3, notFound: [], finished: false, failed: false };
+        jest.spyOn(examManagementService, 'startBulkRegistration').mockReturnValue(of(runningStatus));
+        const getStatusSpy = jest
+            .spyOn(examManagementService, 'getBulkRegistrationStatus')
+            .mockReturnValueOnce(of({ ...runningStatus, processed: 2 }))
+            .mockReturnValueOnce(of(finishedStatus(studentsNotFound)));
+
+        component.importUsers();
+        expect(component.isImporting).toBeTrue();
+
+        tick(1000);
+        expect(getStatusSpy).toHaveBeenCalledOnce();
+        expect(component.registrationStatus?.processed).toBe(2);
+        expect(component.hasImported).toBeFalse();
+
+        tick(1000);
+        expect(getStatusSpy).toHaveBeenCalledTimes(2);
+        expect(component.isImporting).toBeFalse();
+        expect(component.hasImported).toBeTrue();
+        expect(component.notFoundUsers).toEqual(studentsNotFound);
+    }));
+
+    it('should show an error if the registration failed', () => {
+        jest.spyOn(examManagementService, 'startBulkRegistration').mockReturnValue(of({ ...finishedStatus([]), failed: true }));
+        const errorSpy = jest.spyOn(TestBed.inject(AlertService), 'error');
+
+        component.importUsers();
+
+        expect(errorSpy).toHaveBeenCalledOnce();
+        expect(component.isImporting).toBeFalse();
+        expect(component.hasImported).toBeFalse();
+    });
+
     describe('should read students from csv files', () => {
         const testDir = path.join(__dirname, '../../../../util/user-import');
         const testFiles = fs.readdirSync(testDir).filter((testFile) => testFile.localeCompare('UserImportEmailOnlySampleFile.csv') !== 0);
@@ -274,8 +312,8 @@ describe('UsersImportButtonComponent', () => {
         ];
         const notImportedStudents: ExamUserDTO[] = [{ registrationNumber: '3', firstName: 'Some', lastName: 'Dude', login: 'login3', email: '' }];
 
-        const fakeResponse = { body: notImportedStudents } as HttpResponse<ExamUserDTO[]>;
-        jest.spyOn(examManagementService, 'addStudentsToExam').mockReturnValue(of(fakeResponse));
+        const fakeStatus = finishedStatus(notImportedStudents);
+        jest.spyOn(examManagementService, 'startBulkRegistration').mockReturnValue(of(fakeStatus));
 
         component.usersToImport = importedStudents.concat(notImportedStudents);
         component.importUsers();
@@ -293,8 +331,8 @@ describe('UsersImportButtonComponent', () => {
         ];
         const studentsNotFound: ExamUserDTO[] = [{ registrationNumber: '3', firstName: 'Some', lastName: 'Dude', login: 'login3', email: '' }];
 
-        const fakeResponse = { body: studentsNotFound } as HttpResponse<ExamUserDTO[]>;
-        jest.spyOn(examManagementService, 'addStudentsToExam').mockReturnValue(of(fakeResponse));
+        const fakeStatus = finishedStatus(studentsNotFound);
+        jest.spyOn(examManagementService, 'startBulkRegistration').mockReturnValue(of(fakeStatus));
 
         component.usersToImport = studentsToImport;
 
@@ -308,12 +346,12 @@ describe('UsersImportButtonComponent', () => {
 
         importButton.nativeElement.click();
 
-        expect(examManagementService.addStudentsToExam).toHaveBeenCalledOnce();
+        expect(examManagementService.startBulkRegistration).toHaveBeenCalledOnce();
         expect(component.isImporting).toBeFalse();
         expect(component.hasImported).toBeTrue();
         expect(component.notFoundUsers).toHaveLength(studentsNotFound.length);
 
-        jest.spyOn(examManagementService, 'addStudentsToExam').mockReturnValue(of(fakeResponse));
+        jest.spyOn(examManagementService, 'startBulkRegistration').mockReturnValue(of(fakeStatus));
 
         component.hasImported = true;
         fixture.detectChanges();
@@ -322,6 +360,6 @@ describe('UsersImportButtonComponent', () => {
         expect(finishButton).not.toBeNull();
 
         finishButton.nativeElement.click();
-        expect(examManagementService.addStudentsToExam).toHaveBeenCalledOnce();
+        expect(examManagementService.startBulkRegistration).toHaveBeenCalledOnce();
     });
 });
@@ -160,6 +160,20 @@ describe('ExamActionService', () => {
         expect(examActionService.cachedSubmissionsPerStudent).toEqual(new Map([[exam.id!, submittedPerStudent]]));
     });
 
+    it('should ignore actions that have already been received', () => {
+        const action = createActions()[0];
+        action.id = 1;
+        action.timestamp = dayjs();
+        action.examActivityId = 1;
+        const increaseActionByTimestampSpy = jest.spyOn(examActionService, 'increaseActionByTimestamp');
+
+        examActionService.updateCachedActions(exam, [action]);
+        examActionService.updateCachedActions(exam, [action]);
+
+        expect(increaseActionByTimestampSpy).toHaveBeenCalledOnce();
+        expect(examActionService.cachedExamActions.get(exam.id!)).toEqual([action]);
+    });
+
     // increase action by timestamp
     it('should increase action by timestamp', () => {
         const actionsPerTimestamp = new Map();
@@ -277,7 +291,7 @@ describe('ExamActionService', () => {
     it.each(createActions())('should open exam monitoring websocket subscription if not existing', (action: ExamAction) => {
         const topic = EXAM_MONITORING_ACTION_TOPIC(exam.id!);
         const subscribeSpy = jest.spyOn(websocketService, 'subscribe').mockImplementation(() => websocketService);
-        const receiveSpy = jest.spyOn(websocketService, 'receive').mockReturnValue(of(action));
+        const receiveSpy = jest.spyOn(websocketService, 'receive').mockReturnValue(of([action]));
         const updateCachedActionsSpy = jest.spyOn(examActionService, 'updateCachedActions');
 
         examActionService.openExamMonitoringWebsocketSubscriptionIfNotExisting(exam);
@@ -72,22 +72,32 @@ describe('Team Submission Sync Component', () => {
 
     it('ngOnInit should work correctly', () => {
         const expectedWebsocketTopic = '/topic/participations/3/team/text-submissions';
+        const expectedErrorWebsocketTopic = '/user/topic/participations/3/team/text-submissions/errors';
         const submissionSyncObservable = of(submissionSyncPayload);
+        const errorObservable = of({ error: 'artemisApp.team.submissionSync.saveFailed' });
 
         const receiveSubmissionEventEmitter = jest.spyOn(component.receiveSubmission, 'emit');
         const websocketSubscribeSpy = jest.spyOn(websocketService, 'subscribe');
-        const websocketReceiveMock = jest.spyOn(websocketService, 'receive').mockReturnValue(submissionSyncObservable);
+        const websocketReceiveMock = jest
+            .spyOn(websocketService, 'receive')
+            .mockImplementation((topic: string) => (topic === expectedErrorWebsocketTopic ? errorObservable : submissionSyncObservable));
         const websocketSendSpy = jest.spyOn(websocketService, 'send');
+        const alertErrorSpy = jest.spyOn(TestBed.inject(AlertService), 'error');
 
         component.ngOnInit();
 
         expect(component.websocketTopic).toBe(expectedWebsocketTopic);
-        expect(websocketSubscribeSpy).toHaveBeenCalledOnce();
+        expect(component.errorWebsocketTopic).toBe(expectedErrorWebsocketTopic);
+        expect(websocketSubscribeSpy).toHaveBeenCalledTimes(2);
         expect(websocketSubscribeSpy).toHaveBeenCalledWith(expectedWebsocketTopic);
+        expect(websocketSubscribeSpy).toHaveBeenCalledWith(expectedErrorWebsocketTopic);
 
-        // checks for setupReceiver
-        expect(websocketReceiveMock).toHaveBeenCalledOnce();
+        // checks for setupReceiver and setupErrorReceiver
+        expect(websocketReceiveMock).toHaveBeenCalledTimes(2);
         expect(websocketReceiveMock).toHaveBeenCalledWith(expectedWebsocketTopic);
+        expect(websocketReceiveMock).toHaveBeenCalledWith(expectedErrorWebsocketTopic);
+        expect(alertErrorSpy).toHaveBeenCalledOnce();
+        expect(alertErrorSpy).toHaveBeenCalledWith('artemisApp.team.submissionSync.saveFailed');
         expect(receiveSubmissionEventEmitter).toHaveBeenCalledOnce();
         expect(receiveSubmissionEventEmitter).toHaveBeenCalledWith(submissionSyncPayload?.submission);
 
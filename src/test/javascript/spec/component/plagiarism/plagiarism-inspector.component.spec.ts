@@ -31,6 +31,7 @@ import { TextSubmissionElement } from 'app/exercises/shared/plagiarism/types/tex
 import { PlagiarismCasesService } from 'app/course/plagiarism-cases/shared/plagiarism-cases.service';
 import { HttpResponse } from '@angular/common/http';
 import { MockNgbModalService } from '../../helpers/mocks/service/mock-ngb-modal.service';
+import { SearchResult, SortingOrder } from 'app/shared/table/pageable-table';
 
 jest.mock('app/shared/util/download.util', () => ({
     downloadFile: jest.fn(),
@@ -53,6 +54,7 @@ describe('Plagiarism Inspector Component', () => {
     let inspectorService: PlagiarismInspectorService;
     let plagiarismCasesService: PlagiarismCasesService;
     let modalService: NgbModal;
+    let getPlagiarismComparisonsSpy: jest.SpyInstance;
 
     const modelingExercise = { id: 123, type: ExerciseType.MODELING } as ModelingExercise;
     const textExercise = { id: 234, type: ExerciseType.TEXT } as TextExercise;
@@ -121,6 +123,9 @@ describe('Plagiarism Inspector Component', () => {
                 inspectorService = TestBed.inject(PlagiarismInspectorService);
                 plagiarismCasesService = TestBed.inject(PlagiarismCasesService);
                 modalService = TestBed.inject(NgbModal);
+                getPlagiarismComparisonsSpy = jest
+                    .spyOn(plagiarismCasesService, 'getPlagiarismComparisons')
+                    .mockReturnValue(of({ resultsOnPage: comparisons, numberOfPages: 1 } as SearchResult<PlagiarismComparison<any>>));
             });
     });
 
@@ -200,9 +205,52 @@ describe('Plagiarism Inspector Component', () => {
 
     it('should select a comparison at the given index', () => {
         comp.selectedComparisonId = 0;
+        comp.visibleComparisons = comparisons as PlagiarismComparison<TextSubmissionElement>[];
         comp.selectComparisonWithID(1);
 
         expect(comp.selectedComparisonId).toBe(1);
+        expect(comp.selectedComparison).toBe(comparisons.find((comparison) => comparison.id === 1));
+    });
+
+    it('should load the first page of comparisons of a plagiarism result', () => {
+        comp.exercise = textExercise;
+
+        comp.handlePlagiarismResult(textPlagiarismResult);
+
+        expect(getPlagiarismComparisonsSpy).toHaveBeenCalledOnce();
+        expect(getPlagiarismComparisonsSpy).toHaveBeenCalledWith(
+            textExercise.id,
+            textPlagiarismResult.id,
+            { page: 1, pageSize: comp.comparisonsPageSize, searchTerm: '', sortingOrder: SortingOrder.DESCENDING, sortedColumn: 'SIMILARITY' },
+            undefined,
+        );
+        expect(comp.visibleComparisons).toEqual(comparisons);
+        expect(comp.comparisonsPage).toBe(0);
+        expect(comp.numberOfComparisonPages).toBe(1);
+    });
+
+    it('should keep the selected comparison when another page is loaded', () => {
+        comp.exercise = textExercise;
+        comp.plagiarismResult = textPlagiarismResult;
+        comp.visibleComparisons = comparisons as PlagiarismComparison<TextSubmissionElement>[];
+        comp.selectComparisonWithID(2);
+        getPlagiarismComparisonsSpy.mockReturnValue(of({ resultsOnPage: [], numberOfPages: 2 } as SearchResult<PlagiarismComparison<any>>));
+
+        comp.loadComparisons(1);
+
+        expect(getPlagiarismComparisonsSpy).toHaveBeenCalledWith(textExercise.id, textPlagiarismResult.id, expect.objectContaining({ page: 2 }), undefined);
+        expect(comp.comparisonsPage).toBe(1);
+        expect(comp.visibleComparisons).toEqual([]);
+        expect(comp.selectedComparison).toBe(comparisons.find((comparison) => comparison.id === 2));
+    });
+
+    it('should not load comparisons without a plagiarism result', () => {
+        comp.plagiarismResult = undefined;
+
+        comp.loadComparisons(0);
+
+        expect(getPlagiarismComparisonsSpy).not.toHaveBeenCalled();
+        expect(comp.visibleComparisons).toBeUndefined();
     });
 
     it('should download the plagiarism detection results as JSON', () => {
@@ -281,11 +329,15 @@ describe('Plagiarism Inspector Component', () => {
 
     it('should trigger similarity distribution', () => {
         const getLatestPlagiarismResultStub = jest.spyOn(comp, 'getLatestPlagiarismResult').mockImplementation();
-        const resetFilterStub = jest.spyOn(comp, 'resetFilter').mockImplementation();
+        comp.similarityRange = new Range(20, 30);
+        comp.chartFilterApplied = true;
+        comp.sidebarOffset = 5;
 
         comp.showSimilarityDistribution(true);
 
-        expect(resetFilterStub).toHaveBeenCalledOnce();
+        expect(comp.similarityRange).toBeUndefined();
+        expect(comp.chartFilterApplied).toBeFalse();
+        expect(comp.sidebarOffset).toBe(0);
         expect(getLatestPlagiarismResultStub).toHaveBeenCalledOnce();
         expect(comp.showRunDetails).toBeTrue();
     });
@@ -293,38 +345,38 @@ describe('Plagiarism Inspector Component', () => {
     describe('test chart interactivity', () => {
         it('should apply filter and reset it', () => {
             const filterComparisonsMock = jest.spyOn(inspectorService, 'filterComparisons').mockReturnValue([]);
+            getPlagiarismComparisonsSpy.mockReturnValueOnce(of({ resultsOnPage: [], numberOfPages: 0 } as SearchResult<PlagiarismComparison<any>>));
             const range = new Range(20, 30);
+            comp.exercise = textExercise;
             comp.plagiarismResult = textPlagiarismResult;
 
             comp.filterByChart(range);
 
             expect(filterComparisonsMock).toHaveBeenCalledOnce();
             expect(filterComparisonsMock).toHaveBeenCalledWith(range, comparisons);
+            expect(getPlagiarismComparisonsSpy).toHaveBeenLastCalledWith(textExercise.id, textPlagiarismResult.id, expect.objectContaining({ page: 1 }), range);
             expect(comp.visibleComparisons).toEqual([]);
             expect(comp.sidebarOffset).toBe(0);
             expect(comp.chartFilterApplied).toBeTrue();
 
             comp.resetFilter();
 
+            expect(getPlagiarismComparisonsSpy).toHaveBeenLastCalledWith(textExercise.id, textPlagiarismResult.id, expect.objectContaining({ page: 1 }), undefined);
             expect(comp.visibleComparisons).toEqual(comparisons);
             expect(comp.sidebarOffset).toBe(0);
             expect(comp.chartFilterApplied).toBeFalse();
         });
 
-        it('should return the selected comparison', () => {
-            comp.selectedComparisonId = 2;
-            comp.visibleComparisons = comparisons as PlagiarismComparison<TextSubmissionElement>[];
-            const expected = {
-                id: 2,
-                submissionA: { studentLogin: 'student2A' },
-                submissionB: { studentLogin: 'student2B' },
-                similarity: 0.8,
-                status: PlagiarismStatus.NONE,
-            };
+        it('should number the filtered comparisons by their position in the result', () => {
+            const range = new Range(70, 80);
+            jest.spyOn(inspectorService, 'filterComparisons').mockReturnValue([comparisons[2]] as PlagiarismComparison<any>[]);
+            comp.exercise = textExercise;
+            comp.plagiarismResult = textPlagiarismResult;
 
-            const selected = comp.getSelectedComparison();
+            comp.filterByChart(range);
 
-            expect(selected).toEqual(expected);
+            expect(comp.sidebarOffset).toBe(2);
+            expect(comp.similarityRange).toBe(range);
         });
     });
 
@@ -5,8 +5,6 @@ import { MockTranslateService } from '../../helpers/mocks/service/mock-translate
 import { PlagiarismSidebarComponent } from 'app/exercises/shared/plagiarism/plagiarism-sidebar/plagiarism-sidebar.component';
 import { ArtemisTranslatePipe } from 'app/shared/pipes/artemis-translate.pipe';
 import { MockPipe } from 'ng-mocks';
-import { SimpleChange } from '@angular/core';
-import { PlagiarismComparison } from 'app/exercises/shared/plagiarism/types/PlagiarismComparison';
 
 describe('Plagiarism Sidebar Component', () => {
     let comp: PlagiarismSidebarComponent;
@@ -32,19 +30,21 @@ describe('Plagiarism Sidebar Component', () => {
         expect(comp.showRunDetailsChange.emit).toHaveBeenCalledWith(true);
     });
 
-    it('computes the number of pages with multiple comparisons', () => {
-        const numberOfPages = comp.computeNumberOfPages(12);
-        expect(numberOfPages).toBe(1);
-    });
+    it('detects the last page', () => {
+        comp.numberOfPages = 2;
+
+        comp.currentPage = 0;
+        expect(comp.isLastPage()).toBeFalse();
 
-    it('computes the number of pages with 0 comparisons', () => {
-        const numberOfPages = comp.computeNumberOfPages(0);
-        expect(numberOfPages).toBe(0);
+        comp.currentPage = 1;
+        expect(comp.isLastPage()).toBeTrue();
     });
 
-    it('computes the number of pages with one comparison', () => {
-        const numberOfPages = comp.computeNumberOfPages(1);
-        expect(numberOfPages).toBe(0);
+    it('treats a result without pages as last page', () => {
+        comp.currentPage = 0;
+        comp.numberOfPages = 0;
+
+        expect(comp.isLastPage()).toBeTrue();
     });
 
     it('computes the paged index', () => {
@@ -55,60 +55,36 @@ describe('Plagiarism Sidebar Component', () => {
     });
 
     it('pages left', () => {
+        jest.spyOn(comp.pageChange, 'emit');
         comp.currentPage = 2;
         comp.handlePageLeft();
 
-        expect(comp.currentPage).toBe(1);
+        expect(comp.pageChange.emit).toHaveBeenCalledWith(1);
     });
 
     it('does not page left', () => {
+        jest.spyOn(comp.pageChange, 'emit');
         comp.currentPage = 0;
         comp.handlePageLeft();
 
-        expect(comp.currentPage).toBe(0);
+        expect(comp.pageChange.emit).not.toHaveBeenCalled();
     });
 
     it('pages right', () => {
+        jest.spyOn(comp.pageChange, 'emit');
         comp.currentPage = 2;
-        comp.numberOfPages = 3;
+        comp.numberOfPages = 4;
         comp.handlePageRight();
 
-        expect(comp.currentPage).toBe(3);
+        expect(comp.pageChange.emit).toHaveBeenCalledWith(3);
     });
 
     it('does not pages right', () => {
+        jest.spyOn(comp.pageChange, 'emit');
         comp.currentPage = 3;
-        comp.numberOfPages = 3;
+        comp.numberOfPages = 4;
         comp.handlePageRight();
 
-        expect(comp.currentPage).toBe(3);
-    });
-
-    it('should reset pagination on changes', () => {
-        const comparisons = [
-            { id: 1 } as PlagiarismComparison<any>,
-            { id: 2 } as PlagiarismComparison<any>,
-            { id: 3 } as PlagiarismComparison<any>,
-            { id: 4 } as PlagiarismComparison<any>,
-            { id: 5 } as PlagiarismComparison<any>,
-            { id: 6 } as PlagiarismComparison<any>,
-            { id: 7 } as PlagiarismComparison<any>,
-            { id: 8 } as PlagiarismComparison<any>,
-            { id: 9 } as PlagiarismComparison<any>,
-            { id: 10 } as PlagiarismComparison<any>,
-            { id: 11 } as PlagiarismComparison<any>,
-            { id: 12 } as PlagiarismComparison<any>,
-        ];
-        const pagedComparisons = comparisons.slice(0, 10);
-        comp.comparisons = comparisons;
-        comp.ngOnChanges({
-            comparisons: {
-                currentValue: comparisons,
-            } as SimpleChange,
-        });
-
-        expect(comp.currentPage).toBe(0);
-        expect(comp.numberOfPages).toBe(1);
-        expect(comp.pagedComparisons).toEqual(pagedComparisons);
+        expect(comp.pageChange.emit).not.toHaveBeenCalled();
     });
 });
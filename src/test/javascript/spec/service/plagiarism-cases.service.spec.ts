@@ -11,6 +11,8 @@ import { ModelingSubmissionElement } from 'app/exercises/shared/plagiarism/types
 import { PlagiarismCase } from 'app/exercises/shared/plagiarism/types/PlagiarismCase';
 import { PlagiarismSubmission } from 'app/exercises/shared/plagiarism/types/PlagiarismSubmission';
 import { PlagiarismVerdict } from 'app/exercises/shared/plagiarism/types/PlagiarismVerdict';
+import { PageableSearch, SearchResult, SortingOrder } from 'app/shared/table/pageable-table';
+import { Range } from 'app/shared/util/utils';
 
 describe('Plagiarism Cases Service', () => {
     let service: PlagiarismCasesService;
@@ -138,6 +140,26 @@ describe('Plagiarism Cases Service', () => {
         tick();
     }));
 
+    it('should get a page of plagiarism comparisons within a similarity range', fakeAsync(() => {
+        const pageable = { page: 2, pageSize: 50, searchTerm: '', sortingOrder: SortingOrder.DESCENDING, sortedColumn: 'SIMILARITY' } as PageableSearch;
+        let searchResult: SearchResult<PlagiarismComparison<any>> | undefined;
+        service
+            .getPlagiarismComparisons(1, 2, pageable, new Range(40, 50))
+            .pipe(take(1))
+            .subscribe((result) => (searchResult = result));
+
+        const req = httpMock.expectOne({ method: 'GET' });
+        expect(req.request.url).toBe('api/exercises/1/plagiarism-results/2/plagiarism-comparisons');
+        expect(req.request.params.get('page')).toBe('2');
+        expect(req.request.params.get('sortedColumn')).toBe('SIMILARITY');
+        expect(req.request.params.get('minimumSimilarity')).toBe('40');
+        expect(req.request.params.get('maximumSimilarity')).toBe('50');
+        req.flush({ resultsOnPage: [plagiarismComparison1], numberOfPages: 3 });
+        tick();
+
+        expect(searchResult).toEqual({ resultsOnPage: [plagiarismComparison1], numberOfPages: 3 });
+    }));
+
     it('should update plagiarism comparison status', fakeAsync(() => {
         const returnedFromService = {};
         service.updatePlagiarismComparisonStatus(1, 1, PlagiarismStatus.CONFIRMED).pipe(take(1)).subscribe();